@@ -0,0 +1,240 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
+import edu.emory.clir.clearnlp.component.mode.dep.AbstractDEPParser;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPTrainer;
+import edu.emory.clir.clearnlp.component.mode.pos.AbstractPOSTagger;
+import edu.emory.clir.clearnlp.component.mode.pos.POSConfiguration;
+import edu.emory.clir.clearnlp.component.mode.pos.POSTrainer;
+import edu.emory.clir.clearnlp.component.mode.srl.AbstractSRLabeler;
+import edu.emory.clir.clearnlp.component.mode.srl.SRLConfiguration;
+import edu.emory.clir.clearnlp.component.mode.srl.SRLTrainer;
+import edu.emory.clir.clearnlp.component.trainer.AbstractNLPTrainer;
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.reader.TSVReader;
+import edu.emory.clir.clearnlp.util.IOUtils;
+import edu.emory.clir.clearnlp.util.constant.StringConst;
+import edu.emory.clir.clearnlp.util.lang.TLanguage;
+
+/**
+ * Fixed corpora and small models shared by all benchmarks.
+ * The corpora are bundled with the benchmarks (see the {@code benchmark} profile in {@code pom.xml}):
+ * the Penn Treebank sample ({@code wsj_0001.parse.dep}), a PropBank sample ({@code srl.cnlp}), and raw texts ({@code clearnlp.txt}, {@code synthetic.txt}).
+ * The models are trained on these corpora when first requested so that the benchmarks always run against the current model format.
+ * Synthetic data are generated by pseudo-random numbers with fixed seeds so that every run measures the same input.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class BenchmarkData
+{
+	static public final String ROOT = "edu/emory/clir/clearnlp/benchmark/";
+	static public final String CONFIGURATION = "config_train.xml";
+	static public final String WSJ  = "wsj_0001.parse.dep";
+	static public final String SRL  = "srl.cnlp";
+	static public final String TEXT = "clearnlp.txt";
+	static public final String SYNTHETIC_TEXT = "synthetic.txt";
+	static public final long   SEED = 5;
+	
+	static private AbstractPOSTagger pos_tagger;
+	static private AbstractDEPParser dep_parser;
+	static private AbstractSRLabeler sr_labeler;
+	static private byte[] pos_model;
+	static private byte[] dep_model;
+	static private byte[] srl_model;
+	
+//	====================================== Corpora ======================================
+	
+	static public InputStream getInputStream(String name)
+	{
+		return IOUtils.getInputStreamsFromClasspath(ROOT+name);
+	}
+	
+	/** @return the raw text of the specific resource. */
+	static public String getText(String name)
+	{
+		return IOUtils.createBufferedReader(getInputStream(name)).lines().collect(Collectors.joining(StringConst.NEW_LINE));
+	}
+	
+	/** @return the dependency trees of the specific resource. */
+	static public List<DEPTree> getTrees(String name)
+	{
+		TSVReader reader = new TSVReader(0, 1, 2, 3, 4, 5, 6, 7);
+		List<DEPTree> trees = new ArrayList<>();
+		DEPTree tree;
+		
+		reader.open(getInputStream(name));
+		
+		while ((tree = reader.next()) != null)
+			trees.add(tree);
+		
+		reader.close();
+		return trees;
+	}
+	
+	/** @return the dependency trees of all bundled corpora. */
+	static public List<DEPTree> getTrees()
+	{
+		List<DEPTree> trees = getTrees(WSJ);
+		trees.addAll(getTrees(SRL));
+		return trees;
+	}
+	
+	/** @return the word forms of all bundled corpora, used as the vocabulary of synthetic data. */
+	static public List<String> getVocabulary()
+	{
+		List<String> vocab = new ArrayList<>();
+		
+		for (DEPTree tree : getTrees())
+			for (int i=1; i<tree.size(); i++)
+				vocab.add(tree.get(i).getLowerSimplifiedWordForm());
+		
+		Collections.sort(vocab);
+		return vocab;
+	}
+	
+	/** @return a pseudo-random generator with the fixed seed. */
+	static public Random getRandom()
+	{
+		return new Random(SEED);
+	}
+	
+//	====================================== Models ======================================
+	
+	static public synchronized AbstractPOSTagger getPOSTagger()
+	{
+		if (pos_tagger == null)
+		{
+			pos_tagger = NLPUtils.getPOSTagger(TLanguage.ENGLISH, toObjectInputStream(getPOSModel()));
+			pos_tagger.freezeFeatureMaps();
+		}
+		
+		return pos_tagger;
+	}
+	
+	/** @return a new part-of-speech tagger with the specific beam size using frozen feature maps; the model is trained once. */
+	static public synchronized AbstractPOSTagger getPOSTagger(int beamSize)
+	{
+		POSConfiguration configuration = new POSConfiguration(getInputStream(CONFIGURATION));
+		configuration.setBeamSize(beamSize);
+		AbstractPOSTagger tagger = NLPUtils.getPOSTagger(TLanguage.ENGLISH, toObjectInputStream(getPOSModel()));
+		tagger.setConfiguration(configuration);
+		tagger.freezeFeatureMaps();
+		return tagger;
+	}
+	
+	static private byte[] getPOSModel()
+	{
+		if (pos_model == null)
+			pos_model = train(new POSTrainer(getInputStream(CONFIGURATION), new InputStream[]{getInputStream("feature_pos.xml")}), WSJ, SRL);
+		
+		return pos_model;
+	}
+	
+	/** @return the dependency parser whose beam size is 1 using frozen feature maps. */
+	static public synchronized AbstractDEPParser getDEPParser()
+	{
+		if (dep_parser == null) dep_parser = getDEPParser(1, false);
+		return dep_parser;
+	}
+	
+	/**
+	 * @return a new dependency parser with the specific beam size; the model is trained once.
+	 * @param hash if {@code true}, hashes features directly into feature indices; otherwise, freezes the feature maps.
+	 */
+	static public synchronized AbstractDEPParser getDEPParser(int beamSize, boolean hash)
+	{
+		DEPConfiguration configuration = new DEPConfiguration(getInputStream(CONFIGURATION));
+		configuration.setBeamSize(beamSize);
+		AbstractDEPParser parser = NLPUtils.getDEPParser(TLanguage.ENGLISH, toObjectInputStream(getDEPModel()), configuration);
+		if (hash) parser.initHashFeatures();
+		else      parser.freezeFeatureMaps();
+		return parser;
+	}
+	
+	static private byte[] getDEPModel()
+	{
+		if (dep_model == null)
+			dep_model = train(new DEPTrainer(getInputStream(CONFIGURATION), new InputStream[]{getInputStream("feature_dep.xml")}), WSJ, SRL);
+		
+		return dep_model;
+	}
+	
+	static public synchronized AbstractSRLabeler getSRLabeler()
+	{
+		if (sr_labeler == null) sr_labeler = getSRLabeler(1);
+		return sr_labeler;
+	}
+	
+	/** @return a new semantic role labeler that decodes the predicates of each sentence by the specific number of threads; the model is trained once. */
+	static public synchronized AbstractSRLabeler getSRLabeler(int predicateThreads)
+	{
+		SRLConfiguration configuration = new SRLConfiguration(getInputStream(CONFIGURATION));
+		configuration.setPredicateThreads(predicateThreads);
+		AbstractSRLabeler labeler = NLPUtils.getSRLabeler(TLanguage.ENGLISH, toObjectInputStream(getSRLModel()), configuration);
+		labeler.freezeFeatureMaps();
+		return labeler;
+	}
+	
+	static private byte[] getSRLModel()
+	{
+		if (srl_model == null)
+			srl_model = train(new SRLTrainer(getInputStream(CONFIGURATION), new InputStream[]{getInputStream("feature_srl.xml")}), SRL);
+		
+		return srl_model;
+	}
+	
+	/** @return the models trained on the specific corpora, saved by {@link AbstractStatisticalComponent#toByteArray()}. */
+	static private byte[] train(AbstractNLPTrainer trainer, String... corpora)
+	{
+		try
+		{
+			List<String> files = new ArrayList<>();
+			File file;
+			
+			for (String corpus : corpora)
+			{
+				file = File.createTempFile(corpus, ".cnlp");
+				file.deleteOnExit();
+				Files.copy(getInputStream(corpus), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				files.add(file.getAbsolutePath());
+			}
+			
+			return trainer.train(files, files).o.toByteArray();
+		}
+		catch (Exception e) {throw new IllegalStateException(e);}
+	}
+	
+	static private ObjectInputStream toObjectInputStream(byte[] model)
+	{
+		return IOUtils.createObjectXZBufferedInputStream(new ByteArrayInputStream(model));
+	}
+}
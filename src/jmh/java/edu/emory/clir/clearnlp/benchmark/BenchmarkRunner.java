@@ -0,0 +1,63 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import org.kohsuke.args4j.Option;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.emory.clir.clearnlp.util.BinUtils;
+
+/**
+ * Runs the benchmarks with the GC profiler so that both the throughput and the allocation rate ({@code gc.alloc.rate.norm}: bytes per operation) of each component are reported.
+ * The results are saved in JSON so that they can be compared across versions.
+ * Any other JMH option is available by running {@code org.openjdk.jmh.Main} instead (e.g., {@code java -jar target/benchmarks.jar -prof gc}).
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class BenchmarkRunner
+{
+	@Option(name="-include", usage="regular expression of benchmarks to run (default: .*Benchmark)", required=false, metaVar="<string>")
+	private String s_include = ".*Benchmark";
+	@Option(name="-o", usage="output file in JSON (default: clearnlp-benchmarks.json)", required=false, metaVar="<filepath>")
+	private String s_outputFile = "clearnlp-benchmarks.json";
+	
+	public BenchmarkRunner(String[] args) throws Exception
+	{
+		BinUtils.initArgs(args, this);
+		
+		Options options = new OptionsBuilder()
+			.include(s_include)
+			.addProfiler(GCProfiler.class)
+			.resultFormat(ResultFormatType.JSON)
+			.result(s_outputFile)
+			.build();
+		
+		new Runner(options).run();
+	}
+	
+	static public void main(String[] args)
+	{
+		try
+		{
+			new BenchmarkRunner(args);
+		}
+		catch (Exception e) {e.printStackTrace();}
+	}
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.clir.clearnlp.component.mode.dep.AbstractDEPParser;
+import edu.emory.clir.clearnlp.component.mode.pos.AbstractPOSTagger;
+import edu.emory.clir.clearnlp.component.mode.srl.AbstractSRLabeler;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+
+/**
+ * Measures part-of-speech tagging (greedy and beam search using {@code TagBeam}), dependency parsing (greedy and beam search using {@code DEPStateBeam}),
+ * and semantic role labeling of the bundled corpora; each operation decodes all sentences once.
+ * Long sentences of {@code tokens} tokens are made by concatenating the bundled sentences.
+ * Semantic role labeling decodes the predicates of each sentence by {@code threads} threads.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark
+{
+	@State(Scope.Benchmark)
+	public static class POSData
+	{
+		@Param({"1", "4"})
+		public int beamSize;
+		
+		private AbstractPOSTagger c_tagger;
+		private List<DEPTree>     d_trees;
+		
+		@Setup
+		public void setup()
+		{
+			c_tagger = BenchmarkData.getPOSTagger(beamSize);
+			d_trees  = BenchmarkData.getTrees();
+		}
+	}
+	
+	@State(Scope.Benchmark)
+	public static class DEPData
+	{
+		@Param({"1", "4", "8"})
+		public int beamSize;
+		@Param({"false", "true"})
+		public boolean hash;
+		
+		private AbstractDEPParser c_parser;
+		private List<DEPTree>     d_trees;
+		
+		@Setup
+		public void setup()
+		{
+			c_parser = BenchmarkData.getDEPParser(beamSize, hash);
+			d_trees  = BenchmarkData.getTrees();
+		}
+	}
+	
+	@State(Scope.Benchmark)
+	public static class LongDEPData
+	{
+		@Param({"100", "200"})
+		public int tokens;
+		@Param({"1", "8"})
+		public int beamSize;
+		
+		private AbstractDEPParser c_parser;
+		private List<DEPTree>     d_trees;
+		
+		@Setup
+		public void setup()
+		{
+			c_parser = BenchmarkData.getDEPParser(beamSize, false);
+			d_trees  = getLongTrees(tokens);
+		}
+	}
+	
+	@State(Scope.Benchmark)
+	public static class SRLData
+	{
+		@Param({"1", "4"})
+		public int threads;
+		
+		private AbstractSRLabeler c_labeler;
+		private List<DEPTree>     d_trees;
+		
+		@Setup
+		public void setup()
+		{
+			c_labeler = BenchmarkData.getSRLabeler(threads);
+			d_trees   = BenchmarkData.getTrees(BenchmarkData.SRL);
+		}
+	}
+	
+	/** Long sentences with many predicates, whose dependency trees are parsed once. */
+	@State(Scope.Benchmark)
+	public static class LongSRLData
+	{
+		@Param({"100", "200"})
+		public int tokens;
+		@Param({"1", "4"})
+		public int threads;
+		
+		private AbstractSRLabeler c_labeler;
+		private List<DEPTree>     d_trees;
+		
+		@Setup
+		public void setup()
+		{
+			AbstractDEPParser parser = BenchmarkData.getDEPParser();
+			c_labeler = BenchmarkData.getSRLabeler(threads);
+			d_trees   = getLongTrees(tokens);
+			
+			for (DEPTree tree : d_trees)
+			{
+				tree.clearDependencies();
+				parser.process(tree);
+			}
+		}
+	}
+	
+	/** @return 10 sentences of at least the specific number of tokens made by concatenating the bundled sentences. */
+	static private List<DEPTree> getLongTrees(int tokens)
+	{
+		List<DEPTree> trees = BenchmarkData.getTrees(), longTrees = new ArrayList<>();
+		List<DEPNode> nodes = new ArrayList<>();
+		DEPTree tree;
+		int i, j;
+		
+		for (i=0; longTrees.size() < 10; i++)
+		{
+			tree = trees.get(i % trees.size());
+			
+			for (j=1; j<tree.size(); j++)
+				nodes.add(new DEPNode(tree.get(j)));
+			
+			if (nodes.size() >= tokens)
+			{
+				tree = new DEPTree(nodes);
+				tree.resetNodeIDs();
+				longTrees.add(tree);
+				nodes = new ArrayList<>();
+			}
+		}
+		
+		return longTrees;
+	}
+	
+	@Benchmark
+	public List<DEPTree> pos(POSData data)
+	{
+		for (DEPTree tree : data.d_trees)
+			data.c_tagger.process(tree);
+		
+		return data.d_trees;
+	}
+	
+	@Benchmark
+	public List<DEPTree> dep(DEPData data)
+	{
+		for (DEPTree tree : data.d_trees)
+		{
+			tree.clearDependencies();
+			data.c_parser.process(tree);
+		}
+		
+		return data.d_trees;
+	}
+	
+	@Benchmark
+	public List<DEPTree> depLong(LongDEPData data)
+	{
+		for (DEPTree tree : data.d_trees)
+		{
+			tree.clearDependencies();
+			data.c_parser.process(tree);
+		}
+		
+		return data.d_trees;
+	}
+	
+	@Benchmark
+	public List<DEPTree> srl(SRLData data)
+	{
+		for (DEPTree tree : data.d_trees)
+		{
+			tree.clearSemanticHeads();
+			data.c_labeler.process(tree);
+		}
+		
+		return data.d_trees;
+	}
+	
+	@Benchmark
+	public List<DEPTree> srlLong(LongSRLData data)
+	{
+		for (DEPTree tree : data.d_trees)
+		{
+			tree.clearSemanticHeads();
+			data.c_labeler.process(tree);
+		}
+		
+		return data.d_trees;
+	}
+}
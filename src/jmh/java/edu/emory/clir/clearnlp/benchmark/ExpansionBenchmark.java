@@ -0,0 +1,76 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.clir.clearnlp.classification.vector.MultiWeightVector;
+
+/**
+ * Measures {@link MultiWeightVector#expand(int, int)} when new labels are added to a trained model,
+ * as done when bootstrapping or online training discovers new labels.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpansionBenchmark
+{
+	@Param({"50"})
+	public int labelSize;
+	@Param({"10000", "100000", "1000000"})
+	public int featureSize;
+	
+	private MultiWeightVector w_vector;
+	
+	@Setup(Level.Invocation)
+	public void setup()
+	{
+		w_vector = new MultiWeightVector();
+		w_vector.expand(labelSize, featureSize);
+	}
+	
+	@Benchmark
+	public MultiWeightVector expandLabels()
+	{
+		w_vector.expand(labelSize + 1, featureSize);
+		return w_vector;
+	}
+	
+	@Benchmark
+	public MultiWeightVector expandLabelsAndFeatures()
+	{
+		w_vector.expand(labelSize + 1, featureSize + featureSize / 10);
+		return w_vector;
+	}
+}
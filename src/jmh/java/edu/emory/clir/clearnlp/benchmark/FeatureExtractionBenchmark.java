@@ -0,0 +1,200 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.emory.clir.clearnlp.classification.map.HashFeatureMap;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPFeatureExtractor;
+import edu.emory.clir.clearnlp.component.mode.dep.state.AbstractDEPState;
+import edu.emory.clir.clearnlp.component.mode.dep.state.DEPStateGreedy;
+import edu.emory.clir.clearnlp.component.mode.pos.AbstractPOSTagger;
+import edu.emory.clir.clearnlp.component.mode.pos.POSFeatureExtractor;
+import edu.emory.clir.clearnlp.component.mode.pos.POSLexicon;
+import edu.emory.clir.clearnlp.component.mode.pos.POSState;
+import edu.emory.clir.clearnlp.component.mode.srl.SRLConfiguration;
+import edu.emory.clir.clearnlp.component.mode.srl.SRLFeatureExtractor;
+import edu.emory.clir.clearnlp.component.mode.srl.state.AbstractSRLState;
+import edu.emory.clir.clearnlp.component.mode.srl.state.EnglishSRLState;
+import edu.emory.clir.clearnlp.component.utils.CFlag;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.feature.AbstractFeatureExtractor;
+
+/**
+ * Measures {@link AbstractFeatureExtractor#createStringFeatureVector(edu.emory.clir.clearnlp.component.state.AbstractState)}
+ * and its hashed counterpart for every gold transition of dependency parsing on the bundled corpora,
+ * and the string features of part-of-speech tagging for every token, with all templates and with the lexical templates only
+ * (word-forms, shapes, affixes, and orthographic features) that read the same nodes repeatedly,
+ * and the string features of semantic role labeling for every argument candidate, with all templates and with the dependency path templates only.
+ * The memo of each tree (see {@link DEPTree#getFeatureCache()}) is cleared before the tree is processed, as if every sentence were new.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureExtractionBenchmark
+{
+	private DEPFeatureExtractor f_extractor;
+	private DEPConfiguration    t_configuration;
+	private HashFeatureMap      m_features;
+	private List<DEPTree>       d_trees;
+	private POSFeatureExtractor p_extractor;
+	private POSFeatureExtractor p_lexical;
+	private POSLexicon          p_lexicon;
+	private SRLFeatureExtractor s_extractor;
+	private SRLFeatureExtractor s_path;
+	private SRLConfiguration    s_configuration;
+	private List<DEPTree>       s_trees;
+	
+	@Setup
+	public void setup()
+	{
+		f_extractor     = new DEPFeatureExtractor(BenchmarkData.getInputStream("feature_dep.xml"));
+		t_configuration = new DEPConfiguration(BenchmarkData.getInputStream(BenchmarkData.CONFIGURATION));
+		d_trees         = BenchmarkData.getTrees();
+		m_features      = BenchmarkData.getDEPParser(1, true).getModels()[0].getHashFeatureMap();
+		
+		AbstractPOSTagger tagger = BenchmarkData.getPOSTagger();
+		p_extractor = tagger.getFeatureExtractors()[0];
+		p_lexicon   = (POSLexicon)tagger.getLexicons();
+		p_lexical   = new POSFeatureExtractor(BenchmarkData.getInputStream("feature_pos_lexical.xml"));
+		
+		s_extractor     = BenchmarkData.getSRLabeler().getFeatureExtractors()[0];
+		s_path          = new SRLFeatureExtractor(BenchmarkData.getInputStream("feature_srl_path.xml"));
+		s_configuration = new SRLConfiguration(BenchmarkData.getInputStream(BenchmarkData.CONFIGURATION));
+		s_trees         = BenchmarkData.getTrees(BenchmarkData.SRL);
+	}
+	
+	@Benchmark
+	public void stringFeatures(Blackhole bh)
+	{
+		AbstractDEPState state;
+		
+		for (DEPTree tree : d_trees)
+		{
+			tree.clearFeatureCache();
+			state = new DEPStateGreedy(tree, CFlag.EVALUATE, t_configuration);
+			
+			while (!state.isTerminate())
+			{
+				bh.consume(f_extractor.createStringFeatureVector(state));
+				state.next(state.getGoldLabel());
+			}
+			
+			state.resetOracle();
+		}
+	}
+	
+	@Benchmark
+	public void hashFeatures(Blackhole bh)
+	{
+		AbstractDEPState state;
+		
+		for (DEPTree tree : d_trees)
+		{
+			tree.clearFeatureCache();
+			state = new DEPStateGreedy(tree, CFlag.EVALUATE, t_configuration);
+			
+			while (!state.isTerminate())
+			{
+				bh.consume(f_extractor.createSparseFeatureVector(state, m_features));
+				state.next(state.getGoldLabel());
+			}
+			
+			state.resetOracle();
+		}
+	}
+	
+	@Benchmark
+	public void posFeatures(Blackhole bh)
+	{
+		posFeatures(bh, p_extractor);
+	}
+	
+	@Benchmark
+	public void posLexicalFeatures(Blackhole bh)
+	{
+		posFeatures(bh, p_lexical);
+	}
+	
+	private void posFeatures(Blackhole bh, POSFeatureExtractor extractor)
+	{
+		POSState state;
+		
+		for (DEPTree tree : d_trees)
+		{
+			tree.clearFeatureCache();
+			state = new POSState(tree, CFlag.EVALUATE, p_lexicon);
+			
+			while (!state.isTerminate())
+			{
+				bh.consume(extractor.createStringFeatureVector(state));
+				state.next(state.getGoldLabel());
+			}
+			
+			state.resetOracle();
+		}
+	}
+	
+	@Benchmark
+	public void srlFeatures(Blackhole bh)
+	{
+		srlFeatures(bh, s_extractor);
+	}
+	
+	@Benchmark
+	public void srlPathFeatures(Blackhole bh)
+	{
+		srlFeatures(bh, s_path);
+	}
+	
+	private void srlFeatures(Blackhole bh, SRLFeatureExtractor extractor)
+	{
+		AbstractSRLState state;
+		
+		for (DEPTree tree : s_trees)
+		{
+			tree.clearFeatureCache();
+			state = new EnglishSRLState(tree, CFlag.EVALUATE, s_configuration);
+			
+			while (!state.isTerminate())
+			{
+				bh.consume(extractor.createStringFeatureVector(state));
+				state.next(state.getGoldLabel());
+			}
+			
+			state.resetOracle();
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPFeatureExtractor;
+import edu.emory.clir.clearnlp.component.mode.dep.state.AbstractDEPState;
+import edu.emory.clir.clearnlp.component.mode.dep.state.DEPStateGreedy;
+import edu.emory.clir.clearnlp.component.utils.CFlag;
+import edu.emory.clir.clearnlp.component.utils.DistributionalSemantics;
+import edu.emory.clir.clearnlp.component.utils.GlobalLexica;
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * Measures the distributional semantics features ({@code dsw}, {@code dsls}) of dependency parsing for every gold transition on the bundled corpora,
+ * and loading the distributional semantics as a serialized map (.xz) and as {@link DistributionalSemantics}.
+ * The distributional semantics are synthetic Brown clusters whose features are prefixes of a random bit string per word.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexicaBenchmark
+{
+	static private final int[] PREFIX_LENGTHS = {4, 6, 10, 20};
+	
+	@Param({"300000"})
+	public int vocabularySize;
+	
+	private DEPFeatureExtractor f_extractor;
+	private DEPConfiguration    t_configuration;
+	private List<DEPTree>       d_trees;
+	private byte[] b_serialized;
+	private byte[] b_binary;
+	
+	@Setup
+	public void setup() throws IOException
+	{
+		HashMap<String,Set<String>> map = createBrownClusters();
+		
+		f_extractor     = new DEPFeatureExtractor(BenchmarkData.getInputStream("feature_dep_ds.xml"));
+		t_configuration = new DEPConfiguration(BenchmarkData.getInputStream(BenchmarkData.CONFIGURATION));
+		d_trees         = BenchmarkData.getTrees();
+		
+		DistributionalSemantics ds = new DistributionalSemantics(map);
+		GlobalLexica.setDistributionalSemanticsWords(Collections.singletonList(ds));
+		initBytes(map, ds);
+	}
+	
+	private HashMap<String,Set<String>> createBrownClusters()
+	{
+		HashMap<String,Set<String>> map = new HashMap<>();
+		Random rand = BenchmarkData.getRandom();
+		
+		for (DEPTree tree : BenchmarkData.getTrees())
+		{
+			for (DEPNode node : tree)
+			{
+				map.computeIfAbsent(node.getWordForm(), k -> createCluster(rand));
+				map.computeIfAbsent(node.getLowerSimplifiedWordForm(), k -> createCluster(rand));
+			}
+		}
+		
+		while (map.size() < vocabularySize)
+			map.put("w"+map.size(), createCluster(rand));
+		
+		return map;
+	}
+	
+	/** @return the prefixes of a random path of the binary tree of 1000 clusters. */
+	private Set<String> createCluster(Random rand)
+	{
+		String path = Integer.toBinaryString(1000 + rand.nextInt(1000)) + Integer.toBinaryString(1 << 10 | rand.nextInt(1 << 10));
+		Set<String> set = new HashSet<>();
+		
+		for (int length : PREFIX_LENGTHS)
+			set.add(path.substring(0, Math.min(length, path.length())));
+		
+		return set;
+	}
+	
+	private void initBytes(HashMap<String,Set<String>> map, DistributionalSemantics ds) throws IOException
+	{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		ObjectOutputStream oout = IOUtils.createObjectXZBufferedOutputStream(bout);
+		oout.writeObject(map);
+		oout.close();
+		b_serialized = bout.toByteArray();
+		
+		bout = new ByteArrayOutputStream();
+		DataOutputStream dout = new DataOutputStream(new BufferedOutputStream(bout));
+		ds.save(dout);
+		dout.close();
+		b_binary = bout.toByteArray();
+	}
+	
+	@Benchmark
+	public void features(Blackhole bh)
+	{
+		AbstractDEPState state;
+		
+		for (DEPTree tree : d_trees)
+		{
+			tree.clearFeatureCache();
+			state = new DEPStateGreedy(tree, CFlag.EVALUATE, t_configuration);
+			
+			while (!state.isTerminate())
+			{
+				bh.consume(f_extractor.createStringFeatureVector(state));
+				state.next(state.getGoldLabel());
+			}
+			
+			state.resetOracle();
+		}
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object loadSerialized() throws Exception
+	{
+		return NLPUtils.getDistributionalSemantics(IOUtils.createObjectXZBufferedInputStream(new ByteArrayInputStream(b_serialized)));
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object loadBinary() throws Exception
+	{
+		return NLPUtils.getDistributionalSemantics(ByteBuffer.wrap(b_binary));
+	}
+}
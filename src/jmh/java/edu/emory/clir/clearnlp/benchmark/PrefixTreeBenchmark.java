@@ -0,0 +1,169 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.emory.clir.clearnlp.collection.tree.FrozenPrefixTree;
+import edu.emory.clir.clearnlp.collection.tree.PrefixTree;
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.ner.NERInfoSet;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * Measures the named entity gazetteer lookup ({@link PrefixTree#getAll(Object[], int, java.util.function.Function, boolean, boolean)})
+ * the same way as {@code NERState}, using a synthetic gazetteer whose entries are n-grams of the bundled corpora and of random words,
+ * and loading the gazetteer as a serialized {@link PrefixTree} (.xz) and as a {@link FrozenPrefixTree}.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixTreeBenchmark
+{
+	static private final String[] CATEGORIES = {"PERSON", "ORG", "GPE", "LOC", "PRODUCT", "EVENT"};
+	static private final int MAX_NGRAM = 4;
+	
+	@Param({"100000"})
+	public int dictionarySize;
+	
+	private PrefixTree<String,NERInfoSet> p_dictionary;
+	private FrozenPrefixTree<NERInfoSet> f_dictionary;
+	private byte[] b_serialized;
+	private byte[] b_frozen;
+	private DEPNode[][] d_nodes;
+	
+	@Setup
+	public void setup() throws IOException
+	{
+		List<DEPTree> trees = BenchmarkData.getTrees();
+		List<String> vocab = BenchmarkData.getVocabulary();
+		Random rand = BenchmarkData.getRandom();
+		int i, j, n, begin;
+		String[] keys;
+		DEPTree tree;
+		
+		p_dictionary = new PrefixTree<>();
+		d_nodes = new DEPNode[trees.size()][];
+		
+		for (i=0; i<d_nodes.length; i++)
+			d_nodes[i] = trees.get(i).toNodeArray();
+		
+		for (i=0; i<dictionarySize; i++)
+		{
+			n = 1 + rand.nextInt(MAX_NGRAM);
+			
+			if (i % 2 == 0)	// n-grams of the corpora
+			{
+				tree  = trees.get(rand.nextInt(trees.size()));
+				n     = Math.min(n, tree.size() - 1);
+				keys  = new String[n];
+				begin = 1 + rand.nextInt(tree.size() - n);
+				for (j=0; j<n; j++) keys[j] = tree.get(begin+j).getLowerSimplifiedWordForm();
+			}
+			else			// random words
+			{
+				keys = new String[n];
+				for (j=0; j<n; j++) keys[j] = (j == 0) ? "w"+rand.nextInt(dictionarySize) : vocab.get(rand.nextInt(vocab.size()));
+			}
+			
+			p_dictionary.set(keys, createInfoSet(rand), String::toString);
+		}
+		
+		f_dictionary = new FrozenPrefixTree<>(p_dictionary);
+		initBytes();
+	}
+	
+	private void initBytes() throws IOException
+	{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		ObjectOutputStream oout = IOUtils.createObjectXZBufferedOutputStream(bout);
+		oout.writeObject(p_dictionary);
+		oout.close();
+		b_serialized = bout.toByteArray();
+		
+		bout = new ByteArrayOutputStream();
+		DataOutputStream dout = new DataOutputStream(new BufferedOutputStream(bout));
+		f_dictionary.save(dout, NERInfoSet::write);
+		dout.close();
+		b_frozen = bout.toByteArray();
+	}
+	
+	private NERInfoSet createInfoSet(Random rand)
+	{
+		NERInfoSet set = new NERInfoSet();
+		set.addCategory(CATEGORIES[rand.nextInt(CATEGORIES.length)]);
+		return set;
+	}
+	
+	@Benchmark
+	public void getAll(Blackhole bh)
+	{
+		for (DEPNode[] nodes : d_nodes)
+			bh.consume(p_dictionary.getAll(nodes, 1, DEPNode::getLowerSimplifiedWordForm, true, false));
+	}
+	
+	@Benchmark
+	public void getAllFrozen(Blackhole bh)
+	{
+		for (DEPNode[] nodes : d_nodes)
+			bh.consume(f_dictionary.getAll(nodes, 1, DEPNode::getLowerSimplifiedWordForm, true, false));
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object loadSerialized() throws Exception
+	{
+		return NLPUtils.getNERDictionary(IOUtils.createObjectXZBufferedInputStream(new ByteArrayInputStream(b_serialized)));
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object loadFrozen() throws Exception
+	{
+		return NLPUtils.getNERDictionary(ByteBuffer.wrap(b_frozen));
+	}
+}
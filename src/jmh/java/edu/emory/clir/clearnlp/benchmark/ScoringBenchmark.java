@@ -0,0 +1,118 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.clir.clearnlp.classification.vector.MultiWeightVector;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
+
+/**
+ * Measures {@link MultiWeightVector#getScores(SparseFeatureVector)} on synthetic weights and feature vectors
+ * whose sizes are similar to the dependency parsing model trained on the Penn Treebank.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark
+{
+	@Param({"80"})
+	public int labelSize;
+	@Param({"200000"})
+	public int featureSize;
+	@Param({"100"})
+	public int vectorSize;
+	@Param({"false", "true"})
+	public boolean floatScoring;
+	
+	private MultiWeightVector     w_vector;
+	private SparseFeatureVector[] x_vectors;
+	private int[]                 i_include;
+	private double[]              d_scores;
+	private int                   x_index;
+	
+	@Setup
+	public void setup()
+	{
+		Random rand = BenchmarkData.getRandom();
+		int i, j, size = labelSize * featureSize;
+		
+		w_vector = new MultiWeightVector();
+		w_vector.expand(labelSize, featureSize);
+		
+		for (i=0; i<size; i++)
+			w_vector.set(i, (float)rand.nextGaussian());
+		
+		w_vector.setFloatScoring(floatScoring);
+		
+		x_vectors = new SparseFeatureVector[1024];
+		
+		for (i=0; i<x_vectors.length; i++)
+		{
+			x_vectors[i] = new SparseFeatureVector();
+			
+			for (j=0; j<vectorSize; j++)
+				x_vectors[i].addFeature(1 + rand.nextInt(featureSize - 1));
+		}
+		
+		i_include = new int[labelSize / 4];
+		for (i=0; i<i_include.length; i++) i_include[i] = i * 4;
+		d_scores = new double[labelSize];
+	}
+	
+	private SparseFeatureVector next()
+	{
+		x_index = (x_index + 1) & (x_vectors.length - 1);
+		return x_vectors[x_index];
+	}
+	
+	@Benchmark
+	public double[] allLabels()
+	{
+		return w_vector.getScores(next());
+	}
+	
+	@Benchmark
+	public double[] includedLabels()
+	{
+		return w_vector.getScores(next(), i_include);
+	}
+	
+	@Benchmark
+	public double[] includedLabelsBuffer()
+	{
+		w_vector.getScores(next(), i_include, d_scores);
+		return d_scores;
+	}
+}
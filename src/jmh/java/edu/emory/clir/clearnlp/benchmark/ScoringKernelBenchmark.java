@@ -0,0 +1,90 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.clir.clearnlp.classification.vector.MultiWeightVector;
+import edu.emory.clir.clearnlp.component.mode.dep.AbstractDEPParser;
+import edu.emory.clir.clearnlp.component.mode.pos.AbstractPOSTagger;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+
+/**
+ * Compares the double and float scoring kernels of {@link MultiWeightVector} on the part-of-speech tagging and dependency parsing models
+ * (see {@link MultiWeightVector#setFloatScoring(boolean)}); each operation decodes all sentences once.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringKernelBenchmark
+{
+	@Param({"false", "true"})
+	public boolean floatScoring;
+	
+	private AbstractPOSTagger c_tagger;
+	private AbstractDEPParser c_parser;
+	private List<DEPTree>     d_trees;
+	
+	@Setup
+	public void setup()
+	{
+		c_tagger = BenchmarkData.getPOSTagger();
+		c_parser = BenchmarkData.getDEPParser();
+		d_trees  = BenchmarkData.getTrees();
+		
+		c_tagger.setFloatScoring(floatScoring);
+		c_parser.setFloatScoring(floatScoring);
+	}
+	
+	@Benchmark
+	public List<DEPTree> pos()
+	{
+		for (DEPTree tree : d_trees)
+			c_tagger.process(tree);
+		
+		return d_trees;
+	}
+	
+	@Benchmark
+	public List<DEPTree> dep()
+	{
+		for (DEPTree tree : d_trees)
+		{
+			tree.clearDependencies();
+			c_parser.process(tree);
+		}
+		
+		return d_trees;
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.tokenization.AbstractTokenizer;
+import edu.emory.clir.clearnlp.tokenization.TokenSpan;
+import edu.emory.clir.clearnlp.util.IOUtils;
+import edu.emory.clir.clearnlp.util.lang.TLanguage;
+
+/**
+ * Compares {@link AbstractTokenizer#segmentize(java.io.InputStream)}, which tokenizes the whole stream before segmentation,
+ * with {@link AbstractTokenizer#segmentizeSpans(java.io.Reader)}, which yields sentences while reading,
+ * on texts made of {@code copies} copies of the synthetic text.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SegmentationBenchmark
+{
+	@Param({"1", "64", "1024"})
+	public int copies;
+	
+	private AbstractTokenizer d_tokenizer;
+	private String s_text;
+	
+	@Setup
+	public void setup()
+	{
+		String synthetic = BenchmarkData.getText(BenchmarkData.SYNTHETIC_TEXT);
+		StringBuilder build = new StringBuilder(synthetic.length() * copies);
+		
+		for (int i=0; i<copies; i++)
+			build.append(synthetic);
+		
+		d_tokenizer = NLPUtils.getTokenizer(TLanguage.ENGLISH);
+		s_text = build.toString();
+	}
+	
+	@Benchmark
+	public List<String> firstSentence()
+	{
+		return d_tokenizer.segmentize(IOUtils.createByteArrayInputStream(s_text)).get(0);
+	}
+	
+	@Benchmark
+	public List<TokenSpan> firstSentenceStream()
+	{
+		return d_tokenizer.segmentizeSpans(new StringReader(s_text)).next();
+	}
+	
+	@Benchmark
+	public int allSentences()
+	{
+		return d_tokenizer.segmentize(IOUtils.createByteArrayInputStream(s_text)).size();
+	}
+	
+	@Benchmark
+	public int allSentencesStream()
+	{
+		Iterator<List<TokenSpan>> it = d_tokenizer.segmentizeSpans(new StringReader(s_text));
+		int count = 0;
+		
+		for (; it.hasNext(); it.next())
+			count++;
+		
+		return count;
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.tokenization.AbstractTokenizer;
+import edu.emory.clir.clearnlp.util.IOUtils;
+import edu.emory.clir.clearnlp.util.lang.TLanguage;
+
+/**
+ * Measures {@link AbstractTokenizer#tokenize(String)} and {@link AbstractTokenizer#segmentize(java.io.InputStream)} of the English tokenizer.
+ * The social text is a random sequence of words, hashtags, mentions, emoticons, and hyperlinks, where most words have no hyperlink or emoticon.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark
+{
+	private AbstractTokenizer d_tokenizer;
+	private String s_sample;
+	private String s_synthetic;
+	private String s_social;
+	
+	@Setup
+	public void setup()
+	{
+		d_tokenizer = NLPUtils.getTokenizer(TLanguage.ENGLISH);
+		s_sample    = BenchmarkData.getText(BenchmarkData.TEXT);
+		s_synthetic = BenchmarkData.getText(BenchmarkData.SYNTHETIC_TEXT);
+		s_social    = createSocialText(20000);
+	}
+	
+	private String createSocialText(int size)
+	{
+		String[] words = {"so", "excited", "for", "the", "game", "tonight", "lol", "can't", "wait", "omg", "@clearnlp", "#nlp", "#emory", "love", "it", "!!!", "3:30pm", "$5", "u.s.", ":)", ":-(", "<3", "http://www.clearnlp.com/docs", "clearnlp.com", "wow..."};
+		StringBuilder build = new StringBuilder();
+		Random rand = BenchmarkData.getRandom();
+		int i;
+		
+		for (i=0; i<size; i++)
+		{
+			build.append(words[rand.nextInt(words.length)]);
+			build.append(' ');
+		}
+		
+		return build.toString();
+	}
+	
+	@Benchmark
+	public List<String> tokenizeSample()
+	{
+		return d_tokenizer.tokenize(s_sample);
+	}
+	
+	@Benchmark
+	public List<String> tokenizeSynthetic()
+	{
+		return d_tokenizer.tokenize(s_synthetic);
+	}
+	
+	@Benchmark
+	public List<String> tokenizeSocial()
+	{
+		return d_tokenizer.tokenize(s_social);
+	}
+	
+	@Benchmark
+	public List<List<String>> segmentizeSynthetic()
+	{
+		return d_tokenizer.segmentize(IOUtils.createByteArrayInputStream(s_synthetic));
+	}
+}
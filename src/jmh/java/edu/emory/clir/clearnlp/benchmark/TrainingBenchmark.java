@@ -0,0 +1,97 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.emory.clir.clearnlp.classification.instance.SparseInstance;
+import edu.emory.clir.clearnlp.classification.model.SparseModel;
+import edu.emory.clir.clearnlp.classification.trainer.AbstractAdaGrad;
+import edu.emory.clir.clearnlp.classification.trainer.AdaGradLR;
+import edu.emory.clir.clearnlp.classification.trainer.AdaGradSVM;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
+
+/**
+ * Measures one epoch of {@link AbstractAdaGrad#train()} on synthetic instances with different numbers of threads.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingBenchmark
+{
+	@Param({"1", "2", "4", "8"})
+	public int threads;
+	@Param({"svm", "lr"})
+	public String type;
+	@Param({"50"})
+	public int labelSize;
+	@Param({"100000"})
+	public int featureSize;
+	@Param({"50000"})
+	public int instanceSize;
+	@Param({"60"})
+	public int vectorSize;
+	
+	private AbstractAdaGrad t_trainer;
+	
+	@Setup
+	public void setup()
+	{
+		Random rand = BenchmarkData.getRandom();
+		SparseModel model = new SparseModel(false);
+		SparseFeatureVector x;
+		int i, j, label;
+		
+		for (i=0; i<instanceSize; i++)
+		{
+			x = new SparseFeatureVector();
+			label = rand.nextInt(labelSize);
+			
+			// features correlated with the label so that updates are not all zeros
+			for (j=0; j<vectorSize; j++)
+				x.addFeature(1 + (j % 4 == 0 ? label * 16 + rand.nextInt(16) : rand.nextInt(featureSize - 1)));
+			
+			model.addInstance(new SparseInstance(Integer.toString(label), x));
+		}
+		
+		t_trainer = type.equals("svm") ? new AdaGradSVM(model, false, 0.01, 0.1, 0) : new AdaGradLR(model, false, 0.01, 0.1, 0);
+		t_trainer.setThreadSize(threads);
+	}
+	
+	@Benchmark
+	public void epoch()
+	{
+		t_trainer.train();
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.bin;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+
+import org.kohsuke.args4j.Option;
+
+import edu.emory.clir.clearnlp.classification.model.StringModel;
+import edu.emory.clir.clearnlp.collection.tree.FrozenPrefixTree;
+import edu.emory.clir.clearnlp.collection.tree.PrefixTree;
+import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
+import edu.emory.clir.clearnlp.component.utils.DistributionalSemantics;
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.ner.NERInfoSet;
+import edu.emory.clir.clearnlp.util.BinUtils;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * Converts a model saved by {@link AbstractStatisticalComponent#save(java.io.ObjectOutputStream)} (.xz)
+ * into the flat binary format that can be memory-mapped (see {@link AbstractStatisticalComponent#loadMapped(java.nio.ByteBuffer)}),
+ * named entity gazetteers saved as a serialized {@link PrefixTree} (.xz) into a {@link FrozenPrefixTree},
+ * or distributional semantics saved as a serialized map (.xz) into {@link DistributionalSemantics}.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class ModelConvert
+{
+	@Option(name="-i", usage="input model path; a file or a classpath resource (required)", required=true, metaVar="<filepath>")
+	private String s_inputPath;
+	@Option(name="-o", usage="output model file (required)", required=true, metaVar="<filename>")
+	private String s_outputFile;
+	@Option(name="-gazetteer", usage="if set, the input is named entity gazetteers instead of a model", required=false)
+	private boolean b_gazetteer = false;
+	@Option(name="-semantics", usage="if set, the input is distributional semantics instead of a model", required=false)
+	private boolean b_semantics = false;
+	
+	public ModelConvert() {}
+	
+	public ModelConvert(String[] args) throws Exception
+	{
+		BinUtils.initArgs(args, this);
+		if      (b_gazetteer) convertGazetteer(s_inputPath, s_outputFile);
+		else if (b_semantics) convertSemantics(s_inputPath, s_outputFile);
+		else                  convert(s_inputPath, s_outputFile);
+	}
+	
+	public void convert(String inputPath, String outputFile) throws Exception
+	{
+		ObjectInputStream in = new File(inputPath).isFile() ? IOUtils.createObjectXZBufferedInputStream(inputPath) : NLPUtils.getObjectInputStream(inputPath);
+		Object extractors = in.readObject();
+		Object lexicons   = in.readObject();
+		StringModel[] models = new StringModel[in.readInt()];
+		int i;
+		
+		for (i=0; i<models.length; i++)
+			models[i] = new StringModel(in);
+		
+		in.close();
+		
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(IOUtils.createFileOutputStream(outputFile)));
+		AbstractStatisticalComponent.saveMapped(out, extractors, lexicons, models);
+		out.close();
+		
+		BinUtils.LOG.info(String.format("%s -> %s: %d models\n", inputPath, outputFile, models.length));
+	}
+	
+	public void convertGazetteer(String inputPath, String outputFile) throws Exception
+	{
+		ObjectInputStream in = new File(inputPath).isFile() ? IOUtils.createObjectXZBufferedInputStream(inputPath) : NLPUtils.getObjectInputStream(inputPath);
+		FrozenPrefixTree<NERInfoSet> tree = new FrozenPrefixTree<>(NLPUtils.getNERDictionary(in));
+		in.close();
+		
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(IOUtils.createFileOutputStream(outputFile)));
+		tree.save(out, NERInfoSet::write);
+		out.close();
+		
+		BinUtils.LOG.info(String.format("%s -> %s: %d nodes\n", inputPath, outputFile, tree.size()));
+	}
+	
+	public void convertSemantics(String inputPath, String outputFile) throws Exception
+	{
+		ObjectInputStream in = new File(inputPath).isFile() ? IOUtils.createObjectXZBufferedInputStream(inputPath) : NLPUtils.getObjectInputStream(inputPath);
+		DistributionalSemantics ds = NLPUtils.getDistributionalSemantics(in);
+		in.close();
+		
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(IOUtils.createFileOutputStream(outputFile)));
+		ds.save(out);
+		out.close();
+		
+		BinUtils.LOG.info(String.format("%s -> %s: %d words\n", inputPath, outputFile, ds.size()));
+	}
+	
+	static public void main(String[] args)
+	{
+		try
+		{
+			new ModelConvert(args);
+		}
+		catch (Exception e) {e.printStackTrace();}
+	}
+}
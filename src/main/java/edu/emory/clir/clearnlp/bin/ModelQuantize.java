@@ -0,0 +1,167 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.bin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kohsuke.args4j.Option;
+
+import edu.emory.clir.clearnlp.classification.vector.QuantizationType;
+import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
+import edu.emory.clir.clearnlp.component.configuration.DecodeConfiguration;
+import edu.emory.clir.clearnlp.component.evaluation.AbstractEval;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.utils.GlobalLexica;
+import edu.emory.clir.clearnlp.component.utils.NLPMode;
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.reader.TSVReader;
+import edu.emory.clir.clearnlp.util.BinUtils;
+import edu.emory.clir.clearnlp.util.FileUtils;
+import edu.emory.clir.clearnlp.util.IOUtils;
+import edu.emory.clir.clearnlp.util.lang.TLanguage;
+
+/**
+ * Quantizes the weights of a part-of-speech tagging or dependency parsing model (see {@link AbstractStatisticalComponent#quantize(QuantizationType)}),
+ * reports the model sizes and the loading times before and after the quantization,
+ * and reports the accuracy delta on a development set using {@link edu.emory.clir.clearnlp.component.mode.pos.POSEval} or {@link edu.emory.clir.clearnlp.component.mode.dep.DEPEval}.
+ * The model path and the reader of the development set are specified in the decoding configuration file.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class ModelQuantize
+{
+	@Option(name="-c", usage="decoding configuration file (required)", required=true, metaVar="<filename>")
+	private String s_configurationFile;
+	@Option(name="-mode", usage="pos|dep", required=true, metaVar="<mode>")
+	private String s_mode;
+	@Option(name="-type", usage="int8|float16 (default: int8)", required=false, metaVar="<string>")
+	private String s_type = "int8";
+	@Option(name="-o", usage="output model file (optional)", required=false, metaVar="<filename>")
+	private String s_outputFile = null;
+	@Option(name="-d", usage="development path (optional)", required=false, metaVar="<filepath>")
+	private String s_developPath = null;
+	@Option(name="-de", usage="development file extension (default: *)", required=false, metaVar="<string>")
+	private String s_developExt = "*";
+	
+	private DecodeConfiguration d_configuration;
+	
+	public ModelQuantize() {}
+	
+	public ModelQuantize(String[] args) throws Exception
+	{
+		BinUtils.initArgs(args, this);
+		d_configuration = new DecodeConfiguration(IOUtils.createFileInputStream(s_configurationFile));
+		GlobalLexica.init(IOUtils.createFileInputStream(s_configurationFile));
+		
+		NLPMode mode = NLPMode.valueOf(s_mode);
+		QuantizationType type = QuantizationType.valueOf(s_type.toUpperCase());
+		AbstractStatisticalComponent<?,?,?,?,?> original  = getComponent(mode);
+		AbstractStatisticalComponent<?,?,?,?,?> quantized = getComponent(mode);
+		quantized.quantize(type);
+		
+		BinUtils.LOG.info(String.format("Original : %s\n", toString(mode, original)));
+		BinUtils.LOG.info(String.format("%-9s: %s\n", type, toString(mode, quantized)));
+		
+		if (s_developPath != null)
+		{
+			List<String> developFiles = FileUtils.getFileList(s_developPath, s_developExt, false);
+			AbstractEval<?> oEval = original .evaluate(getTrees(developFiles));
+			AbstractEval<?> qEval = quantized.evaluate(getTrees(developFiles));
+			
+			BinUtils.LOG.info(String.format("Original : %s\n", oEval.toString()));
+			BinUtils.LOG.info(String.format("%-9s: %s\n", type, qEval.toString()));
+			BinUtils.LOG.info(String.format("Delta    : %6.4f\n", qEval.getScore() - oEval.getScore()));
+		}
+		
+		if (s_outputFile != null)
+		{
+			ObjectOutputStream out = IOUtils.createObjectXZBufferedOutputStream(s_outputFile);
+			quantized.save(out);
+			out.close();
+		}
+	}
+	
+	/** @return a new component loaded from the model path in the configuration. */
+	private AbstractStatisticalComponent<?,?,?,?,?> getComponent(NLPMode mode)
+	{
+		TLanguage language = d_configuration.getLanguage();
+		String modelPath = d_configuration.getModelPath(mode);
+		
+		switch (mode)
+		{
+		case pos: return NLPUtils.getPOSTagger(language, modelPath);
+		case dep: return NLPUtils.getDEPParser(language, modelPath, new DEPConfiguration(IOUtils.createFileInputStream(s_configurationFile)));
+		default : throw new IllegalArgumentException("Invalid mode: "+mode.toString());
+		}
+	}
+	
+	/** @return the size of the serialized models and the time to deserialize them. */
+	private String toString(NLPMode mode, AbstractStatisticalComponent<?,?,?,?,?> component) throws Exception
+	{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bout);
+		component.save(out);
+		out.close();
+		
+		byte[] bytes = bout.toByteArray();
+		long time = System.currentTimeMillis();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+		
+		switch (mode)
+		{
+		case pos: NLPUtils.getPOSTagger(d_configuration.getLanguage(), in); break;
+		case dep: NLPUtils.getDEPParser(d_configuration.getLanguage(), in, new DEPConfiguration(IOUtils.createFileInputStream(s_configurationFile))); break;
+		default : break;
+		}
+		
+		return String.format("%d bytes, loaded in %d ms", bytes.length, System.currentTimeMillis() - time);
+	}
+	
+	/** @return the trees in the specific files read by the reader in the configuration. */
+	private List<DEPTree> getTrees(List<String> filenames)
+	{
+		TSVReader reader = (TSVReader)d_configuration.getReader();
+		List<DEPTree> trees = new ArrayList<>();
+		DEPTree tree;
+		
+		for (String filename : filenames)
+		{
+			reader.open(IOUtils.createFileInputStream(filename));
+			
+			while ((tree = reader.next()) != null)
+				trees.add(tree);
+			
+			reader.close();
+		}
+		
+		return trees;
+	}
+	
+	static public void main(String[] args)
+	{
+		try
+		{
+			new ModelQuantize(args);
+		}
+		catch (Exception e) {e.printStackTrace();}
+	}
+}
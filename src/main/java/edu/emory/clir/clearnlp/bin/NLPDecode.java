@@ -18,19 +18,31 @@ package edu.emory.clir.clearnlp.bin;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.kohsuke.args4j.Option;
 
 import edu.emory.clir.clearnlp.component.AbstractComponent;
+import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
 import edu.emory.clir.clearnlp.component.configuration.DecodeConfiguration;
 import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.mode.ner.NERConfiguration;
+import edu.emory.clir.clearnlp.component.mode.pos.POSConfiguration;
 import edu.emory.clir.clearnlp.component.mode.srl.SRLConfiguration;
 import edu.emory.clir.clearnlp.component.utils.GlobalLexica;
 import edu.emory.clir.clearnlp.component.utils.NLPMode;
 import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.dependency.DEPLib;
 import edu.emory.clir.clearnlp.dependency.DEPNode;
 import edu.emory.clir.clearnlp.dependency.DEPTree;
 import edu.emory.clir.clearnlp.reader.AbstractReader;
@@ -39,6 +51,7 @@ import edu.emory.clir.clearnlp.reader.RawReader;
 import edu.emory.clir.clearnlp.reader.TReader;
 import edu.emory.clir.clearnlp.reader.TSVReader;
 import edu.emory.clir.clearnlp.tokenization.AbstractTokenizer;
+import edu.emory.clir.clearnlp.tokenization.TokenSpan;
 import edu.emory.clir.clearnlp.util.BinUtils;
 import edu.emory.clir.clearnlp.util.FileUtils;
 import edu.emory.clir.clearnlp.util.IOUtils;
@@ -63,6 +76,14 @@ public class NLPDecode
 	protected String s_mode;
 	@Option(name="-threads", usage="number of threads (default: 1)", required=false, metaVar="<integer>")
 	protected int n_threads = 1;
+	@Option(name="-batch", usage="number of sentences decoded together by each thread (default: 64)", required=false, metaVar="<integer>")
+	protected int n_batch = 64;
+	@Option(name="-hash", usage="hash features directly into feature indices while decoding (default: false)", required=false)
+	protected boolean b_hash = false;
+	@Option(name="-float", usage="score labels using float accumulators while decoding (default: false)", required=false)
+	protected boolean b_float = false;
+	@Option(name="-offset", usage="print the character offsets of tokens as the feature off=begin:end; offsets are relative to the file for raw and to the line for line (default: false)", required=false)
+	protected boolean b_offset = false;
 	
 //	private long time = 0, tokens = 0, trees = 0;
 	
@@ -73,7 +94,7 @@ public class NLPDecode
 		BinUtils.initArgs(args, this);
 		NLPMode mode = NLPMode.valueOf(s_mode);
 		List<String> inputFiles = FileUtils.getFileList(s_inputPath, s_inputExt, false);
-		if (n_threads > 2)	decode(inputFiles, s_outputExt, s_configurationFile, n_threads, mode);
+		if (n_threads > 1)	decode(inputFiles, s_outputExt, s_configurationFile, n_threads, mode);
 		else				decode(inputFiles, s_outputExt, s_configurationFile, mode);
 //		System.out.printf("Tokens / Sec.: %d\n", Math.round(MathUtils.divide(tokens*1000, time)));
 //		System.out.printf("Sents. / Sec.: %d\n", Math.round(MathUtils.divide(trees *1000, time)));
@@ -116,17 +137,26 @@ public class NLPDecode
 			reader.close();
 			fout.close();
 		}
+		
+		close(components);
 	}
 	
+	/**
+	 * Decodes each input file using a sentence-batch pipeline: this thread reads batches of trees,
+	 * {@code nThreads} worker threads process the batches using the same components,
+	 * and a writer thread prints the batches in the input order.
+	 * The components are shared by all workers (see {@link AbstractStatisticalComponent}).
+	 * @throws IllegalStateException if any batch fails, in which case the remaining batches are cancelled and the run is aborted.
+	 */
 	public void decode(List<String> inputFiles, String outputExt, String configurationFile, int nThreads, NLPMode mode)
 	{
-		DecodeConfiguration config = new DecodeConfiguration(IOUtils.createFileInputStream(s_configurationFile));;
+		DecodeConfiguration config = new DecodeConfiguration(IOUtils.createFileInputStream(configurationFile));
 		GlobalLexica.init(IOUtils.createFileInputStream(configurationFile));
 		ExecutorService executor = Executors.newFixedThreadPool(nThreads);
 		AbstractReader<?> reader = config.getReader();
 		AbstractTokenizer tokenizer = null;
 		AbstractComponent[] components;
-		String outputFile;
+		PrintStream fout;
 		
 		if (reader.isReaderType(TReader.TSV))
 		{
@@ -140,65 +170,221 @@ public class NLPDecode
 		
 		BinUtils.LOG.info("Decoding:\n");
 		
-		for (String inputFile : inputFiles)
+		try
+		{
+			for (String inputFile : inputFiles)
+			{
+				BinUtils.LOG.info(FileUtils.getBaseName(inputFile)+"\n");
+				reader.open(IOUtils.createFileInputStream(inputFile));
+				fout = IOUtils.createBufferedPrintStream(inputFile + StringConst.PERIOD + outputExt);
+				
+				try
+				{
+					process(reader, tokenizer, fout, mode, components, executor, nThreads);
+				}
+				finally
+				{
+					reader.close();
+					fout.close();
+				}
+			}
+			
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {throw new IllegalStateException(e);}
+		finally
+		{
+			executor.shutdownNow();
+			close(components);
+		}
+	}
+	
+	private void close(AbstractComponent[] components)
+	{
+		for (AbstractComponent component : components)
+			component.close();
+	}
+	
+	/**
+	 * Decodes the trees of the reader in batches of {@link #n_batch} trees using the executor, and prints them in the input order.
+	 * The reader must be opened; the tokenizer is used only for raw and line readers.
+	 * @throws IllegalStateException if any batch fails; the batches not printed yet are cancelled and no more trees are read.
+	 */
+	public void process(AbstractReader<?> reader, AbstractTokenizer tokenizer, PrintStream fout, NLPMode mode, AbstractComponent[] components, ExecutorService executor, int nThreads) throws InterruptedException
+	{
+		BlockingQueue<Future<List<String>>> queue = new ArrayBlockingQueue<>(nThreads * 4);
+		OrderedWriter writer = new OrderedWriter(queue, fout);
+		Thread thread = new Thread(writer);
+		TreeReader trees = new TreeReader(reader, tokenizer);
+		List<DEPTree> batch = new ArrayList<>(n_batch);
+		DEPTree tree;
+		
+		thread.start();
+		
+		try
+		{
+			// stops reading as soon as the writer finds a failed batch
+			while (!writer.hasFailed() && (tree = trees.next()) != null)
+			{
+				batch.add(tree);
+				
+				if (batch.size() == n_batch)
+				{
+					queue.put(executor.submit(new NLPTask(batch, mode, components)));
+					batch = new ArrayList<>(n_batch);
+				}
+			}
+			
+			if (!batch.isEmpty() && !writer.hasFailed()) queue.put(executor.submit(new NLPTask(batch, mode, components)));
+			queue.put(OrderedWriter.END);
+			thread.join();
+		}
+		catch (InterruptedException | RuntimeException e)
 		{
-			outputFile = inputFile + StringConst.PERIOD + outputExt;
-			executor.submit(new NLPTask(tokenizer, components, reader, mode, inputFile, outputFile));
+			// END is not queued, so the writer is stopped by interruption
+			thread.interrupt();
+			throw e;
 		}
 		
-		executor.shutdown();
+		if (writer.hasFailed()) throw new IllegalStateException("Failed to decode a batch of trees.", writer.getFailure());
 	}
 	
-	class NLPTask implements Runnable
+	/** Reads trees from the input of any reader type; used only by the reader thread. */
+	private class TreeReader
+	{
+		private AbstractTokenizer  tokenizer;
+		private AbstractReader<?>  reader;
+		private Iterator<List<TokenSpan>> sentences;
+		
+		public TreeReader(AbstractReader<?> reader, AbstractTokenizer tokenizer)
+		{
+			this.reader    = reader;
+			this.tokenizer = tokenizer;
+		}
+		
+		/** @return the next tree if exists; otherwise, {@code null}. */
+		public DEPTree next()
+		{
+			String line;
+			
+			switch (reader.getReaderType())
+			{
+			case TSV :
+				return ((TSVReader)reader).next();
+			case LINE:
+				line = ((LineReader)reader).next();
+				return (line != null) ? new DEPTree(tokenizer.tokenizeSpans(line)) : null;
+			case RAW :
+				if (sentences == null) sentences = tokenizer.segmentizeSpans(reader.getBufferedReader());
+				return sentences.hasNext() ? new DEPTree(sentences.next()) : null;
+			}
+			
+			return null;
+		}
+	}
+	
+	/** Processes a batch of trees; run by a worker thread. */
+	private class NLPTask implements Callable<List<String>>
 	{
 		private AbstractComponent[] components;
-		private AbstractTokenizer tokenizer;
-		private AbstractReader<?> reader;
-		private String input_file;
-		private PrintStream fout;
+		private List<DEPTree> trees;
 		private NLPMode mode;
 		
-		public NLPTask(AbstractTokenizer tokenizer, AbstractComponent[] components, AbstractReader<?> reader, NLPMode mode, String inputFile, String outputFile)
+		public NLPTask(List<DEPTree> trees, NLPMode mode, AbstractComponent[] components)
 		{
-			this.mode = mode;
-			this.tokenizer = tokenizer;
-			this.input_file = inputFile;
+			this.trees = trees;
+			this.mode  = mode;
 			this.components = components;
-			this.reader = reader.clone();
-			this.reader.open(IOUtils.createFileInputStream(inputFile));
-			this.fout = IOUtils.createBufferedPrintStream(outputFile);
+		}
+		
+		@Override
+		public List<String> call()
+		{
+			List<String> list = new ArrayList<>(trees.size());
+			
+			for (DEPTree tree : trees)
+			{
+				for (AbstractComponent component : components)
+					component.process(tree);
+				
+				list.add(NLPDecode.this.toString(tree, mode)+StringConst.NEW_LINE);
+			}
+			
+			return list;
+		}
+	}
+	
+	/**
+	 * Prints the batches in the order they are queued; run by the writer thread.
+	 * Once a batch fails, the batches queued after it are cancelled instead of printed until the reader queues {@link #END},
+	 * so the reader never blocks on the full queue; the failure is passed back to the reader by {@link #getFailure()}.
+	 */
+	static private class OrderedWriter implements Runnable
+	{
+		static private final Future<List<String>> END = CompletableFuture.completedFuture(null);
+		private BlockingQueue<Future<List<String>>> queue;
+		private PrintStream fout;
+		private volatile Throwable failure;
+		
+		public OrderedWriter(BlockingQueue<Future<List<String>>> queue, PrintStream fout)
+		{
+			this.queue = queue;
+			this.fout  = fout;
 		}
 		
 		@Override
 		public void run()
 		{
+			Future<List<String>> future;
+			
 			try
 			{
-				BinUtils.LOG.info(FileUtils.getBaseName(input_file)+"\n");
-				
-				switch (reader.getReaderType())
+				while ((future = queue.take()) != END)
 				{
-				case TSV : process((TSVReader) reader, fout, mode, components);				break;
-				case RAW : process((RawReader) reader, fout, mode, components, tokenizer);	break;
-				case LINE: process((LineReader)reader, fout, mode, components, tokenizer);	break;
+					if (failure != null)
+					{
+						future.cancel(true);
+						continue;
+					}
+					
+					try
+					{
+						for (String s : future.get())
+							fout.println(s);
+					}
+					catch (ExecutionException e) {failure = e.getCause();}
 				}
-				
-				reader.close();
-				fout.close();
 			}
-			catch (Exception e) {e.printStackTrace();}
+			catch (InterruptedException e)
+			{
+				// the reader has stopped, so nothing else will be queued
+				if (failure == null) failure = e;
+				for (Future<List<String>> f : queue) f.cancel(true);
+				queue.clear();
+			}
+		}
+		
+		public boolean hasFailed()
+		{
+			return failure != null;
+		}
+		
+		/** @return the exception thrown by the first failed batch if exists; otherwise, {@code null}. */
+		public Throwable getFailure()
+		{
+			return failure;
 		}
 	}
 	
 	public void process(RawReader reader, PrintStream fout, NLPMode mode, AbstractComponent[] components, AbstractTokenizer tokenizer)
 	{
-		List<List<String>> tokens = tokenizer.segmentize(reader.getInputStream());
-		int i, size = tokens.size();
+		Iterator<List<TokenSpan>> sentences = tokenizer.segmentizeSpans(reader.getBufferedReader());
 		DEPTree tree;
 		
-		for (i=0; i<size; i++)
+		while (sentences.hasNext())
 		{
-			tree = new DEPTree(tokens.get(i));
+			tree = new DEPTree(sentences.next());
 			process(tree, fout, mode, components);
 		}
 	}
@@ -210,7 +396,7 @@ public class NLPDecode
 		
 		while ((line = reader.next()) != null)
 		{
-			tree = new DEPTree(tokenizer.tokenize(line));
+			tree = new DEPTree(tokenizer.tokenizeSpans(line));
 			process(tree, fout, mode, components);
 		}
 	}
@@ -246,11 +432,11 @@ public class NLPDecode
 		
 		switch (mode)
 		{
-		case ner  : list.add(NLPUtils.getNERecognizer(language, config.getModelPath(NLPMode.ner)));
+		case ner  : list.add(NLPUtils.getNERecognizer(language, config.getModelPath(NLPMode.ner), new NERConfiguration(IOUtils.createFileInputStream(s_configurationFile))));
 		case srl  : list.add(NLPUtils.getSRLabeler(language, config.getModelPath(NLPMode.srl), new SRLConfiguration(IOUtils.createFileInputStream(s_configurationFile))));
 		case dep  : list.add(NLPUtils.getDEPParser(language, config.getModelPath(NLPMode.dep), new DEPConfiguration(IOUtils.createFileInputStream(s_configurationFile))));
 		case morph: list.add(NLPUtils.getMPAnalyzer(language));
-		case pos  : list.add(NLPUtils.getPOSTagger(language, config.getModelPath(NLPMode.pos)));
+		case pos  : list.add(NLPUtils.getPOSTagger(language, config.getModelPath(NLPMode.pos), new POSConfiguration(IOUtils.createFileInputStream(s_configurationFile))));
 		}
 
 		return toReverseArray(list);
@@ -264,7 +450,7 @@ public class NLPDecode
 		{
 		case ner:
 			if (!reader.hasNamedEntityTags())
-				list.add(NLPUtils.getNERecognizer(language, config.getModelPath(NLPMode.ner)));
+				list.add(NLPUtils.getNERecognizer(language, config.getModelPath(NLPMode.ner), new NERConfiguration(IOUtils.createFileInputStream(s_configurationFile))));
 		case srl:
 			if (!reader.hasSemanticHeads())
 				list.add(NLPUtils.getSRLabeler(language, config.getModelPath(NLPMode.srl), new SRLConfiguration(IOUtils.createFileInputStream(s_configurationFile))));
@@ -276,7 +462,7 @@ public class NLPDecode
 				list.add(NLPUtils.getMPAnalyzer(language));
 		case pos:
 			if (!reader.hasPOSTags())
-				list.add(NLPUtils.getPOSTagger(language, config.getModelPath(NLPMode.pos)));
+				list.add(NLPUtils.getPOSTagger(language, config.getModelPath(NLPMode.pos), new POSConfiguration(IOUtils.createFileInputStream(s_configurationFile))));
 		}
 		
 		return toReverseArray(list);
@@ -286,11 +472,31 @@ public class NLPDecode
 	{
 		AbstractComponent[] array = new AbstractComponent[list.size()];
 		Collections.reverse(list);
+		initFeatureMaps(list);
 		return list.toArray(array);
 	}
 	
+	/** Either hashes features directly into feature indices or freezes the feature maps of all statistical components, and selects their scoring kernels. */
+	private void initFeatureMaps(List<AbstractComponent> list)
+	{
+		AbstractStatisticalComponent<?,?,?,?,?> c;
+		
+		for (AbstractComponent component : list)
+		{
+			if (component instanceof AbstractStatisticalComponent)
+			{
+				c = (AbstractStatisticalComponent<?,?,?,?,?>)component;
+				if (b_hash) c.initHashFeatures();
+				else        c.freezeFeatureMaps();
+				c.setFloatScoring(b_float);
+			}
+		}
+	}
+	
 	private String toString(DEPTree tree, NLPMode mode)
 	{
+		if (b_offset) putOffsets(tree);
+		
 		switch (mode)
 		{
 		case ner  : return tree.toString();
@@ -302,6 +508,16 @@ public class NLPDecode
 
 		throw new IllegalArgumentException("Invalid mode: "+mode.toString());
 	}
+	
+	/** Puts the character offsets of the nodes as extra features (see {@link DEPLib#FEAT_OFFSET}). */
+	private void putOffsets(DEPTree tree)
+	{
+		for (DEPNode node : tree)
+		{
+			if (node.hasOffsets())
+				node.putFeat(DEPLib.FEAT_OFFSET, node.getBeginOffset()+StringConst.COLON+node.getEndOffset());
+		}
+	}
 		
 	static public void main(String[] args)
 	{
@@ -27,6 +27,7 @@ import org.kohsuke.args4j.spi.StringArrayOptionHandler;
 import org.tukaani.xz.LZMA2Options;
 import org.tukaani.xz.XZOutputStream;
 
+import edu.emory.clir.clearnlp.classification.vector.QuantizationType;
 import edu.emory.clir.clearnlp.collection.pair.ObjectDoublePair;
 import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
 import edu.emory.clir.clearnlp.component.trainer.AbstractNLPTrainer;
@@ -61,6 +62,9 @@ public abstract class AbstractNLPTrain
 //	@Option(name="-threads", usage="number of threads (default: 1)", required=false, metaVar="<Integer>")
 //	protected int n_threads = 1;
 	
+	@Option(name="-q", usage="quantizes the weights when saving the model: int8|float16 (optional)", required=false, metaVar="<string>")
+	protected String s_quantization = null;
+	
 	@Option(name="-stop", usage="stopping score for training", required=false, metaVar="<double>")
 	static public double d_stop = 0;
 	
@@ -77,7 +81,12 @@ public abstract class AbstractNLPTrain
 //		Collections.sort(trainFiles);
 		ObjectDoublePair<AbstractStatisticalComponent<?,?,?,?,?>> p = train(trainFiles, developFiles, s_featureFiles, s_configurationFile, mode);
 		BinUtils.LOG.info(String.format("Final score: %4.2f\n", p.d));
-		if (s_modelPath != null) saveModel(p.o, s_modelPath);
+		
+		if (s_modelPath != null)
+		{
+			if (s_quantization != null) p.o.quantize(QuantizationType.valueOf(s_quantization.toUpperCase()));
+			saveModel(p.o, s_modelPath);
+		}
 	}
 	
 	public ObjectDoublePair<AbstractStatisticalComponent<?,?,?,?,?>> train(List<String> trainFiles, List<String> developFiles, String[] featureFiles, String configurationFile, NLPMode mode)
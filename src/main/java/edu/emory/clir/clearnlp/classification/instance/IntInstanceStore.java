@@ -0,0 +1,264 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.instance;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.Random;
+
+import com.carrotsearch.hppc.LongArrayList;
+
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
+import edu.emory.clir.clearnlp.util.DSUtils;
+
+/**
+ * Read-only list of integer instances encoded in a memory-mapped scratch file, which replaces {@link java.util.ArrayList} of {@link IntInstance}
+ * so that the training instances do not need to fit in the heap.
+ * Each instance is encoded as variable-length integers of the label, the number of features, and the feature indices, followed by the feature weights if any.
+ * Instances are appended by {@link #add(IntInstance)} then mapped by {@link #seal()}; {@link #get(int)} decodes a new instance on every call, and is thread-safe.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class IntInstanceStore extends AbstractList<IntInstance>
+{
+	/** Instances never cross the boundary of two consecutive chunks, so an instance cannot take more than {@code 2^CHUNK_BITS} bytes. */
+	static public final int CHUNK_BITS = 30;
+	
+	private final int           n_chunkBits;
+	private final long          n_chunkSize;
+	private final int           n_chunkMask;
+	private File                f_scratch;
+	private OutputStream        o_scratch;
+	private byte[]              b_record;
+	private int                 n_record;
+	private long                n_position;
+	private LongArrayList       l_offsets;
+	private int[]               i_order;
+	private MappedByteBuffer[]  m_chunks;
+	
+	/** Creates a scratch file in the specific directory ({@code null} for the default temporary directory). */
+	public IntInstanceStore(File directory)
+	{
+		this(directory, CHUNK_BITS);
+	}
+	
+	/** Creates a store whose chunks take {@code 2^chunkBits} bytes; smaller chunks are for testing. */
+	IntInstanceStore(File directory, int chunkBits)
+	{
+		n_chunkBits = chunkBits;
+		n_chunkSize = 1L << chunkBits;
+		n_chunkMask = (int)n_chunkSize - 1;
+		
+		try
+		{
+			f_scratch = File.createTempFile("instances", ".tmp", directory);
+			f_scratch.deleteOnExit();
+			o_scratch = new BufferedOutputStream(new FileOutputStream(f_scratch), 1 << 16);
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+		
+		b_record   = new byte[64];
+		l_offsets  = new LongArrayList();
+		n_position = 0;
+	}
+	
+//	====================================== Write ======================================
+	
+	/**
+	 * Appends the specific instance to the scratch file.
+	 * @throws IllegalArgumentException if the encoded instance is larger than a chunk (see {@link #CHUNK_BITS}).
+	 */
+	@Override
+	public boolean add(IntInstance instance)
+	{
+		if (m_chunks != null) throw new IllegalStateException("The store is already sealed.");
+		encode(instance);
+		
+		if (n_record > n_chunkSize)
+			throw new IllegalArgumentException("The instance takes "+n_record+" bytes, more than the chunk size of "+n_chunkSize+" bytes.");
+		
+		try
+		{
+			long remain = n_chunkSize - (n_position & n_chunkMask);
+			
+			if (n_record > remain)
+			{
+				for (; remain>0; remain--) o_scratch.write(0);
+				n_position = (n_position + n_chunkSize) & ~(n_chunkSize - 1);
+			}
+			
+			o_scratch.write(b_record, 0, n_record);
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+		
+		l_offsets.add(n_position);
+		n_position += n_record;
+		return true;
+	}
+	
+	/** Called by {@link #add(IntInstance)}. */
+	private void encode(IntInstance instance)
+	{
+		SparseFeatureVector x = instance.getFeatureVector();
+		boolean weight = x.hasWeight();
+		int i, j, len = x.size();
+		long w;
+		
+		n_record = 0;
+		putVarInt(instance.getLabel());
+		putVarInt(weight ? (len << 1) | 1 : len << 1);
+		
+		for (i=0; i<len; i++)
+			putVarInt(x.getIndex(i));
+		
+		if (weight)
+		{
+			for (i=0; i<len; i++)
+			{
+				w = Double.doubleToRawLongBits(x.getWeight(i));
+				ensureCapacity(Long.BYTES);
+				for (j=56; j>=0; j-=8) b_record[n_record++] = (byte)(w >>> j);
+			}
+		}
+	}
+	
+	private void putVarInt(int value)
+	{
+		ensureCapacity(5);
+		
+		while ((value & ~0x7F) != 0)
+		{
+			b_record[n_record++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		
+		b_record[n_record++] = (byte)value;
+	}
+	
+	private void ensureCapacity(int size)
+	{
+		if (n_record + size > b_record.length)
+		{
+			byte[] tmp = new byte[Math.max(b_record.length * 2, n_record + size)];
+			System.arraycopy(b_record, 0, tmp, 0, n_record);
+			b_record = tmp;
+		}
+	}
+	
+	/** Closes the scratch file and maps it into memory; no instance can be added afterwards. */
+	public void seal()
+	{
+		if (m_chunks != null) return;
+		
+		try
+		{
+			o_scratch.close();
+			o_scratch = null;
+			
+			try (RandomAccessFile file = new RandomAccessFile(f_scratch, "r"); FileChannel channel = file.getChannel())
+			{
+				int i, size = (int)((n_position + n_chunkSize - 1) >>> n_chunkBits);
+				m_chunks = new MappedByteBuffer[size];
+				
+				for (i=0; i<size; i++)
+					m_chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, i * n_chunkSize, Math.min(n_chunkSize, n_position - i * n_chunkSize));
+			}
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+		
+		i_order = new int[l_offsets.size()];
+		for (int i=0; i<i_order.length; i++) i_order[i] = i;
+		f_scratch.delete();
+	}
+	
+//	====================================== Read ======================================
+	
+	/** @return the index'th instance in the current order (see {@link #shuffle(Random)}). */
+	@Override
+	public IntInstance get(int index)
+	{
+		long offset = l_offsets.get(i_order[index]);
+		MappedByteBuffer chunk = m_chunks[(int)(offset >>> n_chunkBits)];
+		int[] pos = {(int)offset & n_chunkMask};
+		
+		int label  = getVarInt(chunk, pos);
+		int header = getVarInt(chunk, pos);
+		int i, len = header >>> 1;
+		int[] indices = new int[len];
+		SparseFeatureVector x;
+		
+		for (i=0; i<len; i++)
+			indices[i] = getVarInt(chunk, pos);
+		
+		if ((header & 1) == 0)
+		{
+			x = new SparseFeatureVector();
+			for (i=0; i<len; i++) x.addFeature(indices[i]);
+		}
+		else
+		{
+			x = new SparseFeatureVector(true);
+			
+			for (i=0; i<len; i++)
+			{
+				x.addFeature(indices[i], Double.longBitsToDouble(chunk.getLong(pos[0])));
+				pos[0] += Long.BYTES;
+			}
+		}
+		
+		x.trimToSize();
+		return new IntInstance(label, x);
+	}
+	
+	/** Reads with absolute positions so that the chunk can be shared by multiple threads. */
+	private int getVarInt(MappedByteBuffer chunk, int[] pos)
+	{
+		int shift, value = 0;
+		byte b;
+		
+		for (shift=0; ; shift+=7)
+		{
+			b = chunk.get(pos[0]++);
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) return value;
+		}
+	}
+	
+	@Override
+	public int size()
+	{
+		return l_offsets.size();
+	}
+	
+	/** Shuffles the order of the instances in the same way as {@link DSUtils#shuffle(java.util.List, Random)}; the scratch file is not modified. */
+	public void shuffle(Random rand)
+	{
+		DSUtils.shuffle(i_order, rand);
+	}
+	
+	/** @return the number of bytes in the scratch file. */
+	public long getByteSize()
+	{
+		return n_position;
+	}
+}
@@ -15,6 +15,17 @@
  */
 package edu.emory.clir.clearnlp.classification.instance;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
 import edu.emory.clir.clearnlp.collection.map.IntObjectHashMap;
 import edu.emory.clir.clearnlp.collection.map.ObjectIntHashMap;
@@ -26,13 +37,161 @@ import edu.emory.clir.clearnlp.collection.map.ObjectIntHashMap;
 public class StringInstanceCollector extends AbstractInstanceCollector<StringInstance, StringFeatureVector>
 {
 	private IntObjectHashMap<ObjectIntHashMap<String>> m_features;
+	/** The scratch file where instances are spilled if not {@code null} (see {@link #spill(File)}). */
+	private File             f_spill;
+	private DataOutputStream o_spill;
+	private int              n_spill;
 	
 	@Override
 	public void init()
 	{
 		initDefault();
 		m_features = new IntObjectHashMap<ObjectIntHashMap<String>>();
+		closeSpill();
+	}
+	
+//	====================================== Spill ======================================
+	
+	/**
+	 * Writes all instances added from now on to a scratch file in the specific directory ({@code null} for the default temporary directory)
+	 * instead of keeping them in memory; only the labels and the features are counted in memory.
+	 * The spilled instances are read back by {@link #getSpilledInstances()}, and the file is deleted by {@link #init()}.
+	 */
+	public void spill(File directory)
+	{
+		try
+		{
+			if (f_spill == null)
+			{
+				f_spill = File.createTempFile("string_instances", ".tmp", directory);
+				f_spill.deleteOnExit();
+				o_spill = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f_spill), 1 << 16));
+			}
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+	}
+	
+	public boolean isSpilled()
+	{
+		return f_spill != null;
+	}
+	
+	/** @return the number of spilled instances. */
+	public int getSpilledSize()
+	{
+		return n_spill;
+	}
+	
+	@Override
+	public void addInstance(StringInstance instance)
+	{
+		if (o_spill == null)
+		{
+			super.addInstance(instance);
+			return;
+		}
+		
+		try
+		{
+			write(instance);
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+		
+		addLabel(instance.getLabel());
+		addFeatures(instance.getFeatureVector());
+		n_spill++;
+	}
+	
+	/** Called by {@link #addInstance(StringInstance)}. */
+	private void write(StringInstance instance) throws IOException
+	{
+		StringFeatureVector vector = instance.getFeatureVector();
+		int i, size = vector.size();
+		
+		o_spill.writeUTF(instance.getLabel());
+		o_spill.writeBoolean(vector.hasWeight());
+		o_spill.writeInt(size);
+		
+		for (i=0; i<size; i++)
+		{
+			o_spill.writeInt(vector.getType(i));
+			o_spill.writeUTF(vector.getValue(i));
+			if (vector.hasWeight()) o_spill.writeDouble(vector.getWeight(i));
+		}
+	}
+	
+	/** @return the iterator of the spilled instances, which reads the scratch file sequentially; no instance can be spilled afterwards. */
+	public Iterator<StringInstance> getSpilledInstances()
+	{
+		try
+		{
+			o_spill.close();
+			final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f_spill), 1 << 16));
+			final int size = n_spill;
+			
+			return new Iterator<StringInstance>()
+			{
+				private int n_read = 0;
+				
+				@Override
+				public boolean hasNext()
+				{
+					return n_read < size;
+				}
+				
+				@Override
+				public StringInstance next()
+				{
+					if (!hasNext()) throw new NoSuchElementException();
+					
+					try
+					{
+						StringInstance instance = read(in);
+						if (++n_read == size) in.close();
+						return instance;
+					}
+					catch (IOException e) {throw new IllegalStateException(e);}
+				}
+			};
+		}
+		catch (IOException e) {throw new IllegalStateException(e);}
+	}
+	
+	/** Called by {@link #getSpilledInstances()}. */
+	private StringInstance read(DataInputStream in) throws IOException
+	{
+		String label = in.readUTF();
+		boolean hasWeight = in.readBoolean();
+		int i, size = in.readInt();
+		StringFeatureVector vector = new StringFeatureVector(hasWeight);
+		
+		for (i=0; i<size; i++)
+		{
+			if (hasWeight)	vector.addFeature(in.readInt(), in.readUTF(), in.readDouble());
+			else			vector.addFeature(in.readInt(), in.readUTF());
+		}
+		
+		return new StringInstance(label, vector);
+	}
+	
+	/** Called by {@link #init()}. */
+	private void closeSpill()
+	{
+		if (f_spill == null) return;
+		
+		try
+		{
+			o_spill.close();
+		}
+		catch (IOException e) {e.printStackTrace();}
+		
+		f_spill.delete();
+		f_spill = null;
+		o_spill = null;
+		n_spill = 0;
 	}
+	
+//	====================================== Features ======================================
 
 	@Override
 	protected void addFeatures(StringFeatureVector vector)
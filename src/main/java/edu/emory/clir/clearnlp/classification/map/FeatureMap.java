@@ -20,6 +20,7 @@ import java.util.ArrayList;
 
 import edu.emory.clir.clearnlp.collection.map.IntObjectHashMap;
 import edu.emory.clir.clearnlp.collection.map.ObjectIntHashMap;
+import edu.emory.clir.clearnlp.collection.map.StringIntMinimalPerfectHashMap;
 import edu.emory.clir.clearnlp.collection.pair.ObjectIntPair;
 import edu.emory.clir.clearnlp.util.DSUtils;
 
@@ -31,6 +32,8 @@ public class FeatureMap implements Serializable
 {
 	private static final long serialVersionUID = 1401781367198110209L;
 	private ArrayList<ObjectIntHashMap<String>> l_map;
+	/** The read-only maps replacing {@link #l_map} once this map is frozen (see {@link #freeze()}). */
+	private StringIntMinimalPerfectHashMap[] m_frozen;
 	private int n_features;
 	
 	public FeatureMap()
@@ -41,11 +44,13 @@ public class FeatureMap implements Serializable
 	public void reset()
 	{
 		l_map = new ArrayList<>();
+		m_frozen = null;
 		n_features = 1;
 	}
 	
 	public int expand(IntObjectHashMap<ObjectIntHashMap<String>> map, int cutoff)
 	{
+		if (isFrozen()) throw new IllegalStateException("A frozen feature map cannot be expanded.");
 		expandList(map);
 		return expandMap(map, cutoff);
 	}
@@ -84,6 +89,9 @@ public class FeatureMap implements Serializable
 	/** @return the index of the specific feature given the specific type if exists; otherwise, {@code -1}. */
 	public int getFeatureIndex(int type, String feature)
 	{
+		if (isFrozen())
+			return (0 <= type && type < m_frozen.length) ? m_frozen[type].get(feature) : -1;
+		
 		return DSUtils.isRange(l_map, type) ? l_map.get(type).get(feature) : -1;
 	}
 	
@@ -92,9 +100,62 @@ public class FeatureMap implements Serializable
 		return n_features;
 	}
 	
+	/** @return the hash feature map containing the same features with the same indices as this map. */
+	public HashFeatureMap toHashFeatureMap()
+	{
+		if (isFrozen()) throw new IllegalStateException("A frozen feature map does not keep its features.");
+		HashFeatureMap map = new HashFeatureMap(n_features);
+		int type, size = l_map.size();
+		long basis;
+		
+		for (type=0; type<size; type++)
+		{
+			basis = HashFeatureMap.hash(type);
+			
+			for (ObjectIntPair<String> p : l_map.get(type))
+				map.put(HashFeatureMap.hash(basis, p.o), p.i);
+		}
+		
+		return map;
+	}
+	
+//	====================================== Freeze ======================================
+	
+	/**
+	 * Replaces the hash maps of features with minimal perfect hash maps (see {@link StringIntMinimalPerfectHashMap})
+	 * that keep only feature indices and fingerprints; the feature strings are discarded.
+	 * Once frozen, this map can be used only for lookups (e.g., decoding).
+	 */
+	public void freeze()
+	{
+		if (isFrozen()) return;
+		int type, size = l_map.size();
+		StringIntMinimalPerfectHashMap map;
+		m_frozen = new StringIntMinimalPerfectHashMap[size];
+		
+		for (type=0; type<size; type++)
+		{
+			map = new StringIntMinimalPerfectHashMap();
+			
+			for (ObjectIntPair<String> p : l_map.get(type))
+				map.put(p.o, p.i);
+			
+			map.initHashFunction();
+			m_frozen[type] = map;
+			l_map.set(type, null);
+		}
+		
+		l_map = null;
+	}
+	
+	public boolean isFrozen()
+	{
+		return m_frozen != null;
+	}
+	
 	@Override
 	public String toString()
 	{
-		return l_map.toString();
+		return isFrozen() ? "frozen: "+n_features : l_map.toString();
 	}
 }
\ No newline at end of file
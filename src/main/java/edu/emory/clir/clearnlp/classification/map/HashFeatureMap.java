@@ -0,0 +1,167 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.map;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+import edu.emory.clir.clearnlp.util.HashUtils;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * Read-only feature map whose keys are 64-bit hash values of (feature type, feature value).
+ * The hash value of a feature value is computed incrementally from its tokens (see {@link #hash(long, String)}),
+ * so features can be looked up without building intermediate strings.
+ * The hash value of "a_b" is identical to the hash value of "a" followed by "_" and "b",
+ * which allows any {@link FeatureMap} to be converted into this map (see {@link FeatureMap#toHashFeatureMap()}).
+ * The keys and values are kept in flat buffers so that the map can be read directly from a memory-mapped model (see {@link #save(DataOutputStream)}).
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class HashFeatureMap
+{
+	private LongBuffer h_keys;
+	private IntBuffer  i_values;
+	private int        n_mask;
+	private int        n_size;
+	
+	/** @param expectedSize the expected number of features. */
+	public HashFeatureMap(int expectedSize)
+	{
+		int capacity = Integer.highestOneBit(Math.max(2, expectedSize + (expectedSize >>> 1)) - 1) << 1;
+		
+		h_keys   = LongBuffer.wrap(new long[capacity]);
+		i_values = IntBuffer .wrap(new int [capacity]);
+		n_mask   = capacity - 1;
+		n_size   = 0;
+	}
+	
+	/** Creates a read-only map whose keys and values are views of the specific buffer (see {@link #save(DataOutputStream)}). */
+	public HashFeatureMap(ByteBuffer buffer)
+	{
+		int capacity = buffer.getInt();
+		
+		n_size   = buffer.getInt();
+		n_mask   = capacity - 1;
+		h_keys   = IOUtils.slice(buffer, capacity * Long   .BYTES).asLongBuffer();
+		i_values = IOUtils.slice(buffer, capacity * Integer.BYTES).asIntBuffer();
+	}
+	
+//	====================================== Serialization ======================================
+	
+	/** Saves this map as flat arrays that can be read by {@link #HashFeatureMap(ByteBuffer)}. */
+	public void save(DataOutputStream out) throws IOException
+	{
+		int i, capacity = n_mask + 1;
+		
+		out.writeInt(capacity);
+		out.writeInt(n_size);
+		
+		for (i=0; i<capacity; i++)
+			out.writeLong(h_keys.get(i));
+		
+		for (i=0; i<capacity; i++)
+			out.writeInt(i_values.get(i));
+	}
+	
+//	====================================== Hash ======================================
+	
+	/** @return the basis hash value of the specific feature type. */
+	static public long hash(int type)
+	{
+		return HashUtils.fnv1aHash64(type);
+	}
+	
+	/** @return the hash value of the specific string appended to the basis. */
+	static public long hash(long basis, String s)
+	{
+		return HashUtils.fnv1aHash64(s, basis);
+	}
+	
+	/** @return the hash value of the specific character appended to the basis. */
+	static public long hash(long basis, char c)
+	{
+		return HashUtils.fnv1aHash64(c, basis);
+	}
+	
+	/** @return the hash value of the specific feature. */
+	static public long hash(int type, String value)
+	{
+		return hash(hash(type), value);
+	}
+	
+//	====================================== Map ======================================
+	
+	/**
+	 * Puts the feature index with the specific hash key.
+	 * If two features share the same 64-bit hash key, the latter overwrites the former.
+	 */
+	public void put(long key, int index)
+	{
+		if (key == 0) key = 1;
+		int i = slot(key);
+		
+		while (h_keys.get(i) != 0)
+		{
+			if (h_keys.get(i) == key)
+			{
+				i_values.put(i, index);
+				return;
+			}
+			
+			i = (i + 1) & n_mask;
+		}
+		
+		h_keys  .put(i, key);
+		i_values.put(i, index);
+		n_size++;
+	}
+	
+	/** @return the index of the feature with the specific hash key if exists; otherwise, {@code 0}. */
+	public int getFeatureIndex(long key)
+	{
+		if (key == 0) key = 1;
+		int i = slot(key);
+		long k;
+		
+		while ((k = h_keys.get(i)) != 0)
+		{
+			if (k == key) return i_values.get(i);
+			i = (i + 1) & n_mask;
+		}
+		
+		return 0;
+	}
+	
+	/** @return the index of the specific feature if exists; otherwise, {@code 0}. */
+	public int getFeatureIndex(int type, String value)
+	{
+		return getFeatureIndex(hash(type, value));
+	}
+	
+	private int slot(long key)
+	{
+		return (int)(key ^ (key >>> 32)) & n_mask;
+	}
+	
+	public int size()
+	{
+		return n_size;
+	}
+}
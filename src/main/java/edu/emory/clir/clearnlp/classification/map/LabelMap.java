@@ -37,6 +37,16 @@ public class LabelMap implements Serializable
 		reset();
 	}
 	
+	/** Creates a label map whose label indices follow the order of the specific labels. */
+	public LabelMap(String[] labels)
+	{
+		m_labels = new ObjectIntHashMap<String>(labels.length);
+		l_labels = labels;
+		
+		for (int i=0; i<labels.length; i++)
+			m_labels.put(labels[i], i+1);
+	}
+	
 	public void reset()
 	{
 		m_labels = new ObjectIntHashMap<String>();
@@ -26,6 +26,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 import org.tukaani.xz.LZMA2Options;
@@ -35,14 +36,13 @@ import org.tukaani.xz.XZOutputStream;
 import edu.emory.clir.clearnlp.classification.instance.AbstractInstance;
 import edu.emory.clir.clearnlp.classification.instance.AbstractInstanceCollector;
 import edu.emory.clir.clearnlp.classification.instance.IntInstance;
+import edu.emory.clir.clearnlp.classification.instance.IntInstanceStore;
 import edu.emory.clir.clearnlp.classification.map.LabelMap;
 import edu.emory.clir.clearnlp.classification.prediction.StringPrediction;
 import edu.emory.clir.clearnlp.classification.vector.AbstractFeatureVector;
 import edu.emory.clir.clearnlp.classification.vector.AbstractWeightVector;
 import edu.emory.clir.clearnlp.classification.vector.BinaryWeightVector;
 import edu.emory.clir.clearnlp.classification.vector.MultiWeightVector;
-import edu.emory.clir.clearnlp.collection.pair.DoubleIntPair;
-import edu.emory.clir.clearnlp.collection.pair.Pair;
 import edu.emory.clir.clearnlp.util.BinUtils;
 import edu.emory.clir.clearnlp.util.DSUtils;
 
@@ -64,6 +64,9 @@ abstract public class AbstractModel<I extends AbstractInstance<F>, F extends Abs
 		m_labels = new LabelMap();
 	}
 	
+	/** Initializes this model without any label map or weight vector (e.g., for memory-mapped models). */
+	protected AbstractModel() {}
+	
 	public AbstractModel(ObjectInputStream in)
 	{
 		try
@@ -105,6 +108,11 @@ abstract public class AbstractModel<I extends AbstractInstance<F>, F extends Abs
 		return m_labels.getLabelIndex(label);
 	}
 	
+	public String getLabel(int index)
+	{
+		return m_labels.getLabel(index);
+	}
+	
 	public int getLabelSize()
 	{
 		return w_vector.getLabelSize();
@@ -155,6 +163,24 @@ abstract public class AbstractModel<I extends AbstractInstance<F>, F extends Abs
 	
 	abstract public IntInstance toIntInstance(I instance);
 	
+	/** Vectorizes the specific instances and appends them to the specific store (see {@link IntInstanceStore}). */
+	public void toIntInstanceStore(Iterator<I> sInstances, int size, IntInstanceStore store)
+	{
+		BinUtils.LOG.info("Vectorizing: "+size+"\n");
+		final int PRINT = 100000;
+		IntInstance iInstance;
+		
+		for (int i=1; sInstances.hasNext(); i++)
+		{
+			iInstance = toIntInstance(sInstances.next());
+			if (iInstance != null) store.add(iInstance);
+			if (i%PRINT == 0) BinUtils.LOG.info(".");
+		}
+		
+		if (size > PRINT)	BinUtils.LOG.info("\n\n");
+		else				BinUtils.LOG.info("\n");
+	}
+	
 	public List<IntInstance> toIntInstanceList(Deque<I> sInstances)
 	{
 		BinUtils.LOG.info("Vectorizing: "+sInstances.size()+"\n");
@@ -189,18 +215,22 @@ abstract public class AbstractModel<I extends AbstractInstance<F>, F extends Abs
 	/** @return the best prediction given the specific feature vector. */
 	public StringPrediction predictBest(F x)
 	{
-		return isBinaryLabel() ? predictBestBinary(x) : predictBestMulti(x);
+		return predictBest(getScores(x));
+	}
+	
+	/** @return the best prediction given the specific scores of all labels. */
+	protected StringPrediction predictBest(double[] scores)
+	{
+		return isBinaryLabel() ? predictBestBinary(scores) : predictBestMulti(scores);
 	}
 	
-	private StringPrediction predictBestBinary(F x)
+	private StringPrediction predictBestBinary(double[] scores)
 	{
-		double[] scores = getScores(x);
 		return (scores[0] > 0) ? getPrediction(0, scores[0]) : getPrediction(1, scores[1]);
 	}
 	
-	private StringPrediction predictBestMulti(F x)
+	private StringPrediction predictBestMulti(double[] scores)
 	{
-		double[] scores = getScores(x);
 		int i, size = scores.length, maxIndex = 0;
 		double maxValue = scores[maxIndex];
 		
@@ -219,35 +249,41 @@ abstract public class AbstractModel<I extends AbstractInstance<F>, F extends Abs
 	/** @return the top 2 predictions given the specific feature vector. */
 	public StringPrediction[] predictTop2(F x)
 	{
-		return isBinaryLabel() ? predictTop2Binary(x) : predictTop2Multi(x);
+		return predictTop2(getScores(x));
+	}
+	
+	/** @return the top 2 predictions given the specific scores of all labels. */
+	protected StringPrediction[] predictTop2(double[] scores)
+	{
+		return isBinaryLabel() ? predictTop2Binary(scores) : predictTop2Multi(scores);
 	}
 	
-	private StringPrediction[] predictTop2Binary(F x)
+	private StringPrediction[] predictTop2Binary(double[] scores)
 	{
-		double[] scores = getScores(x);
 		StringPrediction fst = getPrediction(0, scores[0]);
 		StringPrediction snd = getPrediction(1, scores[1]);
 		return (scores[0] > 0) ? new StringPrediction[]{fst,snd} : new StringPrediction[]{snd,fst};
 	}
 	
-	private StringPrediction[] predictTop2Multi(F x)
+	private StringPrediction[] predictTop2Multi(double[] scores)
 	{
-		double[] scores = getScores(x);
-		Pair<DoubleIntPair,DoubleIntPair> top2 = DSUtils.top2(scores);
-		DoubleIntPair p1 = top2.o1;
-		DoubleIntPair p2 = top2.o2;
-		return new StringPrediction[]{getPrediction(p1.i,p1.d), getPrediction(p2.i,p2.d)};
+		return predictTop2Multi(scores, null);
 	}
 	
 	/** @return the list of predictions given the specific feature vector sorted in descending order. */
 	public StringPrediction[] predictAll(F x)
 	{
-		return isBinaryLabel() ? predictTop2Binary(x) : predictAllMulti(x);
+		return predictAll(getScores(x));
 	}
 	
-	private StringPrediction[] predictAllMulti(F x)
+	/** @return the list of predictions given the specific scores of all labels sorted in descending order. */
+	protected StringPrediction[] predictAll(double[] scores)
+	{
+		return isBinaryLabel() ? predictTop2Binary(scores) : predictAllMulti(scores);
+	}
+	
+	private StringPrediction[] predictAllMulti(double[] scores)
 	{
-		double[] scores = getScores(x);
 		int i, lsize = getLabelSize();
 		StringPrediction[] array = new StringPrediction[lsize];
 		
@@ -260,12 +296,17 @@ abstract public class AbstractModel<I extends AbstractInstance<F>, F extends Abs
 	
 	public StringPrediction predictBest(F x, int[] indices)
 	{
-		return isBinaryLabel() ? predictBestBinary(x) : predictBestMulti(x, indices);
+		return predictBest(getScores(x, indices), indices);
+	}
+	
+	/** @param indices the label indices to consider. */
+	protected StringPrediction predictBest(double[] scores, int[] indices)
+	{
+		return isBinaryLabel() ? predictBestBinary(scores) : predictBestMulti(scores, indices);
 	}
 	
-	private StringPrediction predictBestMulti(F x, int[] indices)
+	private StringPrediction predictBestMulti(double[] scores, int[] indices)
 	{
-		double[] scores = getScores(x, indices);
 		int i, size = indices.length, maxIndex = indices[0];
 		double maxValue = scores[maxIndex];
 		
@@ -284,27 +325,37 @@ abstract public class AbstractModel<I extends AbstractInstance<F>, F extends Abs
 	/** @return the top 2 predictions given the specific feature vector. */
 	public StringPrediction[] predictTop2(F x, int[] indices)
 	{
-		return isBinaryLabel() ? predictTop2Binary(x) : predictTop2Multi(x, indices);
+		return predictTop2(getScores(x, indices), indices);
+	}
+	
+	/** @param indices the label indices to consider. */
+	protected StringPrediction[] predictTop2(double[] scores, int[] indices)
+	{
+		return isBinaryLabel() ? predictTop2Binary(scores) : predictTop2Multi(scores, indices);
 	}
 	
-	private StringPrediction[] predictTop2Multi(F x, int[] indices)
+	/** @param indices the label indices to consider; if {@code null}, considers all labels. */
+	private StringPrediction[] predictTop2Multi(double[] scores, int[] indices)
 	{
-		double[] scores = getScores(x, indices);
-		Pair<DoubleIntPair,DoubleIntPair> top2 = DSUtils.top2(scores, indices);
-		DoubleIntPair p1 = top2.o1;
-		DoubleIntPair p2 = top2.o2;
-		return new StringPrediction[]{getPrediction(p1.i,p1.d), getPrediction(p2.i,p2.d)};
+		int[] top = new int[2];
+		DSUtils.top2(scores, indices, top);
+		return new StringPrediction[]{getPrediction(top[0], scores[top[0]]), getPrediction(top[1], scores[top[1]])};
 	}
 	
 	/** @return the list of predictions given the specific feature vector sorted in descending order. */
 	public StringPrediction[] predictAll(F x, int[] indices)
 	{
-		return isBinaryLabel() ? predictTop2Binary(x) : predictAllMulti(x, indices);
+		return predictAll(getScores(x, indices), indices);
+	}
+	
+	/** @param indices the label indices to consider. */
+	protected StringPrediction[] predictAll(double[] scores, int[] indices)
+	{
+		return isBinaryLabel() ? predictTop2Binary(scores) : predictAllMulti(scores, indices);
 	}
 
-	private StringPrediction[] predictAllMulti(F x, int[] indices)
+	private StringPrediction[] predictAllMulti(double[] scores, int[] indices)
 	{
-		double[] scores = getScores(x, indices);
 		int i, j, lsize = indices.length;
 		StringPrediction[] array = new StringPrediction[lsize];
 		
@@ -15,19 +15,28 @@
  */
 package edu.emory.clir.clearnlp.classification.model;
 
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import edu.emory.clir.clearnlp.classification.instance.IntInstance;
+import edu.emory.clir.clearnlp.classification.instance.IntInstanceStore;
 import edu.emory.clir.clearnlp.classification.instance.StringInstance;
 import edu.emory.clir.clearnlp.classification.instance.StringInstanceCollector;
 import edu.emory.clir.clearnlp.classification.map.FeatureMap;
+import edu.emory.clir.clearnlp.classification.map.HashFeatureMap;
 import edu.emory.clir.clearnlp.classification.map.LabelMap;
+import edu.emory.clir.clearnlp.classification.prediction.StringPrediction;
 import edu.emory.clir.clearnlp.classification.vector.AbstractWeightVector;
+import edu.emory.clir.clearnlp.classification.vector.MappedWeightVector;
 import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
 import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
+import edu.emory.clir.clearnlp.util.DSUtils;
 
 /**
  * @since 3.0.0
@@ -38,6 +47,8 @@ public class StringModel extends AbstractModel<StringInstance,StringFeatureVecto
 	private static final long serialVersionUID = -5836424308513378097L;
 	protected StringInstanceCollector i_collector;
 	protected FeatureMap m_features;
+	protected transient HashFeatureMap m_hashFeatures;
+	protected transient File f_scratch;
 
 	/** Initializes this model for training. */
 	public StringModel(boolean binary)
@@ -52,6 +63,15 @@ public class StringModel extends AbstractModel<StringInstance,StringFeatureVecto
 		super(in);
 	}
 	
+	/**
+	 * Initializes this model for decode from a memory-mapped buffer (see {@link #saveMapped(DataOutputStream)}).
+	 * Features are looked up only by the hash feature map; the weight vector is read-only.
+	 */
+	public StringModel(ByteBuffer buffer)
+	{
+		loadMapped(buffer);
+	}
+	
 	private void init()
 	{
 		i_collector = new StringInstanceCollector();
@@ -73,6 +93,7 @@ public class StringModel extends AbstractModel<StringInstance,StringFeatureVecto
 		w_vector   = (AbstractWeightVector)in.readObject();
 		m_labels   = (LabelMap)in.readObject();
 		m_features = (FeatureMap)in.readObject();
+		if (hasHashFeatureMap()) initHashFeatureMap();
 	}
 	
 	public void save(ObjectOutputStream out) throws IOException
@@ -82,6 +103,47 @@ public class StringModel extends AbstractModel<StringInstance,StringFeatureVecto
 		out.writeObject(m_features);
 	}
 	
+	public void loadMapped(ByteBuffer buffer)
+	{
+		String[] labels = new String[buffer.getInt()];
+		
+		for (int i=0; i<labels.length; i++)
+			labels[i] = readString(buffer);
+		
+		m_labels       = new LabelMap(labels);
+		m_hashFeatures = new HashFeatureMap(buffer);
+		w_vector       = new MappedWeightVector(buffer);
+	}
+	
+	/** Saves the labels, the hash feature map, and the weights of this model as flat arrays. */
+	public void saveMapped(DataOutputStream out) throws IOException
+	{
+		String[] labels = m_labels.getLabels();
+		out.writeInt(labels.length);
+		
+		for (String label : labels)
+			writeString(out, label);
+		
+		(hasHashFeatureMap() ? m_hashFeatures : m_features.toHashFeatureMap()).save(out);
+		MappedWeightVector.save(out, w_vector);
+	}
+	
+	/** Called by {@link #saveMapped(DataOutputStream)}. */
+	private void writeString(DataOutputStream out, String s) throws IOException
+	{
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	/** Called by {@link #loadMapped(ByteBuffer)}. */
+	private String readString(ByteBuffer buffer)
+	{
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
 // =============================== Training ===============================
 	
 	@Override
@@ -96,12 +158,41 @@ public class StringModel extends AbstractModel<StringInstance,StringFeatureVecto
 		int labelSize   = m_labels  .expand(i_collector.getLabelMap()  , labelCutoff);
 		int featureSize = m_features.expand(i_collector.getFeatureMap(), featureCutoff);
 		w_vector.expand(labelSize, featureSize);
+		if (hasHashFeatureMap()) initHashFeatureMap();
 		
-		List<IntInstance> instances = toIntInstanceList(i_collector.getInstances());
+		List<IntInstance> instances = (f_scratch != null) ? toIntInstanceStore() : toIntInstanceList(i_collector.getInstances());
 		i_collector.init();
+		if (f_scratch != null) i_collector.spill(f_scratch);
 		
 		return instances;
 	}
+	
+	/** Called by {@link #initializeForTraining(int, int)} if {@link #isScratchTraining()}. */
+	private IntInstanceStore toIntInstanceStore()
+	{
+		IntInstanceStore store = new IntInstanceStore(f_scratch);
+		if (!i_collector.getInstances().isEmpty()) toIntInstanceStore(i_collector.getInstances().iterator(), i_collector.getInstances().size(), store);
+		if ( i_collector.isSpilled()) toIntInstanceStore(i_collector.getSpilledInstances(), i_collector.getSpilledSize(), store);
+		store.seal();
+		return store;
+	}
+	
+	/**
+	 * Keeps the training instances of this model in scratch files in the specific directory instead of the heap:
+	 * string instances are spilled while collected (see {@link StringInstanceCollector#spill(File)}),
+	 * and integer instances are streamed from a memory-mapped file while trained (see {@link IntInstanceStore}).
+	 */
+	public void setScratchDirectory(File directory)
+	{
+		f_scratch = directory;
+		i_collector.spill(directory);
+	}
+	
+	/** @return {@code true} if the training instances are kept in scratch files (see {@link #setScratchDirectory(File)}). */
+	public boolean isScratchTraining()
+	{
+		return f_scratch != null;
+	}
 
 // =============================== Conversion ===============================
 
@@ -119,7 +210,17 @@ public class StringModel extends AbstractModel<StringInstance,StringFeatureVecto
 	
 	public SparseFeatureVector toSparseFeatureVector(StringFeatureVector vector)
 	{
-		SparseFeatureVector x = new SparseFeatureVector(vector.hasWeight());
+		SparseFeatureVector x = toSparseFeatureVector(vector, new SparseFeatureVector(vector.hasWeight()));
+		x.trimToSize();
+		return x;
+	}
+	
+	/**
+	 * Adds the indices of the features to the specific vector instead of creating a new one (e.g., a per-thread buffer that is reused while decoding).
+	 * @param x the empty feature vector to be filled, which must have weights if the string vector has weights.
+	 */
+	public SparseFeatureVector toSparseFeatureVector(StringFeatureVector vector, SparseFeatureVector x)
+	{
 		int i, index, size = vector.size();
 		
 		for (i=0; i<size; i++)
@@ -135,13 +236,37 @@ public class StringModel extends AbstractModel<StringInstance,StringFeatureVecto
 			}
 		}
 		
-		x.trimToSize();
 		return x;
 	}
 	
 	public int getFeatureIndex(StringFeatureVector x, int i)
 	{
-		return m_features.getFeatureIndex(x.getType(i), x.getValue(i));
+		return (m_features != null) ? m_features.getFeatureIndex(x.getType(i), x.getValue(i)) : m_hashFeatures.getFeatureIndex(x.getType(i), x.getValue(i));
+	}
+	
+// =============================== Hash Features ===============================
+	
+	/** Freezes the feature map of this model for decoding (see {@link FeatureMap#freeze()}). */
+	public void freezeFeatureMap()
+	{
+		if (m_features != null) m_features.freeze();
+	}
+	
+	/** Converts the feature map of this model into a hash feature map (see {@link HashFeatureMap}). */
+	public void initHashFeatureMap()
+	{
+		if (m_features != null && !m_features.isFrozen()) m_hashFeatures = m_features.toHashFeatureMap();
+	}
+	
+	/** @return the hash feature map if {@link #initHashFeatureMap()} has been called; otherwise, {@code null}. */
+	public HashFeatureMap getHashFeatureMap()
+	{
+		return m_hashFeatures;
+	}
+	
+	public boolean hasHashFeatureMap()
+	{
+		return m_hashFeatures != null;
 	}
 	
 // =============================== Predictions ===============================
@@ -156,4 +281,90 @@ public class StringModel extends AbstractModel<StringInstance,StringFeatureVecto
 	{
 		return w_vector.getScores(toSparseFeatureVector(x), include);
 	}
+	
+	/** Puts the scores into the specific array (see {@link AbstractWeightVector#getScores(SparseFeatureVector, int[], double[])}). */
+	public void getScores(StringFeatureVector x, int[] include, double[] scores)
+	{
+		w_vector.getScores(toSparseFeatureVector(x), include, scores);
+	}
+	
+	/**
+	 * Puts the scores into the specific array (see {@link AbstractWeightVector#getScores(SparseFeatureVector, int[], double[])}).
+	 * @param x the feature vector whose indices are already resolved (e.g., by {@link HashFeatureMap}).
+	 */
+	public void getScores(SparseFeatureVector x, int[] include, double[] scores)
+	{
+		w_vector.getScores(x, include, scores);
+	}
+	
+	/** @param x the feature vector whose indices are already resolved (e.g., by {@link HashFeatureMap}). */
+	public StringPrediction predictBest(SparseFeatureVector x)
+	{
+		return predictBest(w_vector.getScores(x));
+	}
+	
+	/** @param x the feature vector whose indices are already resolved (e.g., by {@link HashFeatureMap}). */
+	public StringPrediction[] predictTop2(SparseFeatureVector x)
+	{
+		return predictTop2(w_vector.getScores(x));
+	}
+	
+	/** @param x the feature vector whose indices are already resolved (e.g., by {@link HashFeatureMap}). */
+	public StringPrediction[] predictAll(SparseFeatureVector x)
+	{
+		return predictAll(w_vector.getScores(x));
+	}
+	
+	/**
+	 * Same as {@link #predictBest(SparseFeatureVector)} without creating any object.
+	 * @param scores the array to put the scores of all labels into, whose size is the label size.
+	 * @return the index of the best label.
+	 */
+	public int predictBest(SparseFeatureVector x, double[] scores)
+	{
+		w_vector.getScores(x, null, scores);
+		if (isBinaryLabel()) return (scores[0] > 0) ? 0 : 1;
+		int i, size = scores.length, max = 0;
+		
+		for (i=1; i<size; i++)
+			if (scores[max] < scores[i]) max = i;
+		
+		return max;
+	}
+	
+	/**
+	 * Same as {@link #predictTop2(SparseFeatureVector)} without creating any object.
+	 * @param scores the array to put the scores of all labels into, whose size is the label size.
+	 * @param top the array to put the indices of the best and the second best labels into.
+	 */
+	public void predictTop2(SparseFeatureVector x, double[] scores, int[] top)
+	{
+		w_vector.getScores(x, null, scores);
+		
+		if (isBinaryLabel())
+		{
+			top[0] = (scores[0] > 0) ? 0 : 1;
+			top[1] = 1 - top[0];
+		}
+		else
+			DSUtils.top2(scores, null, top);
+	}
+	
+	/** @param x the feature vector whose indices are already resolved (e.g., by {@link HashFeatureMap}). */
+	public StringPrediction predictBest(SparseFeatureVector x, int[] indices)
+	{
+		return predictBest(w_vector.getScores(x, indices), indices);
+	}
+	
+	/** @param x the feature vector whose indices are already resolved (e.g., by {@link HashFeatureMap}). */
+	public StringPrediction[] predictTop2(SparseFeatureVector x, int[] indices)
+	{
+		return predictTop2(w_vector.getScores(x, indices), indices);
+	}
+	
+	/** @param x the feature vector whose indices are already resolved (e.g., by {@link HashFeatureMap}). */
+	public StringPrediction[] predictAll(SparseFeatureVector x, int[] indices)
+	{
+		return predictAll(w_vector.getScores(x, indices), indices);
+	}
 }
\ No newline at end of file
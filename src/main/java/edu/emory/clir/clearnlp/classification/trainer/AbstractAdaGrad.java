@@ -24,10 +24,11 @@ import edu.emory.clir.clearnlp.classification.model.StringModel;
  */
 abstract public class AbstractAdaGrad extends AbstractOnlineTrainer
 {
-	protected double[] d_gradients;
-	protected double   d_alpha;
-	protected double   d_rho;
-	protected double   d_bias;
+	/** The sums of squared gradients, which stay in float since only their square roots scale the learning rate. */
+	protected AbstractWeightAccumulator a_gradients;
+	protected double d_alpha;
+	protected double d_rho;
+	protected double d_bias;
 
 	/**
 	 * @param alpha the learning rate.
@@ -51,26 +52,39 @@ abstract public class AbstractAdaGrad extends AbstractOnlineTrainer
 	
 	private void init(double alpha, double rho, double bias)
 	{
-		d_gradients = new double[w_vector.size()];
-		d_alpha     = alpha;
-		d_rho       = rho;
-		d_bias      = bias;
+		d_alpha = alpha;
+		d_rho   = rho;
+		d_bias  = bias;
 	}
 	
-	protected void updateWeight(int weightIndex, double v, int averageCount)
+	@Override
+	protected void initAccumulators()
+	{
+		super.initAccumulators();
+		a_gradients = createAccumulator();
+	}
+	
+	@Override
+	public long getAccumulatorByteSize()
+	{
+		return super.getAccumulatorByteSize() + ((a_gradients != null) ? a_gradients.getByteSize() : 0);
+	}
+	
+	/** @param averageScale the scale of the averaging offset of this update. */
+	protected void updateWeight(int weightIndex, double v, double averageScale)
 	{
 		double cost = getCost(weightIndex) * v;
 		w_vector.add(weightIndex, (float)cost);
-		if (average()) d_average[weightIndex] += cost * averageCount;
+		if (average()) a_average.add(weightIndex, cost * averageScale);
 	}
 	
 	private double getCost(int weightIndex)
 	{
-		return d_alpha / (d_rho + Math.sqrt(d_gradients[weightIndex]));
+		return d_alpha / (d_rho + Math.sqrt(a_gradients.get(weightIndex)));
 	}
 
 	protected String getTrainerInfo(String type)
 	{
-		return String.format("AdaGrad-%s: alpha = %4.3f, rho = %4.3f, rho = %4.3f, average = %b", type, d_alpha, d_rho, d_bias, average());
+		return String.format("AdaGrad-%s: alpha = %4.3f, rho = %4.3f, rho = %4.3f, average = %b, threads = %d", type, d_alpha, d_rho, d_bias, average(), n_threads);
 	}
 }
\ No newline at end of file
@@ -15,14 +15,18 @@
  */
 package edu.emory.clir.clearnlp.classification.trainer;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import edu.emory.clir.clearnlp.classification.instance.IntInstance;
+import edu.emory.clir.clearnlp.classification.instance.IntInstanceStore;
 import edu.emory.clir.clearnlp.classification.model.SparseModel;
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 import edu.emory.clir.clearnlp.util.DSUtils;
-import edu.emory.clir.clearnlp.util.MathUtils;
 
 /**
  * @since 3.0.0
@@ -30,8 +34,12 @@ import edu.emory.clir.clearnlp.util.MathUtils;
  */
 abstract public class AbstractOnlineTrainer extends AbstractTrainer
 {
-	protected double[] d_average;
-	protected Random   r_rand;
+	/** The averaging offsets shared by all shards (see {@link #trainParallel(int)}); {@code null} if weights are not averaged. */
+	protected AbstractWeightAccumulator a_average;
+	protected Random  r_rand;
+	protected int     n_threads;
+	private   boolean b_average;
+	private   boolean b_accumulators;
 	
 	/** @param average if {@code true}, weights are averaged. */
 	public AbstractOnlineTrainer(SparseModel model, boolean average)
@@ -49,36 +57,171 @@ abstract public class AbstractOnlineTrainer extends AbstractTrainer
 
 	private void init(boolean average)
 	{
-		d_average = average ? new double[w_vector.size()] : null;
+		b_average = average;
 		r_rand = new Random(RANDOM_SEED);
+		n_threads = 1;
+	}
+	
+	/**
+	 * Sets the number of threads updating the weights in parallel; must be called before the first epoch.
+	 * If the size is greater than 1, each thread updates the shared weights with its own shard of the training instances without locking (Hogwild).
+	 */
+	public void setThreadSize(int size)
+	{
+		n_threads = Math.max(1, size);
+	}
+	
+	public int getThreadSize()
+	{
+		return n_threads;
 	}
 
 	public void train()
 	{	
-		if (average()) Arrays.fill(d_average, 0);
-		DSUtils.shuffle(l_instances, r_rand);
+		if (!b_accumulators)
+		{
+			initAccumulators();
+			b_accumulators = true;
+		}
+		
+		if (average()) a_average.clear();
+		shuffle();
 		int i, size = getInstanceSize();
 		
-		for (i=0; i<size; i++)
-			update(getInstance(i), i+1);
+		if (n_threads > 1)
+			trainParallel(size);
+		else
+		{
+			for (i=0; i<size; i++)
+				update(getInstance(i), getAverageScale(i+1, size));
+		}
 		
 		if (average())
-			setAverageWeights(size+1);
+			a_average.addTo(w_vector, -1);
 	}
 	
-	protected boolean average()
+	/** Called by {@link #train()} before the first epoch so that the accumulators are created for the number of threads. */
+	protected void initAccumulators()
+	{
+		if (average()) a_average = createAverageAccumulator();
+	}
+	
+	/**
+	 * @return the double counterpart of {@link #createAccumulator()} used for averaging:
+	 * the offsets are sums over all updates of an epoch, so float accumulators would lose the small updates.
+	 * One accumulator is shared by all threads so that its size does not depend on the number of threads.
+	 * When most weights get updated (e.g., logistic regression), the averaging and the squared-gradient accumulators take 12 bytes per weight,
+	 * against 16 bytes for the two double arrays they replace.
+	 */
+	protected AbstractWeightAccumulator createAverageAccumulator()
+	{
+		if (n_threads == 1 && isSparseUpdate() && !w_vector.isBinaryLabel())
+			return new SparseDoubleWeightAccumulator(w_vector.size());
+		else
+			return new DenseDoubleWeightAccumulator(w_vector.size());
+	}
+	
+	/**
+	 * @return a sparse accumulator if each update touches a few labels per feature and the training is sequential;
+	 * otherwise, a dense accumulator (see {@link #isSparseUpdate()}).
+	 */
+	protected AbstractWeightAccumulator createAccumulator()
+	{
+		if (n_threads == 1 && isSparseUpdate() && !w_vector.isBinaryLabel())
+			return new SparseWeightAccumulator(w_vector.size());
+		else
+			return new DenseWeightAccumulator(w_vector.size());
+	}
+	
+	/** @return {@code true} if each update touches only a few labels per feature (e.g., the gold and the predicted labels). */
+	protected boolean isSparseUpdate()
+	{
+		return false;
+	}
+	
+	/** @return the approximate number of bytes used by the accumulators. */
+	public long getAccumulatorByteSize()
 	{
-		return d_average != null;
+		return (a_average != null) ? a_average.getByteSize() : 0;
 	}
 	
-	private void setAverageWeights(int count)
+	/**
+	 * Called by {@link #train()}.
+	 * The shuffled instances are split into contiguous shards, one per thread (see {@link #getShardBegin(int, int)}).
+	 * The shuffle is seeded by {@link #RANDOM_SEED}, so each shard gets the same instances in the same order in every run.
+	 * The threads update the weights without locking; the interleaving of their updates is up to the scheduler so the trained weights may slightly vary across runs.
+	 * Each shard averages its own updates over its own sequence of instances (see {@link #getAverageScale(int, int)});
+	 * the shards add their averaging offsets to the shared accumulator without locking as well, so an offset can be lost on a race just like an update of the weights.
+	 */
+	private void trainParallel(int size)
 	{
-		double c = -MathUtils.reciprocal(count);
-		int i, size = w_vector.size();
+		ExecutorService pool = Executors.newFixedThreadPool(n_threads);
+		List<Future<?>> list = new ArrayList<>(n_threads);
 		
-		for (i=0; i<size; i++)
-			w_vector.add(i, (float)(c*d_average[i]));
+		for (int i=0; i<n_threads; i++)
+			list.add(pool.submit(new UpdateTask(getShardBegin(size, i), getShardBegin(size, i+1))));
+		
+		try {for (Future<?> f : list) f.get();}
+		catch (Exception e) {throw new IllegalStateException(e);}
+		finally {pool.shutdown();}
+	}
+	
+	private class UpdateTask implements Runnable
+	{
+		private final int i_begin;
+		private final int i_end;
+		
+		/** Updates the weights with the instances in [{@code begin}, {@code end}), counting the updates from the beginning of the shard. */
+		public UpdateTask(int begin, int end)
+		{
+			i_begin = begin;
+			i_end   = end;
+		}
+		
+		@Override
+		public void run()
+		{
+			for (int i=i_begin; i<i_end; i++)
+				update(getInstance(i), getAverageScale(i-i_begin+1, i_end-i_begin));
+		}
+	}
+	
+	/** @return the index of the first instance in the specific shard, where {@code shard == n_threads} gives {@code size}. */
+	private int getShardBegin(int size, int shard)
+	{
+		return (int)((long)size * shard / n_threads);
+	}
+	
+	/**
+	 * The updates of a shard are averaged over its own {@code n+1} steps, where {@code n} is the number of instances in the shard,
+	 * so the averaged weights are the initial weights plus the sum of the averaged updates of all shards.
+	 * With one thread, this is the usual average over all instances.
+	 * @param count the number of instances seen in the shard including the current instance.
+	 * @param size the number of instances in the shard.
+	 * @return the scale of the averaging offset of the current update, which is subtracted from the weights at the end of the epoch.
+	 */
+	private double getAverageScale(int count, int size)
+	{
+		return (double)count / (size + 1);
+	}
+	
+	/** Shuffles the training instances; instances in a store are shuffled by their order (see {@link IntInstanceStore#shuffle(Random)}). */
+	protected void shuffle()
+	{
+		if (l_instances instanceof IntInstanceStore)
+			((IntInstanceStore)l_instances).shuffle(r_rand);
+		else
+			DSUtils.shuffle(l_instances, r_rand);
+	}
+	
+	protected boolean average()
+	{
+		return b_average;
 	}
 	
-	abstract protected boolean update(IntInstance instance, int averageCount);
+	/**
+	 * Updates the weights with the specific instance.
+	 * @param averageScale the scale of the averaging offsets of this update (see {@link #getAverageScale(int, int)}).
+	 */
+	abstract protected boolean update(IntInstance instance, double averageScale);
 }
\ No newline at end of file
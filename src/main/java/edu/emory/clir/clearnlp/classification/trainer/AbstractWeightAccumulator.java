@@ -0,0 +1,41 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.trainer;
+
+import edu.emory.clir.clearnlp.classification.vector.AbstractWeightVector;
+
+/**
+ * Accumulates values (e.g., squared gradients, averaging offsets) per weight index of {@link AbstractWeightVector} during online training.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+abstract public class AbstractWeightAccumulator
+{
+	/** @return the accumulated value of the specific weight index; {@code 0} if nothing has been accumulated. */
+	abstract public double get(int index);
+	
+	/** Adds the value to the specific weight index; the value is rounded to the precision of this accumulator. */
+	abstract public void add(int index, double value);
+	
+	/** Resets all accumulated values to {@code 0}. */
+	abstract public void clear();
+	
+	/** Adds {@code scale} times each accumulated value to the corresponding weight of the vector. */
+	abstract public void addTo(AbstractWeightVector vector, double scale);
+	
+	/** @return the approximate number of bytes used by this accumulator. */
+	abstract public long getByteSize();
+}
@@ -47,14 +47,14 @@ public class AdaGradLR extends AbstractAdaGrad
 	}
 	
 	@Override
-	protected boolean update(IntInstance instance, int averageCount)
+	protected boolean update(IntInstance instance, double averageScale)
 	{
 		double[] gradients = getGradients(instance);
 		
 		if (gradients[instance.getLabel()] > 0.01)
 		{
 			updateGradients(instance, gradients);
-			updateWeights  (instance, gradients, averageCount);
+			updateWeights  (instance, gradients, averageScale);
 			return true;
 		}
 		
@@ -97,31 +97,31 @@ public class AdaGradLR extends AbstractAdaGrad
 		int j, lsize = w_vector.getLabelSize();
 		
 		for (j=0; j<lsize; j++)
-			d_gradients[w_vector.getWeightIndex(j, xi)] += vi * g[j];
+			a_gradients.add(w_vector.getWeightIndex(j, xi), (float)(vi * g[j]));
 	}
 	
-	private void updateWeights(IntInstance instance, double[] gradients, int averageCount)
+	private void updateWeights(IntInstance instance, double[] gradients, double averageScale)
 	{
 		SparseFeatureVector x = instance.getFeatureVector();
 		int i, xi, len = x.size();
 		double vi;
 		
-		updateWeights(gradients, 0, d_bias, averageCount);
+		updateWeights(gradients, 0, d_bias, averageScale);
 		
 		for (i=0; i<len; i++)
 		{
 			xi = x.getIndex(i);
 			vi = x.getWeight(i);
-			updateWeights(gradients, xi, vi, averageCount);
+			updateWeights(gradients, xi, vi, averageScale);
 		}
 	}
 	
-	private void updateWeights(double[] gradients, int xi, double vi, int averageCount)
+	private void updateWeights(double[] gradients, int xi, double vi, double averageScale)
 	{
 		int j, lsize = w_vector.getLabelSize();
 		
 		for (j=0; j<lsize; j++)
-			updateWeight(w_vector.getWeightIndex(j, xi), vi*gradients[j], averageCount);
+			updateWeight(w_vector.getWeightIndex(j, xi), vi*gradients[j], averageScale);
 	}
 	
 	@Override
@@ -47,15 +47,22 @@ public class AdaGradSVM extends AbstractAdaGrad
 		super(model, labelCutoff, featureCutoff, average, alpha, rho, bias);
 	}
 	
+	/** Updates only the gold and the predicted labels. */
 	@Override
-	protected boolean update(IntInstance instance, int averageCount)
+	protected boolean isSparseUpdate()
+	{
+		return true;
+	}
+	
+	@Override
+	protected boolean update(IntInstance instance, double averageScale)
 	{
 		int bestLabel = getBestLabel(instance);
 		
 		if (!instance.isLabel(bestLabel))
 		{
 			updateGradients(instance, instance.getLabel(), bestLabel);
-			updateWeights  (instance, instance.getLabel(), bestLabel, averageCount);
+			updateWeights  (instance, instance.getLabel(), bestLabel, averageScale);
 			return true;
 		}
 		
@@ -90,43 +97,43 @@ public class AdaGradSVM extends AbstractAdaGrad
 	{
 		if (w_vector.isBinaryLabel())
 		{
-			d_gradients[xi] += vi;
+			a_gradients.add(xi, (float)vi);
 		}
 		else
 		{
-			d_gradients[w_vector.getWeightIndex(yp, xi)] += vi;
-			d_gradients[w_vector.getWeightIndex(yn, xi)] += vi;
+			a_gradients.add(w_vector.getWeightIndex(yp, xi), (float)vi);
+			a_gradients.add(w_vector.getWeightIndex(yn, xi), (float)vi);
 		}
 	}
 	
-	private void updateWeights(IntInstance instance, int yp, int yn, int averageCount)
+	private void updateWeights(IntInstance instance, int yp, int yn, double averageScale)
 	{
 		SparseFeatureVector x = instance.getFeatureVector();
 		int i, xi, len = x.size();
 		double vi;
 
 		// bias
-		updateWeights(yp, yn, averageCount, 0, d_bias);
+		updateWeights(yp, yn, averageScale, 0, d_bias);
 		
 		for (i=0; i<len; i++)
 		{
 			xi = x.getIndex(i);
 			vi = x.getWeight(i);
-			updateWeights(yp, yn, averageCount, xi, vi);
+			updateWeights(yp, yn, averageScale, xi, vi);
 		}
 	}
 	
-	private void updateWeights(int yp, int yn, int averageCount, int xi, double vi)
+	private void updateWeights(int yp, int yn, double averageScale, int xi, double vi)
 	{
 		if (w_vector.isBinaryLabel())
 		{
 			if (yp == 1) vi *= -1;
-			updateWeight(xi, vi, averageCount);
+			updateWeight(xi, vi, averageScale);
 		}
 		else
 		{
-			updateWeight(w_vector.getWeightIndex(yp, xi),  vi, averageCount);
-			updateWeight(w_vector.getWeightIndex(yn, xi), -vi, averageCount);
+			updateWeight(w_vector.getWeightIndex(yp, xi),  vi, averageScale);
+			updateWeight(w_vector.getWeightIndex(yn, xi), -vi, averageScale);
 		}
 	}
 	
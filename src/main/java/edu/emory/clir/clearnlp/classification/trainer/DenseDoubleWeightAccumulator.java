@@ -0,0 +1,72 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.trainer;
+
+import java.util.Arrays;
+
+import edu.emory.clir.clearnlp.classification.vector.AbstractWeightVector;
+
+/**
+ * Keeps a double for every weight index; used for averaging, where the accumulated values are weighted by the update count
+ * and would lose too many bits in float (see {@link AbstractOnlineTrainer#createAverageAccumulator()}).
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DenseDoubleWeightAccumulator extends AbstractWeightAccumulator
+{
+	private final double[] d_values;
+	
+	public DenseDoubleWeightAccumulator(int size)
+	{
+		d_values = new double[size];
+	}
+	
+	@Override
+	public double get(int index)
+	{
+		return d_values[index];
+	}
+	
+	@Override
+	public void add(int index, double value)
+	{
+		d_values[index] += value;
+	}
+	
+	@Override
+	public void clear()
+	{
+		Arrays.fill(d_values, 0);
+	}
+	
+	@Override
+	public void addTo(AbstractWeightVector vector, double scale)
+	{
+		int i, size = d_values.length;
+		
+		for (i=0; i<size; i++)
+		{
+			if (d_values[i] != 0)
+				vector.add(i, (float)(scale * d_values[i]));
+		}
+	}
+	
+	@Override
+	public long getByteSize()
+	{
+		return 8L * d_values.length;
+	}
+}
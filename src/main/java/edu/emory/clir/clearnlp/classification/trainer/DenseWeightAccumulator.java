@@ -0,0 +1,72 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.trainer;
+
+import java.util.Arrays;
+
+import edu.emory.clir.clearnlp.classification.vector.AbstractWeightVector;
+
+/**
+ * Keeps a float for every weight index; used when most weights get updated (e.g., logistic regression)
+ * or when the weights are updated by multiple threads, which requires fixed addresses.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DenseWeightAccumulator extends AbstractWeightAccumulator
+{
+	private final float[] f_values;
+	
+	public DenseWeightAccumulator(int size)
+	{
+		f_values = new float[size];
+	}
+	
+	@Override
+	public double get(int index)
+	{
+		return f_values[index];
+	}
+	
+	@Override
+	public void add(int index, double value)
+	{
+		f_values[index] += (float)value;
+	}
+	
+	@Override
+	public void clear()
+	{
+		Arrays.fill(f_values, 0);
+	}
+	
+	@Override
+	public void addTo(AbstractWeightVector vector, double scale)
+	{
+		int i, size = f_values.length;
+		
+		for (i=0; i<size; i++)
+		{
+			if (f_values[i] != 0)
+				vector.add(i, (float)(scale * f_values[i]));
+		}
+	}
+	
+	@Override
+	public long getByteSize()
+	{
+		return 4L * f_values.length;
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.trainer;
+
+import java.util.Arrays;
+
+import com.carrotsearch.hppc.IntDoubleOpenHashMap;
+
+import edu.emory.clir.clearnlp.classification.vector.AbstractWeightVector;
+
+/**
+ * Keeps doubles only for the weight indices that have been updated; the double counterpart of {@link SparseWeightAccumulator} used for averaging.
+ * Once more than 1/4 of the weights are updated, the hash map would take more memory than a double array so the values are moved to a double array.
+ * This accumulator is not thread-safe.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class SparseDoubleWeightAccumulator extends AbstractWeightAccumulator
+{
+	private IntDoubleOpenHashMap m_values;
+	/** Non-null once the values are moved to a double array. */
+	private DenseDoubleWeightAccumulator d_values;
+	private final int i_size;
+	private final int i_threshold;
+	
+	/** @param size the size of the weight vector. */
+	public SparseDoubleWeightAccumulator(int size)
+	{
+		m_values    = new IntDoubleOpenHashMap();
+		i_size      = size;
+		i_threshold = size / 4;
+	}
+	
+	@Override
+	public double get(int index)
+	{
+		return (d_values != null) ? d_values.get(index) : m_values.get(index);
+	}
+	
+	@Override
+	public void add(int index, double value)
+	{
+		if (d_values != null)
+			d_values.add(index, value);
+		else
+		{
+			m_values.addTo(index, value);
+			if (m_values.size() > i_threshold) toDense();
+		}
+	}
+	
+	private void toDense()
+	{
+		d_values = new DenseDoubleWeightAccumulator(i_size);
+		
+		int[]     keys      = m_values.keys;
+		double[]  values    = m_values.values;
+		boolean[] allocated = m_values.allocated;
+		int i, size = keys.length;
+		
+		for (i=0; i<size; i++)
+		{
+			if (allocated[i])
+				d_values.add(keys[i], values[i]);
+		}
+		
+		m_values = null;
+	}
+	
+	/** Keeps the indices so that the weights updated in the previous epoch do not need to be rehashed. */
+	@Override
+	public void clear()
+	{
+		if (d_values != null)
+			d_values.clear();
+		else
+			Arrays.fill(m_values.values, 0);
+	}
+	
+	@Override
+	public void addTo(AbstractWeightVector vector, double scale)
+	{
+		if (d_values != null)
+		{
+			d_values.addTo(vector, scale);
+			return;
+		}
+		
+		int[]     keys      = m_values.keys;
+		double[]  values    = m_values.values;
+		boolean[] allocated = m_values.allocated;
+		int i, size = keys.length;
+		
+		for (i=0; i<size; i++)
+		{
+			if (allocated[i] && values[i] != 0)
+				vector.add(keys[i], (float)(scale * values[i]));
+		}
+	}
+	
+	/** @return {@code true} if the values have been moved to a double array. */
+	public boolean isDense()
+	{
+		return d_values != null;
+	}
+	
+	@Override
+	public long getByteSize()
+	{
+		return (d_values != null) ? d_values.getByteSize() : 13L * m_values.keys.length;
+	}
+}
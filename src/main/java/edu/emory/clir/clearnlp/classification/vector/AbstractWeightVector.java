@@ -52,9 +52,16 @@ abstract public class AbstractWeightVector implements Serializable
 	abstract public double[] getScores(SparseFeatureVector x);
 	/**
 	 * @param include get scores for only these indices.
-	 * @return the array of scores of all labels given the feature vector.
+	 * @return the array of scores of all labels given the feature vector, where the scores of the other labels are {@code 0}.
 	 */
 	abstract public double[] getScores(SparseFeatureVector x, int[] include);
+	/**
+	 * Puts the scores into the specific array instead of creating a new one (e.g., a buffer reused while decoding).
+	 * @param include get scores for only these indices; if {@code null}, get scores for all labels.
+	 * The scores of the other labels are not touched.
+	 * @param scores the array whose size is at least the label size (or 2 if this is a binary model).
+	 */
+	abstract public void getScores(SparseFeatureVector x, int[] include, double[] scores);
 	/**
 	 * @return the index of the weight vector given the label and feature indices.
 	 * If this is a binary model, returns the {@code featureIndex}.
@@ -51,6 +51,20 @@ public class BinaryWeightVector extends AbstractWeightVector implements Serializ
 	
 	@Override
 	public double[] getScores(SparseFeatureVector x)
+	{
+		double[] scores = new double[2];
+		getScores(x, null, scores);
+		return scores;
+	}
+	
+	@Override
+	public double[] getScores(SparseFeatureVector x, int[] include)
+	{
+		return getScores(x);
+	}
+	
+	@Override
+	public void getScores(SparseFeatureVector x, int[] include, double[] scores)
 	{
 		int i, index, len = x.size();
 		double score = get(0);
@@ -63,16 +77,8 @@ public class BinaryWeightVector extends AbstractWeightVector implements Serializ
 				score += get(index) * x.getWeight(i);
 		}
 		
-		double[]  scores = new double[2];
 		scores[POSITIVE] =  score;
 		scores[NEGATIVE] = -score;
-		return scores;
-	}
-	
-	@Override
-	public double[] getScores(SparseFeatureVector x, int[] include)
-	{
-		return getScores(x);
 	}
 	
 	@Override
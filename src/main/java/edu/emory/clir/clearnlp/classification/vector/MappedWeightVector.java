@@ -0,0 +1,241 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.vector;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import edu.emory.clir.clearnlp.collection.list.FloatArrayList;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * Read-only weight vector whose weights are a view of a (memory-mapped) buffer.
+ * The weights are laid out the same way as {@link BinaryWeightVector} and {@link MultiWeightVector}
+ * so that no weight is copied or deserialized while loading (see {@link #save(DataOutputStream, AbstractWeightVector)}).
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class MappedWeightVector extends AbstractWeightVector
+{
+	private static final long serialVersionUID = 5311734617403357346L;
+	private static final String READ_ONLY = "A memory-mapped weight vector is read-only.";
+	private transient FloatBuffer f_buffer;
+	private int n_size;
+	
+	public MappedWeightVector(ByteBuffer buffer)
+	{
+		super(buffer.getInt() == 1);
+		n_labels   = buffer.getInt();
+		n_features = buffer.getInt();
+		n_size     = buffer.getInt();
+		f_buffer   = IOUtils.slice(buffer, n_size * Float.BYTES).asFloatBuffer();
+	}
+	
+	/** Saves the specific weight vector as a flat array that can be read by {@link #MappedWeightVector(ByteBuffer)}. */
+	static public void save(DataOutputStream out, AbstractWeightVector vector) throws IOException
+	{
+		int i, size = vector.size();
+		
+		out.writeInt(vector.isBinaryLabel() ? 1 : 0);
+		out.writeInt(vector.getLabelSize());
+		out.writeInt(vector.getFeatureSize());
+		out.writeInt(size);
+		
+		for (i=0; i<size; i++)
+			out.writeFloat(vector.get(i));
+	}
+	
+//	====================================== Scores ======================================
+	
+	@Override
+	public double[] getScores(SparseFeatureVector x)
+	{
+		return getScores(x, null);
+	}
+	
+	@Override
+	public double[] getScores(SparseFeatureVector x, int[] include)
+	{
+		double[] scores = new double[b_binary ? 2 : n_labels];
+		getScores(x, include, scores);
+		return scores;
+	}
+	
+	@Override
+	public void getScores(SparseFeatureVector x, int[] include, double[] scores)
+	{
+		if (b_binary)	getBinaryScores(x, scores);
+		else			getMultiScores (x, include, scores);
+	}
+	
+	/** Called by {@link #getScores(SparseFeatureVector, int[], double[])}. */
+	private void getBinaryScores(SparseFeatureVector x, double[] scores)
+	{
+		int i, index, len = x.size();
+		double score = get(0);
+		
+		for (i=0; i<len; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (isValidFeatureIndex(index))
+				score += get(index) * x.getWeight(i);
+		}
+		
+		scores[BinaryWeightVector.POSITIVE] =  score;
+		scores[BinaryWeightVector.NEGATIVE] = -score;
+	}
+	
+	/** Called by {@link #getScores(SparseFeatureVector, int[], double[])}. */
+	private void getMultiScores(SparseFeatureVector x, int[] include, double[] scores)
+	{
+		int i, j, index, len = x.size();
+		double weight;
+		
+		if (include == null)
+		{
+			for (j=0; j<n_labels; j++)
+				scores[j] = get(j);
+		}
+		else
+		{
+			for (int k : include)
+				scores[k] = get(k);
+		}
+		
+		for (i=0; i<len; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (isValidFeatureIndex(index))
+			{
+				index  = index * n_labels;
+				weight = x.getWeight(i);
+				
+				if (include == null)
+				{
+					for (j=0; j<n_labels; j++)
+						scores[j] += get(index+j) * weight;
+				}
+				else
+				{
+					for (int k : include)
+						scores[k] += get(index+k) * weight;
+				}
+			}
+		}
+	}
+	
+//	====================================== Weights ======================================
+	
+	@Override
+	public int getWeightIndex(int labelIndex, int featureIndex)
+	{
+		return b_binary ? featureIndex : featureIndex * n_labels + labelIndex;
+	}
+	
+	@Override
+	public float[] getWeights(int labelIndex)
+	{
+		float inv = (b_binary && labelIndex == BinaryWeightVector.NEGATIVE) ? -1 : 1;
+		float[] weights = new float[n_features];
+		int i;
+		
+		for (i=0; i<n_features; i++)
+			weights[i] = get(getWeightIndex(labelIndex, i)) * inv;
+		
+		return weights;
+	}
+	
+	@Override
+	public float get(int weightIndex)
+	{
+		return f_buffer.get(weightIndex);
+	}
+	
+	@Override
+	public int size()
+	{
+		return n_size;
+	}
+	
+	@Override
+	public boolean isEmpty()
+	{
+		return n_size == 0;
+	}
+	
+	@Override
+	public void trimToSize() {}
+	
+	@Override
+	public FloatArrayList cloneWeights()
+	{
+		FloatArrayList list = new FloatArrayList(n_size);
+		int i;
+		
+		for (i=0; i<n_size; i++)
+			list.add(get(i));
+		
+		return list;
+	}
+	
+//	====================================== Read-only ======================================
+	
+	@Override
+	public void expand(int labelSize, int featureSize)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void setWeights(int labelIndex, float[] weights)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void setWeights(FloatArrayList weights)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void set(int weightIndex, float value)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void set(double[] array)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void add(int weightIndex, float value)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void multiply(int weightIndex, float value)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+}
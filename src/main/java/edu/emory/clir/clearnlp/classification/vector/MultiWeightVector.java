@@ -17,7 +17,6 @@ package edu.emory.clir.clearnlp.classification.vector;
 
 import java.io.Serializable;
 
-import edu.emory.clir.clearnlp.collection.list.FloatArrayList;
 import edu.emory.clir.clearnlp.util.DSUtils;
 
 
@@ -28,6 +27,10 @@ import edu.emory.clir.clearnlp.util.DSUtils;
 public class MultiWeightVector extends AbstractWeightVector implements Serializable
 {
 	private static final long serialVersionUID = 7255272201058803937L;
+	/** If {@code true}, scores labels using float accumulators (see {@link #setFloatScoring(boolean)}). */
+	private transient boolean b_floatScoring;
+	/** The float accumulators of each thread, shared by all vectors and grown to the largest label size (see {@link #getAccumulators(int)}). */
+	static private final ThreadLocal<float[][]> T_ACCUMULATORS = ThreadLocal.withInitial(() -> new float[1][0]);
 	
 	public MultiWeightVector()
 	{
@@ -44,9 +47,8 @@ public class MultiWeightVector extends AbstractWeightVector implements Serializa
 		else
 		{
 			if (labelSize > n_labels)
-				expandLabels(labelSize);
-			
-			if (featureSize > n_features)
+				expandLabels(labelSize, Math.max(featureSize, n_features));
+			else if (featureSize > n_features)
 				DSUtils.append(f_weights, 0f, labelSize * (featureSize - n_features));
 		}
 		
@@ -56,62 +58,140 @@ public class MultiWeightVector extends AbstractWeightVector implements Serializa
 		n_features = featureSize;
 	}
 	
-	/** Called by {@link #expand(int, int)}. */
-	private void expandLabels(int labelSize)
+	/**
+	 * Called by {@link #expand(int, int)}.
+	 * Copies the weights of each feature to the wider stride of the new label size in one pass,
+	 * and reserves the weights of new features in the same allocation.
+	 */
+	private void expandLabels(int labelSize, int featureSize)
 	{
-		FloatArrayList list = new FloatArrayList(size());
-		int i, diff = labelSize - n_labels;
+		float[] w = f_weights.buffer, t = new float[labelSize * featureSize];
+		int feature;
 		
-		while (!isEmpty())
-		{
-			for (i=0; i<n_labels; i++)
-				list.add(f_weights.remove(0));
-			
-			DSUtils.append(list, 0f, diff);
-		}
-
-		f_weights = list;
+		for (feature=0; feature<n_features; feature++)
+			System.arraycopy(w, feature * n_labels, t, feature * labelSize, n_labels);
+		
+		f_weights.buffer = t;
+		f_weights.elementsCount = t.length;
 	}
 	
+//	====================================== Kernel ======================================
+	
+	/** If the number of labels is at least this ratio times the number of scored labels, the float kernel accumulates only the scored labels. */
+	static public final int FLOAT_SPARSE_RATIO = 4;
+	
+	public boolean isFloatScoring()
+	{
+		return b_floatScoring;
+	}
+	
+	/**
+	 * Selects the kernel that scores the labels of a feature-major vector (see {@link #getScores(SparseFeatureVector, int[], double[])}).
+	 * If {@code true}, the weights of each feature are added to float accumulators by an unrolled loop that the JIT compiler can vectorize;
+	 * otherwise, they are added to double accumulators one at a time (default).
+	 * When only some labels are scored, all labels are accumulated by the unrolled loop unless the labels are few (see {@link #FLOAT_SPARSE_RATIO}),
+	 * which gives the same scores for the specific labels.
+	 * The float kernel is faster for many labels (e.g., dependency labels) but its scores may differ from the double kernel in the last bits.
+	 * This is a runtime option that is not saved with the model.
+	 */
+	public void setFloatScoring(boolean floatScoring)
+	{
+		b_floatScoring = floatScoring;
+	}
+	
+//	====================================== Scores ======================================
+	
 	@Override
 	public double[] getScores(SparseFeatureVector x)
 	{
-		double[] scores = f_weights.toDoubleArray(0, n_labels);
-		int i, j, index, len = x.size();
+		double[] scores = new double[n_labels];
+		getScores(x, null, scores);
+		return scores;
+	}
+	
+	@Override
+	public double[] getScores(SparseFeatureVector x, int[] indices)
+	{
+		double[] scores = new double[n_labels];
+		getScores(x, indices, scores);
+		return scores;
+	}
+	
+	@Override
+	public void getScores(SparseFeatureVector x, int[] indices, double[] scores)
+	{
+		if (indices == null)
+		{
+			if (b_floatScoring) getScoresFloat(x, scores);
+			else                getScoresFeatureMajor(x, scores);
+		}
+		else
+		{
+			if (b_floatScoring) getScoresFloat(x, indices, scores);
+			else                getScoresFeatureMajor(x, indices, scores);
+		}
+	}
+	
+	/** Called by {@link #getScores(SparseFeatureVector, int[], double[])}. */
+	private void getScoresFeatureMajor(SparseFeatureVector x, double[] scores)
+	{
+		float[] w = f_weights.buffer;
+		int i, j, offset, index, len = x.size();
 		double weight;
 		
+		for (j=0; j<n_labels; j++)
+			scores[j] = w[j];
+		
 		for (i=0; i<len; i++)
 		{
 			index = x.getIndex(i);
 			
 			if (isValidFeatureIndex(index))
 			{
-				index  = getWeightIndex(index);
+				offset = index * n_labels;
 				weight = x.getWeight(i);
 				
 				for (j=0; j<n_labels; j++)
-					scores[j] += get(index+j) * weight;
+					scores[j] += w[offset+j] * weight;
 			}
 		}
+	}
+	
+	/** Called by {@link #getScores(SparseFeatureVector, int[], double[])} if {@link #isFloatScoring()}. */
+	private void getScoresFloat(SparseFeatureVector x, double[] scores)
+	{
+		float[] acc = accumulate(x);
 		
-		return scores;
+		for (int j=0; j<n_labels; j++)
+			scores[j] = acc[j];
 	}
 	
-	@Override
-	public double[] getScores(SparseFeatureVector x, int[] indices)
+	/**
+	 * Called by {@link #getScores(SparseFeatureVector, int[], double[])} if {@link #isFloatScoring()}.
+	 * Accumulates all labels by the unrolled loop unless the specific labels are few; either way, the scores of the specific labels are the same.
+	 */
+	private void getScoresFloat(SparseFeatureVector x, int[] indices, double[] scores)
 	{
-		double[] scores = f_weights.toDoubleArray(0, n_labels);
-		int i = 0, index, len = x.size();
-		double weight;
+		if (indices.length * FLOAT_SPARSE_RATIO <= n_labels)
+		{
+			getScoresFloatSparse(x, indices, scores);
+			return;
+		}
 		
-//		for (int j : include)
-//		{
-//			for (; i<j; i++) scores[i] = MathUtils.DOUBLE_NEGATIVE_MIN;
-//			i = j+1;
-//		}
-//		
-//		for (; i<n_labels; i++)
-//			scores[i] = MathUtils.DOUBLE_NEGATIVE_MIN;
+		float[] acc = accumulate(x);
+		
+		for (int label : indices)
+			scores[label] = acc[label];
+	}
+	
+	/** @return the float accumulators of the current thread, where the first {@link #n_labels} values are the scores of all labels. */
+	private float[] accumulate(SparseFeatureVector x)
+	{
+		float[] w = f_weights.buffer, acc = getAccumulators(n_labels);
+		int i, index, len = x.size();
+		float weight;
+		
+		System.arraycopy(w, 0, acc, 0, n_labels);
 		
 		for (i=0; i<len; i++)
 		{
@@ -119,26 +199,122 @@ public class MultiWeightVector extends AbstractWeightVector implements Serializa
 			
 			if (isValidFeatureIndex(index))
 			{
-				index  = getWeightIndex(index);
-				weight = x.getWeight(i);
+				weight = (float)x.getWeight(i);
+				if (weight == 1f)	add(acc, w, index * n_labels, n_labels);
+				else				add(acc, w, index * n_labels, n_labels, weight);
+			}
+		}
+		
+		return acc;
+	}
+	
+	/** Called by {@link #getScoresFloat(SparseFeatureVector, int[], double[])}; touches only the weights of the specific labels. */
+	private void getScoresFloatSparse(SparseFeatureVector x, int[] indices, double[] scores)
+	{
+		float[] w = f_weights.buffer, acc = getAccumulators(indices.length);
+		int i, j, offset, index, len = x.size(), size = indices.length;
+		float weight;
+		
+		for (j=0; j<size; j++)
+			acc[j] = w[indices[j]];
+		
+		for (i=0; i<len; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (isValidFeatureIndex(index))
+			{
+				offset = index * n_labels;
+				weight = (float)x.getWeight(i);
 				
-				for (int j : indices)
-					scores[j] += get(index+j) * weight;
+				if (weight == 1f)
+				{
+					for (j=0; j<size; j++)
+						acc[j] += w[offset+indices[j]];
+				}
+				else
+				{
+					for (j=0; j<size; j++)
+						acc[j] += w[offset+indices[j]] * weight;
+				}
 			}
 		}
 		
-		return scores;
+		for (j=0; j<size; j++)
+			scores[indices[j]] = acc[j];
 	}
 	
-	@Override
-	public int getWeightIndex(int labelIndex, int featureIndex)
+	/** @return the float accumulators of the current thread whose size is at least the specific size; their values are not cleared. */
+	static private float[] getAccumulators(int size)
+	{
+		float[][] acc = T_ACCUMULATORS.get();
+		if (acc[0].length < size) acc[0] = new float[size];
+		return acc[0];
+	}
+	
+	/** Adds {@code w[offset:offset+size]} to {@code acc[0:size]}. */
+	static private void add(float[] acc, float[] w, int offset, int size)
 	{
-		return getWeightIndex(featureIndex) + labelIndex;
+		int j, last = size - 3;
+		
+		for (j=0; j<last; j+=4)
+		{
+			acc[j  ] += w[offset+j  ];
+			acc[j+1] += w[offset+j+1];
+			acc[j+2] += w[offset+j+2];
+			acc[j+3] += w[offset+j+3];
+		}
+		
+		for (; j<size; j++)
+			acc[j] += w[offset+j];
 	}
 	
-	private int getWeightIndex(int featureIndex)
+	/** Adds {@code w[offset:offset+size] * weight} to {@code acc[0:size]}. */
+	static private void add(float[] acc, float[] w, int offset, int size, float weight)
+	{
+		int j, last = size - 3;
+		
+		for (j=0; j<last; j+=4)
+		{
+			acc[j  ] += w[offset+j  ] * weight;
+			acc[j+1] += w[offset+j+1] * weight;
+			acc[j+2] += w[offset+j+2] * weight;
+			acc[j+3] += w[offset+j+3] * weight;
+		}
+		
+		for (; j<size; j++)
+			acc[j] += w[offset+j] * weight;
+	}
+	
+	/** Called by {@link #getScores(SparseFeatureVector, int[], double[])}; touches only the weights of the specific labels. */
+	private void getScoresFeatureMajor(SparseFeatureVector x, int[] indices, double[] scores)
+	{
+		float[] w = f_weights.buffer;
+		int i, j, offset, index, len = x.size(), size = indices.length;
+		double weight;
+		
+		for (j=0; j<size; j++)
+			scores[indices[j]] = w[indices[j]];
+		
+		for (i=0; i<len; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (isValidFeatureIndex(index))
+			{
+				offset = index * n_labels;
+				weight = x.getWeight(i);
+				
+				for (j=0; j<size; j++)
+					scores[indices[j]] += w[offset+indices[j]] * weight;
+			}
+		}
+	}
+	
+	@Override
+	public int getWeightIndex(int labelIndex, int featureIndex)
 	{
-		return featureIndex * n_labels;
+		return featureIndex * n_labels + labelIndex;
 	}
 	
 	@Override
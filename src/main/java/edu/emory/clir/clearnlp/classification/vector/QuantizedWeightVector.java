@@ -0,0 +1,316 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.vector;
+
+import edu.emory.clir.clearnlp.collection.list.FloatArrayList;
+import edu.emory.clir.clearnlp.util.MathUtils;
+
+/**
+ * Read-only weight vector whose weights are quantized into 8-bit integers or half-precision floats (see {@link QuantizationType}),
+ * which takes 4 or 2 times less memory than {@link BinaryWeightVector} and {@link MultiWeightVector}.
+ * The 8-bit weights of each label are scaled by the maximum absolute weight of the label.
+ * The weights are laid out the same way as {@link MappedWeightVector}.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class QuantizedWeightVector extends AbstractWeightVector
+{
+	private static final long serialVersionUID = -3181574452391026614L;
+	private static final String READ_ONLY = "A quantized weight vector is read-only.";
+	private QuantizationType q_type;
+	/** The 8-bit weights if {@link QuantizationType#INT8}. */
+	private byte[]  q_bytes;
+	/** The half-precision weights if {@link QuantizationType#FLOAT16}. */
+	private short[] q_shorts;
+	/** The scale of each label if {@link QuantizationType#INT8}. */
+	private float[] f_scales;
+	private int n_size;
+	
+	/** Quantizes the weights of the specific vector. */
+	public QuantizedWeightVector(AbstractWeightVector vector, QuantizationType type)
+	{
+		super(vector.isBinaryLabel());
+		n_labels   = vector.getLabelSize();
+		n_features = vector.getFeatureSize();
+		n_size     = vector.size();
+		q_type     = type;
+		
+		switch (type)
+		{
+		case INT8   : initInt8(vector);    break;
+		case FLOAT16: initFloat16(vector); break;
+		}
+	}
+	
+	/** Called by {@link #QuantizedWeightVector(AbstractWeightVector, QuantizationType)}. */
+	private void initInt8(AbstractWeightVector vector)
+	{
+		int i, j, labelSize = getScaleSize();
+		f_scales = new float[labelSize];
+		q_bytes  = new byte[n_size];
+		float w;
+		
+		for (i=0; i<n_features; i++)
+			for (j=0; j<labelSize; j++)
+				f_scales[j] = Math.max(f_scales[j], Math.abs(get(vector, j, i)));
+		
+		for (j=0; j<labelSize; j++)
+			f_scales[j] = (f_scales[j] == 0) ? 1 : f_scales[j] / Byte.MAX_VALUE;
+		
+		for (i=0; i<n_features; i++)
+		{
+			for (j=0; j<labelSize; j++)
+			{
+				w = get(vector, j, i) / f_scales[j];
+				q_bytes[getWeightIndex(j, i)] = (byte)Math.round(w);
+			}
+		}
+	}
+	
+	/** Called by {@link #QuantizedWeightVector(AbstractWeightVector, QuantizationType)}. */
+	private void initFloat16(AbstractWeightVector vector)
+	{
+		int i, j, labelSize = getScaleSize();
+		q_shorts = new short[n_size];
+		
+		for (i=0; i<n_features; i++)
+			for (j=0; j<labelSize; j++)
+				q_shorts[getWeightIndex(j, i)] = MathUtils.toFloat16(get(vector, j, i));
+	}
+	
+	/** @return the weight of the specific label and feature in the specific vector. */
+	private float get(AbstractWeightVector vector, int labelIndex, int featureIndex)
+	{
+		return vector.get(vector.getWeightIndex(labelIndex, featureIndex));
+	}
+	
+	/** @return the number of labels whose weights are kept (1 if this is a binary vector). */
+	private int getScaleSize()
+	{
+		return b_binary ? 1 : n_labels;
+	}
+	
+	public QuantizationType getQuantizationType()
+	{
+		return q_type;
+	}
+	
+//	====================================== Scores ======================================
+	
+	@Override
+	public double[] getScores(SparseFeatureVector x)
+	{
+		return getScores(x, null);
+	}
+	
+	@Override
+	public double[] getScores(SparseFeatureVector x, int[] include)
+	{
+		double[] scores = new double[b_binary ? 2 : n_labels];
+		getScores(x, include, scores);
+		return scores;
+	}
+	
+	@Override
+	public void getScores(SparseFeatureVector x, int[] include, double[] scores)
+	{
+		if (b_binary)	getBinaryScores(x, scores);
+		else			getMultiScores (x, include, scores);
+	}
+	
+	/** Called by {@link #getScores(SparseFeatureVector, int[], double[])}. */
+	private void getBinaryScores(SparseFeatureVector x, double[] scores)
+	{
+		int i, index, len = x.size();
+		double score = getQuantized(0);
+		
+		for (i=0; i<len; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (isValidFeatureIndex(index))
+				score += getQuantized(index) * x.getWeight(i);
+		}
+		
+		score *= getScale(0);
+		scores[BinaryWeightVector.POSITIVE] =  score;
+		scores[BinaryWeightVector.NEGATIVE] = -score;
+	}
+	
+	/** Called by {@link #getScores(SparseFeatureVector, int[], double[])}; the scales are multiplied once per label. */
+	private void getMultiScores(SparseFeatureVector x, int[] include, double[] scores)
+	{
+		int i, j, index, len = x.size();
+		double weight;
+		
+		if (include == null)
+		{
+			for (j=0; j<n_labels; j++)
+				scores[j] = getQuantized(j);
+		}
+		else
+		{
+			for (int k : include)
+				scores[k] = getQuantized(k);
+		}
+		
+		for (i=0; i<len; i++)
+		{
+			index = x.getIndex(i);
+			
+			if (isValidFeatureIndex(index))
+			{
+				index  = index * n_labels;
+				weight = x.getWeight(i);
+				
+				if (include == null)
+				{
+					for (j=0; j<n_labels; j++)
+						scores[j] += getQuantized(index+j) * weight;
+				}
+				else
+				{
+					for (int k : include)
+						scores[k] += getQuantized(index+k) * weight;
+				}
+			}
+		}
+		
+		if (f_scales != null)
+		{
+			if (include == null)
+			{
+				for (j=0; j<n_labels; j++)
+					scores[j] *= f_scales[j];
+			}
+			else
+			{
+				for (int k : include)
+					scores[k] *= f_scales[k];
+			}
+		}
+	}
+	
+//	====================================== Weights ======================================
+	
+	/** @return the quantized weight before scaling. */
+	private float getQuantized(int weightIndex)
+	{
+		return (q_bytes != null) ? q_bytes[weightIndex] : MathUtils.toFloat32(q_shorts[weightIndex]);
+	}
+	
+	/** @return the scale of the specific label. */
+	private float getScale(int labelIndex)
+	{
+		return (f_scales != null) ? f_scales[labelIndex] : 1f;
+	}
+	
+	@Override
+	public int getWeightIndex(int labelIndex, int featureIndex)
+	{
+		return b_binary ? featureIndex : featureIndex * n_labels + labelIndex;
+	}
+	
+	@Override
+	public float[] getWeights(int labelIndex)
+	{
+		float inv = (b_binary && labelIndex == BinaryWeightVector.NEGATIVE) ? -1 : 1;
+		float[] weights = new float[n_features];
+		int i;
+		
+		for (i=0; i<n_features; i++)
+			weights[i] = get(getWeightIndex(labelIndex, i)) * inv;
+		
+		return weights;
+	}
+	
+	@Override
+	public float get(int weightIndex)
+	{
+		return getQuantized(weightIndex) * getScale(b_binary ? 0 : weightIndex % n_labels);
+	}
+	
+	@Override
+	public int size()
+	{
+		return n_size;
+	}
+	
+	@Override
+	public boolean isEmpty()
+	{
+		return n_size == 0;
+	}
+	
+	@Override
+	public void trimToSize() {}
+	
+	@Override
+	public FloatArrayList cloneWeights()
+	{
+		FloatArrayList list = new FloatArrayList(n_size);
+		int i;
+		
+		for (i=0; i<n_size; i++)
+			list.add(get(i));
+		
+		return list;
+	}
+	
+//	====================================== Read-only ======================================
+	
+	@Override
+	public void expand(int labelSize, int featureSize)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void setWeights(int labelIndex, float[] weights)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void setWeights(FloatArrayList weights)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void set(int weightIndex, float value)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void set(double[] array)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void add(int weightIndex, float value)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+	
+	@Override
+	public void multiply(int weightIndex, float value)
+	{
+		throw new UnsupportedOperationException(READ_ONLY);
+	}
+}
@@ -61,6 +61,13 @@ public class SparseFeatureVector extends AbstractFeatureVector
 		d_weights.add(weight);
 	}
 	
+	/** Removes all features from this vector so that it can be reused. */
+	public void clear()
+	{
+		i_indices.clear();
+		if (hasWeight()) d_weights.clear();
+	}
+	
 	/** @return the index'th feature index. */
 	public int getIndex(int index)
 	{
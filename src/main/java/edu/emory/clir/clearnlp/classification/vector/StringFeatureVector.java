@@ -76,6 +76,14 @@ public class StringFeatureVector extends AbstractFeatureVector
 		d_weights.add(weight);
 	}
 	
+	/** Removes all features from this vector so that it can be reused. */
+	public void clear()
+	{
+		i_types .clear();
+		s_values.clear();
+		if (hasWeight()) d_weights.clear();
+	}
+	
 	/** @return the index'th feature type. */
 	public int getType(int index)
 	{
@@ -15,6 +15,10 @@
  */
 package edu.emory.clir.clearnlp.collection.map;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -24,18 +28,25 @@ import com.carrotsearch.hppc.IntStack;
 
 import edu.emory.clir.clearnlp.collection.pair.ObjectIntPair;
 import edu.emory.clir.clearnlp.util.HashUtils;
+import edu.emory.clir.clearnlp.util.IOUtils;
 import edu.emory.clir.clearnlp.util.MathUtils;
 
 /**
+ * Perfect hash map using hash-and-displace: keys are hashed into buckets, and each bucket is displaced into free slots.
+ * Once {@link #initHashFunction()} is called, the keys are discarded and the map becomes read-only;
+ * each slot keeps a 32-bit fingerprint of its key so that {@link #get(String)} can reject unseen keys.
  * @since 3.0.0
  * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
  */
-public class StringIntMinimalPerfectHashMap
+public class StringIntMinimalPerfectHashMap implements Serializable
 {
-	private ObjectIntHashMap<String> m_key;
+	private static final long serialVersionUID = 3386424919560911047L;
+	private static final long DISPLACEMENT = 0x9e3779b97f4a7c15L;
+	private transient ObjectIntHashMap<String> m_key;
 	private int   n_index;
 	private int[] g_hashes;
 	private int[] g_values;
+	private int[] g_fingerprints;
 	
 	public StringIntMinimalPerfectHashMap()
 	{
@@ -43,30 +54,56 @@ public class StringIntMinimalPerfectHashMap
 		n_index = 0;
 	}
 	
+	/** Creates a read-only map from the specific buffer (see {@link #save(DataOutputStream)}). */
+	public StringIntMinimalPerfectHashMap(ByteBuffer buffer)
+	{
+		n_index        = buffer.getInt();
+		g_hashes       = IOUtils.getIntArray(buffer);
+		g_values       = IOUtils.getIntArray(buffer);
+		g_fingerprints = IOUtils.getIntArray(buffer);
+	}
+	
+	/** Saves this map as flat arrays that can be read by {@link #StringIntMinimalPerfectHashMap(ByteBuffer)}; {@link #initHashFunction()} must be called before. */
+	public void save(DataOutputStream out) throws IOException
+	{
+		out.writeInt(n_index);
+		IOUtils.writeIntArray(out, g_hashes);
+		IOUtils.writeIntArray(out, g_values);
+		IOUtils.writeIntArray(out, g_fingerprints);
+	}
+	
+	/** Adds the key whose value is the number of keys added before. */
 	public void addkey(String key)
 	{
 		if (!m_key.containsKey(key))
 			m_key.put(key, n_index++);
 	}
 	
+	/** Adds the key with the specific value. */
+	public void put(String key, int value)
+	{
+		if (!m_key.containsKey(key)) n_index++;
+		m_key.put(key, value);
+	}
+	
 	public void initHashFunction()
 	{
-		int vsize = (int)MathUtils.nextPrimeNumber((int)(1.25 * m_key.size()));
-		int hsize = vsize / 5;
+		int vsize = (int)MathUtils.nextPrimeNumber(Math.max(2, (int)(1.25 * m_key.size())));
+		int hsize = Math.max(1, vsize / 5);
 		
 		StringList[] patterns = getEmptyList(hsize);
 		int[] hashes = new int[hsize];
 		int[] values = new int[vsize];
+		int[] prints = new int[vsize];
+		boolean[] used = new boolean[vsize];
 		int i, b, d, len, item, slot;
 		IntArrayList slots;
 		StringList pattern;
 		IntStack freelist;
-		
-		// initialize
-		Arrays.fill(values, -1);
+		long h;
 		
 		for (ObjectIntPair<String> p : m_key)
-			patterns[hash(p.o, 0, hsize)].add(p.o);
+			patterns[bucket(hash(p.o), hsize)].add(p.o);
 		
 		// sort patterns in descending order
 		Arrays.sort(patterns, Collections.reverseOrder());
@@ -85,9 +122,9 @@ public class StringIntMinimalPerfectHashMap
 			// rotate patterns and search for suitable displacement
 			while (item < len)
 			{
-				slot = hash(pattern.get(item), d, vsize);
+				slot = slot(hash(pattern.get(item)), d, vsize);
 				
-				if (values[slot] != -1 || slots.contains(slot))
+				if (used[slot] || slots.contains(slot))
 				{
 					slots = new IntArrayList();
 					item  = 0;
@@ -100,10 +137,10 @@ public class StringIntMinimalPerfectHashMap
 				}
 			}
 			
-			hashes[hash(pattern.get(0), 0, hsize)] = d;
+			hashes[bucket(hash(pattern.get(0)), hsize)] = d;
 			
 			for (i=0; i<len; i++)
-				values[slots.get(i)] = m_key.get(pattern.get(i));
+				put(values, prints, used, slots.get(i), pattern.get(i));
 		}
 		
 		// process patterns with one key and use a negative value of d
@@ -111,7 +148,7 @@ public class StringIntMinimalPerfectHashMap
 		
 		for (i=0; i<vsize; i++)
 		{
-			if (values[i] == -1)
+			if (!used[i])
 				freelist.add(i);
 		}
 		
@@ -122,27 +159,83 @@ public class StringIntMinimalPerfectHashMap
 			len = pattern.size();
 			if (len == 0) break;
 			
+			h = hash(pattern.get(0));
 			slot = freelist.pop();
-			hashes[hash(pattern.get(0), 0, hsize)] = -slot-1;
-			values[slot] = m_key.get(pattern.get(0));
+			hashes[bucket(h, hsize)] = -slot-1;
+			put(values, prints, used, slot, pattern.get(0));
 		}
 		
 		g_hashes = hashes;
 		g_values = values;
+		g_fingerprints = prints;
+		m_key = null;
+	}
+	
+	/** Called by {@link #initHashFunction()}. */
+	private void put(int[] values, int[] prints, boolean[] used, int slot, String key)
+	{
+		values[slot] = m_key.get(key);
+		prints[slot] = fingerprint(hash(key));
+		used  [slot] = true;
 	}
 	
+	/** @return the value of the key if exists; otherwise, an arbitrary value. */
 	public int lookup(String key)
 	{
-		int d = g_hashes[hash(key, 0, g_hashes.length)];
-		d = (d < 0) ? -d-1 : hash(key, d, g_values.length);
-		return g_values[d];
+		return g_values[getSlot(hash(key))];
 	}
 	
-	/** Called by {@link #initHashFunction()}. */
-	private int hash(String key, int basis, int size)
+	/** @return the value of the key if exists; otherwise, {@code 0} (unless the 32-bit fingerprint of an unseen key collides). */
+	public int get(String key)
+	{
+		long h = hash(key);
+		int slot = getSlot(h);
+		return (g_fingerprints[slot] == fingerprint(h)) ? g_values[slot] : 0;
+	}
+	
+	/** @return the number of keys in this map. */
+	public int size()
+	{
+		return n_index;
+	}
+	
+	/** Called by {@link #lookup(String)} and {@link #get(String)}. */
+	private int getSlot(long h)
+	{
+		int d = g_hashes[bucket(h, g_hashes.length)];
+		return (d < 0) ? -d-1 : slot(h, d, g_values.length);
+	}
+	
+	/** @return the hash value of the key from which its bucket, slots, and fingerprint are derived. */
+	private long hash(String key)
+	{
+		return mix(HashUtils.fnv1aHash64(key));
+	}
+	
+	private int bucket(long h, int size)
+	{
+		return MathUtils.divisor((int)(h >>> 32), size);
+	}
+	
+	private int slot(long h, int d, int size)
+	{
+		return MathUtils.divisor((int)(mix(h + d * DISPLACEMENT) >>> 32), size);
+	}
+	
+	private int fingerprint(long h)
+	{
+		return (int)h;
+	}
+	
+	/** Finalizes the hash value so that all bits depend on all bits of the key. */
+	private long mix(long h)
 	{
-		int h = (basis == 0) ? HashUtils.fnv1aHash32(key) : HashUtils.fnv1aHash32(key, basis);
-		return MathUtils.divisor(h, size);
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
 	}
 	
 	/** Called by {@link #initHashFunction()}. */
@@ -0,0 +1,288 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.collection.tree;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+import edu.emory.clir.clearnlp.collection.list.IntArrayList;
+import edu.emory.clir.clearnlp.collection.map.ObjectIntHashMap;
+import edu.emory.clir.clearnlp.collection.map.StringIntMinimalPerfectHashMap;
+import edu.emory.clir.clearnlp.collection.pair.ObjectIntPair;
+import edu.emory.clir.clearnlp.collection.triple.ObjectIntIntTriple;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * Read-only prefix tree whose nodes are flat arrays instead of {@link PrefixNode}s.
+ * Tokens are interned into IDs by {@link StringIntMinimalPerfectHashMap} and not kept.
+ * Nodes are numbered in breadth-first order so that the children of each node are contiguous and sorted by their token IDs,
+ * and a child is found by binary search.
+ * Equal values are shared by all nodes.
+ * {@link #save(DataOutputStream, ValueWriter)} writes the flat arrays so that loading needs no object deserialization.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class FrozenPrefixTree<V> extends PrefixTree<String,V>
+{
+	private static final long serialVersionUID = -1792463862935183426L;
+	/** The first 4 bytes of a frozen prefix tree (see {@link #save(DataOutputStream, ValueWriter)}). */
+	static public final int MAGIC = 0x434E5054;
+	static public final int VERSION = 1;
+	
+	/** Token -> ID (starting at 1); {@code 0} for unseen tokens. */
+	private StringIntMinimalPerfectHashMap m_tokens;
+	/** The children of the i'th node are the nodes in [{@code n_children[i]}, {@code n_children[i+1]}). */
+	private int[] n_children;
+	/** The token ID of each node; the root is {@code 0}. */
+	private int[] n_labels;
+	/** The index of the value of each node in {@link #v_values}; {@code -1} if the node has no value. */
+	private int[] n_values;
+	private Object[] v_values;
+	
+	/** Freezes the specific tree, which is not modified. */
+	public FrozenPrefixTree(PrefixTree<String,V> tree)
+	{
+		super(null);
+		List<PrefixNode<String,V>> nodes = new ArrayList<>();
+		ObjectIntHashMap<String> tokens = initTokens(tree.getRoot());
+		Map<V,Integer> values = new HashMap<>();
+		IntArrayList children = new IntArrayList();
+		IntArrayList labels = new IntArrayList();
+		IntArrayList vIndices = new IntArrayList();
+		List<ObjectIntPair<PrefixNode<String,V>>> list;
+		PrefixNode<String,V> node;
+		Integer vIndex;
+		int i;
+		
+		nodes.add(tree.getRoot());
+		labels.add(0);
+		
+		for (i=0; i<nodes.size(); i++)
+		{
+			node = nodes.get(i);
+			children.add(nodes.size());
+			
+			if (node.hasValue())
+			{
+				if ((vIndex = values.get(node.getValue())) == null)
+					values.put(node.getValue(), vIndex = values.size());
+				
+				vIndices.add(vIndex);
+			}
+			else
+				vIndices.add(-1);
+			
+			list = new ArrayList<>(node.size());
+			for (Entry<String,PrefixNode<String,V>> e : node.entrySet()) list.add(new ObjectIntPair<>(e.getValue(), tokens.get(e.getKey())));
+			list.sort((p1, p2) -> Integer.compare(p1.i, p2.i));
+			
+			for (ObjectIntPair<PrefixNode<String,V>> p : list)
+			{
+				nodes.add(p.o);
+				labels.add(p.i);
+			}
+		}
+		
+		children.add(nodes.size());
+		n_children = children.toArray();
+		n_labels   = labels.toArray();
+		n_values   = vIndices.toArray();
+		v_values   = new Object[values.size()];
+		for (Entry<V,Integer> e : values.entrySet()) v_values[e.getValue()] = e.getKey();
+	}
+	
+	/** Called by {@link #FrozenPrefixTree(PrefixTree)}. */
+	private ObjectIntHashMap<String> initTokens(PrefixNode<String,V> root)
+	{
+		ObjectIntHashMap<String> tokens = new ObjectIntHashMap<>();
+		List<PrefixNode<String,V>> nodes = new ArrayList<>();
+		nodes.add(root);
+		int i;
+		
+		for (i=0; i<nodes.size(); i++)
+		{
+			for (Entry<String,PrefixNode<String,V>> e : nodes.get(i).entrySet())
+			{
+				if (!tokens.containsKey(e.getKey())) tokens.put(e.getKey(), tokens.size()+1);
+				nodes.add(e.getValue());
+			}
+		}
+		
+		m_tokens = new StringIntMinimalPerfectHashMap();
+		for (ObjectIntPair<String> p : tokens) m_tokens.put(p.o, p.i);
+		m_tokens.initHashFunction();
+		return tokens;
+	}
+	
+	/**
+	 * Creates a tree from the specific buffer (see {@link #save(DataOutputStream, ValueWriter)}).
+	 * @param reader reads each value from the buffer.
+	 * @throws IOException if the buffer does not begin with {@link #MAGIC} and {@link #VERSION}.
+	 */
+	public FrozenPrefixTree(ByteBuffer buffer, Function<ByteBuffer,V> reader) throws IOException
+	{
+		super(null);
+		
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+			throw new IOException("Not a frozen prefix tree of this version.");
+		
+		m_tokens   = new StringIntMinimalPerfectHashMap(buffer);
+		n_children = IOUtils.getIntArray(buffer);
+		n_labels   = IOUtils.getIntArray(buffer);
+		n_values   = IOUtils.getIntArray(buffer);
+		v_values   = new Object[buffer.getInt()];
+		
+		for (int i=0; i<v_values.length; i++)
+			v_values[i] = reader.apply(buffer);
+	}
+	
+	/**
+	 * Saves this tree as flat arrays that can be read by {@link #FrozenPrefixTree(ByteBuffer, Function)}.
+	 * @param writer writes each value to the stream.
+	 */
+	@SuppressWarnings("unchecked")
+	public void save(DataOutputStream out, ValueWriter<V> writer) throws IOException
+	{
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		m_tokens.save(out);
+		IOUtils.writeIntArray(out, n_children);
+		IOUtils.writeIntArray(out, n_labels);
+		IOUtils.writeIntArray(out, n_values);
+		out.writeInt(v_values.length);
+		
+		for (Object value : v_values)
+			writer.write((V)value, out);
+	}
+	
+	/** Writes a value of the tree (see {@link FrozenPrefixTree#save(DataOutputStream, ValueWriter)}). */
+	@FunctionalInterface
+	public interface ValueWriter<V>
+	{
+		void write(V value, DataOutputStream out) throws IOException;
+	}
+	
+//	====================================== Getters ======================================
+	
+	/** @return the number of nodes in this tree including the root. */
+	public int size()
+	{
+		return n_labels.length;
+	}
+	
+	@Override
+	public <A>ObjectIntPair<V> get(A[] keys, int beginIndex, Function<A,String> f)
+	{
+		List<ObjectIntIntTriple<V>> list = new ArrayList<>(1);
+		addLongestMatch(list, getLabels(keys, beginIndex, f), beginIndex, false, false);
+		return list.isEmpty() ? null : new ObjectIntPair<>(list.get(0).o, list.get(0).i2);
+	}
+	
+	/** Applies {@code f} and looks up the token ID once per key instead of once per key and match. */
+	@Override
+	public <A>List<ObjectIntIntTriple<V>> getAll(A[] array, int beginIndex, Function<A,String> f, boolean removeSubset, boolean removeOverlap)
+	{
+		List<ObjectIntIntTriple<V>> list = new ArrayList<>();
+		int[] labels = getLabels(array, beginIndex, f);
+		
+		for (int i=beginIndex; i<labels.length; i++)
+			addLongestMatch(list, labels, i, removeSubset, removeOverlap);
+		
+		return list;
+	}
+	
+	/** @return the token IDs of the keys from {@code beginIndex}; {@code 0} for the keys not in this tree. */
+	private <A>int[] getLabels(A[] keys, int beginIndex, Function<A,String> f)
+	{
+		int[] labels = new int[keys.length];
+		
+		for (int i=beginIndex; i<keys.length; i++)
+			labels[i] = m_tokens.get(f.apply(keys[i]));
+		
+		return labels;
+	}
+	
+	/** Adds the longest match with a value beginning at {@code beginIndex} to the list if exists. */
+	@SuppressWarnings("unchecked")
+	private void addLongestMatch(List<ObjectIntIntTriple<V>> list, int[] labels, int beginIndex, boolean removeSubset, boolean removeOverlap)
+	{
+		int i, node = 0, match = -1, endIndex = -1;
+		
+		for (i=beginIndex; i<labels.length; i++)
+		{
+			if ((node = getChild(node, labels[i])) < 0) break;
+			
+			if (n_values[node] >= 0)
+			{
+				match = node;
+				endIndex = i;
+			}
+		}
+		
+		if (match >= 0) addMatch(list, (V)v_values[n_values[match]], beginIndex, endIndex, removeSubset, removeOverlap);
+	}
+	
+	/** @return the child of the specific node whose token ID is {@code label}; {@code -1} if not exists. */
+	private int getChild(int node, int label)
+	{
+		if (label == 0) return -1;
+		int m, l = n_children[node], h = n_children[node+1] - 1;
+		
+		while (l <= h)
+		{
+			m = (l + h) >>> 1;
+			
+			if      (n_labels[m] < label) l = m + 1;
+			else if (n_labels[m] > label) h = m - 1;
+			else return m;
+		}
+		
+		return -1;
+	}
+	
+//	====================================== Unsupported ======================================
+	
+	@Override
+	public PrefixNode<String,V> getRoot()
+	{
+		throw new UnsupportedOperationException("A frozen prefix tree does not keep nodes.");
+	}
+	
+	@Override
+	public void setRoot(PrefixNode<String,V> node)
+	{
+		throw new UnsupportedOperationException("A frozen prefix tree does not keep nodes.");
+	}
+	
+	@Override
+	public <A>PrefixNode<String,V> add(A[] keys, int beginIndex, int endIndex, Function<A,String> f)
+	{
+		throw new UnsupportedOperationException("A frozen prefix tree cannot be modified.");
+	}
+	
+	@Override
+	public <A>PrefixNode<String,V> get(A[] keys, int beginIndex, int endIndex, Function<A,String> f)
+	{
+		throw new UnsupportedOperationException("A frozen prefix tree does not keep nodes.");
+	}
+}
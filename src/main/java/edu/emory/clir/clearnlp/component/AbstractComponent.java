@@ -24,4 +24,7 @@ import edu.emory.clir.clearnlp.dependency.DEPTree;
 abstract public class AbstractComponent
 {
 	abstract public void process(DEPTree tree);
+	
+	/** Releases the resources held by this component (e.g., threads), if any; the component should not process trees afterwards. */
+	public void close() {}
 }
\ No newline at end of file
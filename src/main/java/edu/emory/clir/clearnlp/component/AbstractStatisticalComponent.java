@@ -19,9 +19,12 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,6 +36,10 @@ import edu.emory.clir.clearnlp.classification.instance.StringInstance;
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 import edu.emory.clir.clearnlp.classification.trainer.AbstractOnlineTrainer;
 import edu.emory.clir.clearnlp.classification.trainer.AdaGradSVM;
+import edu.emory.clir.clearnlp.classification.vector.MultiWeightVector;
+import edu.emory.clir.clearnlp.classification.vector.QuantizationType;
+import edu.emory.clir.clearnlp.classification.vector.QuantizedWeightVector;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
 import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
 import edu.emory.clir.clearnlp.component.configuration.AbstractConfiguration;
 import edu.emory.clir.clearnlp.component.evaluation.AbstractEval;
@@ -44,16 +51,28 @@ import edu.emory.clir.clearnlp.feature.AbstractFeatureExtractor;
 
 
 /**
+ * Thread-safety: once a component is constructed for decode, {@link #process(DEPTree)} is thread-safe.
+ * Each sentence keeps all of its data in its own state, and the models, the feature extractors, and the lexicons are only read,
+ * so a single component can be shared by multiple threads (see {@link edu.emory.clir.clearnlp.bin.NLPDecode}).
+ * {@link #initHashFeatures()}, {@link #freezeFeatureMaps()}, and {@link #setModels(StringModel[])} must be called before the component is shared.
+ * Collect, train, bootstrap, and evaluate modify the component, and are not thread-safe.
  * @since 3.0.0
  * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
  */
 abstract public class AbstractStatisticalComponent<LabelType, StateType extends AbstractState<?,LabelType>, EvalType extends AbstractEval<?>, FeatureType extends AbstractFeatureExtractor<?,?,?>, ConfigurationType extends AbstractConfiguration> extends AbstractComponent
 {
+	/** The first 4 bytes of a memory-mapped model (see {@link #saveMapped(DataOutputStream)}). */
+	static public final int MAPPED_MODEL_MAGIC = 0x434E4C50;
+	static public final int MAPPED_MODEL_VERSION = 1;
+	
 	protected ConfigurationType t_configuration;
 	protected FeatureType[] f_extractors;
 	protected StringModel[] s_models;
 	protected EvalType      c_eval;
 	protected CFlag         c_flag;
+	protected boolean       b_hash;
+	/** The buffers of each thread, reused by {@link #createSparseFeatureVector(AbstractState)} and {@link #getAutoLabel(AbstractState, SparseFeatureVector)} while decoding. */
+	private final ThreadLocal<DecodeBuffer> t_buffer = ThreadLocal.withInitial(DecodeBuffer::new);
 	
 	public AbstractStatisticalComponent() {}
 	
@@ -106,13 +125,24 @@ abstract public class AbstractStatisticalComponent<LabelType, StateType extends
 		initDecode(models);
 	}
 	
+	/** Constructs a statistical component for decode from a memory-mapped model. */
+	public AbstractStatisticalComponent(ConfigurationType configuration, ByteBuffer buffer)
+	{
+		setConfiguration(configuration);
+		initDecode(buffer);
+	}
+	
 	private StringModel[] createModels(boolean binary, int modelSize)
 	{
 		StringModel[] models = new StringModel[modelSize];
+		File directory = (t_configuration != null) ? t_configuration.getInstanceStoreDirectory() : null;
 		int i;
 		
 		for (i=0; i<modelSize; i++)
+		{
 			models[i] = new StringModel(binary);
+			if (directory != null) models[i].setScratchDirectory(directory);
+		}
 		
 		return models;
 	}
@@ -138,6 +168,18 @@ abstract public class AbstractStatisticalComponent<LabelType, StateType extends
 		catch (IOException e) {e.printStackTrace();}
 	}
 	
+	/** @throws IllegalArgumentException if the buffer is not a memory-mapped model of this version or is corrupted. */
+	protected void initDecode(ByteBuffer buffer)
+	{
+		setFlag(CFlag.DECODE);
+		
+		try
+		{
+			loadMapped(buffer);
+		}
+		catch (Exception e) {throw new IllegalArgumentException("Cannot load the memory-mapped model: "+e.getMessage(), e);}
+	}
+	
 //	====================================== CONFIGURATION ======================================
 	
 	public void setConfiguration(ConfigurationType configuration)
@@ -189,6 +231,67 @@ abstract public class AbstractStatisticalComponent<LabelType, StateType extends
 			model.save(out);
 	}
 	
+	/**
+	 * Loads all models and objects of this component from a memory-mapped buffer (see {@link #saveMapped(DataOutputStream)}).
+	 * The weights and the hash feature maps of the models are views of the buffer such that only
+	 * the feature extractors, the lexicons, and the labels are deserialized.
+	 * @throws Exception
+	 */
+	@SuppressWarnings("unchecked")
+	public void loadMapped(ByteBuffer buffer) throws Exception
+	{
+		if (buffer.getInt() != MAPPED_MODEL_MAGIC || buffer.getInt() != MAPPED_MODEL_VERSION)
+			throw new IOException("Not a memory-mapped model of this version.");
+		
+		byte[] objects = new byte[buffer.getInt()];
+		buffer.get(objects);
+		
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new ByteArrayInputStream(objects)));
+		setFeatureExtractors((FeatureType[])in.readObject());
+		setLexicons(in.readObject());
+		in.close();
+		
+		StringModel[] models = new StringModel[buffer.getInt()];
+		
+		for (int i=0; i<models.length; i++)
+			models[i] = new StringModel(buffer);
+		
+		b_hash = true;
+		setModels(models);
+	}
+	
+	/**
+	 * Saves all models and objects of this component in the format that can be memory-mapped by {@link #loadMapped(ByteBuffer)}.
+	 * @throws Exception
+	 */
+	public void saveMapped(DataOutputStream out) throws Exception
+	{
+		saveMapped(out, f_extractors, getLexicons(), s_models);
+	}
+	
+	/**
+	 * Saves the specific feature extractors, lexicons, and models in the format that can be memory-mapped by {@link #loadMapped(ByteBuffer)}.
+	 * @throws Exception
+	 */
+	static public void saveMapped(DataOutputStream out, Object extractors, Object lexicons, StringModel[] models) throws Exception
+	{
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(bos));
+		oos.writeObject(extractors);
+		oos.writeObject(lexicons);
+		oos.close();
+		
+		byte[] objects = bos.toByteArray();
+		out.writeInt(MAPPED_MODEL_MAGIC);
+		out.writeInt(MAPPED_MODEL_VERSION);
+		out.writeInt(objects.length);
+		out.write(objects);
+		out.writeInt(models.length);
+		
+		for (StringModel model : models)
+			model.saveMapped(out);
+	}
+	
 	public byte[] toByteArray() throws Exception
 	{
 		ByteArrayOutputStream bos = new ByteArrayOutputStream();
@@ -249,6 +352,52 @@ abstract public class AbstractStatisticalComponent<LabelType, StateType extends
 	public void setModels(StringModel[] models)
 	{
 		s_models = models;
+		if (b_hash) initHashFeatures();
+	}
+	
+	/**
+	 * Converts the feature maps of all models into hash feature maps so that features are
+	 * hashed directly into feature indices instead of being built as strings while decoding.
+	 */
+	public void initHashFeatures()
+	{
+		for (StringModel model : s_models)
+			model.initHashFeatureMap();
+		
+		b_hash = true;
+	}
+	
+	/** Freezes the feature maps of all models into compact read-only maps for decoding (see {@link StringModel#freezeFeatureMap()}). */
+	public void freezeFeatureMaps()
+	{
+		for (StringModel model : s_models)
+			model.freezeFeatureMap();
+	}
+	
+	/** Selects the float scoring kernel of all multi-label models (see {@link MultiWeightVector#setFloatScoring(boolean)}). */
+	public void setFloatScoring(boolean floatScoring)
+	{
+		for (StringModel model : s_models)
+		{
+			if (model.getWeightVector() instanceof MultiWeightVector)
+				((MultiWeightVector)model.getWeightVector()).setFloatScoring(floatScoring);
+		}
+	}
+	
+	/**
+	 * Quantizes the weights of all models (see {@link QuantizedWeightVector}).
+	 * The models become read-only and are saved with the quantized weights.
+	 */
+	public void quantize(QuantizationType type)
+	{
+		for (StringModel model : s_models)
+			model.setWeightVector(new QuantizedWeightVector(model.getWeightVector(), type));
+	}
+	
+	/** @return {@code true} if features are hashed directly into feature indices while decoding. */
+	public boolean isHashFeatures()
+	{
+		return b_hash;
 	}
 	
 //	====================================== PROCESS ======================================
@@ -289,15 +438,73 @@ abstract public class AbstractStatisticalComponent<LabelType, StateType extends
 		return getAutoLabel(state, vector);
 	}
 	
+	/** Feature vectors and scores are put into the buffers of the current thread whether or not {@link #isHashFeatures()}. */
 	protected LabelType decode(StateType state)
 	{
-		StringFeatureVector vector = createStringFeatureVector(state);
-		return getAutoLabel(state, vector);
+		return getAutoLabel(state, createSparseFeatureVector(state));
 	}
 	
 	abstract protected StringFeatureVector createStringFeatureVector(StateType state);
 	abstract protected LabelType getAutoLabel(StateType state, StringFeatureVector vector);
 	
+	/**
+	 * Called by {@link #decode(AbstractState)}.
+	 * If {@link #isHashFeatures()}, features are hashed directly into feature indices;
+	 * otherwise, string features are extracted into {@link #getStringFeatureVectorBuffer()} and converted by the feature map of the model.
+	 * The returned vector is the buffer of the current thread (see {@link #getFeatureVectorBuffer()}), so it must not be kept.
+	 */
+	abstract protected SparseFeatureVector createSparseFeatureVector(StateType state);
+	/** Called by {@link #decode(AbstractState)}; may use {@link #getScoreBuffer(int)} and {@link #getTopBuffer()}. */
+	abstract protected LabelType getAutoLabel(StateType state, SparseFeatureVector vector);
+	
+	/**
+	 * @return the feature vector converted from the specific string features by the feature map of the model, put into the buffer of the current thread.
+	 * @param extracted the string features extracted into {@link #getStringFeatureVectorBuffer()}.
+	 */
+	protected SparseFeatureVector toSparseFeatureVector(StringModel model, StringFeatureVector extracted)
+	{
+		return model.toSparseFeatureVector(extracted, getFeatureVectorBuffer());
+	}
+	
+	/** @return the empty feature vector owned by the current thread, which is reused for every call from the same thread. */
+	protected SparseFeatureVector getFeatureVectorBuffer()
+	{
+		SparseFeatureVector vector = t_buffer.get().vector;
+		vector.clear();
+		return vector;
+	}
+	
+	/** @return the empty string feature vector owned by the current thread, which is reused for every call from the same thread. */
+	protected StringFeatureVector getStringFeatureVectorBuffer()
+	{
+		StringFeatureVector vector = t_buffer.get().strings;
+		vector.clear();
+		return vector;
+	}
+	
+	/** @return the score array of the specific size owned by the current thread; its values are not cleared. */
+	protected double[] getScoreBuffer(int size)
+	{
+		DecodeBuffer buffer = t_buffer.get();
+		if (buffer.scores.length != size) buffer.scores = new double[size];
+		return buffer.scores;
+	}
+	
+	/** @return the array of 2 label indices owned by the current thread (e.g., for {@link StringModel#predictTop2(SparseFeatureVector, double[], int[])}). */
+	protected int[] getTopBuffer()
+	{
+		return t_buffer.get().top;
+	}
+	
+	/** The scratch objects of a thread reused for every transition while decoding. */
+	static private class DecodeBuffer
+	{
+		private final SparseFeatureVector vector  = new SparseFeatureVector();
+		private final StringFeatureVector strings = new StringFeatureVector();
+		private final int[] top = new int[2];
+		private double[] scores = new double[0];
+	}
+	
 //	====================================== EVAL ======================================
 	
 	public EvalType getEval()
@@ -389,6 +596,16 @@ abstract public class AbstractStatisticalComponent<LabelType, StateType extends
 		catch (Exception e) {e.printStackTrace();}
 	}
 	
+	/**
+	 * Evaluates this component on the specific trees, whose gold-standard annotation is replaced with the predicted one.
+	 * @return the evaluation of the trees.
+	 */
+	public EvalType evaluate(List<DEPTree> trees)
+	{
+		onlineScore(trees);
+		return c_eval;
+	}
+	
 	protected double onlineScore(List<DEPTree> trees)
 	{
 		CFlag originalFlag = c_flag;
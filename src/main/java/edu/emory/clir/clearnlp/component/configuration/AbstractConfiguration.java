@@ -15,6 +15,7 @@
  */
 package edu.emory.clir.clearnlp.component.configuration;
 
+import java.io.File;
 import java.io.InputStream;
 
 import org.w3c.dom.Element;
@@ -67,6 +68,14 @@ public class AbstractConfiguration implements ConfigurationXML
 		init(in);
 	}
 	
+	/** Creates a configuration of the specific mode from the same XML document as the specific configuration. */
+	public AbstractConfiguration(NLPMode mode, AbstractConfiguration configuration)
+	{
+		this(mode);
+		x_top    = configuration.x_top;
+		d_reader = initReader();
+	}
+	
 	private void init(InputStream in)
 	{
 		x_top    = XmlUtils.getDocumentElement(in);
@@ -136,11 +145,50 @@ public class AbstractConfiguration implements ConfigurationXML
 		return TLanguage.getType(language);
 	}
 	
+	/** @return the top element of the XML document of this configuration. */
+	public Element getDocumentElement()
+	{
+		return x_top;
+	}
+	
 	public int getThreadSize()
 	{
 		return XmlUtils.getIntegerTextContent(getFirstElement(E_THREAD_SIZE));
 	}
 	
+	/**
+	 * @return the directory where training instances are kept instead of the heap (see {@link StringModel#setScratchDirectory(File)}),
+	 * specified by {@code <instance_store>}, which is the default temporary directory if the element is empty; {@code null} if the element is absent.
+	 * The store is streamed epoch by epoch, so it is supported only by online trainers ({@code adagrad}).
+	 * @throws IllegalArgumentException if any trainer of the current mode is not an online trainer.
+	 */
+	public File getInstanceStoreDirectory()
+	{
+		Element eStore = (x_top != null) ? getFirstElement(E_INSTANCE_STORE) : null;
+		if (eStore == null) return null;
+		checkInstanceStoreTrainers();
+		String path = XmlUtils.getTrimmedTextContent(eStore);
+		return new File(path.isEmpty() ? System.getProperty("java.io.tmpdir") : path);
+	}
+	
+	/** Called by {@link #getInstanceStoreDirectory()}. */
+	private void checkInstanceStoreTrainers()
+	{
+		Element eMode = (n_mode != null) ? getModeElement() : null;
+		if (eMode == null) return;
+		NodeList list = eMode.getElementsByTagName(E_TRAINER);
+		int i, len = list.getLength();
+		String algorithm;
+		
+		for (i=0; i<len; i++)
+		{
+			algorithm = XmlUtils.getTrimmedAttribute((Element)list.item(i), A_ALGORITHM);
+			
+			if (!ALG_ADAGRAD.equals(algorithm))
+				throw new IllegalArgumentException("<"+E_INSTANCE_STORE+"> is supported only by online trainers ("+ALG_ADAGRAD+"), not by "+algorithm+" in <"+n_mode+">.");
+		}
+	}
+	
 //	=================================== ELEMENT ===================================  
 
 	protected Element getFirstElement(String tag)
@@ -232,14 +280,18 @@ public class AbstractConfiguration implements ConfigurationXML
 		double  alpha   = XmlUtils.getDoubleAttribute (eTrainer, "alpha");
 		double  rho     = XmlUtils.getDoubleAttribute (eTrainer, "rho");
 		double  bias    = XmlUtils.getDoubleAttribute (eTrainer, "bias");
+		int numThreads  = eTrainer.hasAttribute(A_NUMBER_OF_THREADS) ? XmlUtils.getIntegerAttribute(eTrainer, A_NUMBER_OF_THREADS) : 1;
+		AbstractAdaGrad trainer;
 		
 		switch (type)
 		{
-		case V_SUPPORT_VECTOR_MACHINE: return new AdaGradSVM(model, labelCutoff, featureCutoff, average, alpha, rho, bias);
-		case V_LOGISTIC_REGRESSION   : return new AdaGradLR (model, labelCutoff, featureCutoff, average, alpha, rho, bias);
+		case V_SUPPORT_VECTOR_MACHINE: trainer = new AdaGradSVM(model, labelCutoff, featureCutoff, average, alpha, rho, bias); break;
+		case V_LOGISTIC_REGRESSION   : trainer = new AdaGradLR (model, labelCutoff, featureCutoff, average, alpha, rho, bias); break;
+		default: throw new IllegalArgumentException(type+" is not a valid algorithm type.");
 		}
 		
-		throw new IllegalArgumentException(type+" is not a valid algorithm type.");
+		trainer.setThreadSize(numThreads);
+		return trainer;
 	}
 	
 	private AbstractLiblinear getTrainerLiblinear(Element eTrainer, StringModel model)
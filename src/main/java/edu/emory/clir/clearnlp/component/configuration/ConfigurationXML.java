@@ -58,6 +58,7 @@ public interface ConfigurationXML
 	String ALG_ADAGRAD			= "adagrad";
 	String ALG_LIBLINEAR		= "liblinear";
 	String E_THREAD_SIZE  		= "thread_size";
+	String E_INSTANCE_STORE		= "instance_store";
 
 	String E_BEAM_SIZE			= "beam_size";
 	String E_KNOWLEDGE_PATH		= "knowledge_path";
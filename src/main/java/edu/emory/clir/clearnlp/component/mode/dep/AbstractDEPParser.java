@@ -16,18 +16,23 @@
 package edu.emory.clir.clearnlp.component.mode.dep;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import edu.emory.clir.clearnlp.classification.instance.StringInstance;
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 import edu.emory.clir.clearnlp.classification.prediction.StringPrediction;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
 import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
 import edu.emory.clir.clearnlp.collection.pair.ObjectIntPair;
 import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
 import edu.emory.clir.clearnlp.component.mode.dep.state.AbstractDEPState;
+import edu.emory.clir.clearnlp.component.mode.dep.state.DEPStateBeam;
 import edu.emory.clir.clearnlp.component.mode.dep.state.DEPStateBranch;
+import edu.emory.clir.clearnlp.component.mode.dep.state.DEPStateGreedy;
 import edu.emory.clir.clearnlp.dependency.DEPNode;
 import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.util.DSUtils;
 
 /**
  * @since 3.0.0
@@ -36,6 +41,9 @@ import edu.emory.clir.clearnlp.dependency.DEPTree;
 public abstract class AbstractDEPParser extends AbstractStatisticalComponent<DEPLabel, AbstractDEPState, DEPEval, DEPFeatureExtractor, DEPConfiguration> implements DEPTransition
 {
 	private int[][] label_indices;
+	private DEPLabelTable label_table;
+	/** The score and top-2 buffers of each thread, reused by {@link #decodeGreedy(AbstractDEPState)}. */
+	private final ThreadLocal<DEPBuffer> t_buffer = ThreadLocal.withInitial(DEPBuffer::new);
 	
 	/** Creates a dependency parser for train. */
 	public AbstractDEPParser(DEPConfiguration configuration, DEPFeatureExtractor[] extractors, Object lexicons)
@@ -65,9 +73,18 @@ public abstract class AbstractDEPParser extends AbstractStatisticalComponent<DEP
 		init();
 	}
 	
+	/** Creates a dependency parser for decode from a memory-mapped model. */
+	public AbstractDEPParser(DEPConfiguration configuration, ByteBuffer buffer)
+	{
+		super(configuration, buffer);
+		init();
+	}
+	
 	private void init()
 	{
-		label_indices = AbstractDEPState.initLabelIndices(s_models[0].getLabels());
+		String[] labels = s_models[0].getLabels();
+		label_indices = AbstractDEPState.initLabelIndices(labels);
+		label_table   = new DEPLabelTable(labels);
 	}
 	
 //	====================================== LEXICONS ======================================
@@ -90,6 +107,23 @@ public abstract class AbstractDEPParser extends AbstractStatisticalComponent<DEP
 	@Override
 	public void process(DEPTree tree)
 	{
+		if (isDecodeOrEvaluate())
+		{
+			AbstractDEPState state;
+			
+			if (t_configuration.getBeamSize() <= 1)
+			{
+				state = new DEPStateGreedy(tree, c_flag, t_configuration);
+				decodeGreedy(state);
+				processHeadless(state);
+			}
+			else
+				state = processBeam(tree);
+			
+			if (isEvaluate()) c_eval.countCorrect(tree, state.getOracle());
+			return;
+		}
+		
 		AbstractDEPState state = new DEPStateBranch(tree, c_flag, t_configuration);
 		List<StringInstance> instances = process(state);
 		
@@ -109,6 +143,71 @@ public abstract class AbstractDEPParser extends AbstractStatisticalComponent<DEP
 		}
 	}
 
+	/**
+	 * Decodes the specific state greedily using label indices, which gives the same result as {@link #process(AbstractDEPState)} with the beam size of 1.
+	 * No object is created per transition except for the candidates of second heads; feature vectors are put into the buffers of the current thread.
+	 */
+	private void decodeGreedy(AbstractDEPState state)
+	{
+		DEPBuffer buffer = t_buffer.get();
+		double[] scores = buffer.getScores(label_table.size());
+		int[] top = buffer.top, indices;
+		double fst, snd;
+		
+		while (!state.isTerminate())
+		{
+			indices = state.getLabelIndices(label_indices);
+			
+			s_models[0].getScores(createSparseFeatureVector(state), indices, scores);
+			
+			DSUtils.top2(scores, indices, top);
+			fst = sigmoid(scores[top[0]]);
+			snd = sigmoid(scores[top[1]]);
+			
+			if (label_table.isArc(top[0], DEPLabelTable.ARC_NO_ID)) state.save2ndHead(label_table, fst, top[1], snd);
+			state.next(label_table, top[0], fst);
+		}
+	}
+	
+	/**
+	 * Decodes the specific state by beam search (see {@link DEPStateBeam}).
+	 * All items in the beam are scored into the same buffer in each step, and only the top transitions of each item become candidates.
+	 */
+	private void decodeBeam(DEPStateBeam state)
+	{
+		DEPBuffer buffer = t_buffer.get();
+		double[] scores = buffer.getScores(label_table.size());
+		int[] top = buffer.getTop(state.getCandidateSize()), indices;
+		int i, size;
+		
+		while (!state.isTerminate())
+		{
+			for (i=0; i<state.getBeamItemSize(); i++)
+			{
+				state.setBeamItem(i);
+				indices = state.getLabelIndices(label_indices);
+				
+				s_models[0].getScores(createSparseFeatureVector(state), indices, scores);
+				
+				size = DSUtils.topK(scores, indices, top);
+				state.addCandidates(scores, top, size);
+			}
+			
+			state.nextStep(label_table);
+		}
+		
+		state.setBestItem();
+	}
+	
+	/** Decodes the specific tree by beam search even if the beam size is 1, which {@link #process(DEPTree)} decodes greedily instead. */
+	DEPStateBeam processBeam(DEPTree tree)
+	{
+		DEPStateBeam state = new DEPStateBeam(tree, c_flag, t_configuration);
+		decodeBeam(state);
+		processHeadless(state);
+		return state;
+	}
+	
 	@Override
 	protected StringFeatureVector createStringFeatureVector(AbstractDEPState state)
 	{
@@ -118,7 +217,24 @@ public abstract class AbstractDEPParser extends AbstractStatisticalComponent<DEP
 	@Override
 	protected DEPLabel getAutoLabel(AbstractDEPState state, StringFeatureVector vector)
 	{
-		StringPrediction[] ps = getPredictions(state, vector);
+		return getAutoLabel(state, getPredictions(state, vector));
+	}
+	
+	@Override
+	protected SparseFeatureVector createSparseFeatureVector(AbstractDEPState state)
+	{
+		if (b_hash) return f_extractors[0].createSparseFeatureVector(state, s_models[0].getHashFeatureMap(), getFeatureVectorBuffer());
+		return toSparseFeatureVector(s_models[0], f_extractors[0].createStringFeatureVector(state, getStringFeatureVectorBuffer()));
+	}
+	
+	@Override
+	protected DEPLabel getAutoLabel(AbstractDEPState state, SparseFeatureVector vector)
+	{
+		return getAutoLabel(state, getPredictions(state, vector));
+	}
+	
+	private DEPLabel getAutoLabel(AbstractDEPState state, StringPrediction[] ps)
+	{
 		DEPLabel autoLabel = new DEPLabel(ps[0]);
 		if (autoLabel.isArc(ARC_NO)) state.save2ndHead(ps);
 		state.saveBranch(ps);
@@ -129,10 +245,48 @@ public abstract class AbstractDEPParser extends AbstractStatisticalComponent<DEP
 	{
 		int[] indices = state.getLabelIndices(label_indices);		
 		StringPrediction[] ps = (indices != null) ? s_models[0].predictTop2(vector, indices) : s_models[0].predictTop2(vector);
-		for (StringPrediction p : ps) p.setScore(1/(1+Math.exp(-p.getScore())));
+		return toSigmoid(ps);
+	}
+	
+	protected StringPrediction[] getPredictions(AbstractDEPState state, SparseFeatureVector vector)
+	{
+		int[] indices = state.getLabelIndices(label_indices);
+		StringPrediction[] ps = (indices != null) ? s_models[0].predictTop2(vector, indices) : s_models[0].predictTop2(vector);
+		return toSigmoid(ps);
+	}
+	
+	private StringPrediction[] toSigmoid(StringPrediction[] ps)
+	{
+		for (StringPrediction p : ps) p.setScore(sigmoid(p.getScore()));
 		return ps;
 	}
 	
+	private double sigmoid(double score)
+	{
+		return 1/(1+Math.exp(-score));
+	}
+	
+	/** Called by {@link #decodeGreedy(AbstractDEPState)} and {@link #decodeBeam(DEPStateBeam)}. */
+	static private class DEPBuffer
+	{
+		private double[] scores = new double[0];
+		private int[]    top    = new int[2];
+		
+		/** @return the score buffer whose size is the specific label size. */
+		public double[] getScores(int labelSize)
+		{
+			if (scores.length != labelSize) scores = new double[labelSize];
+			return scores;
+		}
+		
+		/** @return the buffer for the top-k label indices. */
+		public int[] getTop(int k)
+		{
+			if (top.length != k) top = new int[k];
+			return top;
+		}
+	}
+	
 //	====================================== POST-PROCESS ======================================
 	
 	private void processHeadless(AbstractDEPState state)
@@ -162,7 +316,6 @@ public abstract class AbstractDEPParser extends AbstractStatisticalComponent<DEP
 	private void processHeadlessAll(AbstractDEPState state, DEPNode node, ObjectIntPair<StringPrediction> max, int[] indices, int dir)
 	{
 		int i, currID = node.getID(), size = state.getTreeSize();
-		StringFeatureVector vector;
 		StringPrediction p;
 		DEPNode head;
 		
@@ -174,8 +327,7 @@ public abstract class AbstractDEPParser extends AbstractStatisticalComponent<DEP
 			{
 				if (dir < 0)	state.reset(i, currID);
 				else			state.reset(currID, i);
-				vector = createStringFeatureVector(state);
-				p = s_models[0].predictBest(vector, indices);
+				p = s_models[0].predictBest(createSparseFeatureVector(state), indices);
 				if (max.o == null || max.o.compareTo(p) < 0) max.set(p, i);	
 			}
 		}
@@ -20,6 +20,7 @@ import java.io.InputStream;
 import org.w3c.dom.Element;
 
 import edu.emory.clir.clearnlp.component.configuration.AbstractConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.state.DEPStateBeam;
 import edu.emory.clir.clearnlp.component.utils.NLPMode;
 import edu.emory.clir.clearnlp.util.XmlUtils;
 
@@ -29,9 +30,12 @@ import edu.emory.clir.clearnlp.util.XmlUtils;
  */
 public class DEPConfiguration extends AbstractConfiguration
 {
+	static public final double DEFAULT_BEAM_MARGIN = 0.25;
+	
 	private boolean eval_punct;
 	private String root_label;
 	private int beam_size;
+	private double beam_margin;
 	
 //	============================== Initialization ==============================
 	
@@ -39,6 +43,7 @@ public class DEPConfiguration extends AbstractConfiguration
 	{
 		super(NLPMode.dep);
 		setRootLabel(rootLabel);
+		setBeamMargin(DEFAULT_BEAM_MARGIN);
 	}
 	
 	public DEPConfiguration(InputStream in)
@@ -47,6 +52,13 @@ public class DEPConfiguration extends AbstractConfiguration
 		init();
 	}
 	
+	/** Creates a dependency configuration from the same XML document as the specific configuration (e.g., {@code DecodeConfiguration}). */
+	public DEPConfiguration(AbstractConfiguration configuration)
+	{
+		super(NLPMode.dep, configuration);
+		init();
+	}
+	
 	private void init()
 	{
 		Element eMode = getModeElement();
@@ -54,10 +66,12 @@ public class DEPConfiguration extends AbstractConfiguration
 		boolean evalPunct = XmlUtils.getBooleanTextContent(XmlUtils.getFirstElementByTagName(eMode, "evaluate_punctuation"));
 		String rootLabel  = XmlUtils.getTrimmedTextContent(XmlUtils.getFirstElementByTagName(eMode, "root_label"));
 		int beamSize = XmlUtils.getIntegerTextContent(XmlUtils.getFirstElementByTagName(eMode, "beam_size"));
+		String beamMargin = XmlUtils.getTrimmedTextContent(XmlUtils.getFirstElementByTagName(eMode, "beam_margin"));
 		
 		setEvaluatePunctuation(evalPunct);
 		setRootLabel(rootLabel);
 		setBeamSize(beamSize);
+		setBeamMargin((beamMargin != null && !beamMargin.isEmpty()) ? Double.parseDouble(beamMargin) : DEFAULT_BEAM_MARGIN);
 	}
 	
 	public int getBeamSize()
@@ -70,6 +84,20 @@ public class DEPConfiguration extends AbstractConfiguration
 		beam_size = size;
 	}
 	
+	/**
+	 * @return the margin of the raw scores by which the transitions other than the best transition of each beam item are kept while decoding;
+	 * the larger the margin is, the more transitions are explored (see {@link DEPStateBeam}).
+	 */
+	public double getBeamMargin()
+	{
+		return beam_margin;
+	}
+	
+	public void setBeamMargin(double margin)
+	{
+		beam_margin = margin;
+	}
+	
 	public String getRootLabel()
 	{
 		return root_label;
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.mode.dep;
+
+/**
+ * Integer descriptors (arc, list, and deprel) of dependency labels cached per label index,
+ * so that transitions can be made from label indices without splitting label strings (see {@link DEPLabel#set(String, double)}).
+ * This table is read-only once created so it can be shared by all threads.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DEPLabelTable implements DEPTransition
+{
+	static public final byte ARC_LEFT_ID    = 0;
+	static public final byte ARC_RIGHT_ID   = 1;
+	static public final byte ARC_NO_ID      = 2;
+	static public final byte LIST_SHIFT_ID  = 0;
+	static public final byte LIST_REDUCE_ID = 1;
+	static public final byte LIST_PASS_ID   = 2;
+	
+	private byte[]   b_arcs;
+	private byte[]   b_lists;
+	private String[] s_deprels;
+	
+	/** @param labels the labels of a dependency model, whose indices are label indices. */
+	public DEPLabelTable(String[] labels)
+	{
+		int i, size = labels.length;
+		DEPLabel label;
+		
+		b_arcs    = new byte[size];
+		b_lists   = new byte[size];
+		s_deprels = new String[size];
+		
+		for (i=0; i<size; i++)
+		{
+			label = new DEPLabel(labels[i]);
+			b_arcs   [i] = getArcID (label.getArc());
+			b_lists  [i] = getListID(label.getList());
+			s_deprels[i] = label.getDeprel();
+		}
+	}
+	
+	static public byte getArcID(String arc)
+	{
+		switch (arc)
+		{
+		case ARC_LEFT : return ARC_LEFT_ID;
+		case ARC_RIGHT: return ARC_RIGHT_ID;
+		case ARC_NO   : return ARC_NO_ID;
+		}
+		
+		throw new IllegalArgumentException("Invalid arc: "+arc);
+	}
+	
+	static public byte getListID(String list)
+	{
+		switch (list)
+		{
+		case LIST_SHIFT : return LIST_SHIFT_ID;
+		case LIST_REDUCE: return LIST_REDUCE_ID;
+		case LIST_PASS  : return LIST_PASS_ID;
+		}
+		
+		throw new IllegalArgumentException("Invalid list: "+list);
+	}
+	
+	/** @return one of {@link #ARC_LEFT_ID}, {@link #ARC_RIGHT_ID}, and {@link #ARC_NO_ID}. */
+	public byte getArcID(int labelIndex)
+	{
+		return b_arcs[labelIndex];
+	}
+	
+	/** @return one of {@link #LIST_SHIFT_ID}, {@link #LIST_REDUCE_ID}, and {@link #LIST_PASS_ID}. */
+	public byte getListID(int labelIndex)
+	{
+		return b_lists[labelIndex];
+	}
+	
+	public String getDeprel(int labelIndex)
+	{
+		return s_deprels[labelIndex];
+	}
+	
+	public boolean isArc(int labelIndex, byte arcID)
+	{
+		return b_arcs[labelIndex] == arcID;
+	}
+	
+	public int size()
+	{
+		return b_arcs.length;
+	}
+}
@@ -16,6 +16,7 @@
 package edu.emory.clir.clearnlp.component.mode.dep;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 
@@ -48,4 +49,10 @@ public class DefaultDEPParser extends AbstractDEPParser
 	{
 		super(configuration, models);
 	}
+	
+	/** Creates a dependency parsing for decode from a memory-mapped model. */
+	public DefaultDEPParser(DEPConfiguration configuration, ByteBuffer buffer)
+	{
+		super(configuration, buffer);
+	}
 }
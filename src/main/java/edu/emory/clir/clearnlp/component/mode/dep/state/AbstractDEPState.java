@@ -26,6 +26,7 @@ import edu.emory.clir.clearnlp.collection.pair.ObjectDoublePair;
 import edu.emory.clir.clearnlp.collection.stack.IntPStack;
 import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
 import edu.emory.clir.clearnlp.component.mode.dep.DEPLabel;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPLabelTable;
 import edu.emory.clir.clearnlp.component.mode.dep.DEPTransition;
 import edu.emory.clir.clearnlp.component.state.AbstractState;
 import edu.emory.clir.clearnlp.component.utils.CFlag;
@@ -296,29 +297,44 @@ public abstract class AbstractDEPState extends AbstractState<DEPArc,DEPLabel> im
 	
 	@Override
 	public void next(DEPLabel label)
+	{
+		next(DEPLabelTable.getArcID(label.getArc()), DEPLabelTable.getListID(label.getList()), label.getDeprel(), label.getScore());
+	}
+	
+	/**
+	 * Makes the transition of the specific label index without creating any object.
+	 * @param labels the label descriptors of the model that predicts the label index.
+	 */
+	public void next(DEPLabelTable labels, int labelIndex, double score)
+	{
+		next(labels.getArcID(labelIndex), labels.getListID(labelIndex), labels.getDeprel(labelIndex), score);
+	}
+	
+	/** Called by {@link #next(DEPLabel)} and {@link #next(DEPLabelTable, int, double)}. */
+	private void next(byte arc, byte list, String deprel, double score)
 	{
 		DEPNode stack = getStack();
 		DEPNode input = getInput();
 		
-		total_score += label.getScore();
+		total_score += score;
 		num_transitions++;
 		
-		if (label.isArc(ARC_LEFT))
+		if (arc == DEPLabelTable.ARC_LEFT_ID)
 		{
-			stack.setHead(input, label.getDeprel());
-			if (label.isList(LIST_REDUCE)) reduce();
+			stack.setHead(input, deprel);
+			if (list == DEPLabelTable.LIST_REDUCE_ID) reduce();
 			else pass();
 		}
-		else if (label.isArc(ARC_RIGHT))
+		else if (arc == DEPLabelTable.ARC_RIGHT_ID)
 		{
-			input.setHead(stack, label.getDeprel());
-			if (label.isList(LIST_SHIFT)) shift();
+			input.setHead(stack, deprel);
+			if (list == DEPLabelTable.LIST_SHIFT_ID) shift();
 			else pass();
 		}
 		else
 		{
-			if (label.isList(LIST_SHIFT)) shift();
-			else if (label.isList(LIST_REDUCE)) reduce();
+			if (list == DEPLabelTable.LIST_SHIFT_ID) shift();
+			else if (list == DEPLabelTable.LIST_REDUCE_ID) reduce();
 			else pass();
 		}
 	}
@@ -378,6 +394,32 @@ public abstract class AbstractDEPState extends AbstractState<DEPArc,DEPLabel> im
 		}
 	}
 	
+	/**
+	 * Same as {@link #save2ndHead(StringPrediction[])} given the label indices of the top 2 predictions.
+	 * PRE: the arc of {@code fst} is {@link #ARC_NO}.
+	 */
+	public void save2ndHead(DEPLabelTable labels, double fstScore, int snd, double sndScore)
+	{
+		if (fstScore - sndScore < 1)
+		{
+			if (labels.isArc(snd, DEPLabelTable.ARC_NO_ID)) return;
+			DEPNode curr, head;
+			
+			if (labels.isArc(snd, DEPLabelTable.ARC_LEFT_ID))
+			{
+				curr = getStack();
+				head = getInput();
+			}
+			else
+			{
+				head = getStack();
+				curr = getInput();
+			}
+			
+			snd_heads[curr.getID()].add(new ObjectDoublePair<DEPArc>(new DEPArc(head, labels.getDeprel(snd)), sndScore));
+		}
+	}
+	
 	/** @param node has no head. */
 	public boolean find2ndHead(DEPNode node)
 	{
@@ -0,0 +1,380 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.mode.dep.state;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.emory.clir.clearnlp.classification.instance.StringInstance;
+import edu.emory.clir.clearnlp.classification.prediction.StringPrediction;
+import edu.emory.clir.clearnlp.collection.pair.ObjectDoublePair;
+import edu.emory.clir.clearnlp.collection.stack.IntPStack;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPLabelTable;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPTransition;
+import edu.emory.clir.clearnlp.component.utils.CFlag;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.util.arc.DEPArc;
+
+/**
+ * Beam search over the transitions for decoding.
+ * Each beam item keeps its own stacks and the arc made by its last transition, and links to the item it is derived from
+ * so that the items share the arcs of their common prefix instead of copying the heads of the whole tree.
+ * The dependency tree reflects one item at a time; moving to another item undoes and redoes the arcs up to their common ancestor.
+ * All items in the beam are scored in each step; the transitions of each item whose raw scores are within {@link DEPConfiguration#getBeamMargin()}
+ * of its best transition become candidates, and the best {@link DEPConfiguration#getBeamSize()} candidates are taken.
+ * Items are ranked by the sum of the sigmoid scores of their transitions, and the finished item with the highest average score is chosen
+ * as done by {@link DEPStateBranch}.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DEPStateBeam extends AbstractDEPState implements DEPTransition
+{
+	private List<DEPBeamItem> l_beam;
+	private List<DEPBeamItem> l_path;
+	private DEPBeamItem b_current;
+	private DEPBeamItem b_best;
+	private int beam_size;
+	private double beam_margin;
+	
+	// candidates of the current step
+	private int[]    c_items;
+	private int[]    c_labels;
+	private double[] c_scores;
+	private double[] c_probs;
+	private int[]    c_snds;
+	private double[] c_sndProbs;
+	private int      c_size;
+	private int      i_item;
+	
+//	====================================== Initialization ======================================
+	
+	public DEPStateBeam(DEPTree tree, CFlag flag, DEPConfiguration configuration)
+	{
+		super(tree, flag, configuration);
+		init(configuration);
+	}
+	
+	private void init(DEPConfiguration configuration)
+	{
+		beam_size   = configuration.getBeamSize();
+		beam_margin = configuration.getBeamMargin();
+		l_beam = new ArrayList<>(beam_size);
+		l_path = new ArrayList<>();
+		
+		b_current = new DEPBeamItem(null, i_stack, i_inter, i_input, 0);
+		l_beam.add(b_current);
+		b_best = null;
+		
+		int size = beam_size * getCandidateSize();
+		c_items    = new int   [size];
+		c_labels   = new int   [size];
+		c_scores   = new double[size];
+		c_probs    = new double[size];
+		c_snds     = new int   [size];
+		c_sndProbs = new double[size];
+	}
+	
+	/** @return the maximum number of transitions of each item to be considered, which is at least 2 so that the second heads can be found. */
+	public int getCandidateSize()
+	{
+		return Math.max(2, beam_size);
+	}
+	
+//	====================================== Beam ======================================
+	
+	/** @return the number of items in the current step. */
+	public int getBeamItemSize()
+	{
+		return l_beam.size();
+	}
+	
+	/** Moves this state to the specific item in the current step so that its features can be extracted. */
+	public void setBeamItem(int index)
+	{
+		DEPBeamItem item = l_beam.get(index);
+		moveTo(item);
+		i_stack = item.stack;
+		i_inter = item.inter;
+		i_input = item.input;
+		i_item  = index;
+	}
+	
+	/**
+	 * Adds the transitions of the current item (see {@link #setBeamItem(int)}) as candidates of the next step.
+	 * @param scores the raw scores of the labels.
+	 * @param top the indices of the labels in descending order of their scores.
+	 * @param size the number of indices in {@code top}.
+	 */
+	public void addCandidates(double[] scores, int[] top, int size)
+	{
+		double score = l_beam.get(i_item).score, fst = scores[top[0]];
+		int i, label, snd, candidates = 1;
+		
+		// transitions whose scores are within the margin of the best transition of this item
+		while (candidates < size && fst - scores[top[candidates]] < beam_margin)
+			candidates++;
+		
+		for (i=0; i<size; i++)
+			scores[top[i]] = sigmoid(scores[top[i]]);
+		
+		for (i=0; i<candidates; i++)
+		{
+			label = top[i];
+			snd   = (i == 0) ? (size > 1 ? top[1] : -1) : top[0];
+			
+			c_items   [c_size] = i_item;
+			c_labels  [c_size] = label;
+			c_probs   [c_size] = scores[label];
+			c_scores  [c_size] = score + scores[label];
+			c_snds    [c_size] = snd;
+			c_sndProbs[c_size] = (snd < 0) ? 0 : scores[snd];
+			c_size++;
+		}
+	}
+	
+	static private double sigmoid(double score)
+	{
+		return 1/(1+Math.exp(-score));
+	}
+	
+	/** Takes the best candidates and moves to the next step. */
+	public void nextStep(DEPLabelTable labels)
+	{
+		List<DEPBeamItem> beam = new ArrayList<>(beam_size);
+		int i, j, k, size = Math.min(beam_size, c_size);
+		DEPBeamItem item;
+		
+		// selects the best candidates
+		for (i=0; i<size; i++)
+		{
+			for (j=i+1, k=i; j<c_size; j++)
+				if (c_scores[j] > c_scores[k]) k = j;
+			
+			swapCandidates(i, k);
+		}
+		
+		// groups the candidates from the same item so that fewer arcs are undone/redone by moving between items
+		for (i=1; i<size; i++)
+			for (j=i; j>0 && c_items[j-1] > c_items[j]; j--)
+				swapCandidates(j-1, j);
+		
+		for (i=0; i<size; i++)
+		{
+			item = createItem(labels, i);
+			
+			if (i_input >= t_size)
+			{
+				if (b_best == null || b_best.getAverageScore() < item.getAverageScore())
+					b_best = item;
+			}
+			else
+				beam.add(item);
+		}
+		
+		l_beam = beam;
+		c_size = 0;
+	}
+	
+	/** Called by {@link #nextStep(DEPLabelTable)}. */
+	private void swapCandidates(int i, int j)
+	{
+		if (i == j) return;
+		int t; double d;
+		
+		t = c_items   [i];	c_items   [i] = c_items   [j];	c_items   [j] = t;
+		t = c_labels  [i];	c_labels  [i] = c_labels  [j];	c_labels  [j] = t;
+		t = c_snds    [i];	c_snds    [i] = c_snds    [j];	c_snds    [j] = t;
+		d = c_scores  [i];	c_scores  [i] = c_scores  [j];	c_scores  [j] = d;
+		d = c_probs   [i];	c_probs   [i] = c_probs   [j];	c_probs   [j] = d;
+		d = c_sndProbs[i];	c_sndProbs[i] = c_sndProbs[j];	c_sndProbs[j] = d;
+	}
+	
+	/** Called by {@link #nextStep(DEPLabelTable)}; applies the transition of the specific candidate to its item. */
+	private DEPBeamItem createItem(DEPLabelTable labels, int candidate)
+	{
+		DEPBeamItem prev = l_beam.get(c_items[candidate]);
+		int label = c_labels[candidate], snd = c_snds[candidate];
+		moveTo(prev);
+		
+		i_stack = new IntPStack(prev.stack);
+		i_inter = new IntPStack(prev.inter);
+		i_input = prev.input;
+		
+		DEPNode stack = getStack(), input = getInput(), dependent = null;
+		if      (labels.isArc(label, DEPLabelTable.ARC_LEFT_ID )) dependent = stack;
+		else if (labels.isArc(label, DEPLabelTable.ARC_RIGHT_ID)) dependent = input;
+		
+		DEPNode prevHead  = (dependent != null) ? dependent.getHead()  : null;
+		String  prevLabel = (dependent != null) ? dependent.getLabel() : null;
+		next(labels, label, c_probs[candidate]);
+		
+		DEPBeamItem item = new DEPBeamItem(prev, i_stack, i_inter, i_input, c_scores[candidate]);
+		if (dependent != null) item.setArc(dependent, prevHead, prevLabel);
+		
+		if (snd >= 0 && labels.isArc(label, DEPLabelTable.ARC_NO_ID) && !labels.isArc(snd, DEPLabelTable.ARC_NO_ID))
+		{
+			if (labels.isArc(snd, DEPLabelTable.ARC_LEFT_ID))
+				item.setSecondHead(stack, input, labels.getDeprel(snd), c_sndProbs[candidate]);
+			else
+				item.setSecondHead(input, stack, labels.getDeprel(snd), c_sndProbs[candidate]);
+		}
+		
+		b_current = item;
+		return item;
+	}
+	
+	/** Makes the dependency tree reflect the arcs of the specific item. */
+	private void moveTo(DEPBeamItem target)
+	{
+		DEPBeamItem curr = b_current, item = target;
+		int i;
+		
+		while (curr.depth > item.depth)
+		{
+			curr.undo();
+			curr = curr.prev;
+		}
+		
+		while (item.depth > curr.depth)
+		{
+			l_path.add(item);
+			item = item.prev;
+		}
+		
+		while (curr != item)
+		{
+			curr.undo();
+			curr = curr.prev;
+			l_path.add(item);
+			item = item.prev;
+		}
+		
+		for (i=l_path.size()-1; i>=0; i--)
+			l_path.get(i).redo();
+		
+		l_path.clear();
+		b_current = target;
+	}
+	
+	/** @return {@code true} if no item is left in the beam. */
+	@Override
+	public boolean isTerminate()
+	{
+		return l_beam.isEmpty();
+	}
+	
+	/** Makes the dependency tree reflect the best item and collects the second heads along its transitions. */
+	public void setBestItem()
+	{
+		if (b_best == null) return;
+		moveTo(b_best);
+		
+		for (DEPBeamItem item=b_best; item!=null; item=item.prev)
+		{
+			if (item.sndDependent != null)
+				snd_heads[item.sndDependent.getID()].add(new ObjectDoublePair<DEPArc>(new DEPArc(item.sndHead, item.sndLabel), item.sndScore));
+		}
+		
+		i_stack = new IntPStack();
+		i_inter = new IntPStack();
+	}
+	
+	private class DEPBeamItem
+	{
+		private final DEPBeamItem prev;
+		private final IntPStack   stack;
+		private final IntPStack   inter;
+		private final int         input;
+		private final int         depth;
+		private final double      score;
+		
+		// the arc made by the last transition
+		private DEPNode dependent;
+		private DEPNode head;
+		private String  label;
+		private DEPNode prevHead;
+		private String  prevLabel;
+		
+		// the second head found by the last transition
+		private DEPNode sndDependent;
+		private DEPNode sndHead;
+		private String  sndLabel;
+		private double  sndScore;
+		
+		public DEPBeamItem(DEPBeamItem prev, IntPStack stack, IntPStack inter, int input, double score)
+		{
+			this.prev  = prev;
+			this.stack = stack;
+			this.inter = inter;
+			this.input = input;
+			this.depth = (prev != null) ? prev.depth + 1 : 0;
+			this.score = score;
+		}
+		
+		/** PRE: the arc has already been made in the tree. */
+		public void setArc(DEPNode dependent, DEPNode prevHead, String prevLabel)
+		{
+			this.dependent = dependent;
+			this.head      = dependent.getHead();
+			this.label     = dependent.getLabel();
+			this.prevHead  = prevHead;
+			this.prevLabel = prevLabel;
+		}
+		
+		public void setSecondHead(DEPNode dependent, DEPNode head, String label, double score)
+		{
+			sndDependent = dependent;
+			sndHead      = head;
+			sndLabel     = label;
+			sndScore     = score;
+		}
+		
+		/** @return the average score of the transitions. */
+		public double getAverageScore()
+		{
+			return score / depth;
+		}
+		
+		public void undo()
+		{
+			if (dependent != null) dependent.setHead(prevHead, prevLabel);
+		}
+		
+		public void redo()
+		{
+			if (dependent != null) dependent.setHead(head, label);
+		}
+	}
+	
+//	====================================== BRANCH ======================================
+	
+	@Override
+	public boolean startBranching() {return false;}
+	
+	@Override
+	public boolean nextBranch() {return false;}
+	
+	@Override
+	public void saveBranch(StringPrediction[] ps) {}
+	
+	@Override
+	public void saveBest(List<StringInstance> instances) {}
+	
+	@Override
+	public List<StringInstance> setBest() {return null;}
+}
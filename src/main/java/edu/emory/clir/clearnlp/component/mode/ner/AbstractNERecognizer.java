@@ -16,15 +16,20 @@
 package edu.emory.clir.clearnlp.component.mode.ner;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import edu.emory.clir.clearnlp.classification.instance.StringInstance;
 import edu.emory.clir.clearnlp.classification.model.StringModel;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
 import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
 import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
+import edu.emory.clir.clearnlp.component.state.TagBeam;
 import edu.emory.clir.clearnlp.component.utils.GlobalLexica;
 import edu.emory.clir.clearnlp.dependency.DEPTree;
 import edu.emory.clir.clearnlp.feature.common.CommonFeatureExtractor;
+import edu.emory.clir.clearnlp.ner.BILOU;
+import edu.emory.clir.clearnlp.ner.NERLib;
 
 /**
  * @since 3.0.3
@@ -33,6 +38,7 @@ import edu.emory.clir.clearnlp.feature.common.CommonFeatureExtractor;
 public abstract class AbstractNERecognizer extends AbstractStatisticalComponent<String, NERState, NEREval, CommonFeatureExtractor<NERState>, NERConfiguration>
 {
 	private NERLexicon ner_lexicon;
+	private volatile boolean[][] b_transitions;
 	public AbstractNERecognizer() {};
 	
 	/** Creates a named entity recognizer for collect. */
@@ -66,6 +72,12 @@ public abstract class AbstractNERecognizer extends AbstractStatisticalComponent<
 		super(null, models);
 	}
 	
+	/** Creates a named entity recognizer for decode from a memory-mapped model. */
+	public AbstractNERecognizer(ByteBuffer buffer)
+	{
+		super(null, buffer);
+	}
+	
 //	====================================== LEXICONS ======================================
 	
 	@Override
@@ -100,6 +112,12 @@ public abstract class AbstractNERecognizer extends AbstractStatisticalComponent<
 		{
 			ner_lexicon.collect(tree);
 		}
+		else if (isDecodeOrEvaluate() && getBeamSize() > 1)
+		{
+			decodeBeam(state);
+			state.postProcess();
+			if (isEvaluate()) c_eval.countCorrect(tree, state.getOracle());
+		}
 		else
 		{
 			List<StringInstance> instances = process(state);
@@ -114,6 +132,59 @@ public abstract class AbstractNERecognizer extends AbstractStatisticalComponent<
 		}
 	}
 
+	/** @return the beam size of the configuration if exists; otherwise, 1. */
+	public int getBeamSize()
+	{
+		return (t_configuration != null) ? t_configuration.getBeamSize() : 1;
+	}
+	
+	/**
+	 * Decodes the specific state by beam search over the BILOU tags (see {@link TagBeam}), where invalid tag sequences are pruned
+	 * by the transition matrix of the model labels (see {@link NERLib#getTransitionMatrix(String[])}).
+	 * All items in the beam are scored into the same buffer at each token.
+	 */
+	private void decodeBeam(NERState state)
+	{
+		String[] labels = s_models[0].getLabels();
+		TagBeam beam = new TagBeam(state, getBeamSize(), labels, getTransitionMatrix(labels), s_models[0].getLabelIndex(BILOU.I.toString()), null);
+		double[] scores = new double[s_models[0].getLabelSize()];
+		int i;
+		
+		while (!beam.isTerminate())
+		{
+			for (i=0; i<beam.size(); i++)
+			{
+				beam.setItem(i);
+				
+				s_models[0].getScores(createSparseFeatureVector(state), null, scores);
+				
+				beam.addCandidates(scores);
+			}
+			
+			beam.next();
+		}
+		
+		beam.setBest();
+	}
+	
+	@Override
+	public void setModels(StringModel[] models)
+	{
+		super.setModels(models);
+		b_transitions = null;
+	}
+	
+	/** @return the transition matrix of the specific labels, which is computed once per model unless labels are added to the model. */
+	private boolean[][] getTransitionMatrix(String[] labels)
+	{
+		boolean[][] matrix = b_transitions;
+		
+		if (matrix == null || matrix.length != labels.length+1)
+			b_transitions = matrix = NERLib.getTransitionMatrix(labels);
+		
+		return matrix;
+	}
+	
 	@Override
 	protected StringFeatureVector createStringFeatureVector(NERState state)
 	{
@@ -126,6 +197,20 @@ public abstract class AbstractNERecognizer extends AbstractStatisticalComponent<
 		return s_models[0].predictBest(vector).getLabel();
 	}
 	
+	@Override
+	protected SparseFeatureVector createSparseFeatureVector(NERState state)
+	{
+		if (b_hash) return f_extractors[0].createSparseFeatureVector(state, s_models[0].getHashFeatureMap(), getFeatureVectorBuffer());
+		return toSparseFeatureVector(s_models[0], f_extractors[0].createStringFeatureVector(state, getStringFeatureVectorBuffer()));
+	}
+	
+	@Override
+	protected String getAutoLabel(NERState state, SparseFeatureVector vector)
+	{
+		StringModel model = s_models[0];
+		return model.getLabel(model.predictBest(vector, getScoreBuffer(model.getLabelSize())));
+	}
+	
 //	====================================== ONLINE TRAIN ======================================
 
 	@Override
@@ -16,6 +16,7 @@
 package edu.emory.clir.clearnlp.component.mode.ner;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 import edu.emory.clir.clearnlp.feature.common.CommonFeatureExtractor;
@@ -55,4 +56,10 @@ public class DefaultNERecognizer extends AbstractNERecognizer
 	{
 		super(models);
 	}
+	
+	/** Creates a named entity recognizer for decode from a memory-mapped model. */
+	public DefaultNERecognizer(ByteBuffer buffer)
+	{
+		super(buffer);
+	}
 }
\ No newline at end of file
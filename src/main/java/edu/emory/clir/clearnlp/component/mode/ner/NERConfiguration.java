@@ -21,6 +21,7 @@ import org.w3c.dom.Element;
 
 import edu.emory.clir.clearnlp.component.configuration.AbstractConfiguration;
 import edu.emory.clir.clearnlp.component.utils.NLPMode;
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
 
 /**
  * @since 3.0.3
@@ -30,6 +31,7 @@ public class NERConfiguration extends AbstractConfiguration
 {
 	private String[] cluster_paths;
 	private String dictionary_path;
+	private int beam_size;
 //	private int collect_cutoff;
 //	private Set<String> collect_labels;
 	
@@ -46,11 +48,20 @@ public class NERConfiguration extends AbstractConfiguration
 		initXml();
 	}
 	
+	/** Creates a named entity configuration from the same XML document as the specific configuration (e.g., {@code DecodeConfiguration}). */
+	public NERConfiguration(AbstractConfiguration configuration)
+	{
+		super(NLPMode.ner, configuration);
+		initXml();
+	}
+	
 	private void initXml()
 	{
 		Element eMode = getModeElement();
+		if (eMode == null) return;
 		
 		setDictionaryPath(getTextContent(eMode, "dictionary_path"));
+		setBeamSize(getIntegerTextContent(eMode, "beam_size"));
 //		setCollectCutoff(getIntegerTextContent(eMode, "collect_cutoff"));
 //		setCollectLabelSet(DSUtils.toHashSet(Splitter.splitCommas(getTextContent(eMode, "collect_labels"))));
 	}
@@ -65,8 +76,21 @@ public class NERConfiguration extends AbstractConfiguration
 		return cluster_paths;
 	}
 	
+	/** @return the number of tag sequences kept while decoding; if this is at most 1, tags are decoded greedily (see {@link AbstractNERecognizer}). */
+	public int getBeamSize()
+	{
+		return beam_size;
+	}
+	
+	/**
+	 * Sets the gazetteers that {@link NERLexicon} collects named entities into.
+	 * @throws IllegalArgumentException if the path is a frozen prefix tree, which is read-only and keeps no tokens to be rebuilt from.
+	 */
 	public void setDictionaryPath(String path)
 	{
+		if (path != null && NLPUtils.isFrozenPrefixTree(path))
+			throw new IllegalArgumentException("<dictionary_path> "+path+" is a frozen gazetteer, which cannot be collected into; use the .xz gazetteer it was converted from.");
+		
 		dictionary_path = path;
 	}
 	
@@ -74,6 +98,11 @@ public class NERConfiguration extends AbstractConfiguration
 	{
 		cluster_paths = paths;
 	}
+	
+	public void setBeamSize(int size)
+	{
+		beam_size = size;
+	}
 
 //	public int getCollectCutoff()
 //	{
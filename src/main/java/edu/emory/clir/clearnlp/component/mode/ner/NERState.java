@@ -145,6 +145,12 @@ public class NERState extends AbstractTagState
 
 //	====================================== TRANSITION ======================================
 	
+	@Override
+	protected String getLabel(DEPNode node)
+	{
+		return node.getNamedEntityTag();
+	}
+	
 	protected void setLabel(DEPNode node, String label)
 	{
 		node.setNamedEntityTag(label);
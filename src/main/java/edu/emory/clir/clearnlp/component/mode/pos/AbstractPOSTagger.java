@@ -16,13 +16,16 @@
 package edu.emory.clir.clearnlp.component.mode.pos;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import edu.emory.clir.clearnlp.classification.instance.StringInstance;
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 import edu.emory.clir.clearnlp.classification.prediction.StringPrediction;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
 import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
 import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
+import edu.emory.clir.clearnlp.component.state.TagBeam;
 import edu.emory.clir.clearnlp.dependency.DEPLib;
 import edu.emory.clir.clearnlp.dependency.DEPTree;
 
@@ -66,6 +69,12 @@ public abstract class AbstractPOSTagger extends AbstractStatisticalComponent<Str
 		super(null, models);
 	}
 	
+	/** Creates a pos tagger for decode from a memory-mapped model. */
+	public AbstractPOSTagger(ByteBuffer buffer)
+	{
+		super(null, buffer);
+	}
+	
 //	====================================== LEXICONS ======================================
 	
 	@Override
@@ -100,6 +109,12 @@ public abstract class AbstractPOSTagger extends AbstractStatisticalComponent<Str
 		{
 			pos_lexicon.collect(state);
 		}
+		else if (isDecodeOrEvaluate() && getBeamSize() > 1)
+		{
+			decodeBeam(state);
+			if (isEvaluate()) c_eval.countCorrect(tree, state.getOracle());
+			postProcess(state);
+		}
 		else
 		{
 			List<StringInstance> instances = process(state);
@@ -114,6 +129,39 @@ public abstract class AbstractPOSTagger extends AbstractStatisticalComponent<Str
 		}
 	}
 
+	/** @return the beam size of the configuration if exists; otherwise, 1. */
+	public int getBeamSize()
+	{
+		return (t_configuration != null) ? t_configuration.getBeamSize() : 1;
+	}
+	
+	/**
+	 * Decodes the specific state by beam search over the part-of-speech tags (see {@link TagBeam}).
+	 * All items in the beam are scored into the same buffer at each token, and the second best tags are saved along the best item.
+	 */
+	private void decodeBeam(POSState state)
+	{
+		TagBeam beam = new TagBeam(state, getBeamSize(), s_models[0].getLabels(), null, -1, DEPLib.FEAT_POS2);
+		double[] scores = new double[s_models[0].getLabelSize()];
+		int i;
+		
+		while (!beam.isTerminate())
+		{
+			for (i=0; i<beam.size(); i++)
+			{
+				beam.setItem(i);
+				
+				s_models[0].getScores(createSparseFeatureVector(state), null, scores);
+				
+				beam.addCandidates(scores);
+			}
+			
+			beam.next();
+		}
+		
+		beam.setBest();
+	}
+	
 	@Override
 	protected StringFeatureVector createStringFeatureVector(POSState state)
 	{
@@ -123,7 +171,31 @@ public abstract class AbstractPOSTagger extends AbstractStatisticalComponent<Str
 	@Override
 	protected String getAutoLabel(POSState state, StringFeatureVector vector)
 	{
-		StringPrediction[] ps = s_models[0].predictTop2(vector);
+		return getAutoLabel(state, s_models[0].predictTop2(vector));
+	}
+	
+	@Override
+	protected SparseFeatureVector createSparseFeatureVector(POSState state)
+	{
+		if (b_hash) return f_extractors[0].createSparseFeatureVector(state, s_models[0].getHashFeatureMap(), getFeatureVectorBuffer());
+		return toSparseFeatureVector(s_models[0], f_extractors[0].createStringFeatureVector(state, getStringFeatureVectorBuffer()));
+	}
+	
+	/** Same as {@link #getAutoLabel(POSState, StringFeatureVector)} without creating any prediction. */
+	@Override
+	protected String getAutoLabel(POSState state, SparseFeatureVector vector)
+	{
+		StringModel model = s_models[0];
+		double[] scores = getScoreBuffer(model.getLabelSize());
+		int[] top = getTopBuffer();
+		
+		model.predictTop2(vector, scores, top);
+		state.save2ndLabel(scores[top[0]], scores[top[1]], model.getLabel(top[1]), DEPLib.FEAT_POS2);
+		return model.getLabel(top[0]);
+	}
+	
+	private String getAutoLabel(POSState state, StringPrediction[] ps)
+	{
 		state.save2ndLabel(ps, DEPLib.FEAT_POS2);
 		return ps[0].getLabel();
 	}
@@ -16,6 +16,7 @@
 package edu.emory.clir.clearnlp.component.mode.pos;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 
@@ -54,6 +55,12 @@ public class DefaultPOSTagger extends AbstractPOSTagger
 	{
 		super(models);
 	}
+	
+	/** Creates a pos tagger for decode from a memory-mapped model. */
+	public DefaultPOSTagger(ByteBuffer buffer)
+	{
+		super(buffer);
+	}
 
 	@Override
 	void postProcess(POSState state) {}
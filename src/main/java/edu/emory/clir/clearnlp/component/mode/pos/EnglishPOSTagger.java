@@ -16,6 +16,7 @@
 package edu.emory.clir.clearnlp.component.mode.pos;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 
@@ -55,5 +56,11 @@ public class EnglishPOSTagger extends AbstractPOSTagger
 		super(models);
 	}
 	
+	/** Creates a pos tagger for decode from a memory-mapped model. */
+	public EnglishPOSTagger(ByteBuffer buffer)
+	{
+		super(buffer);
+	}
+	
 	public void postProcess(POSState state) {}
 }
@@ -31,6 +31,7 @@ public class POSConfiguration extends AbstractConfiguration
 	private double ambiguity_class_threshold;
 	private int    document_frequency_cutoff;
 	private int    document_size;
+	private int    beam_size;
 	
 //	============================== Initialization ==============================
 	
@@ -40,13 +41,23 @@ public class POSConfiguration extends AbstractConfiguration
 		initXml();
 	}
 	
+	/** Creates a part-of-speech configuration from the same XML document as the specific configuration (e.g., {@code DecodeConfiguration}). */
+	public POSConfiguration(AbstractConfiguration configuration)
+	{
+		super(NLPMode.pos, configuration);
+		initXml();
+	}
+	
 	private void initXml()
 	{
 		Element eMode = getModeElement();
+		if (eMode == null) return;
+		String threshold = getTextContent(eMode, "ambiguity_class_threshold");
 		
 		setDocumentFrequencyCutoff(getIntegerTextContent(eMode, "document_frequency_cutoff"));
-		setAmbiguityClassThreshold(getDoubleTextContent(eMode, "ambiguity_class_threshold"));
+		setAmbiguityClassThreshold((threshold != null && !threshold.isEmpty()) ? Double.parseDouble(threshold) : 0);
 		setDocumentSize(getIntegerTextContent(eMode, "document_size"));
+		setBeamSize(getIntegerTextContent(eMode, "beam_size"));
 	}
 	
 //	============================== Getters ==============================
@@ -66,6 +77,12 @@ public class POSConfiguration extends AbstractConfiguration
 		return document_size;
 	}
 	
+	/** @return the number of tag sequences kept while decoding; if this is at most 1, tags are decoded greedily (see {@link AbstractPOSTagger}). */
+	public int getBeamSize()
+	{
+		return beam_size;
+	}
+	
 //	============================== Setters ==============================
 	
 	public void setAmbiguityClassThreshold(double threshold)
@@ -82,4 +99,9 @@ public class POSConfiguration extends AbstractConfiguration
 	{
 		document_size = size;
 	}
+	
+	public void setBeamSize(int size)
+	{
+		beam_size = size;
+	}
 }
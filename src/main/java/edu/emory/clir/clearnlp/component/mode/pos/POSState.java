@@ -46,6 +46,12 @@ public class POSState extends AbstractTagState
 
 //	====================================== TRANSITION ======================================
 	
+	@Override
+	protected String getLabel(DEPNode node)
+	{
+		return node.getPOSTag();
+	}
+	
 	protected void setLabel(DEPNode node, String label)
 	{
 		node.setPOSTag(label);
@@ -16,14 +16,22 @@
 package edu.emory.clir.clearnlp.component.mode.srl;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import edu.emory.clir.clearnlp.classification.instance.StringInstance;
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 import edu.emory.clir.clearnlp.classification.prediction.StringPrediction;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
 import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
 import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
 import edu.emory.clir.clearnlp.component.mode.srl.state.AbstractSRLState;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
 import edu.emory.clir.clearnlp.dependency.DEPTree;
 
 /**
@@ -32,6 +40,9 @@ import edu.emory.clir.clearnlp.dependency.DEPTree;
  */
 public abstract class AbstractSRLabeler extends AbstractStatisticalComponent<String, AbstractSRLState, SRLEval, SRLFeatureExtractor, SRLConfiguration>
 {
+	/** Decodes the predicates of each sentence in parallel (see {@link #getPredicateExecutor()}); shut down by {@link #close()}. */
+	private volatile ExecutorService e_predicates;
+	
 	/** Creates a semantic role labeler for train. */
 	public AbstractSRLabeler(SRLConfiguration configuration, SRLFeatureExtractor[] extractors, Object lexicons)
 	{
@@ -56,6 +67,12 @@ public abstract class AbstractSRLabeler extends AbstractStatisticalComponent<Str
 		super(configuration, models);
 	}
 	
+	/** Creates a semantic role labeler for decode from a memory-mapped model. */
+	public AbstractSRLabeler(SRLConfiguration configuration, ByteBuffer buffer)
+	{
+		super(configuration, buffer);
+	}
+	
 //	====================================== LEXICONS ======================================
 
 	@Override
@@ -74,9 +91,21 @@ public abstract class AbstractSRLabeler extends AbstractStatisticalComponent<Str
 
 //	====================================== PROCESS ======================================
 
+	/**
+	 * Decodes the predicates of each sentence in parallel if {@link SRLConfiguration#getPredicateThreads()} is greater than 1;
+	 * the predicates of a sentence share nothing but the tree, which is read only until all predicates are decoded.
+	 */
 	@Override
 	public void process(DEPTree tree)
 	{
+		ExecutorService executor;
+		
+		if (isDecode() && (executor = getPredicateExecutor()) != null)
+		{
+			process(tree, getPredicateList(tree), executor);
+			return;
+		}
+		
 		AbstractSRLState state = getState(tree);
 		List<StringInstance> instances = process(state);
 		
@@ -88,6 +117,90 @@ public abstract class AbstractSRLabeler extends AbstractStatisticalComponent<Str
 	
 	protected abstract AbstractSRLState getState(DEPTree tree);
 	
+	/** @return the state that labels the arguments of only the specific predicate (see {@link AbstractSRLState#addSemanticHeads()}). */
+	protected abstract AbstractSRLState getState(DEPTree tree, DEPNode predicate);
+	
+	/** @return {@code true} if the specific node is a predicate to be decoded (see {@link AbstractSRLState#isPredicate(DEPNode)}). */
+	protected abstract boolean isPredicate(DEPNode node);
+	
+	/** @return the list of predicates in the tree in order. */
+	private List<DEPNode> getPredicateList(DEPTree tree)
+	{
+		List<DEPNode> list = new ArrayList<>();
+		int i, size = tree.size();
+		DEPNode node;
+		
+		for (i=1; i<size; i++)
+		{
+			node = tree.get(i);
+			if (isPredicate(node)) list.add(node);
+		}
+		
+		return list;
+	}
+	
+	/** Decodes the first predicate in the current thread and the others by the executor, then adds their arguments to the tree in order once all of them are decoded. */
+	private void process(DEPTree tree, List<DEPNode> predicates, ExecutorService executor)
+	{
+		List<Future<AbstractSRLState>> futures = new ArrayList<>();
+		List<AbstractSRLState> states = new ArrayList<>();
+		int size = predicates.size();
+		
+		if (size == 0) return;
+		tree.initPathCache();	// allocated before the workers share it
+		
+		for (DEPNode predicate : predicates.subList(1, size))
+			futures.add(executor.submit(() -> decode(tree, predicate)));
+		
+		states.add(decode(tree, predicates.get(0)));
+		
+		try
+		{
+			for (Future<AbstractSRLState> future : futures)
+				states.add(future.get());
+		}
+		catch (InterruptedException | ExecutionException e) {throw new IllegalStateException(e);}
+		
+		for (AbstractSRLState state : states)
+			state.addSemanticHeads();
+	}
+	
+	private AbstractSRLState decode(DEPTree tree, DEPNode predicate)
+	{
+		AbstractSRLState state = getState(tree, predicate);
+		process(state);
+		return state;
+	}
+	
+	/** @return the executor that decodes predicates in parallel, created on the first call; {@code null} if predicates are decoded one by one. */
+	private ExecutorService getPredicateExecutor()
+	{
+		int threads = t_configuration.getPredicateThreads();
+		if (threads < 2) return null;
+		
+		if (e_predicates == null)
+		{
+			synchronized (this)
+			{
+				if (e_predicates == null)
+					e_predicates = new ForkJoinPool(threads);
+			}
+		}
+		
+		return e_predicates;
+	}
+	
+	/** Shuts down the threads decoding predicates in parallel, if any. */
+	@Override
+	public synchronized void close()
+	{
+		if (e_predicates != null)
+		{
+			e_predicates.shutdown();
+			e_predicates = null;
+		}
+	}
+	
 	private void addInstances(AbstractSRLState state, List<StringInstance> instances)
 	{
 		for (StringInstance instance : instances)
@@ -108,6 +221,21 @@ public abstract class AbstractSRLabeler extends AbstractStatisticalComponent<Str
 		StringPrediction p = s_models[state.getModelIndex()].predictBest(vector);
 		return p.getLabel();
 	}
+	
+	@Override
+	protected SparseFeatureVector createSparseFeatureVector(AbstractSRLState state)
+	{
+		StringModel model = s_models[state.getModelIndex()];
+		if (b_hash) return f_extractors[0].createSparseFeatureVector(state, model.getHashFeatureMap(), getFeatureVectorBuffer());
+		return toSparseFeatureVector(model, f_extractors[0].createStringFeatureVector(state, getStringFeatureVectorBuffer()));
+	}
+	
+	@Override
+	protected String getAutoLabel(AbstractSRLState state, SparseFeatureVector vector)
+	{
+		StringModel model = s_models[state.getModelIndex()];
+		return model.getLabel(model.predictBest(vector, getScoreBuffer(model.getLabelSize())));
+	}
 
 //	====================================== ONLINE TRAIN ======================================
 
@@ -16,10 +16,12 @@
 package edu.emory.clir.clearnlp.component.mode.srl;
 
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 
 import edu.emory.clir.clearnlp.classification.model.StringModel;
 import edu.emory.clir.clearnlp.component.mode.srl.state.AbstractSRLState;
 import edu.emory.clir.clearnlp.component.mode.srl.state.EnglishSRLState;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
 import edu.emory.clir.clearnlp.dependency.DEPTree;
 
 /**
@@ -51,10 +53,28 @@ public class EnglishSRLabeler extends AbstractSRLabeler
 	{
 		super(configuration, models);
 	}
+	
+	/** Creates a semantic role labeler for decode from a memory-mapped model. */
+	public EnglishSRLabeler(SRLConfiguration configuration, ByteBuffer buffer)
+	{
+		super(configuration, buffer);
+	}
 
 	@Override
 	protected AbstractSRLState getState(DEPTree tree)
 	{
-		return new EnglishSRLState(tree, c_flag, (SRLConfiguration)t_configuration);
+		return new EnglishSRLState(tree, c_flag, t_configuration);
+	}
+	
+	@Override
+	protected AbstractSRLState getState(DEPTree tree, DEPNode predicate)
+	{
+		return new EnglishSRLState(tree, c_flag, t_configuration, predicate);
+	}
+	
+	@Override
+	protected boolean isPredicate(DEPNode node)
+	{
+		return EnglishSRLState.isVerbPredicate(node);
 	}
 }
@@ -31,6 +31,7 @@ public class SRLConfiguration extends AbstractConfiguration
 {
 	private int max_depth;
 	private int max_height;
+	private int predicate_threads;
 	
 //	============================== Initialization ==============================
 	
@@ -47,12 +48,20 @@ public class SRLConfiguration extends AbstractConfiguration
 		init();
 	}
 	
+	/** Creates a semantic role labeling configuration from the same XML document as the specific configuration (e.g., {@code DecodeConfiguration}). */
+	public SRLConfiguration(AbstractConfiguration configuration)
+	{
+		super(NLPMode.srl, configuration);
+		init();
+	}
+	
 	private void init()
 	{
 		Element eMode = getModeElement();
 		
 		setMaxDepth(XmlUtils.getIntegerTextContent(XmlUtils.getFirstElementByTagName(eMode, "max_depth")));
 		setMaxHeight(XmlUtils.getIntegerTextContent(XmlUtils.getFirstElementByTagName(eMode, "max_height")));
+		setPredicateThreads(XmlUtils.getIntegerTextContent(XmlUtils.getFirstElementByTagName(eMode, "predicate_threads")));
 	}
 	
 	public int getMaxDepth()
@@ -74,4 +83,19 @@ public class SRLConfiguration extends AbstractConfiguration
 	{
 		max_height = height;
 	}
+	
+	/**
+	 * @return the number of threads that decode the predicates of each sentence in parallel;
+	 * if it is less than 2, the predicates are decoded one by one (see {@link AbstractSRLabeler#process(edu.emory.clir.clearnlp.dependency.DEPTree)}).
+	 */
+	public int getPredicateThreads()
+	{
+		return predicate_threads;
+	}
+	
+	/** Must be set before the semantic role labeler decodes the first sentence. */
+	public void setPredicateThreads(int threads)
+	{
+		predicate_threads = threads;
+	}
 }
@@ -18,7 +18,6 @@ package edu.emory.clir.clearnlp.component.mode.srl.state;
 import java.util.ArrayList;
 import java.util.List;
 
-import edu.emory.clir.clearnlp.collection.pair.Pair;
 import edu.emory.clir.clearnlp.component.mode.srl.SRLConfiguration;
 import edu.emory.clir.clearnlp.component.mode.srl.SRLTransition;
 import edu.emory.clir.clearnlp.component.state.AbstractState;
@@ -39,11 +38,15 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 {
 	private SRLConfiguration t_configuration;
 	private DEPNode d_predicate;
+	/** If not {@code null}, this state labels the arguments of only this predicate (see {@link #addSemanticHeads()}). */
+	private DEPNode d_single;
 	
-	private List<Pair<DEPNode,DEPNode>> argument_candidates;
+	/** The IDs of (argument, lowest common ancestor) pairs of the current predicate (see {@link DEPNode#getArgumentCandidates(int, int)}). */
+	private int[] argument_candidates;
+	/** The labels of the argument candidates of the current predicate; {@code null} if the candidate is not an argument. */
+	private String[] argument_labels;
 	private List<String> numbered_arguments;
 	private int argument_index;
-	private int argument_count;
 
 //	====================================== INITIALIZATION ======================================
 	
@@ -53,6 +56,17 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 		init(configuration);
 	}
 	
+	/**
+	 * Creates a state that labels the arguments of only the specific predicate.
+	 * The labels are not added to the tree until {@link #addSemanticHeads()} so that
+	 * states of different predicates in the same tree can be processed in parallel.
+	 */
+	public AbstractSRLState(DEPTree tree, CFlag flag, SRLConfiguration configuration, DEPNode predicate)
+	{
+		super(tree, flag);
+		init(configuration, predicate);
+	}
+	
 	private void init(SRLConfiguration configuration)
 	{
 		t_configuration = configuration;
@@ -60,6 +74,14 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 		shift();
 	}
 	
+	private void init(SRLConfiguration configuration, DEPNode predicate)
+	{
+		t_configuration = configuration;
+		d_single    = predicate;
+		d_predicate = predicate;
+		if (!initArguments()) shift();
+	}
+	
 //	====================================== ORACLE ======================================
 
 	@Override
@@ -85,7 +107,7 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 	@Override
 	public String getGoldLabel()
 	{
-		for (SRLArc arc : g_oracle[getArgument().getID()])
+		for (SRLArc arc : g_oracle[argument_candidates[argument_index*2]])
 		{
 			if (arc.isNode(d_predicate))
 				return arc.getLabel();
@@ -116,8 +138,7 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 	{
 		if (!label.equals(NO_ARC))
 		{
-			argument_count++;
-			getArgument().addSemanticHead(d_predicate, label);
+			argument_labels[argument_index] = label;
 			
 			if (PBLib.isNumberedArgument(label))
 				numbered_arguments.add(label);
@@ -125,7 +146,7 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 		
 		if (!pass())
 		{
-			if (argument_count > 0) d_predicate.putFeat(DEPLib.FEAT_PB, d_predicate.getLemma());
+			if (d_single == null) addSemanticHeads(d_predicate);
 			shift();
 		}
 	}
@@ -139,25 +160,51 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 	private void shift()
 	{
 		d_predicate = nextPredicate();
+		if (d_predicate != null && !initArguments()) shift();
+	}
+	
+	/** @return {@code true} if the current predicate has any argument candidate. */
+	private boolean initArguments()
+	{
+		argument_candidates = d_predicate.getArgumentCandidates(t_configuration.getMaxDepth(), t_configuration.getMaxHeight());
+		if (argument_candidates.length == 0) return false;
 		
-		if (d_predicate != null)
-		{
-			argument_candidates = d_predicate.getArgumentCandidateList(t_configuration.getMaxDepth(), t_configuration.getMaxHeight());
-			
-			if (argument_candidates.isEmpty())
-				shift();
-			else
-			{
-				numbered_arguments = new ArrayList<>();
-				argument_index = 0;
-				argument_count = 0;
-			}
-		}
+		argument_labels    = new String[argument_candidates.length / 2];
+		numbered_arguments = new ArrayList<>();
+		argument_index     = 0;
+		return true;
 	}
 	
 	private boolean pass()
 	{
-		return ++argument_index < argument_candidates.size();
+		return ++argument_index < argument_labels.length;
+	}
+	
+	/**
+	 * Adds the arguments of the predicate given to the constructor to the tree once this state is terminated.
+	 * The arguments of the other states are added to the tree as soon as each predicate is processed.
+	 */
+	public void addSemanticHeads()
+	{
+		if (d_single != null && argument_labels != null) addSemanticHeads(d_single);
+	}
+	
+	/** Adds the arguments of the current candidates to the tree. */
+	private void addSemanticHeads(DEPNode predicate)
+	{
+		int i, size = argument_labels.length;
+		boolean added = false;
+		
+		for (i=0; i<size; i++)
+		{
+			if (argument_labels[i] != null)
+			{
+				getNode(argument_candidates[i*2]).addSemanticHead(predicate, argument_labels[i]);
+				added = true;
+			}
+		}
+		
+		if (added) predicate.putFeat(DEPLib.FEAT_PB, predicate.getLemma());
 	}
 	
 //	====================================== NODE ======================================
@@ -169,37 +216,36 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 	
 	public DEPNode getArgument()
 	{
-		return argument_candidates.get(argument_index).o1;
+		return getNode(argument_candidates[argument_index*2]);
 	}
 	
 	public DEPNode getLowestCommonAncestor()
 	{
-		return argument_candidates.get(argument_index).o2;
+		return getNode(argument_candidates[argument_index*2+1]);
 	}
 	
 //	====================================== PREDICATE ======================================
 
 	private DEPNode nextPredicate()
 	{
+		if (d_single != null) return null;
 		int i, size = getTreeSize();
 		DEPNode node;
 		
 		for (i=d_predicate.getID()+1; i<size; i++)
 		{
 			node = getNode(i);
-			
-			if (c_flag == CFlag.DECODE)
-			{
-				if (isPredicate(node))
-					return node;
-			}
-			else if (node.getFeat(DEPLib.FEAT_PB) != null)
-				return node;
+			if (isPredicateCandidate(node)) return node;
 		}
 		
 		return null;
 	}
 	
+	private boolean isPredicateCandidate(DEPNode node)
+	{
+		return (c_flag == CFlag.DECODE) ? isPredicate(node) : node.getFeat(DEPLib.FEAT_PB) != null;
+	}
+	
 	protected abstract boolean isPredicate(DEPNode node);
 	
 //	====================================== FEATURES ======================================
@@ -220,8 +266,9 @@ public abstract class AbstractSRLState extends AbstractState<SRLArc[],String> im
 		return (idx >= 0) ? numbered_arguments.get(idx) : null;
 	}
 	
+	/** @return the path from the predicate to the argument, whose parts are memoized per sentence (see {@link DEPTree#getPath(DEPNode, DEPNode, DEPNode, FieldType)}). */
 	public String getPath(FieldType field)
 	{
-		return d_predicate.getPath(getArgument(), getLowestCommonAncestor(), field);
+		return d_tree.getPath(d_predicate, getArgument(), getLowestCommonAncestor(), field);
 	}
 }
@@ -33,6 +33,11 @@ public class EnglishSRLState extends AbstractSRLState
 	{
 		super(tree, flag, configuration);
 	}
+	
+	public EnglishSRLState(DEPTree tree, CFlag flag, SRLConfiguration configuration, DEPNode predicate)
+	{
+		super(tree, flag, configuration, predicate);
+	}
 
 	@Override
 	protected boolean isPredicate(DEPNode node)
@@ -40,7 +45,7 @@ public class EnglishSRLState extends AbstractSRLState
 		return isVerbPredicate(node);
 	}
 	
-	private boolean isVerbPredicate(DEPNode node)
+	static public boolean isVerbPredicate(DEPNode node)
 	{
 		if (!node.getLabel().startsWith(DEPLibEn.DEP_AUX))
 		{
@@ -99,13 +99,18 @@ public abstract class AbstractTagState extends AbstractState<String,String>
 	
 	public void save2ndLabel(StringPrediction[] ps, String featKey)
 	{
-		StringPrediction fst = ps[0];
-		StringPrediction snd = ps[1];
-		
-		if (fst.getScore() - snd.getScore() < 1)
-			getInput().putFeat(featKey, snd.getLabel());
+		save2ndLabel(ps[0].getScore(), ps[1].getScore(), ps[1].getLabel(), featKey);
 	}
 	
+	/** Same as {@link #save2ndLabel(StringPrediction[], String)} given the scores of the top 2 predictions. */
+	public void save2ndLabel(double fstScore, double sndScore, String sndLabel, String featKey)
+	{
+		if (fstScore - sndScore < 1)
+			getInput().putFeat(featKey, sndLabel);
+	}
+	
+	protected abstract String getLabel(DEPNode node);
+	
 	protected abstract void setLabel(DEPNode node, String label);
 	
 	abstract public String getAmbiguityClass(DEPNode node);
@@ -0,0 +1,327 @@
+/**
+ * Copyright 2015, Emory University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.state;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+
+/**
+ * Beam search over the labels of the tokens for decoding a tag state (e.g., part-of-speech tags, named entity tags).
+ * Each beam item keeps the label of one token and links to the item of the previous token so that the items share the labels of their common prefix.
+ * The dependency tree reflects one item at a time; moving to another item resets the labels after their common ancestor and sets the labels of the other item.
+ * All items are scored at each token one after another so that the features memoized per sentence (e.g., lexical features) are shared among them.
+ * The best labels of each item allowed by the transition matrix become candidates, and the best {@code beamSize} candidates are taken;
+ * items are ranked by the sum of the raw scores of their labels.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class TagBeam
+{
+	private AbstractTagState t_state;
+	private String[]    s_labels;
+	private String[]    s_initials;
+	private boolean[][] b_transitions;
+	private int         i_continue;
+	private String      s_featKey;
+	private int         beam_size;
+	private int         candidate_size;
+	
+	private List<TagBeamItem> l_beam;
+	private List<TagBeamItem> l_path;
+	private TagBeamItem b_current;
+	private TagBeamItem b_best;
+	
+	// candidates of the current step
+	private int[]    c_items;
+	private int[]    c_labels;
+	private int[]    c_snds;
+	private double[] c_scores;
+	private int[]    c_top;
+	private int      c_size;
+	private int      i_item;
+	
+//	====================================== Initialization ======================================
+	
+	/**
+	 * @param labels the labels indexed by the label indices of the model.
+	 * @param transitions the matrix of size {@code (labels.length+1)^2} where {@code transitions[i][j]} is {@code true} if {@code labels[j]} can follow {@code labels[i]},
+	 * and the last row and column stand for the beginning and the end of the sentence, respectively; if {@code null}, any label can follow any label.
+	 * @param continueLabel the index of the label that continues the chunk of its previous label (e.g., {@code I} without a named entity),
+	 * whose row in the transition matrix is replaced by the row of the label it continues; if {@code -1}, no label continues.
+	 * @param featKey if not {@code null}, the second best label of each token is saved as this feature if its score is within 1 of the chosen label's.
+	 */
+	public TagBeam(AbstractTagState state, int beamSize, String[] labels, boolean[][] transitions, int continueLabel, String featKey)
+	{
+		t_state       = state;
+		s_labels      = labels;
+		b_transitions = transitions;
+		i_continue    = continueLabel;
+		s_featKey     = featKey;
+		beam_size     = beamSize;
+		init();
+	}
+	
+	private void init()
+	{
+		int i, size = t_state.getTreeSize();
+		s_initials = new String[size];
+		
+		for (i=1; i<size; i++)
+			s_initials[i] = t_state.getLabel(t_state.getNode(i));
+		
+		l_beam = new ArrayList<>(beam_size);
+		l_path = new ArrayList<>();
+		b_current = new TagBeamItem(null, -1, s_labels.length, -1, 0);
+		l_beam.add(b_current);
+		b_best = null;
+		
+		candidate_size = Math.max(2, beam_size);
+		size = beam_size * candidate_size;
+		c_items  = new int   [size];
+		c_labels = new int   [size];
+		c_snds   = new int   [size];
+		c_scores = new double[size];
+		c_top    = new int   [candidate_size];
+	}
+	
+//	====================================== Beam ======================================
+	
+	/** @return the number of items in the current step. */
+	public int size()
+	{
+		return l_beam.size();
+	}
+	
+	/** Moves the state to the next token of the specific item in the current step so that its features can be extracted. */
+	public void setItem(int index)
+	{
+		TagBeamItem item = l_beam.get(index);
+		moveTo(item);
+		t_state.setInput(item.depth+1);
+		i_item = index;
+	}
+	
+	/**
+	 * Adds the best labels of the current item (see {@link #setItem(int)}) as candidates of the next step.
+	 * If the transition matrix allows no label, the best labels are added regardless of the matrix.
+	 * @param scores the raw scores of the labels.
+	 */
+	public void addCandidates(double[] scores)
+	{
+		TagBeamItem item = l_beam.get(i_item);
+		boolean last = item.depth+2 == t_state.getTreeSize();
+		int i, size = getTopLabels(scores, item.state, last);
+		if (size == 0) size = getTopLabels(scores, -1, false);
+		int label, snd;
+		
+		for (i=0; i<size; i++)
+		{
+			label = c_top[i];
+			snd   = (i == 0) ? (size > 1 ? c_top[1] : -1) : c_top[0];
+			if (snd >= 0 && scores[label] - scores[snd] >= 1) snd = -1;
+			
+			c_items [c_size] = i_item;
+			c_labels[c_size] = label;
+			c_snds  [c_size] = snd;
+			c_scores[c_size] = item.score + scores[label];
+			c_size++;
+		}
+	}
+	
+	/**
+	 * Called by {@link #addCandidates(double[])}; puts the indices of the best labels into {@link #c_top} in descending order of their scores.
+	 * @param state the row of the transition matrix to check against; if {@code -1}, no label is checked.
+	 * @param last if {@code true}, the labels must also be able to end the sentence.
+	 * @return the number of the indices.
+	 */
+	private int getTopLabels(double[] scores, int state, boolean last)
+	{
+		int i, j, size = 0;
+		
+		for (i=0; i<s_labels.length; i++)
+		{
+			if (state >= 0 && !isAllowed(state, i, last)) continue;
+			if (size == candidate_size && scores[c_top[size-1]] >= scores[i]) continue;
+			if (size < candidate_size) size++;
+			
+			for (j=size-1; j>0 && scores[c_top[j-1]] < scores[i]; j--)
+				c_top[j] = c_top[j-1];
+			
+			c_top[j] = i;
+		}
+		
+		return size;
+	}
+	
+	private boolean isAllowed(int state, int label, boolean last)
+	{
+		if (b_transitions == null) return true;
+		if (!b_transitions[state][label]) return false;
+		return !last || b_transitions[getState(state, label)][s_labels.length];
+	}
+	
+	/** @return the row of the transition matrix for the label following the specific state. */
+	private int getState(int state, int label)
+	{
+		return (label == i_continue) ? state : label;
+	}
+	
+	/** Takes the best candidates and moves to the next step. */
+	public void next()
+	{
+		List<TagBeamItem> beam = new ArrayList<>(beam_size);
+		int i, j, k, size = Math.min(beam_size, c_size);
+		TagBeamItem prev, item;
+		
+		// selects the best candidates
+		for (i=0; i<size; i++)
+		{
+			for (j=i+1, k=i; j<c_size; j++)
+				if (c_scores[j] > c_scores[k]) k = j;
+			
+			swapCandidates(i, k);
+		}
+		
+		// groups the candidates from the same item so that fewer labels are reset by moving between items
+		for (i=1; i<size; i++)
+			for (j=i; j>0 && c_items[j-1] > c_items[j]; j--)
+				swapCandidates(j-1, j);
+		
+		for (i=0; i<size; i++)
+		{
+			prev = l_beam.get(c_items[i]);
+			item = new TagBeamItem(prev, c_labels[i], getState(prev.state, c_labels[i]), c_snds[i], c_scores[i]);
+			
+			if (item.depth+1 >= t_state.getTreeSize())
+			{
+				if (b_best == null || b_best.score < item.score)
+					b_best = item;
+			}
+			else
+				beam.add(item);
+		}
+		
+		l_beam = beam;
+		c_size = 0;
+	}
+	
+	/** Called by {@link #next()}. */
+	private void swapCandidates(int i, int j)
+	{
+		if (i == j) return;
+		int t; double d;
+		
+		t = c_items [i];	c_items [i] = c_items [j];	c_items [j] = t;
+		t = c_labels[i];	c_labels[i] = c_labels[j];	c_labels[j] = t;
+		t = c_snds  [i];	c_snds  [i] = c_snds  [j];	c_snds  [j] = t;
+		d = c_scores[i];	c_scores[i] = c_scores[j];	c_scores[j] = d;
+	}
+	
+	/** Makes the dependency tree reflect the labels of the specific item. */
+	private void moveTo(TagBeamItem target)
+	{
+		TagBeamItem curr = b_current, item = target;
+		int i;
+		
+		while (curr.depth > item.depth)
+		{
+			curr.undo();
+			curr = curr.prev;
+		}
+		
+		while (item.depth > curr.depth)
+		{
+			l_path.add(item);
+			item = item.prev;
+		}
+		
+		while (curr != item)
+		{
+			curr.undo();
+			curr = curr.prev;
+			l_path.add(item);
+			item = item.prev;
+		}
+		
+		for (i=l_path.size()-1; i>=0; i--)
+			l_path.get(i).redo();
+		
+		l_path.clear();
+		b_current = target;
+	}
+	
+	/** @return {@code true} if no item is left in the beam. */
+	public boolean isTerminate()
+	{
+		return l_beam.isEmpty();
+	}
+	
+	/** Makes the dependency tree reflect the best item, saves the second best labels along its tokens, and terminates the state. */
+	public void setBest()
+	{
+		if (b_best != null)
+		{
+			moveTo(b_best);
+			
+			if (s_featKey != null)
+			{
+				for (TagBeamItem item=b_best; item.prev!=null; item=item.prev)
+					if (item.snd >= 0) t_state.getNode(item.depth).putFeat(s_featKey, s_labels[item.snd]);
+			}
+		}
+		
+		t_state.setInput(t_state.getTreeSize());
+	}
+	
+	private class TagBeamItem
+	{
+		private final TagBeamItem prev;
+		private final int         label;
+		private final int         state;
+		private final int         snd;
+		/** The ID of the token labeled by this item. */
+		private final int         depth;
+		private final double      score;
+		
+		public TagBeamItem(TagBeamItem prev, int label, int state, int snd, double score)
+		{
+			this.prev  = prev;
+			this.label = label;
+			this.state = state;
+			this.snd   = snd;
+			this.depth = (prev != null) ? prev.depth + 1 : 0;
+			this.score = score;
+		}
+		
+		public void undo()
+		{
+			if (depth > 0) setLabel(s_initials[depth]);
+		}
+		
+		public void redo()
+		{
+			if (depth > 0) setLabel(s_labels[label]);
+		}
+		
+		private void setLabel(String label)
+		{
+			DEPNode node = t_state.getNode(depth);
+			t_state.setLabel(node, label);
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.utils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import edu.emory.clir.clearnlp.collection.map.StringIntMinimalPerfectHashMap;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * Read-only distributional semantics (e.g., Brown clusters) that maps each word to its features.
+ * Words are interned into IDs by {@link StringIntMinimalPerfectHashMap} and not kept.
+ * Words with the same features share one array, and equal features are shared by all arrays,
+ * so {@link #get(String)} allocates nothing.
+ * {@link #save(DataOutputStream)} writes flat arrays so that loading needs no object deserialization.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DistributionalSemantics implements Serializable
+{
+	private static final long serialVersionUID = 2154917093625368741L;
+	/** The first 4 bytes of distributional semantics saved by {@link #save(DataOutputStream)}. */
+	static public final int MAGIC = 0x434E4453;
+	static public final int VERSION = 1;
+	
+	/** Word -> index of its features in {@link #s_features} + 1; {@code 0} for unseen words. */
+	private StringIntMinimalPerfectHashMap m_words;
+	private String[][] s_features;
+	
+	/** @param map word -> features (e.g., the map deserialized from a .xz file). */
+	public DistributionalSemantics(Map<String,Set<String>> map)
+	{
+		Map<Set<String>,Integer> sets = new HashMap<>();
+		Map<String,String> features = new HashMap<>();
+		Integer index;
+		
+		m_words = new StringIntMinimalPerfectHashMap();
+		
+		for (Entry<String,Set<String>> e : map.entrySet())
+		{
+			if ((index = sets.get(e.getValue())) == null)
+				sets.put(e.getValue(), index = sets.size());
+			
+			m_words.put(e.getKey(), index+1);
+		}
+		
+		m_words.initHashFunction();
+		s_features = new String[sets.size()][];
+		
+		for (Entry<Set<String>,Integer> e : sets.entrySet())
+			s_features[e.getValue()] = e.getKey().stream().map(f -> features.computeIfAbsent(f, k -> k)).toArray(String[]::new);
+	}
+	
+	/**
+	 * Creates distributional semantics from the specific buffer (see {@link #save(DataOutputStream)}).
+	 * @throws IOException if the buffer does not begin with {@link #MAGIC} and {@link #VERSION}.
+	 */
+	public DistributionalSemantics(ByteBuffer buffer) throws IOException
+	{
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+			throw new IOException("Not distributional semantics of this version.");
+		
+		String[] features = new String[buffer.getInt()];
+		byte[] bytes;
+		int[] indices;
+		int i, j;
+		
+		for (i=0; i<features.length; i++)
+		{
+			bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			features[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+		
+		s_features = new String[buffer.getInt()][];
+		
+		for (i=0; i<s_features.length; i++)
+		{
+			indices = IOUtils.getIntArray(buffer);
+			s_features[i] = new String[indices.length];
+			for (j=0; j<indices.length; j++) s_features[i][j] = features[indices[j]];
+		}
+		
+		m_words = new StringIntMinimalPerfectHashMap(buffer);
+	}
+	
+	/** Saves this object as flat arrays that can be read by {@link #DistributionalSemantics(ByteBuffer)}. */
+	public void save(DataOutputStream out) throws IOException
+	{
+		Map<String,Integer> features = new HashMap<>();
+		int[] indices;
+		byte[] bytes;
+		int i;
+		
+		for (String[] array : s_features)
+			for (String feature : array)
+				features.putIfAbsent(feature, features.size());
+		
+		String[] table = new String[features.size()];
+		for (Entry<String,Integer> e : features.entrySet()) table[e.getValue()] = e.getKey();
+		
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(table.length);
+		
+		for (String feature : table)
+		{
+			bytes = feature.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		
+		out.writeInt(s_features.length);
+		
+		for (String[] array : s_features)
+		{
+			indices = new int[array.length];
+			for (i=0; i<array.length; i++) indices[i] = features.get(array[i]);
+			IOUtils.writeIntArray(out, indices);
+		}
+		
+		m_words.save(out);
+	}
+	
+	/** @return the features of the specific word if exists; otherwise, {@code null}. The returned array is shared, so it must not be modified. */
+	public String[] get(String word)
+	{
+		int index = m_words.get(word);
+		return (index > 0) ? s_features[index-1] : null;
+	}
+	
+	/** @return the number of words. */
+	public int size()
+	{
+		return m_words.size();
+	}
+}
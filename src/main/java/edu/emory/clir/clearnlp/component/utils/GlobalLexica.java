@@ -18,8 +18,6 @@ package edu.emory.clir.clearnlp.component.utils;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.w3c.dom.Element;
@@ -35,12 +33,17 @@ import edu.emory.clir.clearnlp.util.XmlUtils;
  */
 public class GlobalLexica
 {
-	static private List<Map<String,Set<String>>> distributional_semantics_words;
+	static private List<DistributionalSemantics> distributional_semantics_words;
 	static private PrefixTree<String,NERInfoSet> named_entity_dictionary;
 	
 	static public void init(InputStream in)
 	{
-		Element doc = XmlUtils.getDocumentElement(in);
+		init(XmlUtils.getDocumentElement(in));
+	}
+	
+	/** @param doc the top element of a configuration file. */
+	static public void init(Element doc)
+	{
 		Element eLexica = XmlUtils.getFirstElementByTagName(doc, "global");
 		if (eLexica == null) return;
 		
@@ -59,18 +62,19 @@ public class GlobalLexica
 		distributional_semantics_words = paths.stream().map(path -> NLPUtils.getDistributionalSemantics(path)).collect(Collectors.toCollection(ArrayList::new));
 	}
 	
+	static public void setDistributionalSemanticsWords(List<DistributionalSemantics> list)
+	{
+		distributional_semantics_words = list;
+	}
+	
 	static public PrefixTree<String,NERInfoSet> getNamedEntityDictionary()
 	{
 		return named_entity_dictionary;
 	}
 	
+	/** @return the features of the specific word from the index'th distributional semantics if exist; otherwise, {@code null}. The returned array is shared, so it must not be modified. */
 	static public String[] getDistributionalSemanticFeatures(int index, String word)
 	{
-		if (!DSUtils.isRange(distributional_semantics_words, index)) return null;
-		Set<String> set = distributional_semantics_words.get(index).get(word);
-		if (set == null) return null;
-		String[] t = new String[set.size()];
-		set.toArray(t);
-		return t;
+		return DSUtils.isRange(distributional_semantics_words, index) ? distributional_semantics_words.get(index).get(word) : null;
 	}
 }
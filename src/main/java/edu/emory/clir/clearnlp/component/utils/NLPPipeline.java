@@ -0,0 +1,242 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.emory.clir.clearnlp.component.AbstractComponent;
+import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
+import edu.emory.clir.clearnlp.component.configuration.DecodeConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.mode.ner.NERConfiguration;
+import edu.emory.clir.clearnlp.component.mode.pos.POSConfiguration;
+import edu.emory.clir.clearnlp.component.mode.srl.SRLConfiguration;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.tokenization.AbstractTokenizer;
+import edu.emory.clir.clearnlp.tokenization.TokenSpan;
+import edu.emory.clir.clearnlp.util.lang.TLanguage;
+
+/**
+ * Embeddable NLP pipeline that loads the tokenizer and all components up to a specific mode once,
+ * and annotates texts or trees from any number of threads.
+ * The components are shared by all threads (see {@link AbstractStatisticalComponent});
+ * each thread reuses its own feature vectors and score arrays while decoding, whether features are hashed or looked up in the frozen feature maps.
+ * The average latency of each stage per sentence is measured across all threads (see {@link #getLatencies()}).
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class NLPPipeline
+{
+	static public final String TOKENIZE = "tokenize";
+	
+	private volatile AbstractTokenizer d_tokenizer;
+	private TLanguage           l_language;
+	private AbstractComponent[] c_components;
+	private String[]            s_stages;
+	private LongAdder[]         l_nanos;
+	private LongAdder           l_tokenize;
+	private LongAdder           l_sentences;
+	
+	/** Calls {@link #NLPPipeline(DecodeConfiguration, NLPMode, boolean)}, where {@code hash = false}. */
+	public NLPPipeline(DecodeConfiguration configuration, NLPMode mode)
+	{
+		this(configuration, mode, false);
+	}
+	
+	/**
+	 * @param mode the last stage of this pipeline (e.g., {@link NLPMode#dep} runs pos, morph, and dep).
+	 * @param hash if {@code true}, hashes features directly into feature indices, which skips building feature strings
+	 * but can give a different feature on a 64-bit hash collision; otherwise, freezes the feature maps.
+	 * @throws IllegalArgumentException if the mode is {@link NLPMode#srl} for a language that has no semantic role labeler.
+	 */
+	public NLPPipeline(DecodeConfiguration configuration, NLPMode mode, boolean hash)
+	{
+		List<NLPMode> stages = new ArrayList<>();
+		GlobalLexica.init(configuration.getDocumentElement());
+		l_language   = configuration.getLanguage();
+		c_components = initComponents(configuration, mode, hash, stages);
+		initLatencies(stages);
+	}
+	
+	/**
+	 * Called by {@link #NLPPipeline(DecodeConfiguration, NLPMode, boolean)}.
+	 * Semantic role labeling is skipped for the languages that have no semantic role labeler (see {@link NLPUtils#getSRLabeler(TLanguage, String, SRLConfiguration)}) unless it is the last stage.
+	 * @param stages the mode of each component is added to this list.
+	 */
+	private AbstractComponent[] initComponents(DecodeConfiguration configuration, NLPMode mode, boolean hash, List<NLPMode> stages)
+	{
+		List<AbstractComponent> list = new ArrayList<>();
+		TLanguage language = configuration.getLanguage();
+		
+		add(list, stages, NLPMode.pos, NLPUtils.getPOSTagger(language, configuration.getModelPath(NLPMode.pos), new POSConfiguration(configuration)));
+		if (mode == NLPMode.pos) return toArray(list, hash);
+		add(list, stages, NLPMode.morph, NLPUtils.getMPAnalyzer(language));
+		if (mode == NLPMode.morph) return toArray(list, hash);
+		add(list, stages, NLPMode.dep, NLPUtils.getDEPParser(language, configuration.getModelPath(NLPMode.dep), new DEPConfiguration(configuration)));
+		if (mode == NLPMode.dep) return toArray(list, hash);
+		
+		if (language == TLanguage.ENGLISH)
+			add(list, stages, NLPMode.srl, NLPUtils.getSRLabeler(language, configuration.getModelPath(NLPMode.srl), new SRLConfiguration(configuration)));
+		else if (mode == NLPMode.srl)
+			throw new IllegalArgumentException("Semantic role labeling is not supported for "+language+".");
+		
+		if (mode == NLPMode.srl) return toArray(list, hash);
+		add(list, stages, NLPMode.ner, NLPUtils.getNERecognizer(language, configuration.getModelPath(NLPMode.ner), new NERConfiguration(configuration)));
+		return toArray(list, hash);
+	}
+	
+	/** Called by {@link #initComponents(DecodeConfiguration, NLPMode, boolean, List)}. */
+	private void add(List<AbstractComponent> list, List<NLPMode> stages, NLPMode mode, AbstractComponent component)
+	{
+		list.add(component);
+		stages.add(mode);
+	}
+	
+	/** Called by {@link #initComponents(DecodeConfiguration, NLPMode, boolean, List)}. */
+	private AbstractComponent[] toArray(List<AbstractComponent> list, boolean hash)
+	{
+		AbstractStatisticalComponent<?,?,?,?,?> c;
+		
+		for (AbstractComponent component : list)
+		{
+			if (component instanceof AbstractStatisticalComponent)
+			{
+				c = (AbstractStatisticalComponent<?,?,?,?,?>)component;
+				if (hash) c.initHashFeatures();
+				else      c.freezeFeatureMaps();
+			}
+		}
+		
+		return list.toArray(new AbstractComponent[list.size()]);
+	}
+	
+	/** Called by {@link #NLPPipeline(DecodeConfiguration, NLPMode, boolean)}. */
+	private void initLatencies(List<NLPMode> stages)
+	{
+		int i, size = stages.size();
+		
+		s_stages = new String[size];
+		l_nanos  = new LongAdder[size];
+		
+		for (i=0; i<size; i++)
+		{
+			s_stages[i] = stages.get(i).toString();
+			l_nanos [i] = new LongAdder();
+		}
+		
+		l_tokenize  = new LongAdder();
+		l_sentences = new LongAdder();
+	}
+	
+//	====================================== Annotation ======================================
+	
+	/** Segments the specific text into sentences and annotates each sentence, where every node keeps the character offsets of its token in the text (see {@link DEPNode#getBeginOffset()}). */
+	public List<DEPTree> annotate(String text)
+	{
+		long st = System.nanoTime();
+		List<List<TokenSpan>> sentences = getTokenizer().segmentizeSpans(text);
+		List<DEPTree> trees = new ArrayList<>(sentences.size());
+		
+		for (List<TokenSpan> tokens : sentences)
+			trees.add(new DEPTree(tokens));
+		
+		l_tokenize.add(System.nanoTime() - st);
+		return annotate(trees);
+	}
+	
+	/** @return the tokenizer, which is loaded on the first call so that pipelines annotating only trees do not require it. */
+	public AbstractTokenizer getTokenizer()
+	{
+		if (d_tokenizer == null)
+		{
+			synchronized (this)
+			{
+				if (d_tokenizer == null)
+					d_tokenizer = NLPUtils.getTokenizer(l_language);
+			}
+		}
+		
+		return d_tokenizer;
+	}
+	
+	/** Annotates the specific trees in place; the trees must not be shared with other threads. */
+	public List<DEPTree> annotate(List<DEPTree> trees)
+	{
+		int i, size = c_components.length;
+		long st;
+		
+		for (DEPTree tree : trees)
+		{
+			for (i=0; i<size; i++)
+			{
+				st = System.nanoTime();
+				c_components[i].process(tree);
+				l_nanos[i].add(System.nanoTime() - st);
+			}
+		}
+		
+		l_sentences.add(trees.size());
+		return trees;
+	}
+	
+//	====================================== Latency ======================================
+	
+	/** @return the average latency (in milliseconds) of each stage per sentence, in the order of the stages. */
+	public Map<String,Double> getLatencies()
+	{
+		Map<String,Double> map = new LinkedHashMap<>();
+		double n = Math.max(1, l_sentences.sum()) * 1e6;
+		
+		map.put(TOKENIZE, l_tokenize.sum() / n);
+		
+		for (int i=0; i<s_stages.length; i++)
+			map.put(s_stages[i], l_nanos[i].sum() / n);
+		
+		return map;
+	}
+	
+	/** @return the number of sentences annotated since the last {@link #resetLatencies()}. */
+	public long getSentenceCount()
+	{
+		return l_sentences.sum();
+	}
+	
+	public void resetLatencies()
+	{
+		for (LongAdder nanos : l_nanos)
+			nanos.reset();
+		
+		l_tokenize .reset();
+		l_sentences.reset();
+	}
+	
+	public AbstractComponent[] getComponents()
+	{
+		return c_components;
+	}
+	
+	/** Closes all components (see {@link AbstractComponent#close()}); this pipeline should not annotate afterwards. */
+	public void close()
+	{
+		for (AbstractComponent component : c_components)
+			component.close();
+	}
+}
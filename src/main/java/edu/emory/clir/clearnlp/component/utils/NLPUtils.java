@@ -16,16 +16,21 @@
 package edu.emory.clir.clearnlp.component.utils;
 
 import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.tukaani.xz.XZInputStream;
 
+import edu.emory.clir.clearnlp.collection.tree.FrozenPrefixTree;
 import edu.emory.clir.clearnlp.collection.tree.PrefixTree;
+import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
 import edu.emory.clir.clearnlp.component.mode.dep.AbstractDEPParser;
 import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
 import edu.emory.clir.clearnlp.component.mode.dep.DefaultDEPParser;
@@ -36,9 +41,11 @@ import edu.emory.clir.clearnlp.component.mode.morph.EnglishMPAnalyzer;
 import edu.emory.clir.clearnlp.component.mode.ner.AbstractNERecognizer;
 import edu.emory.clir.clearnlp.component.mode.ner.DefaultNERecognizer;
 import edu.emory.clir.clearnlp.component.mode.ner.EnglishNERecognizer;
+import edu.emory.clir.clearnlp.component.mode.ner.NERConfiguration;
 import edu.emory.clir.clearnlp.component.mode.pos.AbstractPOSTagger;
 import edu.emory.clir.clearnlp.component.mode.pos.DefaultPOSTagger;
 import edu.emory.clir.clearnlp.component.mode.pos.EnglishPOSTagger;
+import edu.emory.clir.clearnlp.component.mode.pos.POSConfiguration;
 import edu.emory.clir.clearnlp.component.mode.srl.AbstractSRLabeler;
 import edu.emory.clir.clearnlp.component.mode.srl.EnglishSRLabeler;
 import edu.emory.clir.clearnlp.component.mode.srl.SRLConfiguration;
@@ -92,9 +99,28 @@ public class NLPUtils
 		}
 	}
 	
+	static public AbstractPOSTagger getPOSTagger(TLanguage language, ByteBuffer buffer)
+	{
+		BinUtils.LOG.info("Loading part-of-speech tagging models (memory-mapped).\n");
+		
+		switch (language)
+		{
+		case ENGLISH: return new EnglishPOSTagger(buffer);
+		default     : return new DefaultPOSTagger(buffer);
+		}
+	}
+	
 	static public AbstractPOSTagger getPOSTagger(TLanguage language, String modelPath)
 	{
-		return getPOSTagger(language, getObjectInputStream(modelPath));
+		return isMappedModel(modelPath) ? getMapped(modelPath, buffer -> getPOSTagger(language, buffer)) : getPOSTagger(language, getObjectInputStream(modelPath));
+	}
+	
+	/** @return the part-of-speech tagger decoding by the specific configuration (e.g., its beam size). */
+	static public AbstractPOSTagger getPOSTagger(TLanguage language, String modelPath, POSConfiguration configuration)
+	{
+		AbstractPOSTagger tagger = getPOSTagger(language, modelPath);
+		tagger.setConfiguration(configuration);
+		return tagger;
 	}
 	
 	static public AbstractDEPParser getDEPParser(TLanguage language, ObjectInputStream in, DEPConfiguration configuration)
@@ -108,9 +134,20 @@ public class NLPUtils
 		}
 	}
 	
+	static public AbstractDEPParser getDEPParser(TLanguage language, ByteBuffer buffer, DEPConfiguration configuration)
+	{
+		BinUtils.LOG.info("Loading dependency parsing models (memory-mapped).\n");
+		
+		switch (language)
+		{
+		case ENGLISH: return new EnglishDEPParser(configuration, buffer);
+		default     : return new DefaultDEPParser(configuration, buffer);
+		}
+	}
+	
 	static public AbstractDEPParser getDEPParser(TLanguage language, String modelPath, DEPConfiguration configuration)
 	{
-		return getDEPParser(language, getObjectInputStream(modelPath), configuration);
+		return isMappedModel(modelPath) ? getMapped(modelPath, buffer -> getDEPParser(language, buffer, configuration)) : getDEPParser(language, getObjectInputStream(modelPath), configuration);
 	}
 	
 	static public AbstractSRLabeler getSRLabeler(TLanguage language, ObjectInputStream in, SRLConfiguration configuration)
@@ -124,9 +161,20 @@ public class NLPUtils
 		}
 	}
 	
+	static public AbstractSRLabeler getSRLabeler(TLanguage language, ByteBuffer buffer, SRLConfiguration configuration)
+	{
+		BinUtils.LOG.info("Loading semantic role labeling models (memory-mapped).\n");
+		
+		switch (language)
+		{
+		case ENGLISH: return new EnglishSRLabeler(configuration, buffer);
+		default     : return null;
+		}
+	}
+	
 	static public AbstractSRLabeler getSRLabeler(TLanguage language, String modelPath, SRLConfiguration configuration)
 	{
-		return getSRLabeler(language, getObjectInputStream(modelPath), configuration);
+		return isMappedModel(modelPath) ? getMapped(modelPath, buffer -> getSRLabeler(language, buffer, configuration)) : getSRLabeler(language, getObjectInputStream(modelPath), configuration);
 	}
 	
 	static public AbstractNERecognizer getNERecognizer(TLanguage language, ObjectInputStream in)
@@ -140,9 +188,28 @@ public class NLPUtils
 		}
 	}
 	
+	static public AbstractNERecognizer getNERecognizer(TLanguage language, ByteBuffer buffer)
+	{
+		BinUtils.LOG.info("Loading named entity recognition models (memory-mapped).\n");
+		
+		switch (language)
+		{
+		case ENGLISH: return new EnglishNERecognizer(buffer);
+		default     : return new DefaultNERecognizer(buffer);
+		}
+	}
+	
 	static public AbstractNERecognizer getNERecognizer(TLanguage language, String modelPath)
 	{
-		return getNERecognizer(language, getObjectInputStream(modelPath));
+		return isMappedModel(modelPath) ? getMapped(modelPath, buffer -> getNERecognizer(language, buffer)) : getNERecognizer(language, getObjectInputStream(modelPath));
+	}
+	
+	/** @return the named entity recognizer decoding by the specific configuration (e.g., its beam size). */
+	static public AbstractNERecognizer getNERecognizer(TLanguage language, String modelPath, NERConfiguration configuration)
+	{
+		AbstractNERecognizer recognizer = getNERecognizer(language, modelPath);
+		recognizer.setConfiguration(configuration);
+		return recognizer;
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -160,29 +227,103 @@ public class NLPUtils
 		return tree;
 	}
 	
+	/** @return the read-only gazetteers from the specific buffer (see {@link FrozenPrefixTree#save(java.io.DataOutputStream, FrozenPrefixTree.ValueWriter)}). */
+	static public PrefixTree<String,NERInfoSet> getNERDictionary(ByteBuffer buffer)
+	{
+		BinUtils.LOG.info("Loading named entity gazetteers.\n");
+		PrefixTree<String,NERInfoSet> tree = null;
+		
+		try
+		{
+			tree = new FrozenPrefixTree<>(buffer, NERInfoSet::new);
+		}
+		catch (Exception e) {e.printStackTrace();}
+		
+		return tree;
+	}
+	
+	/** @return the gazetteers from the specific path, which are read-only if the path is a frozen prefix tree (see {@link #isFrozenPrefixTree(String)}). */
 	static public PrefixTree<String,NERInfoSet> getNERDictionary(String modelPath)
 	{
-		return getNERDictionary(NLPUtils.getObjectInputStream(modelPath));
+		return isFrozenPrefixTree(modelPath) ? getNERDictionary(IOUtils.createMappedByteBuffer(modelPath)) : getNERDictionary(NLPUtils.getObjectInputStream(modelPath));
 	}
 	
 	@SuppressWarnings("unchecked")
-	static public Map<String,Set<String>> getDistributionalSemantics(ObjectInputStream in)
+	static public DistributionalSemantics getDistributionalSemantics(ObjectInputStream in)
+	{
+		BinUtils.LOG.info("Loading distributional semantics.\n");
+		DistributionalSemantics ds = null;
+		
+		try
+		{
+			ds = new DistributionalSemantics((HashMap<String,Set<String>>)in.readObject());
+		}
+		catch (Exception e) {e.printStackTrace();}
+		
+		return ds;
+	}
+	
+	/** @return the distributional semantics from the specific buffer (see {@link DistributionalSemantics#save(java.io.DataOutputStream)}). */
+	static public DistributionalSemantics getDistributionalSemantics(ByteBuffer buffer)
 	{
 		BinUtils.LOG.info("Loading distributional semantics.\n");
-		Map<String,Set<String>> map = null;
+		DistributionalSemantics ds = null;
 		
 		try
 		{
-			map = (HashMap<String,Set<String>>)in.readObject();
+			ds = new DistributionalSemantics(buffer);
 		}
 		catch (Exception e) {e.printStackTrace();}
 		
-		return map;
+		return ds;
 	}
 	
-	static public Map<String,Set<String>> getDistributionalSemantics(String modelPath)
+	static public DistributionalSemantics getDistributionalSemantics(String modelPath)
 	{
-		return getDistributionalSemantics(getObjectInputStream(modelPath));
+		return isDistributionalSemantics(modelPath) ? getDistributionalSemantics(IOUtils.createMappedByteBuffer(modelPath)) : getDistributionalSemantics(getObjectInputStream(modelPath));
+	}
+	
+	/**
+	 * @return the component created from the memory-mapped model at the specific path.
+	 * @throws IllegalArgumentException if the model cannot be loaded; the message names the model path.
+	 */
+	static private <T> T getMapped(String modelPath, Function<ByteBuffer,T> getter)
+	{
+		try
+		{
+			return getter.apply(IOUtils.createMappedByteBuffer(modelPath));
+		}
+		catch (IllegalArgumentException e) {throw new IllegalArgumentException(modelPath+": "+e.getMessage(), e);}
+	}
+	
+	/** @return {@code true} if the specific path is a file on disk that begins with {@link AbstractStatisticalComponent#MAPPED_MODEL_MAGIC}. */
+	static public boolean isMappedModel(String modelPath)
+	{
+		return beginsWith(modelPath, AbstractStatisticalComponent.MAPPED_MODEL_MAGIC);
+	}
+	
+	/** @return {@code true} if the specific path is a file on disk that begins with {@link FrozenPrefixTree#MAGIC}. */
+	static public boolean isFrozenPrefixTree(String modelPath)
+	{
+		return beginsWith(modelPath, FrozenPrefixTree.MAGIC);
+	}
+	
+	/** @return {@code true} if the specific path is a file on disk that begins with {@link DistributionalSemantics#MAGIC}. */
+	static public boolean isDistributionalSemantics(String modelPath)
+	{
+		return beginsWith(modelPath, DistributionalSemantics.MAGIC);
+	}
+	
+	/** Called by {@link #isMappedModel(String)}, {@link #isFrozenPrefixTree(String)}, and {@link #isDistributionalSemantics(String)}. */
+	static private boolean beginsWith(String path, int magic)
+	{
+		if (!new File(path).isFile()) return false;
+		
+		try (DataInputStream in = new DataInputStream(IOUtils.createFileInputStream(path)))
+		{
+			return in.readInt() == magic;
+		}
+		catch (IOException e) {return false;}
 	}
 	
 	static public ObjectInputStream getObjectInputStream(String modelPath)
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.dependency;
+
+import java.util.Arrays;
+
+import edu.emory.clir.clearnlp.feature.type.FieldType;
+
+/**
+ * Per-sentence memo of feature values of the nodes in a tree, shared by all components that process the tree
+ * (see {@link DEPTree#getFeatureCache()}).
+ * Values are indexed by a field and a parameter chosen by the feature extractor (e.g., the prefix field and its length), and the node ID;
+ * the memo is discarded whenever nodes are added to or removed from the tree.
+ * <p>
+ * Concurrency: {@link #getValues(int, int)} and {@link #getFeatures(int, int)} can be called by multiple threads processing the same tree
+ * (e.g., predicates decoded in parallel by {@link edu.emory.clir.clearnlp.component.mode.srl.AbstractSRLabeler}).
+ * The arrays of a field and a parameter are looked up without locking once they exist, and created or grown under the lock of this memo,
+ * where the tables are replaced instead of resized in place so that a thread never sees a table shorter than it has checked.
+ * The returned arrays are written without locking: two threads may compute the same feature of a node,
+ * but both write the same immutable string, so a reader sees either {@code null} (recomputed) or the feature.
+ * {@link #clear(int)} must not be called while other threads use this memo.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DEPFeatureCache
+{
+	/** Stands for a feature that has been computed as {@code null} in {@link #getValues(int, int)}. */
+	static public final String NULL_VALUE = new String();
+	/** Stands for features that have been computed as {@code null} in {@link #getFeatures(int, int)}. */
+	static public final String[] NULL_FEATURES = new String[0];
+	/** The initial number of fields, which are usually indexed by {@link FieldType#ordinal()}. */
+	static private final int FIELD_SIZE = FieldType.values().length;
+	/** [field][parameter][node ID] -> feature. */
+	private volatile String[][][] s_values;
+	/** [field][parameter][node ID] -> features. */
+	private volatile String[][][][] s_features;
+	private final int n_size;
+	
+	/** @param size the number of nodes in the tree including the root. */
+	public DEPFeatureCache(int size)
+	{
+		s_values   = new String[FIELD_SIZE][][];
+		s_features = new String[FIELD_SIZE][][][];
+		n_size = size;
+	}
+	
+	/**
+	 * @return the features of the specific field and parameter indexed by node IDs, which can be modified to put features;
+	 * a feature is {@code null} if it has not been computed, and {@link #NULL_VALUE} if it has been computed as {@code null}.
+	 */
+	public String[] getValues(int field, int parameter)
+	{
+		String[][][] fields = s_values;
+		String[][] values;
+		String[] nodes;
+		
+		if (field < fields.length && (values = fields[field]) != null && parameter < values.length && (nodes = values[parameter]) != null)
+			return nodes;
+		
+		return createValues(field, parameter);
+	}
+	
+	/** Called by {@link #getValues(int, int)} if the array of the specific field and parameter does not exist. */
+	private synchronized String[] createValues(int field, int parameter)
+	{
+		String[][] values = ensureValues(field, parameter+1);
+		if (values[parameter] == null) values[parameter] = new String[n_size];
+		return values[parameter];
+	}
+	
+	/**
+	 * Allocates the parameter dimension of the specific field in {@link #getValues(int, int)} for at least the specific number of parameters,
+	 * so that it does not need to be grown while the values are added (e.g., before threads share this memo).
+	 */
+	public synchronized void initValues(int field, int parameterSize)
+	{
+		ensureValues(field, parameterSize);
+	}
+	
+	/** @return {@code true} if the parameter dimension of the specific field in {@link #getValues(int, int)} has been allocated. */
+	public boolean hasValues(int field)
+	{
+		String[][][] fields = s_values;
+		return field < fields.length && fields[field] != null;
+	}
+	
+	/** Must be called under the lock of this memo. */
+	private String[][] ensureValues(int field, int parameterSize)
+	{
+		String[][][] fields = s_values;
+		
+		if (field >= fields.length)
+			fields = Arrays.copyOf(fields, field+1);
+		
+		String[][] values = fields[field];
+		
+		if (values == null || parameterSize > values.length)
+		{
+			values = (values == null) ? new String[parameterSize][] : Arrays.copyOf(values, parameterSize);
+			if (fields == s_values) fields = fields.clone();
+			fields[field] = values;
+			s_values = fields;
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * @return the feature sets of the specific field and parameter indexed by node IDs, which can be modified to put features;
+	 * a feature set is {@code null} if it has not been computed, and {@link #NULL_FEATURES} if it has been computed as {@code null}.
+	 */
+	public String[][] getFeatures(int field, int parameter)
+	{
+		String[][][][] fields = s_features;
+		String[][][] features;
+		String[][] nodes;
+		
+		if (field < fields.length && (features = fields[field]) != null && parameter < features.length && (nodes = features[parameter]) != null)
+			return nodes;
+		
+		return createFeatures(field, parameter);
+	}
+	
+	/** Called by {@link #getFeatures(int, int)} if the array of the specific field and parameter does not exist. */
+	private synchronized String[][] createFeatures(int field, int parameter)
+	{
+		String[][][][] fields = s_features;
+		
+		if (field >= fields.length)
+			fields = Arrays.copyOf(fields, field+1);
+		
+		String[][][] features = fields[field];
+		
+		if (features == null || parameter >= features.length)
+		{
+			features = (features == null) ? new String[parameter+1][][] : Arrays.copyOf(features, parameter+1);
+			if (fields == s_features) fields = fields.clone();
+			fields[field] = features;
+			s_features = fields;
+		}
+		
+		if (features[parameter] == null) features[parameter] = new String[n_size][];
+		return features[parameter];
+	}
+	
+	/** Discards the features of the specific field (e.g., features that depend on the dependency structure when it is changed). */
+	public synchronized void clear(int field)
+	{
+		String[][][]   values   = s_values;
+		String[][][][] features = s_features;
+		
+		if (field < values  .length) {values   = values  .clone(); values  [field] = null; s_values   = values;}
+		if (field < features.length) {features = features.clone(); features[field] = null; s_features = features;}
+	}
+}
@@ -49,6 +49,8 @@ public class DEPLib
 	static public final String FEAT_NER2 = "n2";
 	/** The feat-key of sentiments (for root). */
 	static public final String FEAT_FUTURE = "fut";
+	/** The feat-key of character offsets in the source text (e.g., {@code 12:17}). */
+	static public final String FEAT_OFFSET = "off";
 	
 	
 	/** The feat-key of sentiments. */
@@ -27,12 +27,14 @@ import java.util.StringJoiner;
 import java.util.function.BiPredicate;
 import java.util.regex.Pattern;
 
+import edu.emory.clir.clearnlp.collection.list.IntArrayList;
 import edu.emory.clir.clearnlp.collection.list.SortedArrayList;
 import edu.emory.clir.clearnlp.collection.pair.Pair;
 import edu.emory.clir.clearnlp.collection.set.IntHashSet;
 import edu.emory.clir.clearnlp.feature.type.DirectionType;
 import edu.emory.clir.clearnlp.feature.type.FieldType;
 import edu.emory.clir.clearnlp.reader.TSVReader;
+import edu.emory.clir.clearnlp.tokenization.TokenSpan;
 import edu.emory.clir.clearnlp.util.DSUtils;
 import edu.emory.clir.clearnlp.util.StringUtils;
 import edu.emory.clir.clearnlp.util.arc.AbstractArc;
@@ -74,6 +76,10 @@ public class DEPNode implements Comparable<DEPNode>, Serializable
 	private List<DEPArc> x_heads;
 	/** The list of semantic heads of this node (default: empty). */
 	private List<SRLArc> s_heads;
+	/** The offset of the first character of this node in the source text (inclusive; default: {@code -1}). */
+	private long n_beginOffset;
+	/** The offset of the last character of this node in the source text (exclusive; default: {@code -1}). */
+	private long n_endOffset;
 	
 //	====================================== Constructors ======================================
 	
@@ -92,6 +98,17 @@ public class DEPNode implements Comparable<DEPNode>, Serializable
 		init(id, form, null, null, null, new DEPFeat());
 	}
 	
+	/**
+	 * Construct DEPNode with id, and the word-form and character offsets of the token.
+	 * @param id id of the node
+	 * @param token token span in the source text
+	 */
+	public DEPNode(int id, TokenSpan token)
+	{
+		init(id, token.toString(), null, null, null, new DEPFeat());
+		setOffsets(token.getBeginOffset(), token.getEndOffset());
+	}
+	
 	/**
 	 * Construct DEPNode with id, word-from, POS tag, and extra features.
 	 * @param id id of the node
@@ -138,6 +155,7 @@ public class DEPNode implements Comparable<DEPNode>, Serializable
 	public DEPNode(DEPNode node)
 	{
 		init(node.n_id, node.s_wordForm, node.s_lemma, node.s_posTag, node.s_namedEntityTag, new DEPFeat(node.d_feats));
+		setOffsets(node.n_beginOffset, node.n_endOffset);
 	}
 	
 //	====================================== Initialization ======================================
@@ -163,6 +181,7 @@ public class DEPNode implements Comparable<DEPNode>, Serializable
 		setHead(null);
 		l_dependents = new SortedArrayList<>();
 		initSemanticHeads();
+		setOffsets(-1, -1);
 	}
 	
 	/** Initializes this node as an artificial root node. */
@@ -381,6 +400,35 @@ public class DEPNode implements Comparable<DEPNode>, Serializable
 		return d_feats.remove(key);
 	}
 	
+	/** @return the offset of the first character of this node in the source text (inclusive) if exists; otherwise, {@code -1}. */
+	public long getBeginOffset()
+	{
+		return n_beginOffset;
+	}
+	
+	/** @return the offset of the last character of this node in the source text (exclusive) if exists; otherwise, {@code -1}. */
+	public long getEndOffset()
+	{
+		return n_endOffset;
+	}
+	
+	/**
+	 * Set the character offsets of this node in the source text.
+	 * @param beginOffset offset of the first character (inclusive)
+	 * @param endOffset offset of the last character (exclusive)
+	 */
+	public void setOffsets(long beginOffset, long endOffset)
+	{
+		n_beginOffset = beginOffset;
+		n_endOffset   = endOffset;
+	}
+	
+	/** @return {@code true} if this node has character offsets in the source text. */
+	public boolean hasOffsets()
+	{
+		return n_beginOffset >= 0;
+	}
+	
 //	====================================== Getters ======================================
 	
 	/**
@@ -1083,7 +1131,8 @@ public class DEPNode implements Comparable<DEPNode>, Serializable
 		return getPathAux(lca, this, field, "^", true) + getPathAux(lca, node, field, "|", false);
 	}
 	
-	private String getPathAux(DEPNode top, DEPNode bottom, FieldType field, String delim, boolean includeTop)
+	/** Called by {@link #getPath(DEPNode, DEPNode, FieldType)} and {@link DEPTree#getPath(DEPNode, DEPNode, DEPNode, FieldType)}. */
+	String getPathAux(DEPNode top, DEPNode bottom, FieldType field, String delim, boolean includeTop)
 	{
 		StringBuilder build = new StringBuilder();
 		DEPNode node = bottom;
@@ -1203,6 +1252,7 @@ public class DEPNode implements Comparable<DEPNode>, Serializable
 	
 	/** 
 	 * Sets the dependency head of this node with the specific node.
+	 * Paths memoized by {@link DEPTree#getPath(DEPNode, DEPNode, DEPNode, FieldType)} are not updated; they are discarded by {@link DEPTree#clearDependencies()}.
 	 * @param node head node of the node 
 	 */
 	public void setHead(DEPNode node)
@@ -1907,6 +1957,58 @@ public class DEPNode implements Comparable<DEPNode>, Serializable
 		return list;
 	}
 	
+	/**
+	 * Consider this node as a predicate; the candidates are in the same order as {@link #getArgumentCandidateList(int, int)}.
+	 * @param maxDepth  > 0.
+	 * @param maxHeight > 0.
+	 * @return the IDs of (argument, lowest common ancestor) pairs, where the argument and the lowest common ancestor of the i'th candidate are at {@code 2*i} and {@code 2*i+1}.
+	 */
+	public int[] getArgumentCandidates(int maxDepth, int maxHeight)
+	{
+		List<DEPNode> descendants = new ArrayList<>(l_dependents);
+		IntArrayList list = new IntArrayList();
+		int i, j, beginIndex, endIndex = 0;
+		DEPNode lca = this, prev;
+		
+		// descendents
+		for (i=1; i<maxDepth; i++)
+		{
+			if (endIndex == descendants.size()) break;
+			beginIndex = endIndex;
+			endIndex   = descendants.size();
+			
+			for (j=beginIndex; j<endIndex; j++)
+				descendants.addAll(descendants.get(j).getDependentList());
+		}
+		
+		for (DEPNode node : descendants)
+		{
+			list.add(node.n_id);
+			list.add(n_id);
+		}
+		
+		// ancestors
+		for (i=0; i<maxHeight; i++)
+		{
+			prev = lca;
+			lca  = lca.getHead();
+			if (lca == null || lca.getID() == DEPLib.ROOT_ID) break;
+			list.add(lca.n_id);
+			list.add(lca.n_id);
+			
+			for (DEPNode node : lca.getDependentList())
+			{
+				if (node != prev)
+				{
+					list.add(node.n_id);
+					list.add(lca.n_id);
+				}
+			}
+		}
+		
+		return list.toArray();
+	}
+	
 //	====================================== String ======================================
 	
 	public String toStringPOS()
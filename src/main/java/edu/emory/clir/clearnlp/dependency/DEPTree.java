@@ -16,6 +16,7 @@
 package edu.emory.clir.clearnlp.dependency;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -26,7 +27,9 @@ import java.util.function.Function;
 import com.carrotsearch.hppc.cursors.IntCursor;
 
 import edu.emory.clir.clearnlp.collection.set.IntHashSet;
+import edu.emory.clir.clearnlp.feature.type.FieldType;
 import edu.emory.clir.clearnlp.srl.SRLTree;
+import edu.emory.clir.clearnlp.tokenization.TokenSpan;
 import edu.emory.clir.clearnlp.util.StringUtils;
 import edu.emory.clir.clearnlp.util.arc.DEPArc;
 import edu.emory.clir.clearnlp.util.arc.SRLArc;
@@ -38,8 +41,13 @@ import edu.emory.clir.clearnlp.util.constant.StringConst;
  */
 public class DEPTree implements Iterable<DEPNode>
 {
+	/** The types of paths memoized by {@link #getPath(DEPNode, DEPNode, DEPNode, FieldType)}. */
+	static private final int PATH_UP = 0, PATH_DOWN = 1, PATH_DOWN_EXCLUSIVE = 2, PATH_TYPES = 3;
+	static private final int FIELD_SIZE = FieldType.values().length;
 	private DEPNode[] d_tree;
 	private int n_size;
+	/** The memo of feature values of the nodes; {@code null} until {@link #getFeatureCache()} is called. */
+	private DEPFeatureCache d_cache;
 	
 //	====================================== Constructors ======================================
 
@@ -71,6 +79,8 @@ public class DEPTree implements Iterable<DEPNode>
 				add((DEPNode)list.get(i));
 			else if (item instanceof String)
 				add(new DEPNode(i+1, (String)item));
+			else if (item instanceof TokenSpan)
+				add(new DEPNode(i+1, (TokenSpan)item));
 		}
 	}
 
@@ -160,6 +170,7 @@ public class DEPTree implements Iterable<DEPNode>
 	{
 		increaseSize();
 		d_tree[n_size++] = node;
+		d_cache = null;
 	}
 	
 	/**
@@ -185,6 +196,110 @@ public class DEPTree implements Iterable<DEPNode>
 		return n_size;
 	}
 	
+	/** @return the per-sentence memo of feature values of the nodes in this tree, which is shared by all components. */
+	public DEPFeatureCache getFeatureCache()
+	{
+		if (d_cache == null) d_cache = new DEPFeatureCache(n_size);
+		return d_cache;
+	}
+	
+	/** Discards the memo of feature values (see {@link #getFeatureCache()}); must be called if the word-forms of the nodes are changed after features are extracted. */
+	public void clearFeatureCache()
+	{
+		d_cache = null;
+	}
+	
+	/**
+	 * Same as {@link DEPNode#getPath(DEPNode, DEPNode, FieldType)} from {@code node} to {@code argument} except that
+	 * the paths from nodes to their ancestors are memoized in {@link #getFeatureCache()} by the number of arcs between them,
+	 * so the chain of each (node, ancestor) pair is walked once per sentence (e.g., for all argument candidates of all predicates).
+	 * The memo is allocated once for the height of this tree (see {@link #initPathCache()}) and discarded by {@link #clearDependencies()};
+	 * the heads and labels of the nodes must not be changed in any other way once paths are extracted, otherwise the memoized paths become stale.
+	 */
+	public String getPath(DEPNode node, DEPNode argument, DEPNode lca, FieldType field)
+	{
+		if (argument == lca)
+			return getPathSegment(lca, node, field, PATH_UP);
+		
+		if (node == lca)
+			return getPathSegment(lca, argument, field, PATH_DOWN);
+		
+		return getPathSegment(lca, node, field, PATH_UP) + getPathSegment(lca, argument, field, PATH_DOWN_EXCLUSIVE);
+	}
+	
+	/** @return the memoized path from the bottom node to its ancestor, the top node. */
+	private String getPathSegment(DEPNode top, DEPNode bottom, FieldType field, int type)
+	{
+		DEPNode node = bottom;
+		int dist = 0;
+		
+		for (; node != top; node = node.getHead(), dist++)
+			if (node == null) return createPathSegment(top, bottom, field, type);	// not an ancestor
+		
+		if (dist == 0) return createPathSegment(top, bottom, field, type);
+		DEPFeatureCache cache = getFeatureCache();
+		if (!cache.hasValues(FieldType.path.ordinal())) initPathCache();
+		String[] values = cache.getValues(FieldType.path.ordinal(), ((dist-1) * PATH_TYPES + type) * FIELD_SIZE + field.ordinal());
+		String value = values[bottom.getID()];
+		
+		if (value == null)
+		{
+			value = createPathSegment(top, bottom, field, type);
+			values[bottom.getID()] = (value != null) ? value : DEPFeatureCache.NULL_VALUE;
+		}
+		
+		return (value != DEPFeatureCache.NULL_VALUE) ? value : null;
+	}
+	
+	/**
+	 * Allocates the memo of path segments in {@link #getFeatureCache()} for all distances up to the height of this tree,
+	 * so that it is not grown per distance (see {@link #getPath(DEPNode, DEPNode, DEPNode, FieldType)}).
+	 * Called lazily by the first path, or before multiple threads extract paths from this tree.
+	 */
+	public void initPathCache()
+	{
+		getFeatureCache().initValues(FieldType.path.ordinal(), Math.max(1, getHeight()) * PATH_TYPES * FIELD_SIZE);
+	}
+	
+	/** @return the number of arcs on the longest chain from a node to its top ancestor (e.g., the root); a cycle is cut where it closes. */
+	public int getHeight()
+	{
+		int[] depths = new int[n_size], stack = new int[n_size];
+		int i, id, depth, top, height = 0;
+		DEPNode node;
+		
+		Arrays.fill(depths, -1);
+		
+		for (i=0; i<n_size; i++)
+		{
+			// walk up to the first node whose depth is known, marking the walked nodes
+			for (node = get(i), top = 0; node != null && depths[id = node.getID()] == -1; node = node.getHead())
+			{
+				depths[id] = -2;
+				stack[top++] = id;
+			}
+			
+			depth = (node != null && depths[node.getID()] >= 0) ? depths[node.getID()] : -1;
+			
+			while (top > 0)
+				depths[stack[--top]] = ++depth;
+			
+			height = Math.max(height, depth);
+		}
+		
+		return height;
+	}
+	
+	private String createPathSegment(DEPNode top, DEPNode bottom, FieldType field, int type)
+	{
+		switch (type)
+		{
+		case PATH_UP  : return bottom.getPathAux(top, bottom, field, "^", true);
+		case PATH_DOWN: return bottom.getPathAux(top, bottom, field, "|", true);
+		default       : return bottom.getPathAux(top, bottom, field, "|", false);
+		}
+	}
+	
 	/**
 	 * Remove the DEPNode with the specific ID
 	 * @param id
@@ -197,6 +312,7 @@ public class DEPTree implements Iterable<DEPNode>
 		try
 		{
 			d_tree[id].setHead(null, null);
+			d_cache = null;
 			n_size--;
 			
 			for (int i=id; i<n_size; i++)
@@ -230,6 +346,7 @@ public class DEPTree implements Iterable<DEPNode>
 				
 			d_tree[id] = node;
 			node.setID(id);
+			d_cache = null;
 			n_size++;
 		}
 		catch (IndexOutOfBoundsException e) {e.printStackTrace();}
@@ -253,6 +370,8 @@ public class DEPTree implements Iterable<DEPNode>
 		
 		for (i=beginID; i<size; i++)
 			get(i).setID(i);
+		
+		d_cache = null;
 	}
 	
 //	====================================== Initialization ======================================
@@ -689,6 +808,8 @@ public class DEPTree implements Iterable<DEPNode>
 		
 		for (i=0; i<size; i++)
 			get(i).clearDependencies();
+		
+		if (d_cache != null) d_cache.clear(FieldType.path.ordinal());
 	}
 	
 	/**
@@ -19,8 +19,10 @@ import java.io.InputStream;
 import java.util.Set;
 import java.util.regex.Matcher;
 
+import edu.emory.clir.clearnlp.collection.set.CharHashSet;
 import edu.emory.clir.clearnlp.collection.tree.CharAffixTree;
 import edu.emory.clir.clearnlp.dictionary.PathTokenizer;
+import edu.emory.clir.clearnlp.util.CharUtils;
 import edu.emory.clir.clearnlp.util.DSUtils;
 import edu.emory.clir.clearnlp.util.IOUtils;
 import edu.emory.clir.clearnlp.util.MetaUtils;
@@ -35,6 +37,10 @@ public class DTEmoticon
 	private Set<String>   s_emoticon;
 	private CharAffixTree t_prefix;
 	private CharAffixTree t_suffix;
+	/** The first characters of the emoticons in the dictionary. */
+	private CharHashSet   c_first;
+	/** The last characters of the emoticons in the dictionary. */
+	private CharHashSet   c_last;
 	
 	public DTEmoticon()
 	{
@@ -51,10 +57,20 @@ public class DTEmoticon
 		s_emoticon = DSUtils.createStringHashSet(in, true, false);
 		t_prefix = new CharAffixTree(true);		t_prefix.addAll(s_emoticon);
 		t_suffix = new CharAffixTree(false);	t_suffix.addAll(s_emoticon);
+		c_first  = new CharHashSet();
+		c_last   = new CharHashSet();
+		
+		for (String emoticon : s_emoticon)
+		{
+			if (emoticon.isEmpty()) continue;
+			c_first.add(emoticon.charAt(0));
+			c_last .add(emoticon.charAt(emoticon.length()-1));
+		}
 	}
 	
 	public int[] getEmoticonRange(String s)
 	{
+		if (!mayContainEmoticon(s)) return null;
 		s = StringUtils.toLowerCase(s);
 		
 		if (s_emoticon.contains(s))
@@ -75,4 +91,26 @@ public class DTEmoticon
 		
 		return null;
 	}
+	
+	/**
+	 * Emoticons in the dictionary are found only at the beginning or the end of the string,
+	 * and every match of {@link MetaUtils#EMOTICON} begins with a character in {@link MetaUtils#EMOTICON_BEGIN}.
+	 * @return {@code false} if {@link #getEmoticonRange(String)} returns {@code null} for the specific string; otherwise, {@code true}.
+	 */
+	private boolean mayContainEmoticon(String s)
+	{
+		int i, len = s.length();
+		if (len == 0) return false;
+		
+		if (c_first.contains(CharUtils.toLowerCase(s.charAt(0))) || c_last.contains(CharUtils.toLowerCase(s.charAt(len-1))))
+			return true;
+		
+		for (i=0; i<len; i++)
+		{
+			if (MetaUtils.EMOTICON_BEGIN.contains(s.charAt(i)))
+				return true;
+		}
+		
+		return false;
+	}
 }
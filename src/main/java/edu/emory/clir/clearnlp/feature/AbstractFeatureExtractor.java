@@ -26,6 +26,8 @@ import java.util.Set;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
+import edu.emory.clir.clearnlp.classification.map.HashFeatureMap;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
 import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
 import edu.emory.clir.clearnlp.component.state.AbstractState;
 import edu.emory.clir.clearnlp.dependency.DEPNode;
@@ -47,6 +49,7 @@ abstract public class AbstractFeatureExtractor<FeatureTemplateType extends Abstr
 {
 	private static final long serialVersionUID = 1558293248573950051L;
 	public  static final String DELIM = StringConst.UNDERSCORE;
+	private static final char   DELIM_CHAR = CharConst.UNDERSCORE;
 	
 	private ArrayList<FeatureTemplateType> f_templates;
 	
@@ -94,7 +97,15 @@ abstract public class AbstractFeatureExtractor<FeatureTemplateType extends Abstr
 	
 	public StringFeatureVector createStringFeatureVector(StateType state)
 	{
-		StringFeatureVector vector = new StringFeatureVector();
+		return createStringFeatureVector(state, new StringFeatureVector());
+	}
+	
+	/**
+	 * Adds features to the specific vector instead of creating a new one (e.g., a per-thread buffer that is reused while decoding).
+	 * @param vector the empty feature vector to be filled.
+	 */
+	public StringFeatureVector createStringFeatureVector(StateType state, StringFeatureVector vector)
+	{
 		addFeatures(vector, state);
 		return vector;
 	}
@@ -122,9 +133,17 @@ abstract public class AbstractFeatureExtractor<FeatureTemplateType extends Abstr
 	private void addSimpleFeatures(StringFeatureVector vector, FeatureTemplateType template, int typeID, StateType state)
 	{
 		FeatureTokenType[] tokens = template.getFeatureTokens();
-		StringBuilder build = new StringBuilder();
 		int i, size = tokens.length;
 		String ftr;
+		
+		// the value of a single token is added as it is, which can be shared by the memo of the tree
+		if (size == 1)
+		{
+			if ((ftr = getFeature(tokens[0], state)) != null) vector.addFeature(typeID, ftr);
+			return;
+		}
+		
+		StringBuilder build = new StringBuilder();
 
 		for (i=0; i<size; i++)
 		{
@@ -200,6 +219,106 @@ abstract public class AbstractFeatureExtractor<FeatureTemplateType extends Abstr
 	abstract protected String   getFeature (FeatureTokenType token, StateType state, DEPNode node);
 	abstract protected String[] getFeatures(FeatureTokenType token, StateType state, DEPNode node);
 	
+//	====================================== Hash feature extraction ======================================
+	
+	/**
+	 * Creates a feature vector whose feature values are hashed directly into feature indices without building intermediate strings.
+	 * The resulting vector is identical to the one converted from {@link #createStringFeatureVector(AbstractState)} as long as no hash collision occurs.
+	 * @param map the hash feature map of the model used for prediction.
+	 */
+	public SparseFeatureVector createSparseFeatureVector(StateType state, HashFeatureMap map)
+	{
+		return createSparseFeatureVector(state, map, new SparseFeatureVector());
+	}
+	
+	/**
+	 * Adds features to the specific vector instead of creating a new one (e.g., a per-thread buffer that is reused while decoding).
+	 * @param vector the empty feature vector to be filled.
+	 */
+	public SparseFeatureVector createSparseFeatureVector(StateType state, HashFeatureMap map, SparseFeatureVector vector)
+	{
+		int i, id = 1, size = f_templates.size();
+		FeatureTemplateType template;
+		
+		for (i=0; i<size; i++)
+		{
+			template = f_templates.get(i);
+			
+			switch (template.getFeatureType())
+			{
+			case BINARY: addSimpleFeatures(vector, map, template, 0   , state); break;
+			case SIMPLE: addSimpleFeatures(vector, map, template, id++, state); break;
+			case SET   : addSetFeatures   (vector, map, template, id++, state); break;
+			}
+		}
+		
+		return vector;
+	}
+	
+	/** Called by {@link #createSparseFeatureVector(AbstractState, HashFeatureMap, SparseFeatureVector)}. */
+	private void addSimpleFeatures(SparseFeatureVector vector, HashFeatureMap map, FeatureTemplateType template, int typeID, StateType state)
+	{
+		FeatureTokenType[] tokens = template.getFeatureTokens();
+		long h = HashFeatureMap.hash(typeID);
+		int i, size = tokens.length;
+		String ftr;
+		
+		for (i=0; i<size; i++)
+		{
+			ftr = getFeature(tokens[i], state);
+			if (ftr == null) return;
+			
+			if (i > 0) h = HashFeatureMap.hash(h, DELIM_CHAR);
+			h = HashFeatureMap.hash(h, ftr);
+		}
+		
+		addFeature(vector, map, h);
+	}
+	
+	/** Called by {@link #createSparseFeatureVector(AbstractState, HashFeatureMap, SparseFeatureVector)}. */
+	private void addSetFeatures(SparseFeatureVector vector, HashFeatureMap map, FeatureTemplateType template, int typeID, StateType state)
+	{
+		FeatureTokenType[] tokens = template.getFeatureTokens();
+		int i, size = tokens.length;
+		
+		String[][] fields = new String[size][];
+		
+		for (i=0; i<size; i++)
+		{
+			fields[i] = getFeatures(tokens[i], state);
+			if (fields[i] == null) return;
+		}
+		
+		addSetFeaturesAux(vector, map, fields, 0, HashFeatureMap.hash(typeID), 0);
+	}
+	
+	/**
+	 * Called by {@link #addSetFeatures(SparseFeatureVector, HashFeatureMap, AbstractFeatureTemplate, int, AbstractState)}.
+	 * @param h the hash value of the previous fields.
+	 * @param length the length of the previous fields joined by {@link #DELIM}.
+	 */
+	private void addSetFeaturesAux(SparseFeatureVector vector, HashFeatureMap map, String[][] fields, int index, long h, int length)
+	{
+		if (index < fields.length)
+		{
+			for (String field : fields[index])
+			{
+				if (length == 0)
+					addSetFeaturesAux(vector, map, fields, index+1, HashFeatureMap.hash(h, field), field.length());
+				else
+					addSetFeaturesAux(vector, map, fields, index+1, HashFeatureMap.hash(HashFeatureMap.hash(h, DELIM_CHAR), field), length + 1 + field.length());
+			}
+		}
+		else
+			addFeature(vector, map, h);
+	}
+	
+	private void addFeature(SparseFeatureVector vector, HashFeatureMap map, long h)
+	{
+		int index = map.getFeatureIndex(h);
+		if (0 < index) vector.addFeature(index);
+	}
+	
 //	====================================== Helper methods ======================================
 	
 	/** @return {@code null} if the specific list is empty. */
@@ -22,7 +22,9 @@ import org.w3c.dom.Element;
 import edu.emory.clir.clearnlp.collection.pair.Pair;
 import edu.emory.clir.clearnlp.component.state.AbstractState;
 import edu.emory.clir.clearnlp.component.utils.GlobalLexica;
+import edu.emory.clir.clearnlp.dependency.DEPFeatureCache;
 import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
 import edu.emory.clir.clearnlp.feature.AbstractFeatureExtractor;
 import edu.emory.clir.clearnlp.feature.type.DirectionType;
 import edu.emory.clir.clearnlp.feature.type.FieldType;
@@ -55,10 +57,10 @@ public class CommonFeatureExtractor<StateType extends AbstractState<?,?>> extend
 		{
 		case f : return node.getWordForm();
 		case f2: return node.getSimplifiedWordForm();
-		case f3: return node.getLowerSimplifiedWordForm();
-		case f4: return node.getWordShape(2);
-		case pf: return StringUtils.getPrefix(node.getSimplifiedWordForm(), (int)token.getValue());
-		case sf: return StringUtils.getSuffix(node.getSimplifiedWordForm(), (int)token.getValue());
+		case f3: return getLexicalFeature(state, node, FieldType.f3, 0);
+		case f4: return getLexicalFeature(state, node, FieldType.f4, 2);
+		case pf: return getLexicalFeature(state, node, FieldType.pf, (int)token.getValue());
+		case sf: return getLexicalFeature(state, node, FieldType.sf, (int)token.getValue());
 		case m : return node.getLemma();
 		case p : return node.getPOSTag();
 		case n : return node.getNamedEntityTag();
@@ -79,13 +81,67 @@ public class CommonFeatureExtractor<StateType extends AbstractState<?,?>> extend
 		{
 		case ds  : return toLabelArray(node.getDependentList(), (FieldType)token.getValue());
 		case ds2 : return toLabelArray(node.getGrandDependentList(), (FieldType)token.getValue());
-		case dsw : return GlobalLexica.getDistributionalSemanticFeatures((int)token.getValue(), node.getWordForm());
-		case dsls: return GlobalLexica.getDistributionalSemanticFeatures((int)token.getValue(), node.getLowerSimplifiedWordForm());
-		case orth: return getOrthographicFeatures(state, node);
+		case dsw : return getLexicalFeatures(state, node, FieldType.dsw, (int)token.getValue());
+		case dsls: return getLexicalFeatures(state, node, FieldType.dsls, (int)token.getValue());
+		case orth: return getLexicalFeatures(state, node, FieldType.orth, 0);
 		default  : return null;
 		}
 	}
 	
+//	====================================== Lexical features ======================================
+	
+	/**
+	 * @return the feature of the specific field and parameter of the node, computed once per sentence and shared by all components (see {@link DEPTree#getFeatureCache()}).
+	 * @param n the parameter of the field (e.g., the length of a prefix).
+	 */
+	protected String getLexicalFeature(StateType state, DEPNode node, FieldType field, int n)
+	{
+		String[] values = state.getTree().getFeatureCache().getValues(field.ordinal(), n);
+		String value = values[node.getID()];
+		
+		if (value == null)
+		{
+			switch (field)
+			{
+			case f3: value = node.getLowerSimplifiedWordForm(); break;
+			case f4: value = node.getWordShape(n); break;
+			case pf: value = StringUtils.getPrefix(node.getSimplifiedWordForm(), n); break;
+			case sf: value = StringUtils.getSuffix(node.getSimplifiedWordForm(), n); break;
+			default: throw new IllegalArgumentException("Unsupported lexical feature: "+field);
+			}
+			
+			values[node.getID()] = (value != null) ? value : DEPFeatureCache.NULL_VALUE;
+		}
+		
+		return (value != DEPFeatureCache.NULL_VALUE) ? value : null;
+	}
+	
+	/**
+	 * @return the features of the specific field and parameter of the node, computed once per sentence and shared by all components (see {@link DEPTree#getFeatureCache()}).
+	 * The orthographic features assume that {@link AbstractState#isFirstNode(DEPNode)} depends only on the node.
+	 * @param n the parameter of the field (e.g., the index of distributional semantics).
+	 */
+	protected String[] getLexicalFeatures(StateType state, DEPNode node, FieldType field, int n)
+	{
+		String[][] sets = state.getTree().getFeatureCache().getFeatures(field.ordinal(), n);
+		String[] features = sets[node.getID()];
+		
+		if (features == null)
+		{
+			switch (field)
+			{
+			case dsw : features = GlobalLexica.getDistributionalSemanticFeatures(n, node.getWordForm()); break;
+			case dsls: features = GlobalLexica.getDistributionalSemanticFeatures(n, getLexicalFeature(state, node, FieldType.f3, 0)); break;
+			case orth: features = getOrthographicFeatures(state, node); break;
+			default  : throw new IllegalArgumentException("Unsupported lexical features: "+field);
+			}
+			
+			sets[node.getID()] = (features != null) ? features : DEPFeatureCache.NULL_FEATURES;
+		}
+		
+		return (features != DEPFeatureCache.NULL_FEATURES) ? features : null;
+	}
+	
 	protected String getBooleanFeatureValue(CommonFeatureToken token, StateType state, DEPNode node)
 	{
 		int field = (int)token.getValue();
@@ -15,7 +15,11 @@
  */
 package edu.emory.clir.clearnlp.ner;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Set;
 import java.util.TreeSet;
@@ -38,6 +42,39 @@ public class NERInfoSet implements Serializable
 		setCorrectCount(0);
 	}
 	
+	/** Creates a set from the specific buffer (see {@link #write(DataOutputStream)}). */
+	public NERInfoSet(ByteBuffer buffer)
+	{
+		this();
+		byte[] bytes;
+		int i, size = buffer.getInt();
+		
+		for (i=0; i<size; i++)
+		{
+			bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			addCategory(new String(bytes, StandardCharsets.UTF_8));
+		}
+		
+		setCorrectCount(buffer.getInt());
+	}
+	
+	/** Writes the categories and the correct count of this set that can be read by {@link #NERInfoSet(ByteBuffer)}. */
+	public void write(DataOutputStream out) throws IOException
+	{
+		byte[] bytes;
+		out.writeInt(category_set.size());
+		
+		for (String category : category_set)
+		{
+			bytes = category.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		
+		out.writeInt(correct_count);
+	}
+	
 	public Set<String> getCategorySet()
 	{
 		return category_set;
@@ -72,4 +109,18 @@ public class NERInfoSet implements Serializable
 	{
 		return Joiner.join(category_set, delim);
 	}
+	
+	@Override
+	public boolean equals(Object o)
+	{
+		if (!(o instanceof NERInfoSet)) return false;
+		NERInfoSet set = (NERInfoSet)o;
+		return correct_count == set.correct_count && category_set.equals(set.category_set);
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return 31 * category_set.hashCode() + correct_count;
+	}
 }
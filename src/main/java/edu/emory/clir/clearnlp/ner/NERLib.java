@@ -42,4 +42,49 @@ public class NERLib
 	{
 		return toBILOUTag(newBilou, toNamedEntity(tag));
 	}
+	
+	/**
+	 * @param tags the BILOU tags (e.g., {@code B-PER}, {@code I}, {@code L-PER}, {@code U-ORG}, {@code O}), where {@code I} may come without a named entity.
+	 * @return the matrix of size {@code (tags.length+1)^2} where {@code [i][j]} is {@code true} if {@code tags[j]} can follow {@code tags[i]};
+	 * the last row stands for the beginning and the last column stands for the end of a sentence.
+	 * {@code B-X} and {@code I-X} can be followed only by {@code I}, {@code I-X}, or {@code L-X}; the others can be followed only by {@code B}, {@code U}, or {@code O}.
+	 */
+	public static boolean[][] getTransitionMatrix(String[] tags)
+	{
+		int i, j, size = tags.length;
+		boolean[][] matrix = new boolean[size+1][size+1];
+		BILOU prev, curr;
+		
+		for (i=0; i<=size; i++)
+		{
+			prev = (i < size) ? toBILOU(tags[i]) : BILOU.O;
+			
+			if (prev == BILOU.B || prev == BILOU.I)
+			{
+				for (j=0; j<size; j++)
+				{
+					curr = toBILOU(tags[j]);
+					matrix[i][j] = (curr == BILOU.I || curr == BILOU.L) && isSameNamedEntity(tags[i], tags[j]);
+				}
+			}
+			else
+			{
+				for (j=0; j<size; j++)
+				{
+					curr = toBILOU(tags[j]);
+					matrix[i][j] = curr == BILOU.B || curr == BILOU.U || curr == BILOU.O;
+				}
+				
+				matrix[i][size] = true;
+			}
+		}
+		
+		return matrix;
+	}
+	
+	/** @return {@code true} if either tag comes without a named entity or both tags have the same named entity. */
+	private static boolean isSameNamedEntity(String tag1, String tag2)
+	{
+		return tag1.length() < 2 || tag2.length() < 2 || toNamedEntity(tag1).equals(toNamedEntity(tag2));
+	}
 }
@@ -63,6 +63,11 @@ abstract public class AbstractReader<T>
 		return f_in;
 	}
 	
+	public BufferedReader getBufferedReader()
+	{
+		return b_reader;
+	}
+	
 	public TReader getReaderType()
 	{
 		return r_type;
@@ -18,7 +18,9 @@ package edu.emory.clir.clearnlp.tokenization;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -47,6 +49,9 @@ abstract public class AbstractTokenizer
 	private final Pattern P_ABBREVIATION = PatternUtils.createClosedPattern("\\p{Alnum}([\\.|-]\\p{Alnum})*");
 	private final Pattern P_YEAR = PatternUtils.createClosedPattern("\\d\\d['\u2019]?[sS]?");
 
+	/** The maximum number of characters of a line tokenized at once while streaming (see {@link LineSpanReader}). */
+	static public final int MAX_LINE_LENGTH = 1 << 20;
+	
 	private DTEmoticon d_emoticon;
 	private DTCurrency d_currency;
 	private DTUnit     d_unit;
@@ -62,6 +67,20 @@ abstract public class AbstractTokenizer
 	
 	abstract public List<List<String>> segmentize(InputStream in);
 	
+	/**
+	 * @return a list of sentences in the specific text, where each sentence is a list of token spans whose offsets are relative to the text.
+	 * The sentences and their tokens are the same as {@link #segmentize(InputStream)} on the same text.
+	 */
+	abstract public List<List<TokenSpan>> segmentizeSpans(CharSequence text);
+	
+	/**
+	 * @return an iterator of sentences read incrementally from the specific reader, where each sentence is a list of token spans whose offsets are relative to the stream.
+	 * Only the current line, up to {@link #MAX_LINE_LENGTH} characters, and the current sentence are kept in memory;
+	 * the sentences and their tokens are the same as {@link #segmentize(InputStream)} unless a token is split at the maximum line length.
+	 * The iterator throws {@link java.io.UncheckedIOException} if the reader fails.
+	 */
+	abstract public Iterator<List<TokenSpan>> segmentizeSpans(Reader in);
+	
 	/** @return a list of tokens in the specific input stream. */
 	public List<String> tokenize(InputStream in)
 	{
@@ -93,6 +112,213 @@ abstract public class AbstractTokenizer
 		return tokens;
 	}
 	
+	/** @return a list of token spans in the specific string; the tokens are the same as {@link #tokenize(String)}. */
+	public List<TokenSpan> tokenizeSpans(CharSequence s)
+	{
+		List<TokenSpan> spans = new ArrayList<>();
+		addSpans(spans, s, 0, 0, s.length());
+		return spans;
+	}
+	
+	/** @return a list of token spans in the specific text tokenized line by line; the tokens are the same as {@link #tokenize(InputStream)}. */
+	protected List<TokenSpan> tokenizeSpansByLines(CharSequence text)
+	{
+		ArrayList<TokenSpan> spans = new ArrayList<>();
+		int i, len = text.length(), bIndex = 0;
+		char c;
+		
+		for (i=0; i<len; i++)
+		{
+			c = text.charAt(i);
+			
+			// line terminators recognized by BufferedReader#readLine()
+			if (c == CharConst.NEW_LINE || c == CharConst.CARRIAGE_RETURN)
+			{
+				if (bIndex < i) addSpans(spans, text, 0, bIndex, i);
+				if (c == CharConst.CARRIAGE_RETURN && i+1 < len && text.charAt(i+1) == CharConst.NEW_LINE) i++;
+				bIndex = i + 1;
+			}
+		}
+		
+		if (bIndex < len) addSpans(spans, text, 0, bIndex, len);
+		spans.trimToSize();
+		return spans;
+	}
+	
+	/**
+	 * Tokenizes the specific range of the source as {@link #tokenize(String)} and aligns the tokens with the source.
+	 * Every token is either a substring of the range or a merge of substrings separated by white spaces (see {@link #mergeParenthesis(List, String, int)}).
+	 * A token that cannot be aligned (e.g., normalized by the tokenizer) gets no offsets (see {@link TokenSpan#hasOffsets()}),
+	 * and so do the following tokens until one is aligned at the beginning of the next chunk of non-white spaces.
+	 * @param sourceOffset the offset of the source in the text (see {@link TokenSpan#getSourceOffset()}).
+	 */
+	private void addSpans(List<TokenSpan> spans, CharSequence source, long sourceOffset, int beginIndex, int endIndex)
+	{
+		String line = source.subSequence(beginIndex, endIndex).toString();
+		int i = 0, j, len = line.length(), resume = -1;
+		long offset = sourceOffset + beginIndex;
+		
+		for (String token : tokenizeWhiteSpaces(line))
+		{
+			while (i < len && CharUtils.isWhiteSpace(line.charAt(i))) i++;
+			
+			if ((j = getEndIndex(line, token, i)) < 0 && resume >= 0 && (j = getEndIndex(line, token, resume)) >= 0)
+				i = resume;
+			
+			if (j >= 0)
+			{
+				spans.add(new TokenSpan(source, sourceOffset, offset+i, offset+j, (j-i == token.length()) ? null : token));
+				i = j;
+				resume = -1;
+			}
+			else
+			{
+				spans.add(new TokenSpan(source, sourceOffset, -1, -1, token));
+				if (resume < 0) resume = getNextChunkIndex(line, i);
+			}
+		}
+	}
+	
+	/**
+	 * Called by {@link #addSpans(List, CharSequence, int, int, int)}.
+	 * @return the end index (exclusive) of the token beginning at {@code beginIndex} of the line, which may skip white spaces within the token, if aligned; otherwise, {@code -1}.
+	 */
+	private int getEndIndex(String line, String token, int beginIndex)
+	{
+		int i, j, len = line.length(), tlen = token.length();
+		char c;
+		
+		if (line.startsWith(token, beginIndex))
+			return beginIndex + tlen;
+		
+		for (i=beginIndex, j=0; i < len && j < tlen; i++)
+		{
+			c = line.charAt(i);
+			if (c == token.charAt(j)) j++;
+			else if (!CharUtils.isWhiteSpace(c)) break;
+		}
+		
+		return (j == tlen) ? i : -1;
+	}
+	
+	/**
+	 * Called by {@link #addSpans(List, CharSequence, int, int, int)}.
+	 * @return the index of the first character of the chunk of non-white spaces following the chunk at {@code index}.
+	 */
+	private int getNextChunkIndex(String line, int index)
+	{
+		int len = line.length();
+		while (index < len && !CharUtils.isWhiteSpace(line.charAt(index))) index++;
+		while (index < len &&  CharUtils.isWhiteSpace(line.charAt(index))) index++;
+		return index;
+	}
+	
+	/**
+	 * Reads the lines of a stream one at a time and tokenizes each line into token spans whose offsets are relative to the stream.
+	 * A line longer than the maximum length is tokenized in chunks of at most that length, which end at white spaces if possible,
+	 * so that memory is bounded for input without line breaks; a token longer than a chunk is split.
+	 */
+	protected class LineSpanReader
+	{
+		private final Reader r_in;
+		private final char[] c_buffer;
+		/** The number of characters in the buffer. */
+		private int n_size;
+		/** The index of the next character in the buffer. */
+		private int n_index;
+		/** The offset of the next character in the stream. */
+		private long n_offset;
+		/** {@code true} if the last line ended with a carriage return, which can be followed by a new line. */
+		private boolean b_return;
+		/** The characters of the current line that are not tokenized yet. */
+		private final StringBuilder b_line;
+		/** The offset of the first character of {@link #b_line} in the stream. */
+		private long n_lineOffset;
+		private final int n_maxLength;
+		
+		/** Calls {@link #LineSpanReader(Reader, int)}, where {@code maxLength = }{@link AbstractTokenizer#MAX_LINE_LENGTH}. */
+		public LineSpanReader(Reader in)
+		{
+			this(in, MAX_LINE_LENGTH);
+		}
+		
+		/** @param maxLength the maximum number of characters tokenized at once. */
+		public LineSpanReader(Reader in, int maxLength)
+		{
+			r_in        = in;
+			c_buffer    = new char[1024 * 8];
+			b_line      = new StringBuilder();
+			n_maxLength = maxLength;
+		}
+		
+		/**
+		 * Lines are terminated the same way as {@link BufferedReader#readLine()}.
+		 * @return the token spans of the next line or chunk of a line, which is empty for a blank line, if exists; otherwise, {@code null}.
+		 */
+		public List<TokenSpan> next() throws IOException
+		{
+			boolean read = b_line.length() > 0;
+			if (!read) n_lineOffset = n_offset;
+			char c;
+			
+			while (true)
+			{
+				if (n_index == n_size)
+				{
+					n_index = 0;
+					
+					if ((n_size = r_in.read(c_buffer)) < 0)
+					{
+						n_size = 0;
+						if (!read) return null;
+						break;
+					}
+				}
+				
+				c = c_buffer[n_index++];
+				n_offset++;
+				
+				if (b_return)
+				{
+					b_return = false;
+					
+					if (c == CharConst.NEW_LINE)
+					{
+						n_lineOffset++;
+						continue;
+					}
+				}
+				
+				read = true;
+				if (c == CharConst.NEW_LINE) break;
+				if (c == CharConst.CARRIAGE_RETURN) {b_return = true; break;}
+				b_line.append(c);
+				if (b_line.length() >= n_maxLength) return nextChunk();
+			}
+			
+			List<TokenSpan> spans = new ArrayList<>();
+			if (b_line.length() > 0) addSpans(spans, b_line.toString(), n_lineOffset, 0, b_line.length());
+			b_line.setLength(0);
+			return spans;
+		}
+		
+		/** @return the token spans of the current line up to its last white space, where the rest is kept for {@link #next()}. */
+		private List<TokenSpan> nextChunk()
+		{
+			int i, len = b_line.length();
+			
+			for (i=len-1; i>0; i--)
+				if (CharUtils.isWhiteSpace(b_line.charAt(i))) break;
+			
+			if (i == 0) i = len;
+			List<TokenSpan> spans = new ArrayList<>();
+			addSpans(spans, b_line.substring(0, i), n_lineOffset, 0, i);
+			b_line.delete(0, i);
+			n_lineOffset += i;
+			return spans;
+		}
+	}
+	
 //	----------------------------------- Tokenize -----------------------------------
 	
 	/**
@@ -148,6 +374,10 @@ abstract public class AbstractTokenizer
 		if ((ps = d_emoticon.getEmoticonRange(s)) != null)
 			return ps;
 		
+		// most chunks have no period between alphanumeric characters, which every hyperlink has
+		if (!MetaUtils.mayContainHyperlink(s))
+			return null;
+		
 		Matcher m = MetaUtils.HYPERLINK.matcher(s);
 		
 		if (m.find())
@@ -655,11 +885,13 @@ abstract public class AbstractTokenizer
 			return 0;
 	}
 	
-	protected boolean isFinalMarksOnly(String s)
+	protected boolean isFinalMarksOnly(CharSequence s)
 	{
-		for (char c : s.toCharArray())
+		int i, len = s.length();
+		
+		for (i=0; i<len; i++)
 		{
-			if (!CharUtils.isFinalMark(c))
+			if (!CharUtils.isFinalMark(s.charAt(i)))
 				return false;
 		}
 		
@@ -16,9 +16,16 @@
 package edu.emory.clir.clearnlp.tokenization;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import edu.emory.clir.clearnlp.dictionary.english.DTAbbreviation;
 import edu.emory.clir.clearnlp.dictionary.english.DTHyphen;
@@ -89,41 +96,143 @@ public class EnglishTokenizer extends AbstractTokenizer
 	@Override
 	public List<List<String>> segmentize(InputStream in)
 	{
-		List<List<String>> sentences = new ArrayList<>();
-		int[] brackets = new int[R_BRACKETS.length];
-		List<String> tokens = tokenize(in);
-		int bIndex, i, size = tokens.size();
-		boolean isTerminal = false;
-		String token;
+		return segmentize(tokenize(in));
+	}
+	
+	@Override
+	public List<List<TokenSpan>> segmentizeSpans(CharSequence text)
+	{
+		return segmentize(tokenizeSpansByLines(text));
+	}
+	
+	@Override
+	public Iterator<List<TokenSpan>> segmentizeSpans(Reader in)
+	{
+		return new SentenceIterator(in);
+	}
+	
+	/** Called by {@link #segmentize(InputStream)} and {@link #segmentizeSpans(CharSequence)}. */
+	private <T extends CharSequence>List<List<T>> segmentize(List<T> tokens)
+	{
+		List<List<T>> sentences = new ArrayList<>();
+		Segmenter<T> segmenter = new Segmenter<>();
+		List<T> sentence;
 		
-		for (i=0, bIndex=0; i<size; i++)
+		for (T token : tokens)
 		{
-			token = tokens.get(i);
+			if ((sentence = segmenter.add(token)) != null)
+				sentences.add(sentence);
+		}
+		
+		if ((sentence = segmenter.flush()) != null)
+			sentences.add(sentence);
+		
+		return sentences;
+	}
+	
+	/**
+	 * Segments tokens into sentences one token at a time.
+	 * Whether a final mark ends a sentence is decided by the next token, which may close a bracket opened in the sentence.
+	 */
+	private class Segmenter<T extends CharSequence>
+	{
+		private final int[] brackets = new int[R_BRACKETS.length];
+		private List<T> sentence = new ArrayList<>();
+		/** {@code true} if the current sentence ends with a final mark whose following brackets belong to the sentence. */
+		private boolean isTerminal = false;
+		/** {@code true} if the current sentence ends unless the next token closes a bracket. */
+		private boolean isPending  = false;
+		
+		/** @return the sentence ended by the previous token if exists; otherwise, {@code null}. */
+		public List<T> add(T token)
+		{
+			List<T> prev = null;
+			
+			if (isPending)
+			{
+				if (isFollowedByBracket(token, brackets))
+					isTerminal = true;
+				else
+				{
+					prev = sentence;
+					sentence = new ArrayList<>();
+					isTerminal = false;
+				}
+			}
+			
+			sentence.add(token);
 			countBrackets(token, brackets);
+			isPending = isTerminal || isFinalMarksOnly(token);
+			return prev;
+		}
+		
+		/** @return the last sentence if it is not empty; otherwise, {@code null}. */
+		public List<T> flush()
+		{
+			if (sentence.isEmpty()) return null;
+			List<T> last = sentence;
+			sentence = new ArrayList<>();
+			isTerminal = isPending = false;
+			return last;
+		}
+	}
+	
+	/** Reads sentences from a stream one line at a time (see {@link #segmentizeSpans(Reader)}). */
+	private class SentenceIterator implements Iterator<List<TokenSpan>>
+	{
+		private final LineSpanReader reader;
+		private final Segmenter<TokenSpan> segmenter;
+		private final Deque<List<TokenSpan>> sentences;
+		private boolean eof;
+		
+		public SentenceIterator(Reader in)
+		{
+			reader    = new LineSpanReader(in);
+			segmenter = new Segmenter<>();
+			sentences = new ArrayDeque<>();
+			eof       = false;
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			List<TokenSpan> line, sentence;
 			
-			if (isTerminal || isFinalMarksOnly(token))
+			while (sentences.isEmpty() && !eof)
 			{
-				if (i+1 < size && isFollowedByBracket(tokens.get(i+1), brackets))
+				try
 				{
-					isTerminal = true;
-					continue;
+					line = reader.next();
 				}
+				catch (IOException e) {throw new UncheckedIOException(e);}
 				
-				sentences.add(tokens.subList(bIndex, bIndex = i+1));
-				isTerminal = false;
+				if (line == null)
+				{
+					if ((sentence = segmenter.flush()) != null) sentences.add(sentence);
+					eof = true;
+				}
+				else
+				{
+					for (TokenSpan token : line)
+						if ((sentence = segmenter.add(token)) != null) sentences.add(sentence);
+				}
 			}
+			
+			return !sentences.isEmpty();
 		}
 		
-		if (bIndex < size)
-			sentences.add(tokens.subList(bIndex, size));
-		
-		return sentences;
+		@Override
+		public List<TokenSpan> next()
+		{
+			if (!hasNext()) throw new NoSuchElementException();
+			return sentences.poll();
+		}
 	}
 		
 	/** Called by {@link EnglishSegmenter#getSentencesRaw(BufferedReader)}. */
-	private void countBrackets(String str, int[] brackets)
+	private void countBrackets(CharSequence str, int[] brackets)
 	{
-		if (str.equals("\""))
+		if (L_BRACKETS[0].contentEquals(str))
 			brackets[0] += (brackets[0] == 0) ? 1 : -1;
 		else
 		{
@@ -131,22 +240,22 @@ public class EnglishTokenizer extends AbstractTokenizer
 			
 			for (i=1; i<size; i++)
 			{
-				if      (str.equals(L_BRACKETS[i]))
+				if      (L_BRACKETS[i].contentEquals(str))
 					brackets[i]++;
-				else if (str.equals(R_BRACKETS[i]))
+				else if (R_BRACKETS[i].contentEquals(str))
 					brackets[i]--; 
 			}
 		}
 	}
 	
 	/** Called by {@link EnglishSegmenter#getSentencesRaw(BufferedReader)}. */
-	private boolean isFollowedByBracket(String str, int[] brackets)
+	private boolean isFollowedByBracket(CharSequence str, int[] brackets)
 	{
 		int i, size = R_BRACKETS.length;
 		
 		for (i=0; i<size; i++)
 		{
-			if (brackets[i] > 0 && str.equals(R_BRACKETS[i]))
+			if (brackets[i] > 0 && R_BRACKETS[i].contentEquals(str))
 				return true;
 		}
 		
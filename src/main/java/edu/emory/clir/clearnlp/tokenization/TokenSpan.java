@@ -0,0 +1,118 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.tokenization;
+
+/**
+ * A token as a span of its source text.
+ * The word-form is not copied out of the source until {@link #toString()} is called.
+ * A token merged across white spaces (e.g., "( a )" becomes "(a)") keeps its word-form explicitly,
+ * where the offsets cover all characters of the merged span.
+ * The source can be a part of a longer text (e.g., a line of a stream), where the offsets are relative to the longer text;
+ * the offsets are {@code long} so that they do not overflow on streams longer than 2^31 characters.
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class TokenSpan implements CharSequence
+{
+	private final CharSequence c_source;
+	/** The offset of the source in the text. */
+	private final long n_sourceOffset;
+	/** The offset of the first character of this token in the source (inclusive); {@code -1} if this token is not aligned with the source. */
+	private final long n_beginOffset;
+	/** The offset of the last character of this token in the source (exclusive); {@code -1} if this token is not aligned with the source. */
+	private final long n_endOffset;
+	/** The word-form of this token; {@code null} until materialized. */
+	private String s_form;
+	
+	public TokenSpan(CharSequence source, long beginOffset, long endOffset)
+	{
+		this(source, beginOffset, endOffset, null);
+	}
+	
+	/** @param form the word-form of this token if it is not the same as the span of the source. */
+	public TokenSpan(CharSequence source, long beginOffset, long endOffset, String form)
+	{
+		this(source, 0, beginOffset, endOffset, form);
+	}
+	
+	/**
+	 * @param sourceOffset the offset of the source in the text.
+	 * @param form the word-form of this token if it is not the same as the span of the source.
+	 */
+	public TokenSpan(CharSequence source, long sourceOffset, long beginOffset, long endOffset, String form)
+	{
+		c_source       = source;
+		n_sourceOffset = sourceOffset;
+		n_beginOffset  = beginOffset;
+		n_endOffset    = endOffset;
+		s_form         = form;
+	}
+	
+	public CharSequence getSource()
+	{
+		return c_source;
+	}
+	
+	public long getSourceOffset()
+	{
+		return n_sourceOffset;
+	}
+	
+	public long getBeginOffset()
+	{
+		return n_beginOffset;
+	}
+	
+	public long getEndOffset()
+	{
+		return n_endOffset;
+	}
+	
+	/** @return {@code true} if this token is aligned with its source; otherwise (e.g., normalized by the tokenizer), both offsets are {@code -1}. */
+	public boolean hasOffsets()
+	{
+		return n_beginOffset >= 0;
+	}
+	
+	@Override
+	public int length()
+	{
+		return (s_form != null) ? s_form.length() : (int)(n_endOffset - n_beginOffset);
+	}
+	
+	@Override
+	public char charAt(int index)
+	{
+		return (s_form != null) ? s_form.charAt(index) : c_source.charAt((int)(n_beginOffset - n_sourceOffset) + index);
+	}
+	
+	@Override
+	public CharSequence subSequence(int beginIndex, int endIndex)
+	{
+		int offset = (int)(n_beginOffset - n_sourceOffset);
+		return (s_form != null) ? s_form.subSequence(beginIndex, endIndex) : c_source.subSequence(offset + beginIndex, offset + endIndex);
+	}
+	
+	/** @return the word-form of this token, materialized on the first call. */
+	@Override
+	public String toString()
+	{
+		if (s_form == null)
+			s_form = c_source.subSequence((int)(n_beginOffset - n_sourceOffset), (int)(n_endOffset - n_sourceOffset)).toString();
+		
+		return s_form;
+	}
+}
@@ -417,6 +417,64 @@ public class DSUtils
 		return new Pair<DoubleIntPair,DoubleIntPair>(fst, snd);
 	}
 	
+	/**
+	 * Finds the top 2 indices without creating any object; ties are broken the same way as {@link #top2(double[], int[])}.
+	 * @param include the indices to consider; if {@code null}, considers all indices.
+	 * @param top {@code top[0]} and {@code top[1]} are set to the indices of the highest and the second highest values.
+	 */
+	static public void top2(double[] array, int[] include, int[] top)
+	{
+		int i, j, fst, snd, size = (include == null) ? array.length : include.length;
+		
+		fst = (include == null) ? 0 : include[0];
+		snd = (include == null) ? 1 : include[1];
+		
+		if (array[fst] < array[snd])
+		{
+			i = fst; fst = snd; snd = i;
+		}
+		
+		for (j=2; j<size; j++)
+		{
+			i = (include == null) ? j : include[j];
+			
+			if (array[fst] < array[i])
+			{
+				snd = fst;
+				fst = i;
+			}
+			else if (array[snd] < array[i])
+				snd = i;
+		}
+		
+		top[0] = fst;
+		top[1] = snd;
+	}
+	
+	/**
+	 * Finds the top-k indices without creating any object, where {@code k = top.length}; ties are broken by the order of the indices.
+	 * @param include the indices to consider; if {@code null}, considers all indices.
+	 * @param top filled with the indices of the k highest values in descending order.
+	 * @return the number of indices found, which is less than {@code k} if there are not enough indices to consider.
+	 */
+	static public int topK(double[] array, int[] include, int[] top)
+	{
+		int i, j, l, k = top.length, n = 0, size = (include == null) ? array.length : include.length;
+		
+		for (j=0; j<size; j++)
+		{
+			i = (include == null) ? j : include[j];
+			if (n == k && array[top[k-1]] >= array[i]) continue;
+			
+			for (l=(n < k) ? n++ : k-1; l>0 && array[top[l-1]] < array[i]; l--)
+				top[l] = top[l-1];
+			
+			top[l] = i;
+		}
+		
+		return n;
+	}
+	
 	static public DoubleIntPair toDoubleIntPair(double[] array, int index)
 	{
 		return new DoubleIntPair(array[index], index);
@@ -53,15 +53,38 @@ public class HashUtils
 
 	public static long fnv1aHash64(String s, long basis)
 	{
-		char[] cs = s.toCharArray();
 		int i, len = s.length();
 		
 		for(i=0; i<len; i++)
 		{
-			basis ^= cs[i];
+			basis ^= s.charAt(i);
 			basis *= FNV_PRIME_64;
 		}
 		
 		return basis;
     }
+	
+	/** @return the hash value of the specific integer (e.g., a feature type) that can be used as a basis. */
+	public static long fnv1aHash64(int value)
+	{
+		long basis = FNV_BASIS_64;
+		int i;
+		
+		for (i=0; i<4; i++)
+		{
+			basis ^= (value & 0xff);
+			basis *= FNV_PRIME_64;
+			value >>>= 8;
+		}
+		
+		return basis;
+	}
+	
+	/** @return the hash value of the specific character appended to the basis. */
+	public static long fnv1aHash64(char c, long basis)
+	{
+		basis ^= c;
+		basis *= FNV_PRIME_64;
+		return basis;
+	}
 }
@@ -20,6 +20,7 @@ import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -31,6 +32,10 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.zip.ZipEntry;
@@ -144,6 +149,46 @@ public class IOUtils
 		return out;
 	}
 	
+	/** @return the read-only memory-mapped buffer of the specific file; {@code null} if the file cannot be mapped. */
+	static public MappedByteBuffer createMappedByteBuffer(String filename)
+	{
+		MappedByteBuffer buffer = null;
+		
+		try (RandomAccessFile file = new RandomAccessFile(filename, "r"); FileChannel channel = file.getChannel())
+		{
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		catch (IOException e) {e.printStackTrace();}
+		
+		return buffer;
+	}
+	
+	/** @return the view of the next {@code length} bytes in the specific buffer, whose position is moved past the view. */
+	static public ByteBuffer slice(ByteBuffer buffer, int length)
+	{
+		ByteBuffer view = buffer.slice();
+		view.limit(length);
+		buffer.position(buffer.position() + length);
+		return view;
+	}
+	
+	/** Writes the length and the values of the specific array that can be read by {@link #getIntArray(ByteBuffer)}. */
+	static public void writeIntArray(DataOutputStream out, int[] array) throws IOException
+	{
+		out.writeInt(array.length);
+		
+		for (int value : array)
+			out.writeInt(value);
+	}
+	
+	/** @return the array written by {@link #writeIntArray(DataOutputStream, int[])}, copied in bulk from the specific buffer, whose position is moved past the array. */
+	static public int[] getIntArray(ByteBuffer buffer)
+	{
+		int[] array = new int[buffer.getInt()];
+		slice(buffer, array.length * Integer.BYTES).asIntBuffer().get(array);
+		return array;
+	}
+	
 	static public XZOutputStream createXZBufferedOutputStream(String filename)
 	{
 		XZOutputStream zout = null;
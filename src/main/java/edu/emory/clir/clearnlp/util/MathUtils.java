@@ -216,6 +216,54 @@ public class MathUtils
 		return (a < 0) ? ((a % b) + b) % b : a % b;
 	}
 	
+	/** @return the half-precision (IEEE 754 binary16) bits of the specific float, rounded to the nearest value. */
+	static public short toFloat16(float f)
+	{
+		int bits  = Float.floatToIntBits(f);
+		int sign  = (bits >>> 16) & 0x8000;
+		int abs   = bits & 0x7fffffff;
+		int value = abs + 0x1000;
+		
+		if (value >= 0x47800000)	// overflow, infinity, or NaN
+		{
+			if (abs < 0x47800000)	return (short)(sign | 0x7bff);
+			if (abs < 0x7f800000)	return (short)(sign | 0x7c00);
+			return (short)(sign | 0x7c00 | ((abs & 0x007fffff) >>> 13) | (abs > 0x7f800000 ? 0x200 : 0));
+		}
+		
+		if (value >= 0x38800000)	// normal
+			return (short)(sign | ((value - 0x38000000) >>> 13));
+		
+		if (value < 0x33000000)		// underflow
+			return (short)sign;
+		
+		value = abs >>> 23;			// subnormal
+		return (short)(sign | (((abs & 0x007fffff | 0x00800000) + (0x00800000 >>> (value - 102))) >>> (126 - value)));
+	}
+	
+	/** @return the float of the specific half-precision (IEEE 754 binary16) bits (see {@link #toFloat16(float)}). */
+	static public float toFloat32(short half)
+	{
+		int sign = (half & 0x8000) << 16;
+		int exp  = (half & 0x7c00) >>> 10;
+		int mant =  half & 0x03ff;
+		
+		if (exp == 0x1f)	// infinity or NaN
+			return Float.intBitsToFloat(sign | 0x7f800000 | (mant << 13));
+		
+		if (exp == 0)
+		{
+			if (mant == 0) return Float.intBitsToFloat(sign);
+			
+			for (exp=1; (mant & 0x0400) == 0; exp--)	// subnormal
+				mant <<= 1;
+			
+			mant &= 0x03ff;
+		}
+		
+		return Float.intBitsToFloat(sign | ((exp + 112) << 23) | (mant << 13));
+	}
+	
 	static public double getCosineSimilarity(SparseFeatureVector v1, SparseFeatureVector v2)
 	{
 		int i1, i2, idx1 = 0, idx2 = 0, len1 = v1.size(), len2 = v2.size(); 
@@ -17,6 +17,7 @@ package edu.emory.clir.clearnlp.util;
 
 import java.util.regex.Pattern;
 
+import edu.emory.clir.clearnlp.collection.set.CharHashSet;
 import edu.emory.clir.clearnlp.collection.tree.CharAffixTree;
 import edu.emory.clir.clearnlp.util.constant.CharConst;
 
@@ -30,6 +31,8 @@ public class MetaUtils
 	private MetaUtils() {}
 	
 	static public final Pattern EMOTICON = Pattern.compile("[\\!\\|;:#%][-]*[\\(\\)\\[\\]\\{\\}\\|<>]+");
+	/** The characters that begin every match of {@link #EMOTICON}. */
+	static public final CharHashSet EMOTICON_BEGIN = new CharHashSet('!', '|', ';', ':', '#', '%');
 	static public final CharAffixTree FILE_EXTENSION = new CharAffixTree(false, new String[]{"3gp","7z","ace","ai","aif","aiff","amr","asf","asp","aspx","asx","avi","bat","bin","bmp","bup","cab","cbr","cda","cdl","cdr","chm","dat","divx","dll","dmg","doc","dss","dvf","dwg","eml","eps","exe","fla","flv","gif","gz","hqx","htm","html","shtml","ifo","indd","iso","jar","jsp","jpg","jpeg","lnk","log","m4a","m4b","m4p","m4v","mcd","mdb","mid","mov","mp2","mp3","mp4","mpg","mpeg","msi","mswmm","ogg","pdf","php","png","pps","ppt","ps","psd","pst","ptb","pub","qbb","qbw","qxd","ram","rar","rm","rmvb","rtf","sea","ses","sit","sitx","sql","ss","swf","tgz","tif","torrent","ttf","txt","vcd","vob","wav","wma","wmv","wpd","wps","xls","xml","xtm","zip"});
 	
 	static public final Pattern HYPERLINK = Pattern.compile(
@@ -51,7 +54,31 @@ public class MetaUtils
 
 	static public boolean containsHyperlink(String s)
 	{
-		return HYPERLINK.matcher(s).find();
+		return mayContainHyperlink(s) && HYPERLINK.matcher(s).find();
+	}
+	
+	/**
+	 * Every match of {@link #HYPERLINK} has a period between a word character and an alphanumeric character
+	 * (the period before the TLD name or in the IPv4 address), which is checked in one pass without the regular expression.
+	 * @return {@code false} if the specific string cannot contain a hyperlink; otherwise, {@code true}.
+	 */
+	static public boolean mayContainHyperlink(String s)
+	{
+		int i, len = s.length() - 1;
+		char c;
+		
+		for (i=1; i<len; i++)
+		{
+			if (s.charAt(i) == CharConst.PERIOD)
+			{
+				c = s.charAt(i-1);
+				
+				if ((CharUtils.isAlnum(c) || c == CharConst.UNDERSCORE) && CharUtils.isAlnum(s.charAt(i+1)))
+					return true;
+			}
+		}
+		
+		return false;
 	}
 	
 	static public boolean endsWithFileExtension(String s)
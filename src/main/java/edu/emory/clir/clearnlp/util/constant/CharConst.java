@@ -61,4 +61,5 @@ public interface CharConst
 	char SPACE			= ' ';
 	char TAB			= '\t';
 	char NEW_LINE		= '\n';
+	char CARRIAGE_RETURN	= '\r';
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.component.AbstractComponent;
+import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPTrainer;
+import edu.emory.clir.clearnlp.component.mode.pos.POSTrainer;
+import edu.emory.clir.clearnlp.component.trainer.AbstractNLPTrainer;
+import edu.emory.clir.clearnlp.component.utils.GlobalLexica;
+import edu.emory.clir.clearnlp.component.utils.NLPMode;
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.reader.TSVReader;
+import edu.emory.clir.clearnlp.util.IOUtils;
+import edu.emory.clir.clearnlp.util.lang.TLanguage;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class NLPDecodeTest
+{
+	static private final String CONFIGURATION = "src/test/resources/nlp/trainer/config_train.xml";
+	static private final String FEATURE_POS   = "src/main/resources/features/feature_en_pos.xml";
+	static private final String FEATURE_DEP   = "src/main/resources/features/feature_en_dep.xml";
+	static private final String TRAIN         = "src/main/resources/samples/wsj_0001.parse.dep";
+	static private final String INPUT         = "src/test/resources/dependency/dependency.cnlp";
+	
+	@BeforeClass
+	static public void init()
+	{
+		// no distributional semantics are used by the feature templates
+		GlobalLexica.setDistributionalSemanticsWords(Collections.emptyList());
+	}
+	
+	@Test
+	public void testThreads() throws Exception
+	{
+		AbstractComponent[] components = {getPOSTagger(), getDEPParser()};
+		byte[] input = getInput(20);
+		String expected = decode(components, input, 1, 1);
+		
+		assertTrue(expected.length() > 0);
+		assertEquals(expected, decode(components, input, 4, 1));
+		assertEquals(expected, decode(components, input, 4, 3));
+		assertEquals(expected, decode(components, input, 2, 64));
+	}
+	
+	@Test(timeout=60000)
+	public void testFailure() throws Exception
+	{
+		final AtomicInteger count = new AtomicInteger();
+		
+		AbstractComponent failing = new AbstractComponent()
+		{
+			@Override
+			public void process(DEPTree tree)
+			{
+				if (count.incrementAndGet() == 3) throw new IllegalArgumentException("failed");
+			}
+		};
+		
+		// many more batches than the queue holds so that the reader would block if the writer stopped draining the queue
+		try
+		{
+			decode(new AbstractComponent[]{failing}, getInput(50), 2, 1);
+			fail();
+		}
+		catch (IllegalStateException e)
+		{
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+	
+	/** @return the decoded output of the input using the specific number of threads, where {@code nThreads == 1} uses the single-threaded path. */
+	private String decode(AbstractComponent[] components, byte[] input, int nThreads, int batchSize) throws Exception
+	{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		PrintStream fout = new PrintStream(bout, true, StandardCharsets.UTF_8.name());
+		TSVReader reader = new TSVReader(0, 1, 2, -1, 4, -1, -1);
+		NLPDecode nlp = new NLPDecode();
+		nlp.n_batch = batchSize;
+		reader.open(new ByteArrayInputStream(input));
+		
+		if (nThreads == 1)
+		{
+			nlp.process(reader, fout, NLPMode.dep, components);
+		}
+		else
+		{
+			ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+			
+			try
+			{
+				nlp.process(reader, null, fout, NLPMode.dep, components, executor, nThreads);
+			}
+			finally
+			{
+				executor.shutdownNow();
+			}
+		}
+		
+		reader.close();
+		fout.close();
+		return new String(bout.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	/** @return the test trees repeated the specific number of times. */
+	private byte[] getInput(int repeat) throws Exception
+	{
+		byte[] input = Files.readAllBytes(Paths.get(INPUT));
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		
+		for (int i=0; i<repeat; i++)
+		{
+			bout.write(input);
+			bout.write('\n');
+		}
+		
+		return bout.toByteArray();
+	}
+	
+	private AbstractComponent getPOSTagger() throws Exception
+	{
+		byte[] model = train(new POSTrainer(IOUtils.createFileInputStream(CONFIGURATION), new InputStream[]{IOUtils.createFileInputStream(FEATURE_POS)}));
+		AbstractStatisticalComponent<?,?,?,?,?> tagger = NLPUtils.getPOSTagger(TLanguage.ENGLISH, IOUtils.createObjectXZBufferedInputStream(new ByteArrayInputStream(model)));
+		tagger.freezeFeatureMaps();
+		return tagger;
+	}
+	
+	private AbstractComponent getDEPParser() throws Exception
+	{
+		byte[] model = train(new DEPTrainer(IOUtils.createFileInputStream(CONFIGURATION), new InputStream[]{IOUtils.createFileInputStream(FEATURE_DEP)}));
+		DEPConfiguration configuration = new DEPConfiguration(IOUtils.createFileInputStream(CONFIGURATION));
+		AbstractStatisticalComponent<?,?,?,?,?> parser = NLPUtils.getDEPParser(TLanguage.ENGLISH, IOUtils.createObjectXZBufferedInputStream(new ByteArrayInputStream(model)), configuration);
+		parser.freezeFeatureMaps();
+		return parser;
+	}
+	
+	private byte[] train(AbstractNLPTrainer trainer) throws Exception
+	{
+		List<String> files = new ArrayList<>();
+		files.add(TRAIN);
+		return trainer.train(files, files).o.toByteArray();
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.instance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
+import edu.emory.clir.clearnlp.util.DSUtils;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class IntInstanceStoreTest
+{
+	@Test
+	public void test()
+	{
+		IntInstanceStore store = new IntInstanceStore(null);
+		List<IntInstance> list = new ArrayList<>();
+		Random rand = new Random(1);
+		SparseFeatureVector x;
+		int i, j;
+		
+		for (i=0; i<100; i++)
+		{
+			x = new SparseFeatureVector(i % 2 == 0);
+			
+			for (j=rand.nextInt(10); j>=0; j--)
+			{
+				if (x.hasWeight())	x.addFeature(rand.nextInt(1 << (4 * (j % 8))) + 1, rand.nextGaussian());
+				else				x.addFeature(rand.nextInt(1 << (4 * (j % 8))) + 1);
+			}
+			
+			list.add(new IntInstance(rand.nextInt(300), x));
+			store.add(list.get(i));
+		}
+		
+		store.seal();
+		assertEquals(list.size(), store.size());
+		
+		for (i=0; i<list.size(); i++)
+			assertEquals(list.get(i).toString(), store.get(i).toString());
+		
+		DSUtils.shuffle(list, new Random(5));
+		store.shuffle(new Random(5));
+		
+		for (i=0; i<list.size(); i++)
+			assertEquals(list.get(i).toString(), store.get(i).toString());
+	}
+	
+	@Test
+	public void testChunks()
+	{
+		IntInstanceStore store = new IntInstanceStore(null, 6);
+		List<IntInstance> list = new ArrayList<>();
+		SparseFeatureVector x;
+		int i, j;
+		
+		for (i=0; i<20; i++)
+		{
+			x = new SparseFeatureVector();
+			for (j=0; j<=i%7; j++) x.addFeature((i+1) * 1000 + j);
+			list.add(new IntInstance(i, x));
+			store.add(list.get(i));
+		}
+		
+		x = new SparseFeatureVector(true);
+		for (j=0; j<8; j++) x.addFeature(j+1, j);
+		
+		try
+		{
+			store.add(new IntInstance(0, x));
+			fail();
+		}
+		catch (IllegalArgumentException e) {}
+		
+		store.seal();
+		assertEquals(list.size(), store.size());
+		
+		for (i=0; i<list.size(); i++)
+			assertEquals(list.get(i).toString(), store.get(i).toString());
+	}
+}
\ No newline at end of file
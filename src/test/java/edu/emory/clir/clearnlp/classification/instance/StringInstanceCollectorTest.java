@@ -16,6 +16,10 @@
 package edu.emory.clir.clearnlp.classification.instance;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
 
 import org.junit.Test;
 
@@ -46,6 +50,32 @@ public class StringInstanceCollectorTest
 		testFeatures(collector.getFeatureMap());
 	}
 	
+	@Test
+	public void testSpill()
+	{
+		StringInstanceCollector collector = new StringInstanceCollector();
+		collector.spill(null);
+		
+		collector.addInstance(new StringInstance("L1", getStringFeatureVector1()));
+		collector.addInstance(new StringInstance("L2", getStringFeatureVector2()));
+		collector.addInstance(new StringInstance("L2", getStringFeatureVector3()));
+		
+		assertTrue(collector.isSpilled());
+		assertTrue(collector.getInstances().isEmpty());
+		assertEquals(3, collector.getSpilledSize());
+		testLabels(collector.getLabelMap());
+		testFeatures(collector.getFeatureMap());
+		
+		Iterator<StringInstance> it = collector.getSpilledInstances();
+		assertEquals(new StringInstance("L1", getStringFeatureVector1()).toString(), it.next().toString());
+		assertEquals(new StringInstance("L2", getStringFeatureVector2()).toString(), it.next().toString());
+		assertEquals(new StringInstance("L2", getStringFeatureVector3()).toString(), it.next().toString());
+		assertFalse(it.hasNext());
+		
+		collector.init();
+		assertFalse(collector.isSpilled());
+	}
+	
 	private StringFeatureVector getStringFeatureVector1()
 	{
 		StringFeatureVector vector = new StringFeatureVector();
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.classification.instance.StringInstance;
+import edu.emory.clir.clearnlp.classification.model.StringModel;
+import edu.emory.clir.clearnlp.classification.vector.StringFeatureVector;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPFeatureExtractor;
+import edu.emory.clir.clearnlp.component.mode.dep.state.AbstractDEPState;
+import edu.emory.clir.clearnlp.component.mode.dep.state.DEPStateGreedy;
+import edu.emory.clir.clearnlp.component.utils.CFlag;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.reader.TSVReader;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class HashFeatureMapTest
+{
+	static private final String FEATURES = "<feature_template>"
+		+ "<feature f0=\"i:f\"/><feature f0=\"j:f\"/><feature f0=\"i:p\" f1=\"j:p\" f2=\"j+1:p\"/>"
+		+ "<feature f0=\"i:b0\"/><feature f0=\"j:b1\"/><feature f0=\"i:t\"/>"
+		+ "<feature f0=\"i:ds.d\"/><feature f0=\"j:orth\"/><feature f0=\"i:p\" f1=\"j:ds.d\" f2=\"i:orth\"/>"
+		+ "</feature_template>";
+	
+	@Test
+	public void testMap()
+	{
+		HashFeatureMap map = new HashFeatureMap(2);
+		map.put(HashFeatureMap.hash(1, "a_b"), 1);
+		map.put(HashFeatureMap.hash(2, "a_b"), 2);
+		map.put(0, 3);
+		
+		long h = HashFeatureMap.hash(HashFeatureMap.hash(HashFeatureMap.hash(1), "a"), '_');
+		assertEquals(1, map.getFeatureIndex(HashFeatureMap.hash(h, "b")));
+		assertEquals(2, map.getFeatureIndex(2, "a_b"));
+		assertEquals(3, map.getFeatureIndex(0));
+		assertEquals(0, map.getFeatureIndex(3, "a_b"));
+		assertEquals(3, map.size());
+	}
+	
+	@Test
+	public void testExtraction()
+	{
+		DEPFeatureExtractor extractor = new DEPFeatureExtractor(IOUtils.createByteArrayInputStream(FEATURES));
+		DEPConfiguration configuration = new DEPConfiguration("root");
+		StringModel model = new StringModel(false);
+		List<StringFeatureVector> vectors = new ArrayList<>();
+		AbstractDEPState state;
+		
+		for (DEPTree tree : getTrees())
+		{
+			state = new DEPStateGreedy(tree, CFlag.TRAIN, configuration);
+			
+			while (!state.isTerminate())
+			{
+				StringFeatureVector vector = extractor.createStringFeatureVector(state);
+				model.addInstance(new StringInstance("L", vector));
+				vectors.add(vector);
+				state.next(state.getGoldLabel());
+			}
+		}
+		
+		model.initializeForTraining(0, 0);
+		model.initHashFeatureMap();
+		HashFeatureMap map = model.getHashFeatureMap();
+		int i = 0;
+		
+		for (DEPTree tree : getTrees())
+		{
+			state = new DEPStateGreedy(tree, CFlag.TRAIN, configuration);
+			
+			while (!state.isTerminate())
+			{
+				assertEquals(model.toSparseFeatureVector(vectors.get(i++)).toString(), extractor.createSparseFeatureVector(state, map).toString());
+				state.next(state.getGoldLabel());
+			}
+		}
+		
+		assertFalse(vectors.isEmpty());
+		assertEquals(vectors.size(), i);
+	}
+	
+	private List<DEPTree> getTrees()
+	{
+		TSVReader reader = new TSVReader(0, 1, 2, 3, 4, 5, 6, 7);
+		reader.open(IOUtils.createFileInputStream("src/test/resources/dependency/dependency.cnlp"));
+		List<DEPTree> trees = new ArrayList<>();
+		DEPTree tree;
+		
+		while ((tree = reader.next()) != null)
+			trees.add(tree);
+		
+		reader.close();
+		return trees;
+	}
+}
@@ -23,8 +23,10 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -112,6 +114,17 @@ public class StringModelTest
 		in.close();
 		
 		testBinaryAux(model);
+		testBinaryAux(toMappedModel(model));
+	}
+	
+	private StringModel toMappedModel(StringModel model) throws Exception
+	{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bout);
+		model.saveMapped(out);
+		out.close();
+		
+		return new StringModel(ByteBuffer.wrap(bout.toByteArray()));
 	}
 
 	private void testBinaryAux(StringModel model)
@@ -248,6 +261,27 @@ public class StringModelTest
 		in.close();
 		
 		testMultiAux(model);
+		
+		StringModel mapped = toMappedModel(model);
+		StringFeatureVector x0 = new StringFeatureVector();
+		x0.addFeature(0, "bright");
+		x0.addFeature(1, "dry");
+		x0.addFeature(2, "dark");
+		
+		assertEquals(Arrays.toString(model.getScores(x0)), Arrays.toString(mapped.getScores(x0)));
+		assertEquals(Arrays.toString(model.getScores(x0, new int[]{0,2})), Arrays.toString(mapped.getScores(x0, new int[]{0,2})));
+		assertEquals(Arrays.toString(model.getLabels()), Arrays.toString(mapped.getLabels()));
+		assertEquals(model.predictBest(x0).getLabel(), mapped.predictBest(x0).getLabel());
+		assertEquals(vector.size(), mapped.getWeightVector().size());
+		
+		String scores = Arrays.toString(model.getScores(x0));
+		model.freezeFeatureMap();
+		assertEquals(scores, Arrays.toString(model.getScores(x0)));
+		
+		x0 = new StringFeatureVector();
+		x0.addFeature(0, "unseen");
+		x0.addFeature(9, "dry");
+		assertEquals(0, model.toSparseFeatureVector(x0).size());
 	}
 
 	private void testMultiAux(StringModel model)
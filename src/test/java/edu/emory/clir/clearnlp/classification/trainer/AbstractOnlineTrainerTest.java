@@ -0,0 +1,126 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.trainer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.classification.instance.SparseInstance;
+import edu.emory.clir.clearnlp.classification.model.SparseModel;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class AbstractOnlineTrainerTest
+{
+	static private final int LABEL_SIZE = 10;
+	
+	@Test
+	public void testThreads()
+	{
+		List<SparseInstance> trn = createInstances(2000, 1);
+		List<SparseInstance> tst = createInstances( 500, 2);
+		
+		for (boolean lr : new boolean[]{false, true})
+		{
+			double single   = train(trn, tst, lr, 1);
+			double parallel = train(trn, tst, lr, 4);
+			
+			assertTrue(single > 0.95);
+			assertEquals(single, parallel, 0.03);
+		}
+	}
+	
+	@Test
+	public void testAccumulatorSize()
+	{
+		List<SparseInstance> trn = createInstances(2000, 1);
+		
+		for (boolean lr : new boolean[]{false, true})
+		{
+			SparseModel model = createModel(trn);
+			AbstractAdaGrad trainer = createTrainer(model, lr, 4);
+			trainer.train();
+			
+			// one averaging accumulator of doubles and one squared-gradient accumulator of floats, regardless of the number of threads
+			assertTrue(trainer.getAccumulatorByteSize() <= 12L * model.getWeightVector().size());
+		}
+	}
+	
+	/** @return the accuracy on the test instances after training with the specific number of threads. */
+	private double train(List<SparseInstance> trn, List<SparseInstance> tst, boolean lr, int threads)
+	{
+		SparseModel model = createModel(trn);
+		AbstractAdaGrad trainer = createTrainer(model, lr, threads);
+		for (int i=0; i<5; i++) trainer.train();
+		
+		int correct = 0;
+		
+		for (SparseInstance instance : tst)
+			if (instance.getLabel().equals(model.predictBest(instance.getFeatureVector()).getLabel()))
+				correct++;
+		
+		return (double)correct / tst.size();
+	}
+	
+	private SparseModel createModel(List<SparseInstance> trn)
+	{
+		SparseModel model = new SparseModel(false);
+		for (SparseInstance instance : trn) model.addInstance(instance);
+		return model;
+	}
+	
+	private AbstractAdaGrad createTrainer(SparseModel model, boolean lr, int threads)
+	{
+		AbstractAdaGrad trainer = lr ? new AdaGradLR(model, true, 0.01, 0.1, 0) : new AdaGradSVM(model, true, 0.01, 0.1, 0);
+		trainer.setThreadSize(threads);
+		return trainer;
+	}
+	
+	/** Each label has 3 features, 2 of which appear in every instance of the label, mixed with 5 noise features. */
+	private List<SparseInstance> createInstances(int size, long seed)
+	{
+		List<SparseInstance> list = new ArrayList<>(size);
+		Random rand = new Random(seed);
+		SparseFeatureVector x;
+		int i, j, label, skip;
+		
+		for (i=0; i<size; i++)
+		{
+			x = new SparseFeatureVector();
+			label = rand.nextInt(LABEL_SIZE);
+			skip  = rand.nextInt(3);
+			
+			for (j=0; j<3; j++)
+				if (j != skip) x.addFeature(1 + label*3 + j);
+			
+			for (j=0; j<5; j++)
+				x.addFeature(1 + LABEL_SIZE*3 + rand.nextInt(1000));
+			
+			list.add(new SparseInstance(Integer.toString(label), x));
+		}
+		
+		return list;
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.trainer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.classification.instance.SparseInstance;
+import edu.emory.clir.clearnlp.classification.model.SparseModel;
+import edu.emory.clir.clearnlp.classification.vector.MultiWeightVector;
+import edu.emory.clir.clearnlp.classification.vector.SparseFeatureVector;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class SparseWeightAccumulatorTest
+{
+	@Test
+	public void testAccumulate()
+	{
+		int size = 800;
+		SparseWeightAccumulator sparse = new SparseWeightAccumulator(size);
+		DenseWeightAccumulator  dense  = new DenseWeightAccumulator(size);
+		Random rand = new Random(1);
+		int i, index = 0;
+		float value;
+		
+		for (i=0; i<90; i++)
+		{
+			index = rand.nextInt(size);
+			value = rand.nextFloat();
+			sparse.add(index, value);
+			dense .add(index, value);
+		}
+		
+		assertFalse(sparse.isDense());
+		assertTrue(sparse.getByteSize() < dense.getByteSize());
+		compare(size, dense, sparse);
+		
+		sparse.clear();
+		dense .clear();
+		assertEquals(0, sparse.get(index), 0);
+		
+		for (i=0; i<size; i++)
+		{
+			sparse.add(i, i);
+			dense .add(i, i);
+		}
+		
+		assertTrue(sparse.isDense());
+		assertEquals(dense.getByteSize(), sparse.getByteSize());
+		compare(size, dense, sparse);
+	}
+	
+	private void compare(int size, DenseWeightAccumulator dense, SparseWeightAccumulator sparse)
+	{
+		MultiWeightVector wd = new MultiWeightVector(), ws = new MultiWeightVector();
+		wd.expand(size/4, 4);
+		ws.expand(size/4, 4);
+		dense .addTo(wd, -0.5);
+		sparse.addTo(ws, -0.5);
+		
+		for (int i=0; i<size; i++)
+		{
+			assertEquals(dense.get(i), sparse.get(i), 0);
+			assertEquals(wd.get(i), ws.get(i), 0);
+		}
+	}
+	
+	@Test
+	public void testAccumulateDouble()
+	{
+		int size = 800;
+		SparseDoubleWeightAccumulator sparse = new SparseDoubleWeightAccumulator(size);
+		DenseDoubleWeightAccumulator  dense  = new DenseDoubleWeightAccumulator(size);
+		Random rand = new Random(1);
+		int i, index;
+		double value;
+		
+		for (i=0; i<150; i++)
+		{
+			index = rand.nextInt(size);
+			value = rand.nextDouble();
+			sparse.add(index, value);
+			dense .add(index, value);
+		}
+		
+		assertFalse(sparse.isDense());
+		assertTrue(sparse.getByteSize() < dense.getByteSize());
+		
+		for (i=0; i<size; i++)
+			assertEquals(dense.get(i), sparse.get(i), 0);
+		
+		for (i=0; i<size; i++)
+		{
+			sparse.add(i, i);
+			dense .add(i, i);
+		}
+		
+		assertTrue(sparse.isDense());
+		
+		for (i=0; i<size; i++)
+			assertEquals(dense.get(i), sparse.get(i), 0);
+	}
+	
+	/** Averaging weights each update by its count, so small updates late in an epoch must not vanish next to large sums. */
+	@Test
+	public void testAveragePrecision()
+	{
+		DenseWeightAccumulator       f = new DenseWeightAccumulator(1);
+		DenseDoubleWeightAccumulator d = new DenseDoubleWeightAccumulator(1);
+		int i, count = 1000000;
+		
+		f.add(0, count);
+		d.add(0, count);
+		
+		for (i=0; i<1000; i++)
+		{
+			f.add(0, 0.01);
+			d.add(0, 0.01);
+		}
+		
+		assertEquals(count, f.get(0), 0);
+		assertEquals(count + 10, d.get(0), 1e-6);
+	}
+	
+	@Test
+	public void testTrain()
+	{
+		Random rand = new Random(1);
+		SparseModel model = new SparseModel(false);
+		SparseFeatureVector x;
+		int i, j, label;
+		
+		for (i=0; i<200; i++)
+		{
+			x = new SparseFeatureVector();
+			label = rand.nextInt(10);
+			x.addFeature(1 + label);
+			for (j=0; j<5; j++) x.addFeature(11 + rand.nextInt(10000));
+			model.addInstance(new SparseInstance(Integer.toString(label), x));
+		}
+		
+		AdaGradSVM trainer = new AdaGradSVM(model, true, 0.01, 0.1, 0);
+		for (i=0; i<5; i++) trainer.train();
+		
+		assertTrue(trainer.getAccumulatorByteSize() < 4L * model.getWeightVector().size());
+		
+		for (label=0; label<10; label++)
+		{
+			x = new SparseFeatureVector();
+			x.addFeature(1 + label);
+			assertEquals(Integer.toString(label), model.predictBest(x).getLabel());
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.vector;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class MultiWeightVectorTest
+{
+	@Test
+	public void testScores()
+	{
+		MultiWeightVector vector = createWeightVector(7, 20);
+		SparseFeatureVector x = new SparseFeatureVector(true);
+		int[] include = {1, 4, 5};
+		
+		x.addFeature(3, 0.5);
+		x.addFeature(19, 2);
+		x.addFeature(25, 1);	// out of range
+		x.addFeature(8, -1);
+		
+		double[] gold = new double[7];
+		
+		for (int label=0; label<7; label++)
+		{
+			gold[label] = vector.get(vector.getWeightIndex(label, 0));
+			gold[label] += vector.get(vector.getWeightIndex(label, 3)) * 0.5;
+			gold[label] += vector.get(vector.getWeightIndex(label, 19)) * 2;
+			gold[label] -= vector.get(vector.getWeightIndex(label, 8));
+		}
+		
+		assertArrayEquals(gold, vector.getScores(x), 1e-6);
+		double[] fm = vector.getScores(x, include);
+		double[] scores = new double[7];
+		
+		vector.getScores(x, include, scores);
+		
+		for (int label : include)
+		{
+			assertEquals(gold[label], fm[label], 1e-6);
+			assertEquals(gold[label], scores[label], 1e-6);
+		}
+		
+		assertEquals(0, scores[0], 0);
+	}
+	
+	@Test
+	public void testFloatScoring()
+	{
+		for (int labelSize : new int[]{3, 13})
+		{
+			MultiWeightVector vector = createWeightVector(labelSize, 20);
+			SparseFeatureVector x = new SparseFeatureVector(true);
+			
+			x.addFeature(3, 0.5);
+			x.addFeature(19, 1);
+			x.addFeature(25, 1);	// out of range
+			x.addFeature(8, -1);
+			
+			double[] gold = vector.getScores(x);
+			vector.setFloatScoring(true);
+			assertTrue(vector.isFloatScoring());
+			assertArrayEquals(gold, vector.getScores(x), 1e-5);
+		}
+	}
+	
+	@Test
+	public void testFloatScoringIndices()
+	{
+		int labelSize = 13;
+		MultiWeightVector vector = createWeightVector(labelSize, 20);
+		SparseFeatureVector x = new SparseFeatureVector(true);
+		
+		x.addFeature(3, 0.5);
+		x.addFeature(19, 1);
+		x.addFeature(25, 1);	// out of range
+		x.addFeature(8, -1);
+		
+		double[] gold = vector.getScores(x);
+		vector.setFloatScoring(true);
+		double[] all = vector.getScores(x);
+		
+		// dense (all labels accumulated) and sparse (only the specific labels accumulated)
+		for (int[] indices : new int[][]{{0,2,3,5,7,11,12}, {4,9}})
+		{
+			double[] scores = new double[labelSize];
+			Arrays.fill(scores, Double.NaN);
+			vector.getScores(x, indices, scores);
+			
+			for (int label : indices)
+			{
+				assertEquals(all[label], scores[label], 0);
+				assertEquals(gold[label], scores[label], 1e-5);
+				scores[label] = Double.NaN;
+			}
+			
+			for (double score : scores)
+				assertTrue(Double.isNaN(score));
+		}
+	}
+	
+	@Test
+	public void testExpand()
+	{
+		int[][] sizes = {{3, 4}, {5, 4}, {5, 6}, {8, 9}, {8, 9}};
+		MultiWeightVector vector = createWeightVector(3, 4);
+		MultiWeightVector gold = createWeightVector(3, 4);
+		int label, feature;
+		
+		for (int[] size : sizes)
+		{
+			vector.expand(size[0], size[1]);
+			assertEquals(size[0] * size[1], vector.size());
+			assertEquals(size[0], vector.getLabelSize());
+			assertEquals(size[1], vector.getFeatureSize());
+			
+			for (label=0; label<size[0]; label++)
+			{
+				for (feature=0; feature<size[1]; feature++)
+				{
+					if (label < 3 && feature < 4)
+						assertEquals(gold.get(gold.getWeightIndex(label, feature)), vector.get(vector.getWeightIndex(label, feature)), 0);
+					else
+						assertEquals(0, vector.get(vector.getWeightIndex(label, feature)), 0);
+				}
+			}
+		}
+	}
+	
+	private MultiWeightVector createWeightVector(int labelSize, int featureSize)
+	{
+		MultiWeightVector vector = new MultiWeightVector();
+		Random rand = new Random(1);
+		vector.expand(labelSize, featureSize);
+		
+		for (int i=0; i<vector.size(); i++)
+			vector.set(i, rand.nextFloat() - 0.5f);
+		
+		return vector;
+	}
+}
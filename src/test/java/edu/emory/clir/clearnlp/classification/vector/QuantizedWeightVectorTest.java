@@ -0,0 +1,90 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.classification.vector;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class QuantizedWeightVectorTest
+{
+	@Test
+	public void testMulti()
+	{
+		MultiWeightVector vector = new MultiWeightVector();
+		Random rand = new Random(1);
+		vector.expand(7, 20);
+		
+		for (int i=0; i<vector.size(); i++)
+			vector.set(i, rand.nextFloat() - 0.5f);
+		
+		SparseFeatureVector x = new SparseFeatureVector(true);
+		int[] include = {1, 4, 5};
+		
+		x.addFeature(3, 0.5);
+		x.addFeature(19, 2);
+		x.addFeature(8, -1);
+		
+		for (QuantizationType type : QuantizationType.values())
+		{
+			QuantizedWeightVector q = new QuantizedWeightVector(vector, type);
+			double delta = (type == QuantizationType.INT8) ? 0.02 : 0.002;
+			double[] gold = vector.getScores(x), scores = new double[7];
+			
+			assertEquals(type, q.getQuantizationType());
+			assertEquals(vector.size(), q.size());
+			assertArrayEquals(gold, q.getScores(x), delta);
+			assertEquals(vector.get(vector.getWeightIndex(2, 3)), q.get(q.getWeightIndex(2, 3)), delta);
+			
+			q.getScores(x, include, scores);
+			for (int label : include) assertEquals(gold[label], scores[label], delta);
+			assertEquals(0, scores[0], 0);
+		}
+	}
+	
+	@Test
+	public void testBinary()
+	{
+		BinaryWeightVector vector = new BinaryWeightVector();
+		vector.expand(2, 4);
+		vector.set(0, 0.5f);
+		vector.set(2, -2f);
+		vector.set(3, 1f);
+		
+		SparseFeatureVector x = new SparseFeatureVector();
+		x.addFeature(2);
+		x.addFeature(3);
+		
+		QuantizedWeightVector q = new QuantizedWeightVector(vector, QuantizationType.INT8);
+		assertArrayEquals(new double[]{-0.5, 0.5}, q.getScores(x), 0.02);
+		assertArrayEquals(new float[]{-0.5f, 0, 2f, -1f}, q.getWeights(BinaryWeightVector.NEGATIVE), 0.02f);
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void testReadOnly()
+	{
+		MultiWeightVector vector = new MultiWeightVector();
+		vector.expand(2, 2);
+		new QuantizedWeightVector(vector, QuantizationType.FLOAT16).set(0, 1f);
+	}
+}
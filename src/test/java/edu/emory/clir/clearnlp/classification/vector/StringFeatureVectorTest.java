@@ -55,4 +55,18 @@ public class StringFeatureVectorTest
 		assertEquals(2, vector.size());
 		assertEquals("0:A:0.1 1:B:0.2", vector.toString());
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testClear()
+	{
+		StringFeatureVector vector = new StringFeatureVector(true);
+		
+		vector.addFeature(0, "A", 0.1);
+		vector.clear();
+		assertTrue(vector.isEmpty());
+		
+		vector.addFeature(1, "B", 0.2);
+		assertEquals(1, vector.size());
+		assertEquals("1:B:0.2", vector.toString());
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.collection.map;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class StringIntMinimalPerfectHashMapTest
+{
+	@Test
+	public void test() throws Exception
+	{
+		StringIntMinimalPerfectHashMap map = new StringIntMinimalPerfectHashMap();
+		int i, size = 10000;
+		
+		for (i=0; i<size; i++)
+			map.put("f"+i, i+1);
+		
+		map.initHashFunction();
+		assertEquals(size, map.size());
+		
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(bout));
+		out.writeObject(map);
+		out.close();
+		
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new ByteArrayInputStream(bout.toByteArray())));
+		map = (StringIntMinimalPerfectHashMap)in.readObject();
+		in.close();
+		
+		for (i=0; i<size; i++)
+		{
+			assertEquals(i+1, map.get("f"+i));
+			assertEquals(i+1, map.lookup("f"+i));
+			assertEquals(0, map.get("g"+i));
+		}
+	}
+	
+	@Test
+	public void testSmall()
+	{
+		StringIntMinimalPerfectHashMap map = new StringIntMinimalPerfectHashMap();
+		map.initHashFunction();
+		assertEquals(0, map.get("A"));
+		
+		map = new StringIntMinimalPerfectHashMap();
+		map.addkey("A");
+		map.addkey("B");
+		map.addkey("A");
+		map.initHashFunction();
+		
+		assertEquals(2, map.size());
+		assertEquals(0, map.lookup("A"));
+		assertEquals(1, map.get("B"));
+		assertEquals(0, map.get("C"));
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.collection.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.collection.triple.ObjectIntIntTriple;
+import edu.emory.clir.clearnlp.ner.NERInfoSet;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class FrozenPrefixTreeTest
+{
+	@Test
+	public void testGetAll()
+	{
+		PrefixTree<String,String> tree = new PrefixTree<>();
+		tree.set("new york".split(" "), "GPE", String::toString);
+		tree.set("new york times".split(" "), "ORG", String::toString);
+		tree.set("york".split(" "), "GPE", String::toString);
+		tree.set("times square".split(" "), "LOC", String::toString);
+		
+		FrozenPrefixTree<String> frozen = new FrozenPrefixTree<>(tree);
+		String[] array = "the new york times square new".split(" ");
+		
+		assertEquals(toString(tree.getAll(array, 0, String::toString, false, false), String::toString), toString(frozen.getAll(array, 0, String::toString, false, false), String::toString));
+		assertEquals("ORG 1 3\n", toString(frozen.getAll(array, 0, String::toString, true, true), String::toString));
+		assertEquals("ORG", frozen.get(array, 1, String::toString).o);
+		assertNull(frozen.get(array, 5, String::toString));
+	}
+	
+	@Test
+	public void testRandom() throws Exception
+	{
+		PrefixTree<String,NERInfoSet> tree = new PrefixTree<>();
+		Random rand = new Random(1);
+		String[] keys, array = new String[200];
+		NERInfoSet set;
+		int i, j;
+		
+		for (i=0; i<2000; i++)
+		{
+			keys = new String[1 + rand.nextInt(4)];
+			for (j=0; j<keys.length; j++) keys[j] = "w"+rand.nextInt(50);
+			set = new NERInfoSet();
+			set.addCategory("C"+rand.nextInt(3));
+			tree.set(keys, set, String::toString);
+		}
+		
+		FrozenPrefixTree<NERInfoSet> frozen = new FrozenPrefixTree<>(tree);
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bout);
+		frozen.save(out, NERInfoSet::write);
+		out.close();
+		FrozenPrefixTree<NERInfoSet> loaded = new FrozenPrefixTree<>(ByteBuffer.wrap(bout.toByteArray()), NERInfoSet::new);
+		
+		for (i=0; i<array.length; i++) array[i] = "w"+rand.nextInt(60);
+		
+		for (boolean removeSubset : new boolean[]{false, true})
+		{
+			for (boolean removeOverlap : new boolean[]{false, true})
+			{
+				String expected = toString(tree.getAll(array, 1, String::toString, removeSubset, removeOverlap), s -> s.joinTags(":"));
+				assertEquals(expected, toString(frozen.getAll(array, 1, String::toString, removeSubset, removeOverlap), s -> s.joinTags(":")));
+				assertEquals(expected, toString(loaded.getAll(array, 1, String::toString, removeSubset, removeOverlap), s -> s.joinTags(":")));
+			}
+		}
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void testAdd()
+	{
+		PrefixTree<String,String> tree = new FrozenPrefixTree<>(new PrefixTree<String,String>());
+		tree.set(new String[]{"a"}, "A", String::toString);
+	}
+	
+	private <V>String toString(List<ObjectIntIntTriple<V>> list, Function<V,String> f)
+	{
+		StringBuilder build = new StringBuilder();
+		
+		for (ObjectIntIntTriple<V> t : list)
+			build.append(f.apply(t.o)).append(' ').append(t.i1).append(' ').append(t.i2).append('\n');
+		
+		return build.toString();
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.component.mode.pos.POSConfiguration;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class AbstractConfigurationTest
+{
+	@Test
+	public void testInstanceStoreDirectory()
+	{
+		assertNull(create("", "adagrad").getInstanceStoreDirectory());
+		assertEquals(new File("/tmp/store"), create("<instance_store>/tmp/store</instance_store>", "adagrad").getInstanceStoreDirectory());
+		assertEquals(new File(System.getProperty("java.io.tmpdir")), create("<instance_store></instance_store>", "adagrad").getInstanceStoreDirectory());
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInstanceStoreLiblinear()
+	{
+		create("<instance_store>/tmp/store</instance_store>", "liblinear").getInstanceStoreDirectory();
+	}
+	
+	private POSConfiguration create(String store, String algorithm)
+	{
+		String xml = "<configuration><language>english</language><reader type=\"tsv\"><column index=\"1\" field=\"form\"/></reader>"+store+"<pos><trainer algorithm=\""+algorithm+"\" type=\"svm\"/></pos></configuration>";
+		return new POSConfiguration(new ByteArrayInputStream(xml.getBytes()));
+	}
+}
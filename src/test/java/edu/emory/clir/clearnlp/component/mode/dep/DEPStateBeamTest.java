@@ -0,0 +1,238 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.mode.dep;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.classification.model.StringModel;
+import edu.emory.clir.clearnlp.component.mode.dep.state.AbstractDEPState;
+import edu.emory.clir.clearnlp.component.mode.dep.state.DEPStateBeam;
+import edu.emory.clir.clearnlp.component.utils.CFlag;
+import edu.emory.clir.clearnlp.component.utils.GlobalLexica;
+import edu.emory.clir.clearnlp.component.utils.NLPUtils;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.reader.TSVReader;
+import edu.emory.clir.clearnlp.util.DSUtils;
+import edu.emory.clir.clearnlp.util.IOUtils;
+import edu.emory.clir.clearnlp.util.lang.TLanguage;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DEPStateBeamTest
+{
+	static private final String CONFIGURATION = "src/test/resources/nlp/trainer/config_train.xml";
+	static private final String FEATURE       = "src/main/resources/features/feature_en_dep.xml";
+	static private final String WSJ           = "src/main/resources/samples/wsj_0001.parse.dep";
+	static private final String[] INPUTS      = {WSJ, "src/test/resources/dependency/dependency.cnlp"};
+	static private byte[] d_model;
+	
+	@BeforeClass
+	static public void init() throws Exception
+	{
+		// no distributional semantics are used by the feature templates
+		GlobalLexica.setDistributionalSemanticsWords(Collections.emptyList());
+		List<String> files = new ArrayList<>();
+		files.add(WSJ);
+		d_model = new DEPTrainer(IOUtils.createFileInputStream(CONFIGURATION), new InputStream[]{IOUtils.createFileInputStream(FEATURE)}).train(files, files).o.toByteArray();
+	}
+	
+	/** The beam size of 1 gives the same parses as greedy decoding. */
+	@Test
+	public void testGreedy() throws Exception
+	{
+		AbstractDEPParser parser = getParser(1);
+		List<DEPTree> greedy = read(WSJ), beam = read(WSJ);
+		
+		for (int i=0; i<greedy.size(); i++)
+		{
+			parser.process(greedy.get(i));
+			parser.processBeam(beam.get(i));
+			assertEquals(greedy.get(i).toString(), beam.get(i).toString());
+		}
+	}
+	
+	/** Moving to an item in any order gives exactly the heads and labels of its transitions, which differ from the arcs of an item in the previous step in at most one node. */
+	@Test
+	public void testSwitchItems() throws Exception
+	{
+		DEPConfiguration configuration = getConfiguration(4);
+		AbstractDEPParser parser = getParser(configuration);
+		StringModel model = parser.getModels()[0];
+		String[] labels = model.getLabels();
+		int[][] labelIndices = AbstractDEPState.initLabelIndices(labels);
+		DEPLabelTable table = new DEPLabelTable(labels);
+		double[] scores = new double[labels.length];
+		List<String[]> prev, curr;
+		int i, steps, size;
+		DEPStateBeam state;
+		int[] indices, top;
+		
+		for (String filename : INPUTS)
+		{
+			for (DEPTree tree : read(filename))
+			{
+				state = new DEPStateBeam(tree, CFlag.DECODE, configuration);
+				top   = new int[state.getCandidateSize()];
+				prev  = null;
+				
+				for (steps=0; !state.isTerminate(); steps++)
+				{
+					size = state.getBeamItemSize();
+					curr = new ArrayList<>(size);
+					
+					for (i=0; i<size; i++)
+						curr.add(getArcs(state, tree, i));
+					
+					// visits the items backward and forward again
+					for (i=size-1; i>=0; i--)
+						assertArrayEquals(curr.get(i), getArcs(state, tree, i));
+					
+					for (i=0; i<size; i++)
+					{
+						assertArrayEquals(curr.get(i), getArcs(state, tree, i));
+						if (prev != null) assertTrue(isExtended(prev, curr.get(i)));
+					}
+					
+					for (i=0; i<size; i++)
+					{
+						state.setBeamItem(i);
+						indices = state.getLabelIndices(labelIndices);
+						model.getScores(parser.createSparseFeatureVector(state), indices, scores);
+						state.addCandidates(scores, top, DSUtils.topK(scores, indices, top));
+					}
+					
+					state.nextStep(table);
+					prev = curr;
+				}
+				
+				assertTrue(steps > 0);
+			}
+		}
+	}
+	
+	/** Beam decoding gives a tree where every node other than the root has a head and reaches the root without a cycle. */
+	@Test
+	public void testWellFormed() throws Exception
+	{
+		AbstractDEPParser parser = getParser(4);
+		
+		for (String filename : INPUTS)
+		{
+			for (DEPTree tree : read(filename))
+			{
+				parser.process(tree);
+				assertEquals(null, tree.get(0).getHead());
+				
+				for (int i=1; i<tree.size(); i++)
+				{
+					DEPNode node = tree.get(i);
+					int steps = 0;
+					
+					for (; node.hasHead(); node = node.getHead())
+					{
+						assertNotNull(node.getLabel());
+						assertTrue(++steps < tree.size());
+					}
+					
+					assertEquals(0, node.getID());
+				}
+			}
+		}
+	}
+	
+	/** @return the heads and labels of the tree after moving the state to the specific item. */
+	private String[] getArcs(DEPStateBeam state, DEPTree tree, int item)
+	{
+		String[] arcs = new String[tree.size()];
+		DEPNode node;
+		
+		state.setBeamItem(item);
+		
+		for (int i=1; i<tree.size(); i++)
+		{
+			node = tree.get(i);
+			if (node.hasHead()) arcs[i] = node.getHead().getID()+":"+node.getLabel();
+		}
+		
+		return arcs;
+	}
+	
+	/** @return {@code true} if the arcs differ from the arcs of any previous item in at most one node. */
+	private boolean isExtended(List<String[]> prev, String[] arcs)
+	{
+		for (String[] p : prev)
+		{
+			int diff = 0;
+			
+			for (int i=1; i<arcs.length; i++)
+			{
+				if (p[i] == null ? arcs[i] != null : !p[i].equals(arcs[i]))
+					diff++;
+			}
+			
+			if (diff <= 1) return true;
+		}
+		
+		return false;
+	}
+	
+	private AbstractDEPParser getParser(int beamSize) throws Exception
+	{
+		return getParser(getConfiguration(beamSize));
+	}
+	
+	private AbstractDEPParser getParser(DEPConfiguration configuration) throws Exception
+	{
+		AbstractDEPParser parser = NLPUtils.getDEPParser(TLanguage.ENGLISH, IOUtils.createObjectXZBufferedInputStream(new ByteArrayInputStream(d_model)), configuration);
+		parser.freezeFeatureMaps();
+		return parser;
+	}
+	
+	private DEPConfiguration getConfiguration(int beamSize)
+	{
+		DEPConfiguration configuration = new DEPConfiguration(IOUtils.createFileInputStream(CONFIGURATION));
+		configuration.setBeamSize(beamSize);
+		return configuration;
+	}
+	
+	/** @return the trees in the specific file without their heads. */
+	private List<DEPTree> read(String filename) throws Exception
+	{
+		TSVReader reader = new TSVReader(0, 1, 2, 3, 4, -1, -1);
+		List<DEPTree> trees = new ArrayList<>();
+		DEPTree tree;
+		
+		reader.open(IOUtils.createFileInputStream(filename));
+		while ((tree = reader.next()) != null) trees.add(tree);
+		reader.close();
+		return trees;
+	}
+}
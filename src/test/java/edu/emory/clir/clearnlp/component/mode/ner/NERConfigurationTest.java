@@ -0,0 +1,62 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.mode.ner;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.collection.tree.FrozenPrefixTree;
+import edu.emory.clir.clearnlp.collection.tree.PrefixTree;
+import edu.emory.clir.clearnlp.ner.NERInfoSet;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class NERConfigurationTest
+{
+	@Test
+	public void testDictionaryPath()
+	{
+		assertEquals("gazetteer.xz", create("gazetteer.xz").getDictionaryPath());
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testFrozenDictionaryPath() throws Exception
+	{
+		File file = File.createTempFile("gazetteer", ".cnpt");
+		file.deleteOnExit();
+		
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file)))
+		{
+			new FrozenPrefixTree<>(new PrefixTree<String,NERInfoSet>()).save(out, NERInfoSet::write);
+		}
+		
+		create(file.getPath());
+	}
+	
+	private NERConfiguration create(String path)
+	{
+		String xml = "<configuration><language>english</language><reader type=\"tsv\"><column index=\"1\" field=\"form\"/></reader><ner><dictionary_path>"+path+"</dictionary_path></ner></configuration>";
+		return new NERConfiguration(new ByteArrayInputStream(xml.getBytes()));
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.collection.tree.PrefixTree;
+import edu.emory.clir.clearnlp.component.mode.ner.NERState;
+import edu.emory.clir.clearnlp.component.mode.pos.POSState;
+import edu.emory.clir.clearnlp.component.utils.CFlag;
+import edu.emory.clir.clearnlp.dependency.DEPLib;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.ner.NERLib;
+import edu.emory.clir.clearnlp.util.Joiner;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class TagBeamTest
+{
+	static private final String[] NER_LABELS = {"O", "B-PER", "I", "L-PER", "U-PER"};
+	
+	@Test
+	public void testTransitionMatrix()
+	{
+		String[] labels = {"O", "B-PER", "I", "L-PER", "U-PER", "L-ORG"};
+		boolean[][] matrix = NERLib.getTransitionMatrix(labels);
+		int start = labels.length, end = labels.length;
+		
+		assertTrue (matrix[start][0]);
+		assertTrue (matrix[start][1]);
+		assertFalse(matrix[start][2]);
+		assertFalse(matrix[start][3]);
+		assertTrue (matrix[1][2]);
+		assertTrue (matrix[1][3]);
+		assertFalse(matrix[1][5]);
+		assertFalse(matrix[1][0]);
+		assertFalse(matrix[1][end]);
+		assertTrue (matrix[3][4]);
+		assertTrue (matrix[3][end]);
+	}
+	
+	@Test
+	public void testNamedEntityTags()
+	{
+		double[][] scores = {null,
+			{0, 2, -1, -1, 1.9},
+			{3, -1, 0.5, 1, -1},
+			{1, -1, -1, -1, -1}};
+		
+		// the greedy item must close the chunk because B-PER can be followed only by I or L-PER
+		assertEquals("B-PER L-PER O", decodeNER(scores, 1));
+		assertEquals("U-PER O O", decodeNER(scores, 4));
+		
+		// the sentence cannot end inside a chunk
+		scores = new double[][]{null,
+			{0, 2, -1, -1, 1},
+			{-1, -1, 5, 0, -1}};
+		
+		assertEquals("B-PER L-PER", decodeNER(scores, 1));
+	}
+	
+	@Test
+	public void testPartOfSpeechTags()
+	{
+		String[] labels = {"NN", "VB", "DT"};
+		double[][] scores = {null,
+			{1, 0.5, -1},
+			{-1, 0.5, 0},
+			{3, -1, -1}};
+		
+		DEPTree tree = createTree(scores.length-1);
+		POSState state = new POSState(tree, CFlag.DECODE, null);
+		decode(state, new TagBeam(state, 1, labels, null, -1, DEPLib.FEAT_POS2), scores);
+		
+		assertEquals("NN VB NN", Joiner.join(tree.toNodeArray(), " ", 1, tree.size(), DEPNode::getPOSTag));
+		assertEquals("VB", tree.get(1).getFeat(DEPLib.FEAT_POS2));
+		assertEquals("DT", tree.get(2).getFeat(DEPLib.FEAT_POS2));
+		assertNull(tree.get(3).getFeat(DEPLib.FEAT_POS2));
+	}
+	
+	private String decodeNER(double[][] scores, int beamSize)
+	{
+		DEPTree tree = createTree(scores.length-1);
+		NERState state = new NERState(tree, CFlag.DECODE, new PrefixTree<>());
+		decode(state, new TagBeam(state, beamSize, NER_LABELS, NERLib.getTransitionMatrix(NER_LABELS), 2, null), scores);
+		return Joiner.join(tree.toNodeArray(), " ", 1, tree.size(), DEPNode::getNamedEntityTag);
+	}
+	
+	private void decode(AbstractTagState state, TagBeam beam, double[][] scores)
+	{
+		while (!beam.isTerminate())
+		{
+			for (int i=0; i<beam.size(); i++)
+			{
+				beam.setItem(i);
+				beam.addCandidates(scores[state.getInput().getID()].clone());
+			}
+			
+			beam.next();
+		}
+		
+		beam.setBest();
+		assertTrue(state.isTerminate());
+	}
+	
+	private DEPTree createTree(int size)
+	{
+		List<DEPNode> nodes = new ArrayList<>();
+		
+		for (int i=1; i<=size; i++)
+			nodes.add(new DEPNode(i, "w"+i));
+		
+		return new DEPTree(nodes);
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DistributionalSemanticsTest
+{
+	@Test
+	public void testGet() throws Exception
+	{
+		Map<String,Set<String>> map = new HashMap<>();
+		map.put("Emory"  , new HashSet<>(Arrays.asList("0110", "011010")));
+		map.put("Atlanta", new HashSet<>(Arrays.asList("0110", "011010")));
+		map.put("walk"   , new HashSet<>(Arrays.asList("1011", "101100")));
+		
+		DistributionalSemantics ds = new DistributionalSemantics(map);
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bout);
+		ds.save(out);
+		out.close();
+		
+		for (DistributionalSemantics d : new DistributionalSemantics[]{ds, new DistributionalSemantics(ByteBuffer.wrap(bout.toByteArray()))})
+		{
+			for (Map.Entry<String,Set<String>> e : map.entrySet())
+				assertArrayEquals(e.getValue().toArray(new String[0]), d.get(e.getKey()));
+			
+			assertSame(d.get("Emory"), d.get("Atlanta"));
+			assertNull(d.get("run"));
+		}
+	}
+}
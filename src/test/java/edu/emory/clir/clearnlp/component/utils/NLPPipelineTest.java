@@ -0,0 +1,160 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.bin.ModelConvert;
+import edu.emory.clir.clearnlp.component.configuration.DecodeConfiguration;
+import edu.emory.clir.clearnlp.component.mode.dep.DEPTrainer;
+import edu.emory.clir.clearnlp.component.mode.pos.POSTrainer;
+import edu.emory.clir.clearnlp.component.trainer.AbstractNLPTrainer;
+import edu.emory.clir.clearnlp.dependency.DEPNode;
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class NLPPipelineTest
+{
+	static private final String CONFIGURATION = "src/test/resources/nlp/trainer/config_train.xml";
+	static private final String FEATURE_POS   = "src/main/resources/features/feature_en_pos.xml";
+	static private final String FEATURE_DEP   = "src/main/resources/features/feature_en_dep.xml";
+	static private final String TRAIN         = "src/main/resources/samples/wsj_0001.parse.dep";
+	static private final String TEXT          = "src/main/resources/samples/clearnlp.txt";
+	static private String s_posModel, s_depModel;
+	
+	@BeforeClass
+	static public void init() throws Exception
+	{
+		// no distributional semantics are used by the feature templates
+		GlobalLexica.setDistributionalSemanticsWords(Collections.emptyList());
+		s_posModel = train(new POSTrainer(IOUtils.createFileInputStream(CONFIGURATION), new InputStream[]{IOUtils.createFileInputStream(FEATURE_POS)}));
+		s_depModel = train(new DEPTrainer(IOUtils.createFileInputStream(CONFIGURATION), new InputStream[]{IOUtils.createFileInputStream(FEATURE_DEP)}));
+	}
+	
+	@Test
+	public void testThreads() throws Exception
+	{
+		NLPPipeline pipeline = new NLPPipeline(getConfiguration("english"), NLPMode.dep);
+		String text = new String(Files.readAllBytes(Paths.get(TEXT)), StandardCharsets.UTF_8);
+		List<String> texts = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		List<Future<String>> futures = new ArrayList<>();
+		int i;
+		
+		for (i=0; i<20; i++)
+		{
+			texts.add(text.substring(i * text.length() / 40));
+			expected.add(toString(pipeline.annotate(texts.get(i)), texts.get(i)));
+		}
+		
+		long sentences = pipeline.getSentenceCount();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		
+		try
+		{
+			for (String t : texts)
+				futures.add(executor.submit(() -> toString(pipeline.annotate(t), t)));
+			
+			for (i=0; i<texts.size(); i++)
+				assertEquals(expected.get(i), futures.get(i).get());
+		}
+		finally
+		{
+			executor.shutdownNow();
+			pipeline.close();
+		}
+		
+		assertEquals(sentences * 2, pipeline.getSentenceCount());
+	}
+	
+	@Test
+	public void testSRLNotSupported() throws Exception
+	{
+		assertEquals(3, new NLPPipeline(getConfiguration("arabic"), NLPMode.dep).getComponents().length);
+		
+		try
+		{
+			new NLPPipeline(getConfiguration("arabic"), NLPMode.srl);
+			fail();
+		}
+		catch (IllegalArgumentException e)
+		{
+			assertTrue(e.getMessage().contains("ARABIC"));
+		}
+	}
+	
+	/** @return the parses of the trees, where each word-form is checked against the text by its offsets. */
+	private String toString(List<DEPTree> trees, String text)
+	{
+		StringBuilder build = new StringBuilder();
+		
+		for (DEPTree tree : trees)
+		{
+			for (DEPNode node : tree)
+			{
+				assertTrue(node.hasOffsets());
+				assertEquals(node.getWordForm(), text.substring((int)node.getBeginOffset(), (int)node.getEndOffset()));
+			}
+			
+			build.append(tree.toString()).append('\n');
+		}
+		
+		assertTrue(build.length() > 0);
+		return build.toString();
+	}
+	
+	private DecodeConfiguration getConfiguration(String language)
+	{
+		String xml = "<configuration><language>"+language+"</language><reader type=\"raw\"/><model><pos>"+s_posModel+"</pos><dep>"+s_depModel+"</dep></model><dep><root_label>root</root_label><beam_size>1</beam_size></dep></configuration>";
+		return new DecodeConfiguration(new ByteArrayInputStream(xml.getBytes()));
+	}
+	
+	/** @return the path of the trained model converted into the memory-mapped format. */
+	static private String train(AbstractNLPTrainer trainer) throws Exception
+	{
+		List<String> files = new ArrayList<>();
+		files.add(TRAIN);
+		
+		File xz = File.createTempFile("model", ".xz"), mapped = File.createTempFile("model", ".cnlm");
+		xz.deleteOnExit();
+		mapped.deleteOnExit();
+		Files.write(xz.toPath(), trainer.train(files, files).o.toByteArray());
+		new ModelConvert().convert(xz.getPath(), mapped.getPath());
+		return mapped.getPath();
+	}
+}
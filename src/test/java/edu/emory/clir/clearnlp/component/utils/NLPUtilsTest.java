@@ -0,0 +1,57 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.component.utils;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
+import org.junit.Test;
+
+import edu.emory.clir.clearnlp.component.AbstractStatisticalComponent;
+import edu.emory.clir.clearnlp.util.lang.TLanguage;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class NLPUtilsTest
+{
+	@Test
+	public void testCorruptedMappedModel() throws Exception
+	{
+		File file = File.createTempFile("model", ".tmp");
+		file.deleteOnExit();
+		
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+		out.writeInt(AbstractStatisticalComponent.MAPPED_MODEL_MAGIC);
+		out.writeInt(AbstractStatisticalComponent.MAPPED_MODEL_VERSION + 1);
+		out.close();
+		
+		try
+		{
+			NLPUtils.getPOSTagger(TLanguage.ENGLISH, file.getAbsolutePath());
+			fail();
+		}
+		catch (IllegalArgumentException e)
+		{
+			assertTrue(e.getMessage().contains(file.getAbsolutePath()));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2015, Emory University
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.emory.clir.clearnlp.dependency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * @since 3.2.1
+ * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
+ */
+public class DEPFeatureCacheTest
+{
+	@Test
+	public void testValues()
+	{
+		DEPFeatureCache cache = new DEPFeatureCache(3);
+		String[] values = cache.getValues(2, 5);
+		
+		assertEquals(3, values.length);
+		assertSame(values, cache.getValues(2, 5));
+		assertTrue(cache.hasValues(2));
+		assertFalse(cache.hasValues(100));
+		
+		values[1] = "a";
+		cache.initValues(2, 40);
+		assertSame(values, cache.getValues(2, 5));
+		assertSame(cache.getValues(100, 0), cache.getValues(100, 0));
+		
+		cache.clear(2);
+		assertFalse(cache.hasValues(2));
+		assertEquals(null, cache.getValues(2, 5)[1]);
+	}
+	
+	/** Threads growing the memo at the same time must get the same arrays, so no feature put by any thread is lost. */
+	@Test(timeout=60000)
+	public void testConcurrentGrowth() throws Exception
+	{
+		final int threads = 8, fields = 40, parameters = 50;
+		DEPFeatureCache cache = new DEPFeatureCache(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		
+		for (int t=0; t<threads; t++)
+		{
+			final int id = t;
+			
+			futures.add(executor.submit(() ->
+			{
+				start.await();
+				
+				for (int p=0; p<parameters; p++)
+				{
+					for (int f=0; f<fields; f++)
+					{
+						cache.getValues  (f, p)[id] = "v";
+						cache.getFeatures(f, p)[id] = DEPFeatureCache.NULL_FEATURES;
+					}
+				}
+				
+				return null;
+			}));
+		}
+		
+		start.countDown();
+		
+		try
+		{
+			for (Future<?> future : futures) future.get();
+		}
+		finally {executor.shutdownNow();}
+		
+		for (int f=0; f<fields; f++)
+		{
+			for (int p=0; p<parameters; p++)
+			{
+				for (int t=0; t<threads; t++)
+				{
+					assertEquals("v", cache.getValues(f, p)[t]);
+					assertSame(DEPFeatureCache.NULL_FEATURES, cache.getFeatures(f, p)[t]);
+				}
+			}
+		}
+	}
+}
@@ -20,11 +20,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.FileInputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
 import org.junit.Test;
 
+import edu.emory.clir.clearnlp.collection.pair.Pair;
 import edu.emory.clir.clearnlp.reader.TSVReader;
 import edu.emory.clir.clearnlp.util.DSUtils;
 import edu.emory.clir.clearnlp.util.PatternUtils;
@@ -206,6 +208,33 @@ public class DEPNodeTest
 		assertEquals(tree.get(10),node.getRightNearestSibling(1));
 	}
 	
+	@Test
+	public void testArgumentCandidates() throws Exception
+	{
+		TSVReader reader = new TSVReader(0, 1, 2, 3, 4, 5, 6, 7);
+		reader.open(new FileInputStream("src/test/resources/dependency/dependency.cnlp"));
+		DEPTree tree = reader.next();
+		List<Pair<DEPNode,DEPNode>> list;
+		int[] candidates;
+		int i, j;
+		
+		for (i=1; i<tree.size(); i++)
+		{
+			list = tree.get(i).getArgumentCandidateList(3, 2);
+			candidates = tree.get(i).getArgumentCandidates(3, 2);
+			assertEquals(list.size()*2, candidates.length);
+			
+			for (j=0; j<list.size(); j++)
+			{
+				assertEquals(list.get(j).o1.getID(), candidates[j*2]);
+				assertEquals(list.get(j).o2.getID(), candidates[j*2+1]);
+			}
+		}
+		
+		candidates = tree.get(8).getArgumentCandidates(1, 1);
+		assertEquals("[7, 8, 9, 8, 5, 5, 4, 5]", Arrays.toString(candidates));
+	}
+	
 	@Test
 	public void testSetters()
 	{
@@ -23,10 +23,12 @@ import java.util.List;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import edu.emory.clir.clearnlp.feature.type.FieldType;
 import edu.emory.clir.clearnlp.reader.TSVReader;
 import edu.emory.clir.clearnlp.srl.SRLTree;
 import edu.emory.clir.clearnlp.util.DSUtils;
 import edu.emory.clir.clearnlp.util.Joiner;
+import edu.emory.clir.clearnlp.util.arc.DEPArc;
 import edu.emory.clir.clearnlp.util.arc.SRLArc;
 
 
@@ -65,6 +67,72 @@ public class DEPTreeTest
 		assertEquals(4, tree.size());
 	}
 	
+	@Test
+	public void testPath() throws Exception
+	{
+		TSVReader reader = new TSVReader(0, 1, 2, 3, 4, 5, 6, 7);
+		reader.open(new FileInputStream("src/test/resources/dependency/dependency.cnlp"));
+		DEPTree tree = reader.next();
+		FieldType[] fields = {FieldType.f, FieldType.p, FieldType.d, FieldType.t};
+		DEPNode node, argument, lca;
+		int i, j, k;
+		
+		for (k=0; k<2; k++)	// memoized in the second round
+		{
+			for (i=1; i<tree.size(); i++)
+			{
+				node = tree.get(i);
+				
+				for (j=1; j<tree.size(); j++)
+				{
+					argument = tree.get(j);
+					if (i == j || (lca = node.getLowestCommonAncestor(argument)) == null) continue;
+					
+					for (FieldType field : fields)
+						assertEquals(node.getPath(argument, lca, field), tree.getPath(node, argument, lca, field));
+				}
+			}
+		}
+		
+		assertEquals("^VBZ^NN|DT", tree.getPath(tree.get(8), tree.get(4), tree.get(5), FieldType.p));
+		assertEquals("^rcmod|det", tree.getPath(tree.get(8), tree.get(4), tree.get(5), FieldType.d));
+		
+		// the memo is discarded when the dependencies change
+		assertEquals("^rcmod^dobj|nsubj", tree.getPath(tree.get(8), tree.get(1), tree.get(3), FieldType.d));
+		DEPArc[] heads = tree.getHeads();
+		heads[8] = new DEPArc(tree.get(6), "rcmod");
+		tree.setHeads(heads);
+		assertEquals("^rcmod^npadvmod|nsubj", tree.getPath(tree.get(8), tree.get(1), tree.get(3), FieldType.d));
+	}
+	
+	@Test
+	public void testHeight() throws Exception
+	{
+		TSVReader reader = new TSVReader(0, 1, 2, 3, 4, 5, 6, 7);
+		reader.open(new FileInputStream("src/test/resources/dependency/dependency.cnlp"));
+		DEPTree tree = reader.next();
+		int i, depth, height = 0;
+		DEPNode node;
+		
+		for (i=0; i<tree.size(); i++)
+		{
+			for (node = tree.get(i), depth = 0; node.hasHead(); node = node.getHead()) depth++;
+			height = Math.max(height, depth);
+		}
+		
+		assertEquals(height, tree.getHeight());
+		
+		// a chain and a cycle
+		tree = new DEPTree(DSUtils.toArrayList(new DEPNode(1, "A"), new DEPNode(2, "B"), new DEPNode(3, "C")));
+		tree.get(1).setHead(tree.get(0));
+		tree.get(2).setHead(tree.get(1));
+		tree.get(3).setHead(tree.get(2));
+		assertEquals(3, tree.getHeight());
+		
+		tree.get(1).setHead(tree.get(3));
+		assertEquals(2, tree.getHeight());
+	}
+	
 	@Test
 	@Ignore
 	public void test() throws Exception
@@ -17,8 +17,18 @@ package edu.emory.clir.clearnlp.tokenization;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+
 import org.junit.Test;
 
+import edu.emory.clir.clearnlp.dependency.DEPTree;
+import edu.emory.clir.clearnlp.util.IOUtils;
+
 /**
  * @since 3.0.0
  * @author Jinho D. Choi ({@code jinho.choi@emory.edu})
@@ -40,6 +50,132 @@ public class EnglishTokenizerTest
 		assertEquals(r, t.tokenize(s).toString());
 	}
 	
+	@Test
+	public void testSpans()
+	{
+		AbstractTokenizer t = new EnglishTokenizer();
+		String s = " He said ( a ) and (b).\r\nNo. 5 is here.\r\"Hi!\" she said:-)";
+		List<TokenSpan> spans;
+		
+		spans = t.tokenizeSpans(s);
+		assertEquals(t.tokenize(s).toString(), spans.toString());
+		assertEquals("1:3 4:8 9:14 15:18 19:22 22:23 25:28 29:30 31:33 34:38 38:39 40:41 41:43 43:44 44:45 46:49 50:54 54:57", toOffsets(spans));
+		
+		List<List<TokenSpan>> sentences = t.segmentizeSpans(s);
+		assertEquals(t.segmentize(IOUtils.createByteArrayInputStream(s)).toString(), sentences.toString());
+		assertEquals(25, sentences.get(1).get(0).getBeginOffset());
+		assertEquals("(a)", sentences.get(0).get(2).toString());
+		assertEquals(" a ", s.substring(10, 13));
+	}
+	
+	@Test
+	public void testUnalignedSpans()
+	{
+		AbstractTokenizer t = new EnglishTokenizer()
+		{
+			@Override
+			protected boolean tokenizeWordsMore(List<String> tokens, String original, String lower, char[] lcs)
+			{
+				if (!lower.equals("colour")) return super.tokenizeWordsMore(tokens, original, lower, lcs);
+				tokens.add("color");
+				return true;
+			}
+		};
+		
+		String s = "The colour. Red colour is here";
+		List<TokenSpan> spans = t.tokenizeSpans(s);
+		
+		assertEquals("[The, color, ., Red, color, is, here]", spans.toString());
+		assertEquals("0:3 -1:-1 -1:-1 12:15 -1:-1 23:25 26:30", toOffsets(spans));
+		assertEquals(false, spans.get(1).hasOffsets());
+		assertEquals(true, spans.get(3).hasOffsets());
+		
+		DEPTree tree = new DEPTree(spans);
+		assertEquals(false, tree.get(2).hasOffsets());
+		assertEquals(true, tree.get(4).hasOffsets());
+	}
+	
+	@Test
+	public void testSegmentizeStream()
+	{
+		AbstractTokenizer t = new EnglishTokenizer();
+		String s = "He said (\"Hi.\")\r\nThen\rhe left. \n\nDone";
+		Iterator<List<TokenSpan>> it = t.segmentizeSpans(new StringReader(s));
+		List<TokenSpan> sentence;
+		
+		sentence = it.next();
+		assertEquals("[He, said, (, \", Hi, ., \", )]", sentence.toString());
+		assertEquals("0:2 3:7 8:9 9:10 10:12 12:13 13:14 14:15", toOffsets(sentence));
+		
+		sentence = it.next();
+		assertEquals("[Then, he, left, .]", sentence.toString());
+		assertEquals("17:21 22:24 25:29 29:30", toOffsets(sentence));
+		assertEquals("left", sentence.get(2).subSequence(0, 4).toString());
+		
+		sentence = it.next();
+		assertEquals("[Done]", sentence.toString());
+		assertEquals(false, it.hasNext());
+		assertEquals(t.segmentize(IOUtils.createByteArrayInputStream(s)).toString(), t.segmentizeSpans(s).toString());
+	}
+	
+	@Test
+	public void testLongLine() throws Exception
+	{
+		AbstractTokenizer t = new EnglishTokenizer();
+		AbstractTokenizer.LineSpanReader reader = t.new LineSpanReader(new StringReader("aaa bbb ccc ddddddddddd e\r\nf"), 8);
+		List<TokenSpan> spans;
+		
+		spans = reader.next();
+		assertEquals("[aaa, bbb]", spans.toString());
+		assertEquals("0:3 4:7", toOffsets(spans));
+		
+		spans = reader.next();
+		assertEquals("[ccc]", spans.toString());
+		assertEquals("8:11", toOffsets(spans));
+		
+		// no white space within the chunk, so the token is split
+		spans = reader.next();
+		assertEquals("[ddddddd]", spans.toString());
+		assertEquals("12:19", toOffsets(spans));
+		
+		spans = reader.next();
+		assertEquals("[dddd, e]", spans.toString());
+		assertEquals("19:23 24:25", toOffsets(spans));
+		
+		spans = reader.next();
+		assertEquals("[f]", spans.toString());
+		assertEquals("27:28", toOffsets(spans));
+		assertEquals(null, reader.next());
+	}
+	
+	@Test(expected=UncheckedIOException.class)
+	public void testReadError()
+	{
+		Reader in = new Reader()
+		{
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException
+			{
+				throw new IOException("failed");
+			}
+			
+			@Override
+			public void close() {}
+		};
+		
+		new EnglishTokenizer().segmentizeSpans(in).hasNext();
+	}
+	
+	private String toOffsets(List<TokenSpan> spans)
+	{
+		StringBuilder build = new StringBuilder();
+		
+		for (TokenSpan span : spans)
+			build.append(" "+span.getBeginOffset()+":"+span.getEndOffset());
+		
+		return build.substring(1);
+	}
+	
 	@Test
 	public void test()
 	{
@@ -107,5 +107,28 @@ public class DSUtilsTest
 		p = ps.o2;
 		assertEquals(p.i, 2);
 		assertEquals(p.d, 2, 0);
+		
+		int[] top = new int[2];
+		DSUtils.top2(array, null, top);
+		assertEquals(4, top[0]);
+		assertEquals(0, top[1]);
+		
+		DSUtils.top2(array, new int[]{1,2,4}, top);
+		assertEquals(4, top[0]);
+		assertEquals(2, top[1]);
+		
+		DSUtils.top2(new double[]{1, 1, 1}, null, top);
+		assertEquals(0, top[0]);
+		assertEquals(1, top[1]);
+		
+		top = new int[3];
+		assertEquals(3, DSUtils.topK(array, null, top));
+		assertEquals(4, top[0]);
+		assertEquals(0, top[1]);
+		assertEquals(2, top[2]);
+		
+		assertEquals(2, DSUtils.topK(array, new int[]{3,1}, top));
+		assertEquals(1, top[0]);
+		assertEquals(3, top[1]);
 	}
 }
\ No newline at end of file
@@ -43,4 +43,20 @@ public class MathUtilsTest
 			}
 		}
 	}
+	
+	@Test
+	public void testFloat16()
+	{
+		float[] floats = {0f, -0f, 1f, -2.5f, 0.1f, 65504f, 6.1035156E-5f, 5.9604645E-8f, 1e-9f, 1e6f};
+		float[] halves = {0f, -0f, 1f, -2.5f, 0.099975586f, 65504f, 6.1035156E-5f, 5.9604645E-8f, 0f, Float.POSITIVE_INFINITY};
+		int i;
+		
+		for (i=0; i<floats.length; i++)
+			assertEquals(halves[i], MathUtils.toFloat32(MathUtils.toFloat16(floats[i])), 0);
+		
+		for (i=0; i<0x7c00; i++)
+			assertEquals((short)i, MathUtils.toFloat16(MathUtils.toFloat32((short)i)));
+		
+		assertEquals(Float.NaN, MathUtils.toFloat32(MathUtils.toFloat16(Float.NaN)), 0);
+	}
 }
\ No newline at end of file
@@ -81,6 +81,22 @@ public class MetaUtilsTest
 		s = "http://www.clearnlp.com/watch?v=IAaDVOd2sRQ";
 		assertTrue(MetaUtils.containsHyperlink(s));
 	}
+	
+	@Test
+	public void testMayContainHyperlink()
+	{
+		String[] links = {"clearnlp.com", "id@clearnlp.co.kr", "255.248.27.1", "a_b.cd", "(www.clearnlp.com)"};
+		String[] words = {"clearnlp", "http://", "e.", ".com", "3:00", "a._b", "a-.com", "...", ""};
+		
+		for (String s : links)
+			assertTrue(MetaUtils.mayContainHyperlink(s));
+		
+		for (String s : words)
+		{
+			assertFalse(MetaUtils.mayContainHyperlink(s));
+			assertFalse(MetaUtils.containsHyperlink(s));
+		}
+	}
 
 	@Test
 	public void testEndsWithFileExtension()